@@ -0,0 +1,97 @@
+package com.sanskarxrawat.bytevault.benchmark;
+
+import com.sanskarxrawat.bytevault.datastructure.BPlusTree;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Insert and lookup throughput of the paged B+tree behind the default key directory.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class BPlusTreeBenchmark {
+    private static final int INDEX_ENTRY_SIZE = 20;
+
+    @State(Scope.Benchmark)
+    public static class Tree {
+        @Param({"16", "64"})
+        public int keySize;
+
+        @Param({"UNIFORM", "ZIPFIAN"})
+        public KeyDistribution distribution;
+
+        @Param({"1000000"})
+        public int keyCount;
+
+        @Param({"4096"})
+        public int pageSize;
+
+        @Param({"1024", "65536"})
+        public int bufferPoolPages;
+
+        Path indexDirectory;
+        BPlusTree tree;
+        byte[] entry;
+
+        @Setup(Level.Trial)
+        public void open() throws Exception {
+            indexDirectory = Files.createTempDirectory("bytevault-bench-index");
+            tree = new BPlusTree(indexDirectory.resolve("index.db").toFile(), pageSize, bufferPoolPages);
+            entry = BenchmarkData.value(INDEX_ENTRY_SIZE, 42);
+            for (int i = 0; i < keyCount; i++) {
+                tree.put(BenchmarkData.key(i, keySize), entry);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws Exception {
+            tree.close();
+            BenchmarkData.deleteRecursively(indexDirectory);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Keys {
+        KeyGenerator keyGenerator;
+        int keySize;
+
+        @Setup(Level.Trial)
+        public void setUp(Tree tree, ThreadParams threadParams) {
+            keyGenerator = new KeyGenerator(tree.distribution, tree.keyCount, threadParams.getThreadIndex());
+            keySize = tree.keySize;
+        }
+
+        byte[] next() {
+            return BenchmarkData.key(keyGenerator.next(), keySize);
+        }
+    }
+
+    @Benchmark
+    public void insert(Tree tree, Keys keys) throws Exception {
+        tree.tree.put(keys.next(), tree.entry);
+    }
+
+    @Benchmark
+    public byte[] lookup(Tree tree, Keys keys) {
+        return tree.tree.get(keys.next());
+    }
+}
@@ -0,0 +1,47 @@
+package com.sanskarxrawat.bytevault.benchmark;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Key {@code index} zero-padded to {@code keySize} bytes, so every key of a run has the same size.
+     */
+    static byte[] key(int index, int keySize) {
+        byte[] digits = Integer.toString(index).getBytes(StandardCharsets.US_ASCII);
+        byte[] key = new byte[Math.max(keySize, digits.length)];
+        Arrays.fill(key, (byte) '0');
+        System.arraycopy(digits, 0, key, key.length - digits.length, digits.length);
+        return key;
+    }
+
+    static byte[] value(int valueSize, long seed) {
+        byte[] value = new byte[valueSize];
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = 0; i < valueSize; i++) {
+            value[i] = (byte) random.nextInt(256);
+        }
+        return value;
+    }
+
+    static void deleteRecursively(Path directory) throws IOException {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+}
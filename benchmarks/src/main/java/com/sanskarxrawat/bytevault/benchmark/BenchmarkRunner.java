@@ -0,0 +1,45 @@
+package com.sanskarxrawat.bytevault.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+
+/**
+ * Runs the suite once per thread count and writes one JSON result file per run. Thread counts come
+ * from the {@code bytevault.bench.threads} property (default {@code 1,4,16}) and results go to
+ * {@code <bytevault.bench.results>-<threads>t.json}. Other arguments are passed on to JMH, e.g. a
+ * benchmark regex or {@code -p distribution=ZIPFIAN}.
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        String resultPrefix = System.getProperty("bytevault.bench.results", "bytevault-bench");
+        int[] threadCounts = Arrays.stream(System.getProperty("bytevault.bench.threads", "1,4,16").split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+
+        for (int threads : threadCounts) {
+            ChainedOptionsBuilder options = new OptionsBuilder()
+                    .parent(commandLineOptions)
+                    .threads(threads)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(resultPrefix + "-" + threads + "t.json");
+            if (commandLineOptions.getIncludes().isEmpty()) {
+                options.include(BenchmarkRunner.class.getPackageName() + ".*");
+            }
+            if (threads > 1) {
+                // A merge runs on a single thread, concurrent invocations would only merge each other's segments.
+                options.exclude(MergeBenchmark.class.getSimpleName());
+            }
+            new Runner(options.build()).run();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.sanskarxrawat.bytevault.benchmark;
+
+import com.sanskarxrawat.bytevault.log.FileLog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of encoding and decoding a single record.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class FileLogBenchmark {
+
+    @Param({"16", "64"})
+    public int keySize;
+
+    @Param({"128", "4096"})
+    public int valueSize;
+
+    private FileLog fileLog;
+    private byte[] fileLogBytes;
+    private ByteBuffer recordBuffer;
+
+    @Setup
+    public void setUp() {
+        fileLog = new FileLog(System.currentTimeMillis(), BenchmarkData.key(1, keySize), BenchmarkData.value(valueSize, 42));
+        fileLogBytes = fileLog.toBytes();
+        recordBuffer = ByteBuffer.allocate(fileLog.byteSize());
+    }
+
+    @Benchmark
+    public byte[] toBytes() {
+        return fileLog.toBytes();
+    }
+
+    @Benchmark
+    public ByteBuffer writeTo() {
+        recordBuffer.clear();
+        return fileLog.writeTo(recordBuffer);
+    }
+
+    @Benchmark
+    public FileLog valueOf() {
+        return FileLog.valueOf(fileLogBytes);
+    }
+}
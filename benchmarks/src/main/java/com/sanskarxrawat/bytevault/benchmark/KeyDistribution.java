@@ -0,0 +1,12 @@
+package com.sanskarxrawat.bytevault.benchmark;
+
+public enum KeyDistribution {
+    /**
+     * Every key is equally likely.
+     */
+    UNIFORM,
+    /**
+     * A few keys take most of the traffic, with the YCSB skew of 0.99.
+     */
+    ZIPFIAN
+}
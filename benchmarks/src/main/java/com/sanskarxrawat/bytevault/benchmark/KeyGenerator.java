@@ -0,0 +1,51 @@
+package com.sanskarxrawat.bytevault.benchmark;
+
+import java.util.SplittableRandom;
+
+/**
+ * Picks key indexes in {@code [0, keyCount)} following a {@link KeyDistribution}. Zipfian indexes use
+ * the algorithm from Gray et al., "Quickly Generating Billion-Record Synthetic Databases", as in YCSB.
+ * Not thread-safe, each benchmark thread owns one.
+ */
+public class KeyGenerator {
+    private static final double ZIPFIAN_CONSTANT = 0.99;
+
+    private final KeyDistribution distribution;
+    private final int keyCount;
+    private final SplittableRandom random;
+    private final double alpha;
+    private final double zetaN;
+    private final double eta;
+
+    public KeyGenerator(KeyDistribution distribution, int keyCount, long seed) {
+        this.distribution = distribution;
+        this.keyCount = keyCount;
+        this.random = new SplittableRandom(seed);
+        this.alpha = 1.0 / (1.0 - ZIPFIAN_CONSTANT);
+        this.zetaN = zeta(keyCount);
+        this.eta = (1 - Math.pow(2.0 / keyCount, 1 - ZIPFIAN_CONSTANT)) / (1 - zeta(2) / zetaN);
+    }
+
+    public int next() {
+        if (KeyDistribution.UNIFORM.equals(distribution)) {
+            return random.nextInt(keyCount);
+        }
+        double u = random.nextDouble();
+        double uz = u * zetaN;
+        if (uz < 1.0) {
+            return 0;
+        }
+        if (uz < 1.0 + Math.pow(0.5, ZIPFIAN_CONSTANT)) {
+            return 1;
+        }
+        return Math.min(keyCount - 1, (int) (keyCount * Math.pow(eta * u - eta + 1, alpha)));
+    }
+
+    private static double zeta(int n) {
+        double sum = 0;
+        for (int i = 1; i <= n; i++) {
+            sum += 1 / Math.pow(i, ZIPFIAN_CONSTANT);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,93 @@
+package com.sanskarxrawat.bytevault.benchmark;
+
+import com.sanskarxrawat.bytevault.BinaryVault;
+import com.sanskarxrawat.bytevault.config.VaultConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time of one full merge over {@code writes} overwrites of {@code keyCount} keys spread across
+ * segments of {@code fileSizeLimit} bytes. Every invocation merges a freshly written store.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MergeBenchmark {
+
+    @Param({"16"})
+    public int keySize;
+
+    @Param({"128", "4096"})
+    public int valueSize;
+
+    @Param({"UNIFORM", "ZIPFIAN"})
+    public KeyDistribution distribution;
+
+    @Param({"10000"})
+    public int keyCount;
+
+    @Param({"200000"})
+    public int writes;
+
+    @Param({"1048576"})
+    public int fileSizeLimit;
+
+    @Param({"1073741824"})
+    public int mergeBytesPerSecond;
+
+    private Path storageDirectory;
+    private BinaryVault vault;
+
+    @Setup(Level.Invocation)
+    public void writeSegments() throws Exception {
+        storageDirectory = Files.createTempDirectory("bytevault-bench-merge");
+        vault = BinaryVault.open(VaultConfig.builder()
+                .storageDir(storageDirectory.toString())
+                .fileSizeLimit(fileSizeLimit)
+                .mergePeriodMils(Integer.MAX_VALUE)
+                .mergeBytesPerSecond(mergeBytesPerSecond)
+                .build());
+        KeyGenerator keyGenerator = new KeyGenerator(distribution, keyCount, 7);
+        byte[] value = BenchmarkData.value(valueSize, 42);
+        for (int i = 0; i < writes; i++) {
+            vault.set(BenchmarkData.key(keyGenerator.next(), keySize), value);
+        }
+        // Roll the last written segment over so merge sees it as sealed.
+        vault.close();
+        vault = BinaryVault.open(VaultConfig.builder()
+                .storageDir(storageDirectory.toString())
+                .fileSizeLimit(fileSizeLimit)
+                .mergePeriodMils(Integer.MAX_VALUE)
+                .mergeBytesPerSecond(mergeBytesPerSecond)
+                .build());
+    }
+
+    @TearDown(Level.Invocation)
+    public void deleteSegments() throws Exception {
+        vault.close();
+        BenchmarkData.deleteRecursively(storageDirectory);
+    }
+
+    @Benchmark
+    public void merge() throws Exception {
+        vault.merge();
+    }
+}
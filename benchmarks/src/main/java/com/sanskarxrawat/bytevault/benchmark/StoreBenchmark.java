@@ -0,0 +1,149 @@
+package com.sanskarxrawat.bytevault.benchmark;
+
+import com.sanskarxrawat.bytevault.BinaryVault;
+import com.sanskarxrawat.bytevault.config.DurabilityPolicy;
+import com.sanskarxrawat.bytevault.config.KeyDirectoryType;
+import com.sanskarxrawat.bytevault.config.VaultConfig;
+import com.sanskarxrawat.bytevault.exception.storage.InvalidKeyException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the foreground operations against a store preloaded with {@code keyCount} keys.
+ * Thread counts are set with JMH's {@code -t} option or by {@link BenchmarkRunner}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class StoreBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Store {
+        @Param({"16", "64"})
+        public int keySize;
+
+        @Param({"128", "4096"})
+        public int valueSize;
+
+        @Param({"UNIFORM", "ZIPFIAN"})
+        public KeyDistribution distribution;
+
+        @Param({"100000"})
+        public int keyCount;
+
+        @Param({"BTREE"})
+        public KeyDirectoryType keyDirectoryType;
+
+        @Param({"NONE"})
+        public DurabilityPolicy durabilityPolicy;
+
+        Path storageDirectory;
+        BinaryVault vault;
+        byte[] value;
+
+        @Setup(Level.Trial)
+        public void open() throws Exception {
+            storageDirectory = Files.createTempDirectory("bytevault-bench");
+            vault = BinaryVault.open(VaultConfig.builder()
+                    .storageDir(storageDirectory.toString())
+                    .keyDirectoryType(keyDirectoryType)
+                    .durabilityPolicy(durabilityPolicy)
+                    // Merge has its own benchmark, keep it out of the foreground numbers.
+                    .mergePeriodMils(Integer.MAX_VALUE)
+                    .build());
+            value = BenchmarkData.value(valueSize, 42);
+            for (int i = 0; i < keyCount; i++) {
+                vault.set(BenchmarkData.key(i, keySize), value);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws Exception {
+            vault.close();
+            BenchmarkData.deleteRecursively(storageDirectory);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Keys {
+        KeyGenerator keyGenerator;
+        ByteBuffer valueBuffer;
+        int keyCount;
+        int keySize;
+
+        @Setup(Level.Trial)
+        public void setUp(Store store, ThreadParams threadParams) {
+            keyGenerator = new KeyGenerator(store.distribution, store.keyCount, threadParams.getThreadIndex());
+            valueBuffer = ByteBuffer.allocateDirect(store.valueSize);
+            keyCount = store.keyCount;
+            keySize = store.keySize;
+        }
+
+        byte[] existingKey() {
+            return BenchmarkData.key(keyGenerator.next(), keySize);
+        }
+
+        byte[] absentKey() {
+            return BenchmarkData.key(keyCount + keyGenerator.next(), keySize);
+        }
+    }
+
+    @Benchmark
+    public void set(Store store, Keys keys) throws Exception {
+        store.vault.set(keys.existingKey(), store.value);
+    }
+
+    @Benchmark
+    public byte[] getHit(Store store, Keys keys) throws Exception {
+        return store.vault.get(keys.existingKey());
+    }
+
+    @Benchmark
+    public int getHitIntoBuffer(Store store, Keys keys) throws Exception {
+        keys.valueBuffer.clear();
+        return store.vault.get(keys.existingKey(), keys.valueBuffer);
+    }
+
+    @Benchmark
+    public void getMiss(Store store, Keys keys, Blackhole blackhole) throws Exception {
+        try {
+            blackhole.consume(store.vault.get(keys.absentKey()));
+        } catch (InvalidKeyException e) {
+            blackhole.consume(e);
+        }
+    }
+
+    /**
+     * A remove needs a live key, so each invocation writes the tombstone and then restores the key.
+     */
+    @Benchmark
+    public void removeAndRestore(Store store, Keys keys) throws Exception {
+        byte[] key = keys.existingKey();
+        try {
+            store.vault.remove(key);
+        } catch (InvalidKeyException e) {
+            // Another thread removed it first, restoring it below is still one remove's worth of work.
+        }
+        store.vault.set(key, store.value);
+    }
+}
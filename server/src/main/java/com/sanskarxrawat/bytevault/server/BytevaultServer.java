@@ -0,0 +1,94 @@
+package com.sanskarxrawat.bytevault.server;
+
+import com.sanskarxrawat.bytevault.BinaryVault;
+import com.sanskarxrawat.bytevault.Bytevault;
+import com.sanskarxrawat.bytevault.config.VaultConfig;
+import com.sanskarxrawat.bytevault.constant.VaultConstants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serves a {@link Bytevault} over RESP so Redis clients and load tools can drive it. Supports GET,
+ * SET (with EX/PX), DEL, MGET, EXISTS, PING, ECHO and QUIT. Each connection runs on a virtual thread;
+ * pipelined writes are grouped into one batch, see {@link RespConnection}.
+ * <p>
+ * {@link #main} listens on {@code bytevault.server.port} (default 6379) and stores data in
+ * {@code bytevault.server.dir} (default {@value VaultConstants#DEFAULT_STORAGE_DIR}).
+ */
+public class BytevaultServer implements Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BytevaultServer.class);
+    private final BinaryVault binaryVault;
+    private final ServerSocket serverSocket;
+    private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+    private final Thread acceptThread;
+    private volatile boolean closed;
+
+    public BytevaultServer(Bytevault bytevault, int port) throws IOException {
+        this.binaryVault = bytevault.binary();
+        this.serverSocket = new ServerSocket(port);
+        this.acceptThread = Thread.ofPlatform().name("bytevault-server").start(this::accept);
+        LOGGER.info("Serving RESP on port {}", port());
+    }
+
+    public int port() {
+        return serverSocket.getLocalPort();
+    }
+
+    private void accept() {
+        while (!closed) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.add(socket);
+                Thread.ofVirtual().name("bytevault-connection").start(() -> {
+                    try {
+                        new RespConnection(socket, binaryVault).run();
+                    } finally {
+                        connections.remove(socket);
+                    }
+                });
+            } catch (IOException e) {
+                if (!closed) {
+                    LOGGER.warn("Failed to accept a connection", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Stops accepting and drops open connections. The store is left open.
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        serverSocket.close();
+        for (Socket socket : connections) {
+            socket.close();
+        }
+        try {
+            acceptThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = Integer.getInteger("bytevault.server.port", 6379);
+        String storageDir = System.getProperty("bytevault.server.dir", VaultConstants.DEFAULT_STORAGE_DIR);
+        Bytevault bytevault = new Bytevault(VaultConfig.builder().storageDir(storageDir).build());
+        BytevaultServer server = new BytevaultServer(bytevault, port);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try (bytevault) {
+                server.close();
+            } catch (IOException e) {
+                LOGGER.warn("Failed to shut down cleanly", e);
+            }
+        }));
+    }
+}
@@ -0,0 +1,334 @@
+package com.sanskarxrawat.bytevault.server;
+
+import com.sanskarxrawat.bytevault.BinaryVault;
+import com.sanskarxrawat.bytevault.WriteBatch;
+import com.sanskarxrawat.bytevault.datastructure.ByteArrayWrapper;
+import com.sanskarxrawat.bytevault.exception.storage.InvalidKeyException;
+import com.sanskarxrawat.bytevault.exception.storage.KeyTooLargeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Serves one client on its own virtual thread. Every command already received when one is read is
+ * taken as pipelined and run before any reply is flushed, so a pipeline costs one flush. A run of
+ * pipelined SET and DEL commands is applied as one {@link WriteBatch}, which is a single log append
+ * and becomes visible at once.
+ */
+final class RespConnection implements Runnable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RespConnection.class);
+    private static final int MAX_PIPELINED_COMMANDS = 1024;
+    private static final int SOCKET_BUFFER_SIZE = 64 * 1024;
+    private final Socket socket;
+    private final BinaryVault binaryVault;
+
+    RespConnection(Socket socket, BinaryVault binaryVault) {
+        this.socket = socket;
+        this.binaryVault = binaryVault;
+    }
+
+    @Override
+    public void run() {
+        try (socket) {
+            socket.setTcpNoDelay(true);
+            RespReader reader = new RespReader(new BufferedInputStream(socket.getInputStream(), SOCKET_BUFFER_SIZE));
+            RespWriter writer = new RespWriter(new BufferedOutputStream(socket.getOutputStream(), SOCKET_BUFFER_SIZE));
+            List<List<byte[]>> pipeline = new ArrayList<>();
+            boolean open = true;
+            while (open) {
+                try {
+                    List<byte[]> command = reader.readCommand();
+                    if (command == null) {
+                        return;
+                    }
+                    pipeline.add(command);
+                    while (pipeline.size() < MAX_PIPELINED_COMMANDS && reader.hasBuffered()) {
+                        pipeline.add(reader.readCommand());
+                    }
+                } catch (RespProtocolException e) {
+                    // Answer what was read before the bad command, then give up on the stream.
+                    execute(pipeline, writer);
+                    writer.error("ERR Protocol error: " + e.getMessage());
+                    writer.flush();
+                    return;
+                }
+                open = execute(pipeline, writer);
+                pipeline.clear();
+                writer.flush();
+            }
+        } catch (IOException e) {
+            LOGGER.debug("Connection from {} closed", socket.getRemoteSocketAddress(), e);
+        } catch (RuntimeException e) {
+            LOGGER.warn("Dropping connection from {}", socket.getRemoteSocketAddress(), e);
+        }
+    }
+
+    /**
+     * Runs the pipeline in order and returns false once the client asked to quit.
+     */
+    private boolean execute(List<List<byte[]>> pipeline, RespWriter writer) throws IOException {
+        int next = 0;
+        while (next < pipeline.size()) {
+            if (isWrite(pipeline.get(next))) {
+                int end = next;
+                while (end < pipeline.size() && isWrite(pipeline.get(end))) {
+                    end++;
+                }
+                applyWrites(pipeline.subList(next, end), writer);
+                next = end;
+            } else if (!executeRead(pipeline.get(next++), writer)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isWrite(List<byte[]> command) {
+        if (command.isEmpty()) {
+            return false;
+        }
+        String name = name(command);
+        return name.equals("SET") || name.equals("DEL");
+    }
+
+    /**
+     * Applies a run of writes with one batch. DEL counts what existed before the run, overridden by
+     * the run's own earlier commands; keys it found absent are not written at all. A key too large
+     * for the store rejects the whole batch, so the run is then applied one command at a time and
+     * only the command with that key fails.
+     */
+    private void applyWrites(List<List<byte[]>> commands, RespWriter writer) throws IOException {
+        Set<ByteArrayWrapper> deletedKeys = new HashSet<>();
+        for (List<byte[]> command : commands) {
+            if (name(command).equals("DEL")) {
+                command.subList(1, command.size()).forEach(key -> deletedKeys.add(new ByteArrayWrapper(key)));
+            }
+        }
+        Map<ByteArrayWrapper, byte[]> existing = new HashMap<>();
+        try {
+            if (!deletedKeys.isEmpty()) {
+                for (Map.Entry<byte[], byte[]> entry : binaryVault.multiGet(deletedKeys.stream().map(ByteArrayWrapper::array).toList())) {
+                    existing.put(new ByteArrayWrapper(entry.getKey()), entry.getValue());
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Failed to read keys to delete", e);
+            for (int i = 0; i < commands.size(); i++) {
+                writer.error("ERR " + e.getMessage());
+            }
+            return;
+        }
+
+        Map<ByteArrayWrapper, Boolean> written = new HashMap<>();
+        WriteBatch writeBatch = new WriteBatch();
+        List<Reply> replies = new ArrayList<>(commands.size());
+        for (List<byte[]> command : commands) {
+            if (name(command).equals("SET")) {
+                replies.add(set(command, writeBatch, written));
+            } else if (command.size() < 2) {
+                replies.add(wrongArguments(command));
+            } else {
+                long deleted = 0;
+                for (byte[] key : command.subList(1, command.size())) {
+                    ByteArrayWrapper wrapper = new ByteArrayWrapper(key);
+                    if (written.getOrDefault(wrapper, existing.containsKey(wrapper))) {
+                        writeBatch.delete(key);
+                        written.put(wrapper, false);
+                        deleted++;
+                    }
+                }
+                long count = deleted;
+                replies.add(replyWriter -> replyWriter.integer(count));
+            }
+        }
+        try {
+            if (!writeBatch.isEmpty()) {
+                binaryVault.write(writeBatch);
+            }
+        } catch (KeyTooLargeException e) {
+            if (commands.size() == 1) {
+                writer.error("ERR " + e.getMessage());
+            } else {
+                for (List<byte[]> command : commands) {
+                    applyWrites(List.of(command), writer);
+                }
+            }
+            return;
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Failed to write {} pipelined commands", commands.size(), e);
+            replies.replaceAll(reply -> replyWriter -> replyWriter.error("ERR " + e.getMessage()));
+        }
+        for (Reply reply : replies) {
+            reply.writeTo(writer);
+        }
+    }
+
+    /**
+     * SET key value [EX seconds | PX milliseconds].
+     */
+    private static Reply set(List<byte[]> command, WriteBatch writeBatch, Map<ByteArrayWrapper, Boolean> written) {
+        if (command.size() != 3 && command.size() != 5) {
+            return command.size() < 3 ? wrongArguments(command) : syntaxError();
+        }
+        Duration ttl = null;
+        if (command.size() == 5) {
+            String unit = new String(command.get(3), StandardCharsets.US_ASCII).toUpperCase(Locale.ROOT);
+            long amount;
+            try {
+                amount = Long.parseLong(new String(command.get(4), StandardCharsets.US_ASCII));
+            } catch (NumberFormatException e) {
+                return replyWriter -> replyWriter.error("ERR value is not an integer or out of range");
+            }
+            if (amount <= 0) {
+                return invalidExpireTime();
+            }
+            long ttlMils;
+            switch (unit) {
+                case "EX" -> ttlMils = amount > Long.MAX_VALUE / 1000 ? -1 : amount * 1000;
+                case "PX" -> ttlMils = amount;
+                default -> {
+                    return syntaxError();
+                }
+            }
+            // Like Redis, a ttl whose deadline a millisecond timestamp cannot hold is refused.
+            if (ttlMils < 0 || ttlMils > Long.MAX_VALUE - System.currentTimeMillis()) {
+                return invalidExpireTime();
+            }
+            ttl = Duration.ofMillis(ttlMils);
+        }
+        if (ttl == null) {
+            writeBatch.put(command.get(1), command.get(2));
+        } else {
+            writeBatch.put(command.get(1), command.get(2), ttl);
+        }
+        written.put(new ByteArrayWrapper(command.get(1)), true);
+        return replyWriter -> replyWriter.simpleString("OK");
+    }
+
+    /**
+     * Runs a command that is not batched and returns false for QUIT.
+     */
+    private boolean executeRead(List<byte[]> command, RespWriter writer) throws IOException {
+        if (command.isEmpty()) {
+            return true;
+        }
+        try {
+            switch (name(command)) {
+                case "GET" -> {
+                    if (command.size() != 2) {
+                        wrongArguments(command).writeTo(writer);
+                    } else {
+                        writer.bulkString(get(command.get(1)));
+                    }
+                }
+                case "MGET" -> {
+                    if (command.size() < 2) {
+                        wrongArguments(command).writeTo(writer);
+                        return true;
+                    }
+                    List<byte[]> keys = command.subList(1, command.size());
+                    // Entries come back in key order, missing keys left out.
+                    Iterator<Map.Entry<byte[], byte[]>> entries = binaryVault.multiGet(keys).iterator();
+                    Map.Entry<byte[], byte[]> entry = entries.hasNext() ? entries.next() : null;
+                    writer.arrayHeader(keys.size());
+                    for (byte[] key : keys) {
+                        if (entry != null && entry.getKey() == key) {
+                            writer.bulkString(entry.getValue());
+                            entry = entries.hasNext() ? entries.next() : null;
+                        } else {
+                            writer.bulkString(null);
+                        }
+                    }
+                }
+                case "EXISTS" -> {
+                    if (command.size() < 2) {
+                        wrongArguments(command).writeTo(writer);
+                        return true;
+                    }
+                    List<byte[]> keys = command.subList(1, command.size());
+                    writer.integer(binaryVault.multiGet(keys).size());
+                }
+                case "PING" -> {
+                    if (command.size() > 2) {
+                        wrongArguments(command).writeTo(writer);
+                    } else if (command.size() == 2) {
+                        writer.bulkString(command.get(1));
+                    } else {
+                        writer.simpleString("PONG");
+                    }
+                }
+                case "ECHO" -> {
+                    if (command.size() != 2) {
+                        wrongArguments(command).writeTo(writer);
+                    } else {
+                        writer.bulkString(command.get(1));
+                    }
+                }
+                // Clients and load tools ask for these on connect; an empty answer is enough for them.
+                case "COMMAND", "CONFIG" -> writer.arrayHeader(0);
+                case "QUIT" -> {
+                    writer.simpleString("OK");
+                    return false;
+                }
+                default -> writer.error("ERR unknown command '" + new String(command.get(0), StandardCharsets.UTF_8) + "'");
+            }
+        } catch (IOException | RuntimeException e) {
+            if (socket.isClosed()) {
+                throw e;
+            }
+            LOGGER.warn("Failed to run {}", name(command), e);
+            writer.error("ERR " + e.getMessage());
+        }
+        return true;
+    }
+
+    private byte[] get(byte[] key) throws IOException {
+        try {
+            return binaryVault.get(key);
+        } catch (InvalidKeyException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while reading", e);
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause());
+        }
+    }
+
+    private static String name(List<byte[]> command) {
+        return new String(command.get(0), StandardCharsets.US_ASCII).toUpperCase(Locale.ROOT);
+    }
+
+    private static Reply wrongArguments(List<byte[]> command) {
+        String name = new String(command.get(0), StandardCharsets.UTF_8).toLowerCase(Locale.ROOT);
+        return replyWriter -> replyWriter.error("ERR wrong number of arguments for '" + name + "' command");
+    }
+
+    private static Reply invalidExpireTime() {
+        return replyWriter -> replyWriter.error("ERR invalid expire time in 'set' command");
+    }
+
+    private static Reply syntaxError() {
+        return replyWriter -> replyWriter.error("ERR syntax error");
+    }
+
+    @FunctionalInterface
+    private interface Reply {
+        void writeTo(RespWriter writer) throws IOException;
+    }
+}
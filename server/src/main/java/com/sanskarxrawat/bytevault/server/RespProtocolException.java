@@ -0,0 +1,13 @@
+package com.sanskarxrawat.bytevault.server;
+
+import java.io.IOException;
+
+/**
+ * A client sent something that is not RESP. The connection is answered with an error and closed,
+ * since the stream can no longer be framed.
+ */
+public class RespProtocolException extends IOException {
+    public RespProtocolException(String msg) {
+        super(msg);
+    }
+}
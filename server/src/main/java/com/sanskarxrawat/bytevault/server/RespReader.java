@@ -0,0 +1,124 @@
+package com.sanskarxrawat.bytevault.server;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads commands off a connection: RESP arrays of bulk strings as clients send them, and inline
+ * commands, one space-separated line, as typed into a terminal.
+ */
+final class RespReader {
+    private static final int MAX_ARGUMENTS = 1024 * 1024;
+    private static final int MAX_BULK_LENGTH = 512 * 1024 * 1024;
+    private static final int MAX_INLINE_LENGTH = 64 * 1024;
+    private final InputStream input;
+
+    RespReader(InputStream input) {
+        this.input = input;
+    }
+
+    /**
+     * The arguments of the next command, empty for an empty one, or null once the client closed.
+     */
+    List<byte[]> readCommand() throws IOException {
+        int first = input.read();
+        if (first < 0) {
+            return null;
+        }
+        if (first != '*') {
+            return readInline(first);
+        }
+        long count = readNumber();
+        if (count > MAX_ARGUMENTS) {
+            throw new RespProtocolException("invalid multibulk length");
+        }
+        List<byte[]> arguments = new ArrayList<>((int) Math.max(0, count));
+        for (long i = 0; i < count; i++) {
+            if (readByte() != '$') {
+                throw new RespProtocolException("expected '$'");
+            }
+            long length = readNumber();
+            if (length < 0 || length > MAX_BULK_LENGTH) {
+                throw new RespProtocolException("invalid bulk length");
+            }
+            byte[] argument = input.readNBytes((int) length);
+            if (argument.length < length) {
+                throw new EOFException("Client closed in the middle of a bulk string");
+            }
+            readLineEnd();
+            arguments.add(argument);
+        }
+        return arguments;
+    }
+
+    /**
+     * Whether more input is already at hand, so the client pipelined another command.
+     */
+    boolean hasBuffered() throws IOException {
+        return input.available() > 0;
+    }
+
+    private List<byte[]> readInline(int first) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int next = first;
+        while (next != '\n') {
+            if (next < 0) {
+                throw new EOFException("Client closed in the middle of an inline command");
+            }
+            if (next != '\r') {
+                line.append((char) next);
+            }
+            if (line.length() > MAX_INLINE_LENGTH) {
+                throw new RespProtocolException("too big inline request");
+            }
+            next = input.read();
+        }
+        List<byte[]> arguments = new ArrayList<>();
+        for (String argument : line.toString().trim().split(" +")) {
+            if (!argument.isEmpty()) {
+                arguments.add(argument.getBytes(StandardCharsets.ISO_8859_1));
+            }
+        }
+        return arguments;
+    }
+
+    private long readNumber() throws IOException {
+        long number = 0;
+        boolean negative = false;
+        int next = readByte();
+        if (next == '-') {
+            negative = true;
+            next = readByte();
+        }
+        int digits = 0;
+        while (next != '\r') {
+            if (next < '0' || next > '9' || ++digits > 18) {
+                throw new RespProtocolException("invalid length");
+            }
+            number = number * 10 + (next - '0');
+            next = readByte();
+        }
+        if (digits == 0 || readByte() != '\n') {
+            throw new RespProtocolException("invalid length");
+        }
+        return negative ? -number : number;
+    }
+
+    private void readLineEnd() throws IOException {
+        if (readByte() != '\r' || readByte() != '\n') {
+            throw new RespProtocolException("expected CRLF");
+        }
+    }
+
+    private int readByte() throws IOException {
+        int next = input.read();
+        if (next < 0) {
+            throw new EOFException("Client closed in the middle of a command");
+        }
+        return next;
+    }
+}
@@ -0,0 +1,57 @@
+package com.sanskarxrawat.bytevault.server;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes RESP replies into a buffered stream; nothing reaches the client before {@link #flush()}.
+ */
+final class RespWriter {
+    private static final byte[] CRLF = {'\r', '\n'};
+    private static final byte[] NULL_BULK = "$-1\r\n".getBytes(StandardCharsets.US_ASCII);
+    private final OutputStream output;
+
+    RespWriter(OutputStream output) {
+        this.output = output;
+    }
+
+    void simpleString(String value) throws IOException {
+        line('+', value);
+    }
+
+    void error(String message) throws IOException {
+        line('-', message.replace('\r', ' ').replace('\n', ' '));
+    }
+
+    void integer(long value) throws IOException {
+        line(':', Long.toString(value));
+    }
+
+    /**
+     * A bulk string, or the null bulk string for a null value.
+     */
+    void bulkString(byte[] value) throws IOException {
+        if (value == null) {
+            output.write(NULL_BULK);
+            return;
+        }
+        line('$', Integer.toString(value.length));
+        output.write(value);
+        output.write(CRLF);
+    }
+
+    void arrayHeader(int length) throws IOException {
+        line('*', Integer.toString(length));
+    }
+
+    void flush() throws IOException {
+        output.flush();
+    }
+
+    private void line(char type, String value) throws IOException {
+        output.write(type);
+        output.write(value.getBytes(StandardCharsets.UTF_8));
+        output.write(CRLF);
+    }
+}
@@ -0,0 +1,155 @@
+package com.sanskarxrawat.bytevault.server;
+
+import com.sanskarxrawat.bytevault.Bytevault;
+import com.sanskarxrawat.bytevault.config.VaultConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BytevaultServerTests {
+
+    @TempDir
+    Path storageDir;
+
+    private Bytevault bytevault;
+    private BytevaultServer server;
+    private Socket socket;
+    private DataInputStream input;
+
+    @BeforeEach
+    void start() throws IOException {
+        bytevault = new Bytevault(VaultConfig.builder().storageDir(storageDir.toString()).mergePeriodMils(Integer.MAX_VALUE).build());
+        server = new BytevaultServer(bytevault, 0);
+        socket = new Socket("localhost", server.port());
+        input = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+    }
+
+    @AfterEach
+    void stop() throws IOException {
+        try (Bytevault store = bytevault; BytevaultServer resp = server; Socket client = socket) {
+            // Closes all three even if one fails.
+        }
+    }
+
+    @Test
+    void pipelinedWritesAreBatchedInOrder() throws IOException {
+        send(List.of("SET", "a", "1"), List.of("SET", "b", "2"), List.of("DEL", "a", "missing"), List.of("GET", "a"),
+                List.of("GET", "b"), List.of("SET", "a", "3"), List.of("DEL", "a"), List.of("DEL", "a"), List.of("MGET", "a", "b"),
+                List.of("EXISTS", "a", "b"));
+
+        assertEquals("+OK", reply());
+        assertEquals("+OK", reply());
+        assertEquals(":1", reply());
+        assertEquals("(nil)", reply());
+        assertEquals("2", reply());
+        assertEquals("+OK", reply());
+        assertEquals(":1", reply());
+        assertEquals(":0", reply());
+        assertEquals("[(nil), 2]", reply());
+        assertEquals(":1", reply());
+    }
+
+    @Test
+    void badCommandsGetErrorRepliesAndTheConnectionStaysUsable() throws IOException {
+        send(List.of("SET", "k", "v", "EX", "9223372036854775"), List.of("SET", "k", "v", "PX", "9223372036854775807"),
+                List.of("SET", "k", "v", "EX", "0"), List.of("SET", "k", "v", "EX", "soon"), List.of("SET", "k", "v", "KEEP", "1"),
+                List.of("SET", "k"), List.of("FLUSHALL"), List.of("GET", "k"), List.of("PING"));
+
+        assertEquals("-ERR invalid expire time in 'set' command", reply());
+        assertEquals("-ERR invalid expire time in 'set' command", reply());
+        assertEquals("-ERR invalid expire time in 'set' command", reply());
+        assertEquals("-ERR value is not an integer or out of range", reply());
+        assertEquals("-ERR syntax error", reply());
+        assertEquals("-ERR wrong number of arguments for 'set' command", reply());
+        assertEquals("-ERR unknown command 'FLUSHALL'", reply());
+        assertEquals("(nil)", reply());
+        assertEquals("+PONG", reply());
+    }
+
+    @Test
+    void keyTooLargeFailsOnlyItsOwnCommand() throws IOException {
+        char[] overlong = new char[4096];
+        Arrays.fill(overlong, 'k');
+        send(List.of("SET", "before", "1"), List.of("SET", new String(overlong), "2"), List.of("SET", "after", "3"),
+                List.of("MGET", "before", "after"));
+
+        assertEquals("+OK", reply());
+        assertTrue(reply().startsWith("-ERR "));
+        assertEquals("+OK", reply());
+        assertEquals("[1, 3]", reply());
+    }
+
+    @SafeVarargs
+    private void send(List<String>... commands) throws IOException {
+        ByteArrayOutputStream pipeline = new ByteArrayOutputStream();
+        for (List<String> command : commands) {
+            pipeline.write(("*" + command.size() + "\r\n").getBytes(StandardCharsets.UTF_8));
+            for (String argument : command) {
+                byte[] bytes = argument.getBytes(StandardCharsets.UTF_8);
+                pipeline.write(("$" + bytes.length + "\r\n").getBytes(StandardCharsets.UTF_8));
+                pipeline.write(bytes);
+                pipeline.write("\r\n".getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        OutputStream output = socket.getOutputStream();
+        // One write, so the server sees the commands as a single pipeline.
+        output.write(pipeline.toByteArray());
+        output.flush();
+    }
+
+    /**
+     * The next reply, with simple strings, errors and integers kept as sent and bulk strings unwrapped.
+     */
+    private String reply() throws IOException {
+        String line = line();
+        return switch (line.charAt(0)) {
+            case '$' -> {
+                int length = Integer.parseInt(line.substring(1));
+                if (length < 0) {
+                    yield "(nil)";
+                }
+                byte[] value = new byte[length];
+                input.readFully(value);
+                line();
+                yield new String(value, StandardCharsets.UTF_8);
+            }
+            case '*' -> {
+                List<String> elements = new ArrayList<>();
+                for (int i = Integer.parseInt(line.substring(1)); i > 0; i--) {
+                    elements.add(reply());
+                }
+                yield elements.toString();
+            }
+            default -> line;
+        };
+    }
+
+    private String line() throws IOException {
+        StringBuilder line = new StringBuilder();
+        int b;
+        while ((b = input.read()) != '\r') {
+            if (b < 0) {
+                throw new IOException("Server closed the connection");
+            }
+            line.append((char) b);
+        }
+        input.read();
+        return line.toString();
+    }
+}
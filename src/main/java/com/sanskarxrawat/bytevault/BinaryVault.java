@@ -0,0 +1,1471 @@
+package com.sanskarxrawat.bytevault;
+
+
+import com.sanskarxrawat.bytevault.cache.CacheStats;
+import com.sanskarxrawat.bytevault.cache.KeyTemperature;
+import com.sanskarxrawat.bytevault.checkpoint.Checkpoint;
+import com.sanskarxrawat.bytevault.checkpoint.Checkpointer;
+import com.sanskarxrawat.bytevault.compress.Codecs;
+import com.sanskarxrawat.bytevault.config.KeyspaceConfig;
+import com.sanskarxrawat.bytevault.config.VaultConfig;
+import com.sanskarxrawat.bytevault.datastructure.ByteArrayWrapper;
+import com.sanskarxrawat.bytevault.exception.file.FileReadException;
+import com.sanskarxrawat.bytevault.exception.storage.BackpressureException;
+import com.sanskarxrawat.bytevault.exception.storage.InvalidKeyException;
+import com.sanskarxrawat.bytevault.expiry.ExpiringKey;
+import com.sanskarxrawat.bytevault.expiry.ExpiryReaper;
+import com.sanskarxrawat.bytevault.index.IndexEntry;
+import com.sanskarxrawat.bytevault.index.OnDiskIndex;
+import com.sanskarxrawat.bytevault.index.SegmentBloomFilters;
+import com.sanskarxrawat.bytevault.io.CoalescedRead;
+import com.sanskarxrawat.bytevault.io.CoalescedRead.ValueRead;
+import com.sanskarxrawat.bytevault.io.FileIO;
+import com.sanskarxrawat.bytevault.io.LogPosition;
+import com.sanskarxrawat.bytevault.io.SegmentReader;
+import com.sanskarxrawat.bytevault.io.SegmentRecord;
+import com.sanskarxrawat.bytevault.io.VaultIO;
+import com.sanskarxrawat.bytevault.io.WriteResult;
+import com.sanskarxrawat.bytevault.kv.MergedKeyValueStore;
+import com.sanskarxrawat.bytevault.log.FileLog;
+import com.sanskarxrawat.bytevault.log.FileLogConstants;
+import com.sanskarxrawat.bytevault.log.HintLog;
+import com.sanskarxrawat.bytevault.log.LogKeys;
+import com.sanskarxrawat.bytevault.merge.MergeScheduler;
+import com.sanskarxrawat.bytevault.merge.SegmentPins;
+import com.sanskarxrawat.bytevault.merge.SegmentMerger;
+import com.sanskarxrawat.bytevault.metadata.FileMetaData;
+import com.sanskarxrawat.bytevault.replication.ReplicationLog;
+import com.sanskarxrawat.bytevault.replication.ReplicationServer;
+import com.sanskarxrawat.bytevault.stats.LatencyMetric;
+import com.sanskarxrawat.bytevault.stats.VaultMetrics;
+import com.sanskarxrawat.bytevault.stats.VaultStats;
+import com.sanskarxrawat.bytevault.stats.VaultStatsBean;
+import com.sanskarxrawat.bytevault.storage.file.FileManager;
+import com.sanskarxrawat.bytevault.storage.file.SegmentFiles;
+import com.sanskarxrawat.bytevault.storage.file.VaultFile;
+import com.sanskarxrawat.bytevault.utils.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static com.sanskarxrawat.bytevault.constant.VaultConstants.ASYNC_READ_ATTEMPTS;
+import static com.sanskarxrawat.bytevault.constant.VaultConstants.BLOOM_FILTER_BYTES_PER_KEY;
+import static com.sanskarxrawat.bytevault.constant.VaultConstants.CATALOG_KEYSPACE_ID;
+import static com.sanskarxrawat.bytevault.constant.VaultConstants.DEFAULT_KEYSPACE;
+import static com.sanskarxrawat.bytevault.constant.VaultConstants.DEFAULT_MERGE_BUFFER_SIZE;
+import static com.sanskarxrawat.bytevault.constant.VaultConstants.EXPIRY_WHEEL_SIZE;
+import static com.sanskarxrawat.bytevault.constant.VaultConstants.MAX_KEYSPACE_NAME_BYTES;
+import static com.sanskarxrawat.bytevault.constant.VaultConstants.MULTI_GET_MAX_GAP_BYTES;
+import static com.sanskarxrawat.bytevault.constant.VaultConstants.MULTI_GET_MAX_READ_BYTES;
+import static com.sanskarxrawat.bytevault.constant.VaultConstants.SCAN_BATCH_SIZE;
+
+/**
+ * The store itself, keyed and valued by raw bytes. Values can be copied straight into a caller-owned
+ * buffer with {@link #get(byte[], ByteBuffer)}; {@link Bytevault} adapts it to strings. Its own methods
+ * work on the default keyspace, others are opened with {@link #keyspace(String)}.
+ */
+public class BinaryVault implements MergedKeyValueStore<byte[],byte[]>, Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BinaryVault.class);
+    private ExpiryReaper expiryReaper;
+    private final FileIO fileIO;
+    private final Boolean isCacheEnabled;
+    private final String STORAGE_DIRECTORY;
+    // Fair, so a steady stream of readers cannot keep the group-commit thread from applying a batch.
+    private final ReentrantReadWriteLock segmentLock = new ReentrantReadWriteLock(true);
+    private final SegmentMerger segmentMerger;
+    private final MergeScheduler mergeScheduler;
+    private final SegmentBloomFilters segmentBloomFilters;
+    private final ExecutorService readExecutor=Executors.newVirtualThreadPerTaskExecutor();
+    private final VaultMetrics vaultMetrics;
+    private final Semaphore asyncPermits;
+    private final KeyTemperature keyTemperature;
+    private final SegmentPins segmentPins=new SegmentPins();
+    private final KeyspaceCatalog keyspaceCatalog;
+    private final Keyspace defaultKeyspace;
+    private final ReentrantLock keyspaceLock=new ReentrantLock();
+    private final Checkpointer checkpointer;
+    private final ReplicationLog replicationLog;
+    private ReplicationServer replicationServer;
+    private long lastSequence;
+    private VaultStatsBean vaultStatsBean;
+
+    private static final FileManager<?> VAULT_FILE=new VaultFile();
+    public static BinaryVault open(VaultConfig vaultConfig) throws IOException {
+        return open(vaultConfig, new VaultMetrics());
+    }
+
+    /**
+     * Opens a store that records into {@code vaultMetrics}, which may be shared with other stores.
+     * The expiry reaper and the JMX bean are handed the store once it is fully built.
+     */
+    static BinaryVault open(VaultConfig vaultConfig, VaultMetrics vaultMetrics) throws IOException {
+        BinaryVault binaryVault=new BinaryVault(vaultConfig, vaultMetrics);
+        try {
+            if(binaryVault.isCacheEnabled){
+                binaryVault.expiryReaper.start(binaryVault::dropExpired);
+            }
+            if(vaultConfig.isJmxEnabled()){
+                binaryVault.vaultStatsBean=VaultStatsBean.register(binaryVault.STORAGE_DIRECTORY, binaryVault::statsUnchecked);
+            }
+        } catch (RuntimeException e) {
+            binaryVault.close();
+            throw e;
+        }
+        return binaryVault;
+    }
+
+    private BinaryVault(VaultConfig vaultConfig, VaultMetrics vaultMetrics) throws IOException {
+        FileUtils.createFileIfNotExists(vaultConfig.getStorageDir(),Boolean.TRUE);
+        this.isCacheEnabled=vaultConfig.isCacheEnabled();
+        this.STORAGE_DIRECTORY=vaultConfig.getStorageDir();
+        this.vaultMetrics=vaultMetrics;
+        this.asyncPermits=new Semaphore(vaultConfig.getAsyncMaxInFlight());
+        this.keyTemperature=vaultConfig.isTieredMergeEnabled() ? new KeyTemperature(vaultConfig.getCacheSize(), vaultConfig.getHotKeyMinFrequency()) : null;
+        registerCodecs(KeyspaceConfig.of(vaultConfig));
+        registerCodecs(vaultConfig.getKeyspaceDefaults());
+        vaultConfig.getKeyspaceConfigs().values().forEach(BinaryVault::registerCodecs);
+        this.segmentBloomFilters=new SegmentBloomFilters(
+                Math.max(1, vaultConfig.getFileSizeLimit() / BLOOM_FILTER_BYTES_PER_KEY), vaultConfig.getBloomFilterFpp());
+        this.keyspaceCatalog=new KeyspaceCatalog(this, vaultConfig, vaultMetrics);
+        if(this.isCacheEnabled){
+            this.expiryReaper=new ExpiryReaper(vaultConfig.getExpiryTickMils(), EXPIRY_WHEEL_SIZE);
+        }
+        SegmentMerger.recover(STORAGE_DIRECTORY);
+        loadKeyDirectory();
+        this.defaultKeyspace=keyspaceCatalog.open();
+        this.replicationLog=vaultConfig.isReplicationEnabled() ? new ReplicationLog(lastSequence, vaultConfig.getReplicationBacklogBytes()) : null;
+        this.fileIO=new VaultIO(vaultConfig.getStorageDir(), VAULT_FILE, vaultConfig.getFileSizeLimit(),
+                vaultConfig.getDurabilityPolicy(), vaultConfig.getSyncIntervalMils(), segmentBloomFilters, this::applyCommitted, vaultMetrics,
+                lastSequence, replicationLog);
+        this.segmentMerger=new SegmentMerger(STORAGE_DIRECTORY, fileIO, keyspaceCatalog, segmentBloomFilters, segmentLock,
+                vaultConfig.getMergeBufferSize(), vaultConfig.getMergeBytesPerSecond(), vaultConfig.getCompressionThreshold(), vaultMetrics,
+                keyTemperature, segmentPins);
+        this.mergeScheduler=new MergeScheduler(segmentMerger, vaultConfig.getMergePeriodMils());
+        this.checkpointer=new Checkpointer(STORAGE_DIRECTORY, fileIO, segmentLock, segmentPins, segmentMerger);
+        if(vaultConfig.isReplicationEnabled()){
+            this.replicationServer=new ReplicationServer(vaultConfig.getReplicationPort(), replicationLog, checkpointer);
+        }
+    }
+
+    private static void registerCodecs(KeyspaceConfig keyspaceConfig) {
+        Codecs.register(keyspaceConfig.getCompressionCodec());
+        if(Objects.nonNull(keyspaceConfig.getMergeCompressionCodec())){
+            Codecs.register(keyspaceConfig.getMergeCompressionCodec());
+        }
+    }
+
+    /**
+     * Opens the keyspace {@code name}, creating it with one catalog record when it does not exist yet.
+     * {@value com.sanskarxrawat.bytevault.constant.VaultConstants#DEFAULT_KEYSPACE} is the keyspace the
+     * store's own methods use. Settings come from {@link VaultConfig#getKeyspaceConfig}. Needs the index
+     * enabled.
+     */
+    public Keyspace keyspace(String name) throws IOException {
+        checkKeyspaceName(name);
+        Keyspace keyspace=keyspaceCatalog.byName(name);
+        if(Objects.nonNull(keyspace)){
+            return keyspace;
+        }
+        checkKeyspaces();
+        keyspaceLock.lock();
+        try {
+            keyspace=keyspaceCatalog.byName(name);
+            if(Objects.isNull(keyspace)){
+                // The catalog entry is applied on commit, before the write returns.
+                fileIO.write(keyspaceCatalog.createEntry(name));
+                keyspace=keyspaceCatalog.byName(name);
+            }
+            return keyspace;
+        } finally {
+            keyspaceLock.unlock();
+        }
+    }
+
+    /**
+     * Drops the keyspace {@code name} with one catalog record and releases its key directory; its
+     * records are reclaimed by later merges. Dropping a keyspace that does not exist does nothing.
+     */
+    public void dropKeyspace(String name) throws IOException {
+        checkKeyspaceName(name);
+        if(DEFAULT_KEYSPACE.equals(name)){
+            throw new IllegalArgumentException("The default keyspace cannot be dropped");
+        }
+        keyspaceLock.lock();
+        try {
+            Keyspace keyspace=keyspaceCatalog.byName(name);
+            if(Objects.nonNull(keyspace)){
+                fileIO.write(keyspaceCatalog.dropEntry(keyspace));
+            }
+        } finally {
+            keyspaceLock.unlock();
+        }
+    }
+
+    /**
+     * Names of every keyspace of the store, the default one included.
+     */
+    public Set<String> keyspaces() {
+        return keyspaceCatalog.names();
+    }
+
+    private static void checkKeyspaceName(String name) {
+        if(Objects.isNull(name) || name.isEmpty() || name.getBytes(StandardCharsets.UTF_8).length > MAX_KEYSPACE_NAME_BYTES){
+            throw new IllegalArgumentException("Invalid keyspace name: " + name);
+        }
+    }
+
+    private void checkKeyspaces() {
+        // Without an index the catalog is never replayed, so keyspaces would not survive a reopen.
+        if(!isCacheEnabled){
+            throw new UnsupportedOperationException("Keyspaces need the index enabled");
+        }
+    }
+
+    @Override
+    public byte[] get(byte[] key) throws IOException, InterruptedException, ExecutionException {
+        return get(defaultKeyspace, key);
+    }
+
+    byte[] get(Keyspace keyspace, byte[] key) throws IOException, InterruptedException, ExecutionException {
+        long startNanos=System.nanoTime();
+        try {
+            return readValue(keyspace, new ByteArrayWrapper(key));
+        } finally {
+            keyspace.vaultMetrics().record(LatencyMetric.GET, startNanos);
+        }
+    }
+
+    private byte[] readValue(Keyspace keyspace, ByteArrayWrapper byteArrayWrapper) throws IOException, InterruptedException, ExecutionException {
+        FileMetaData fileMetaData;
+        byte[] value;
+        // Held so a concurrent merge cannot drop the segment between the index lookup and the read.
+        segmentLock.readLock().lock();
+        try {
+            fileMetaData=lookup(keyspace, byteArrayWrapper);
+            value=cachedValue(keyspace, byteArrayWrapper, fileMetaData);
+            if(Objects.nonNull(value)){
+                return value;
+            }
+            value=fileIO.read(fileMetaData.getFilePath(), fileMetaData.getValueByteOffset(), fileMetaData.getValueSize()).get();
+        } finally {
+            segmentLock.readLock().unlock();
+        }
+        return liveValue(keyspace, byteArrayWrapper, fileMetaData, value);
+    }
+
+    /**
+     * Turns a value read from its segment into the caller's value: tombstones are unindexed and
+     * reported as deleted, compressed values decoded, and the result cached.
+     */
+    private byte[] liveValue(Keyspace keyspace, ByteArrayWrapper key, FileMetaData fileMetaData, byte[] storedValue) {
+        if (fileMetaData.isTombstone()) {
+            unindex(keyspace, key, fileMetaData);
+            throw new InvalidKeyException(String.format("Key was Deleted, key=%s", new String(key.array(), StandardCharsets.UTF_8)));
+        }
+        byte[] value=decode(keyspace, fileMetaData, storedValue);
+        cacheValue(keyspace, key, fileMetaData, value);
+        return value;
+    }
+
+    /**
+     * Copies the value of {@code key} into {@code dst} at its position and returns the value size.
+     * Throws {@link BufferOverflowException} without touching {@code dst} when it has too little room.
+     * Compressed values are decompressed straight into {@code dst}.
+     */
+    public int get(byte[] key, ByteBuffer dst) throws IOException {
+        return get(defaultKeyspace, key, dst);
+    }
+
+    int get(Keyspace keyspace, byte[] key, ByteBuffer dst) throws IOException {
+        long startNanos=System.nanoTime();
+        try {
+            return readValue(keyspace, new ByteArrayWrapper(key), dst);
+        } finally {
+            keyspace.vaultMetrics().record(LatencyMetric.GET, startNanos);
+        }
+    }
+
+    private int readValue(Keyspace keyspace, ByteArrayWrapper byteArrayWrapper, ByteBuffer dst) throws IOException {
+        int start=dst.position();
+        FileMetaData fileMetaData;
+        segmentLock.readLock().lock();
+        try {
+            fileMetaData=lookup(keyspace, byteArrayWrapper);
+            byte[] value=cachedValue(keyspace, byteArrayWrapper, fileMetaData);
+            if(Objects.nonNull(value)){
+                dst.put(value);
+                return value.length;
+            }
+            if(fileMetaData.getCodecId() != Codecs.NONE.id()){
+                return readEncoded(keyspace, byteArrayWrapper, fileMetaData, dst);
+            }
+            fileIO.read(fileMetaData.getFilePath(), fileMetaData.getValueByteOffset(), fileMetaData.getValueSize(), dst);
+        } finally {
+            segmentLock.readLock().unlock();
+        }
+
+        if (fileMetaData.isTombstone()) {
+            dst.position(start);
+            unindex(keyspace, byteArrayWrapper, fileMetaData);
+            throw new InvalidKeyException(String.format("Key was Deleted, key=%s", new String(byteArrayWrapper.array(), StandardCharsets.UTF_8)));
+        }
+        if(isCacheEnabled){
+            byte[] value=new byte[fileMetaData.getValueSize()];
+            dst.get(start, value);
+            keyspace.valueCache().put(byteArrayWrapper, fileMetaData, value);
+        }
+        return fileMetaData.getValueSize();
+    }
+
+    private int readEncoded(Keyspace keyspace, ByteArrayWrapper key, FileMetaData fileMetaData, ByteBuffer dst) throws IOException {
+        ByteBuffer stored=ByteBuffer.allocate(fileMetaData.getValueSize());
+        fileIO.read(fileMetaData.getFilePath(), fileMetaData.getValueByteOffset(), fileMetaData.getValueSize(), stored);
+        int valueSize=Codecs.decodedSize(fileMetaData.getCodecId(), stored, 0, fileMetaData.getValueSize());
+        if(dst.remaining() < valueSize){
+            throw new BufferOverflowException();
+        }
+        int start=dst.position();
+        long startNanos=System.nanoTime();
+        Codecs.decode(fileMetaData.getCodecId(), stored, 0, fileMetaData.getValueSize(), dst);
+        keyspace.vaultMetrics().record(LatencyMetric.DECODE, startNanos);
+        if(isCacheEnabled){
+            byte[] value=new byte[valueSize];
+            dst.get(start, value);
+            keyspace.valueCache().put(key, fileMetaData, value);
+        }
+        return valueSize;
+    }
+
+    @Override
+    public void set(byte[] key, byte[] value) throws IOException {
+        set(defaultKeyspace, key, value);
+    }
+
+    void set(Keyspace keyspace, byte[] key, byte[] value) throws IOException {
+        append(keyspace, new FileLog(System.currentTimeMillis(), LogKeys.qualify(keyspace.id(), key), value));
+    }
+
+    @Override
+    public void remove(byte[] key) throws IOException {
+        remove(defaultKeyspace, key);
+    }
+
+    void remove(Keyspace keyspace, byte[] key) throws IOException {
+        long startNanos=System.nanoTime();
+        try {
+            ByteArrayWrapper byteArrayWrapper=new ByteArrayWrapper(key);
+            segmentLock.readLock().lock();
+            try {
+                lookup(keyspace, byteArrayWrapper);
+            } finally {
+                segmentLock.readLock().unlock();
+            }
+            fileIO.write(FileLog.tombstone(System.currentTimeMillis(), LogKeys.qualify(keyspace.id(), key)));
+        } finally {
+            keyspace.vaultMetrics().record(LatencyMetric.REMOVE, startNanos);
+        }
+    }
+
+    /**
+     * Sets {@code key} so that it reads as absent once {@code ttl} has passed. Expired keys cost no
+     * reads, are dropped from the key directory without writing a tombstone and are left out of merges.
+     */
+    public void set(byte[] key, byte[] value, Duration ttl) throws IOException {
+        set(defaultKeyspace, key, value, ttl);
+    }
+
+    void set(Keyspace keyspace, byte[] key, byte[] value, Duration ttl) throws IOException {
+        long now=System.currentTimeMillis();
+        append(keyspace, new FileLog(now, LogKeys.qualify(keyspace.id(), key), value, Codecs.NONE.id(), expiresAt(now, ttl)));
+    }
+
+    private void append(Keyspace keyspace, FileLog fileLog) throws IOException {
+        keyspace.checkLive();
+        keyspace.checkKey(fileLog.getKey());
+        long startNanos=System.nanoTime();
+        try {
+            fileIO.write(fileLog.encodeWith(keyspace.compressionCodec(), keyspace.compressionThreshold()));
+        } finally {
+            keyspace.vaultMetrics().record(LatencyMetric.SET, startNanos);
+        }
+    }
+
+    static long expiresAt(long nowMils, Duration ttl) {
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("ttl must be positive: " + ttl);
+        }
+        // A ttl past what a timestamp can hold never runs out.
+        try {
+            return Math.addExact(nowMils, ttl.toMillis());
+        } catch (ArithmeticException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Appends every put and delete of the batch with one write, in order, and makes them visible in
+     * the key directory at once.
+     */
+    public void write(WriteBatch writeBatch) throws IOException {
+        write(writeBatch.fileLogs());
+    }
+
+    void write(List<FileLog> fileLogs) throws IOException {
+        write(defaultKeyspace, fileLogs);
+    }
+
+    void write(Keyspace keyspace, List<FileLog> fileLogs) throws IOException {
+        if (fileLogs.isEmpty()) {
+            return;
+        }
+        keyspace.checkLive();
+        long startNanos=System.nanoTime();
+        List<FileLog> encoded=new ArrayList<>(fileLogs.size());
+        for (FileLog fileLog : fileLogs) {
+            byte[] logKey=LogKeys.qualify(keyspace.id(), fileLog.getKey());
+            // Checked for every record before any is appended, so the batch is rejected whole.
+            keyspace.checkKey(logKey);
+            encoded.add(fileLog.withKey(logKey).encodeWith(keyspace.compressionCodec(), keyspace.compressionThreshold()));
+        }
+        try {
+            fileIO.write(encoded);
+        } finally {
+            keyspace.vaultMetrics().record(LatencyMetric.WRITE_BATCH, startNanos);
+        }
+    }
+
+    /**
+     * Non-blocking {@link #get(byte[])}: the value is read through an asynchronous channel and the
+     * future completes on an I/O thread. Fails with {@link BackpressureException} rather than queueing
+     * once the configured number of async operations is in flight. Without an index, lookups scan
+     * segments and run on a virtual thread instead.
+     */
+    public CompletableFuture<byte[]> getAsync(byte[] key) {
+        return getAsync(defaultKeyspace, key);
+    }
+
+    CompletableFuture<byte[]> getAsync(Keyspace keyspace, byte[] key) {
+        ByteArrayWrapper byteArrayWrapper=new ByteArrayWrapper(key);
+        return async(keyspace, LatencyMetric.GET, () -> isCacheEnabled ? readValueAsync(keyspace, byteArrayWrapper, ASYNC_READ_ATTEMPTS)
+                : supplyBlocking(() -> readValue(keyspace, byteArrayWrapper)));
+    }
+
+    public CompletableFuture<Void> setAsync(byte[] key, byte[] value) {
+        return setAsync(defaultKeyspace, key, value);
+    }
+
+    CompletableFuture<Void> setAsync(Keyspace keyspace, byte[] key, byte[] value) {
+        return appendAsync(keyspace, LatencyMetric.SET, () -> new FileLog(System.currentTimeMillis(), LogKeys.qualify(keyspace.id(), key), value));
+    }
+
+    public CompletableFuture<Void> setAsync(byte[] key, byte[] value, Duration ttl) {
+        return setAsync(defaultKeyspace, key, value, ttl);
+    }
+
+    CompletableFuture<Void> setAsync(Keyspace keyspace, byte[] key, byte[] value, Duration ttl) {
+        return appendAsync(keyspace, LatencyMetric.SET, () -> {
+            long now=System.currentTimeMillis();
+            return new FileLog(now, LogKeys.qualify(keyspace.id(), key), value, Codecs.NONE.id(), expiresAt(now, ttl));
+        });
+    }
+
+    public CompletableFuture<Void> removeAsync(byte[] key) {
+        return removeAsync(defaultKeyspace, key);
+    }
+
+    CompletableFuture<Void> removeAsync(Keyspace keyspace, byte[] key) {
+        ByteArrayWrapper byteArrayWrapper=new ByteArrayWrapper(key);
+        Callable<FileMetaData> lookup=() -> {
+            segmentLock.readLock().lock();
+            try {
+                return lookup(keyspace, byteArrayWrapper);
+            } finally {
+                segmentLock.readLock().unlock();
+            }
+        };
+        return async(keyspace, LatencyMetric.REMOVE, () -> (isCacheEnabled ? supplyNow(lookup) : supplyBlocking(lookup))
+                .thenCompose(fileMetaData -> writeAsync(FileLog.tombstone(System.currentTimeMillis(), LogKeys.qualify(keyspace.id(), key)))));
+    }
+
+    private CompletableFuture<Void> appendAsync(Keyspace keyspace, LatencyMetric metric, Supplier<FileLog> fileLog) {
+        return async(keyspace, metric, () -> {
+            keyspace.checkLive();
+            FileLog appended=fileLog.get();
+            keyspace.checkKey(appended.getKey());
+            return writeAsync(appended.encodeWith(keyspace.compressionCodec(), keyspace.compressionThreshold()));
+        });
+    }
+
+    private CompletableFuture<Void> writeAsync(FileLog fileLog) {
+        try {
+            return fileIO.writeAsync(fileLog).thenApply(writeResult -> null);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Runs an async operation within the in-flight limit; its permit is returned before the caller
+     * sees the result, so a caller chaining operations never trips its own limit.
+     */
+    private <T> CompletableFuture<T> async(Keyspace keyspace, LatencyMetric metric, Supplier<CompletableFuture<T>> operation) {
+        if(!asyncPermits.tryAcquire()){
+            return CompletableFuture.failedFuture(new BackpressureException("Too many async operations in flight on " + STORAGE_DIRECTORY));
+        }
+        long startNanos=System.nanoTime();
+        CompletableFuture<T> result;
+        try {
+            result=operation.get();
+        } catch (RuntimeException e) {
+            result=CompletableFuture.failedFuture(e);
+        }
+        return result.whenComplete((value, failure) -> {
+            asyncPermits.release();
+            keyspace.vaultMetrics().record(metric, startNanos);
+        });
+    }
+
+    /**
+     * Resolves the key and issues the read under the segment read lock, but lets go of it before the
+     * read completes. A merge may then drop the segment: the read either fails on the closed channel
+     * or finishes under a newer merge generation, and the key is resolved again.
+     */
+    private CompletableFuture<byte[]> readValueAsync(Keyspace keyspace, ByteArrayWrapper key, int attempts) {
+        FileMetaData fileMetaData;
+        ByteBuffer stored;
+        long generation;
+        CompletableFuture<Void> read;
+        segmentLock.readLock().lock();
+        try {
+            fileMetaData=lookup(keyspace, key);
+            byte[] value=cachedValue(keyspace, key, fileMetaData);
+            if(Objects.nonNull(value)){
+                return CompletableFuture.completedFuture(value);
+            }
+            generation=segmentMerger.generation();
+            stored=ByteBuffer.allocate(fileMetaData.getValueSize());
+            read=fileIO.readAsync(fileMetaData.getFilePath(), fileMetaData.getValueByteOffset(), fileMetaData.getValueSize(), stored);
+        } catch (IOException | RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        } finally {
+            segmentLock.readLock().unlock();
+        }
+        return read.handle((ignored, failure) -> {
+            if (Objects.isNull(failure) && generation == segmentMerger.generation()) {
+                return CompletableFuture.completedFuture(liveValue(keyspace, key, fileMetaData, stored.array()));
+            }
+            if (Objects.nonNull(failure) && !(unwrap(failure) instanceof ClosedChannelException)) {
+                return CompletableFuture.<byte[]>failedFuture(unwrap(failure));
+            }
+            if (attempts <= 1) {
+                return CompletableFuture.<byte[]>failedFuture(new FileReadException("Segment of key was merged away during every read attempt"));
+            }
+            return readValueAsync(keyspace, key, attempts - 1);
+        }).thenCompose(Function.identity());
+    }
+
+    private static <T> CompletableFuture<T> supplyNow(Callable<T> task) {
+        try {
+            return CompletableFuture.completedFuture(task.call());
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private <T> CompletableFuture<T> supplyBlocking(Callable<T> task) {
+        CompletableFuture<T> result=new CompletableFuture<>();
+        try {
+            readExecutor.execute(() -> {
+                try {
+                    result.complete(task.call());
+                } catch (Exception e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    private static Throwable unwrap(Throwable failure) {
+        return failure instanceof CompletionException && Objects.nonNull(failure.getCause()) ? failure.getCause() : failure;
+    }
+
+    /**
+     * Reads many keys at once and returns an entry per key found, keyed by the array passed in and in
+     * the order of {@code keys}; absent and deleted keys are left out. Every key is resolved first, then
+     * the reads are grouped by segment, sorted by offset and merged into larger reads where values sit
+     * close together. Segments are read in parallel.
+     */
+    public List<Map.Entry<byte[], byte[]>> multiGet(Collection<byte[]> keys) throws IOException {
+        return multiGet(defaultKeyspace, keys);
+    }
+
+    List<Map.Entry<byte[], byte[]>> multiGet(Keyspace keyspace, Collection<byte[]> keys) throws IOException {
+        return inKeyOrder(keys, multiGetValues(keyspace, keys));
+    }
+
+    Map<ByteArrayWrapper, byte[]> multiGetValues(Collection<byte[]> keys) throws IOException {
+        return multiGetValues(defaultKeyspace, keys);
+    }
+
+    /**
+     * The entries of {@code values} for each of {@code keys} that has one, in the order of {@code keys}.
+     */
+    static List<Map.Entry<byte[], byte[]>> inKeyOrder(Collection<byte[]> keys, Map<ByteArrayWrapper, byte[]> values) {
+        List<Map.Entry<byte[], byte[]>> entries=new ArrayList<>(values.size());
+        for (byte[] key : keys) {
+            byte[] value=values.get(new ByteArrayWrapper(key));
+            if(Objects.nonNull(value)){
+                entries.add(Map.entry(key, value));
+            }
+        }
+        return entries;
+    }
+
+    private Map<ByteArrayWrapper, byte[]> multiGetValues(Keyspace keyspace, Collection<byte[]> keys) throws IOException {
+        long startNanos=System.nanoTime();
+        try {
+            return readValues(keyspace, keys);
+        } finally {
+            keyspace.vaultMetrics().record(LatencyMetric.MULTI_GET, startNanos);
+        }
+    }
+
+    private Map<ByteArrayWrapper, byte[]> readValues(Keyspace keyspace, Collection<byte[]> keys) throws IOException {
+        Map<ByteArrayWrapper, byte[]> values=new HashMap<>();
+        List<ValueRead<ByteArrayWrapper>> valueReads=new ArrayList<>();
+        segmentLock.readLock().lock();
+        try {
+            for (byte[] key : keys) {
+                ByteArrayWrapper byteArrayWrapper=new ByteArrayWrapper(key);
+                FileMetaData fileMetaData=locate(keyspace, byteArrayWrapper);
+                if(Objects.isNull(fileMetaData) || values.containsKey(byteArrayWrapper)){
+                    continue;
+                }
+                byte[] value=cachedValue(keyspace, byteArrayWrapper, fileMetaData);
+                if(Objects.nonNull(value)){
+                    values.put(byteArrayWrapper, value);
+                } else {
+                    valueReads.add(new ValueRead<>(byteArrayWrapper, fileMetaData));
+                }
+            }
+            readCoalesced(keyspace, valueReads, values);
+        } finally {
+            segmentLock.readLock().unlock();
+        }
+        return values;
+    }
+
+    /**
+     * Reads the values grouped by segment, merged into larger reads where they sit close together,
+     * with segments read in parallel. Tombstones are not read; they are unindexed on the calling thread
+     * once the reads are done, as the readers must not take the segment lock the caller holds.
+     */
+    private void readCoalesced(Keyspace keyspace, List<ValueRead<ByteArrayWrapper>> valueReads, Map<ByteArrayWrapper, byte[]> values) throws IOException {
+        List<ValueRead<ByteArrayWrapper>> liveReads=new ArrayList<>(valueReads.size());
+        List<ValueRead<ByteArrayWrapper>> tombstones=new ArrayList<>();
+        for (ValueRead<ByteArrayWrapper> valueRead : valueReads) {
+            if (valueRead.fileMetaData().isTombstone()) {
+                tombstones.add(valueRead);
+            } else {
+                liveReads.add(valueRead);
+            }
+        }
+        readLive(keyspace, liveReads, values);
+        for (ValueRead<ByteArrayWrapper> tombstone : tombstones) {
+            unindex(keyspace, tombstone.key(), tombstone.fileMetaData());
+        }
+    }
+
+    private void readLive(Keyspace keyspace, List<ValueRead<ByteArrayWrapper>> valueReads, Map<ByteArrayWrapper, byte[]> values) throws IOException {
+        Collection<List<CoalescedRead<ByteArrayWrapper>>> plan=
+                CoalescedRead.plan(valueReads, MULTI_GET_MAX_GAP_BYTES, MULTI_GET_MAX_READ_BYTES).values();
+        if (plan.size() == 1) {
+            values.putAll(readSegment(keyspace, plan.iterator().next()));
+            return;
+        }
+        try {
+            List<Future<Map<ByteArrayWrapper, byte[]>>> segmentReads=new ArrayList<>();
+            for (List<CoalescedRead<ByteArrayWrapper>> coalescedReads : plan) {
+                segmentReads.add(readExecutor.submit(() -> readSegment(keyspace, coalescedReads)));
+            }
+            for (Future<Map<ByteArrayWrapper, byte[]>> segmentRead : segmentReads) {
+                values.putAll(segmentRead.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while reading segments", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new IOException("Failed to read segments", e.getCause());
+        }
+    }
+
+    /**
+     * Iterates the keys from {@code startKey} (inclusive, the first key when null) to {@code endKey}
+     * (exclusive, no bound when null) in {@link ByteArrayWrapper} order, which compares bytes signed.
+     * Values are fetched a batch of keys at a time, read like {@link #multiGet}. Needs the
+     * {@link com.sanskarxrawat.bytevault.config.KeyDirectoryType#BTREE BTREE} key directory.
+     */
+    public ScanIterator scan(byte[] startKey, byte[] endKey) {
+        return scan(defaultKeyspace, startKey, endKey);
+    }
+
+    ScanIterator scan(Keyspace keyspace, byte[] startKey, byte[] endKey) {
+        checkScannable();
+        return new ScanIterator(this, keyspace, Objects.isNull(startKey) ? null : new ByteArrayWrapper(startKey),
+                Objects.isNull(endKey) ? null : new ByteArrayWrapper(endKey));
+    }
+
+    /**
+     * Iterates every key starting with {@code prefix}, in order.
+     */
+    public ScanIterator prefixScan(byte[] prefix) {
+        return prefixScan(defaultKeyspace, prefix);
+    }
+
+    ScanIterator prefixScan(Keyspace keyspace, byte[] prefix) {
+        checkScannable();
+        return new ScanIterator(this, keyspace, new ByteArrayWrapper(prefix), ScanIterator.prefixEnd(prefix));
+    }
+
+    private void checkScannable() {
+        if(!isCacheEnabled || !defaultKeyspace.onDiskIndex().isOrdered()){
+            throw new UnsupportedOperationException("Scans need the BTREE key directory with the index enabled");
+        }
+    }
+
+    ScanIterator.ScanBatch scanBatch(Keyspace keyspace, ByteArrayWrapper startKey, boolean startExclusive, ByteArrayWrapper endKey) throws IOException {
+        long startNanos=System.nanoTime();
+        segmentLock.readLock().lock();
+        try {
+            keyspace.checkLive();
+            List<IndexEntry> indexEntries=keyspace.onDiskIndex().range(startKey, startExclusive, endKey, SCAN_BATCH_SIZE);
+            Map<ByteArrayWrapper, byte[]> values=new HashMap<>();
+            List<ValueRead<ByteArrayWrapper>> valueReads=new ArrayList<>();
+            for (IndexEntry indexEntry : indexEntries) {
+                FileMetaData fileMetaData=segmentMerger.relocated(keyspace.id(), indexEntry.key(), indexEntry.metaData());
+                if (isExpired(fileMetaData.getExpiresAt())) {
+                    continue;
+                }
+                byte[] value=cachedValue(keyspace, indexEntry.key(), fileMetaData);
+                if(Objects.nonNull(value)){
+                    values.put(indexEntry.key(), value);
+                } else {
+                    valueReads.add(new ValueRead<>(indexEntry.key(), fileMetaData));
+                }
+            }
+            readCoalesced(keyspace, valueReads, values);
+            List<Map.Entry<ByteArrayWrapper, byte[]>> entries=new ArrayList<>(values.size());
+            for (IndexEntry indexEntry : indexEntries) {
+                byte[] value=values.get(indexEntry.key());
+                if(Objects.nonNull(value)){
+                    entries.add(Map.entry(indexEntry.key(), value));
+                }
+            }
+            ByteArrayWrapper lastIndexKey=indexEntries.size() < SCAN_BATCH_SIZE ? null : indexEntries.get(indexEntries.size() - 1).key();
+            return new ScanIterator.ScanBatch(entries, lastIndexKey);
+        } finally {
+            segmentLock.readLock().unlock();
+            keyspace.vaultMetrics().record(LatencyMetric.SCAN, startNanos);
+        }
+    }
+
+    /**
+     * Runs on the read executor while the caller holds the segment read lock, so it takes no lock itself.
+     */
+    private Map<ByteArrayWrapper, byte[]> readSegment(Keyspace keyspace, List<CoalescedRead<ByteArrayWrapper>> coalescedReads) throws IOException {
+        Map<ByteArrayWrapper, byte[]> values=new HashMap<>();
+        for (CoalescedRead<ByteArrayWrapper> coalescedRead : coalescedReads) {
+            ByteBuffer buffer=ByteBuffer.allocate(coalescedRead.length());
+            fileIO.read(coalescedRead.filePath(), coalescedRead.offset(), coalescedRead.length(), buffer);
+            for (ValueRead<ByteArrayWrapper> valueRead : coalescedRead.valueReads()) {
+                FileMetaData fileMetaData=valueRead.fileMetaData();
+                int start=fileMetaData.getValueByteOffset() - coalescedRead.offset();
+                byte[] value=Arrays.copyOfRange(buffer.array(), start, start + fileMetaData.getValueSize());
+                value=decode(keyspace, fileMetaData, value);
+                cacheValue(keyspace, valueRead.key(), fileMetaData, value);
+                values.put(valueRead.key(), value);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Takes a read-only view of the store as it is now, which later writes do not change. The
+     * segments it reads are pinned against merges until it is closed, so close it promptly. It covers
+     * every keyspace of the store.
+     */
+    public Snapshot snapshot() throws IOException {
+        // Merges drop segments under the write lock, so none can go between listing and pinning them.
+        segmentLock.readLock().lock();
+        try {
+            LogPosition logPosition=fileIO.logPosition();
+            File activeFile=new File(logPosition.activeFilePath());
+            // Segments rolled over to since the position was published only hold later records.
+            List<Path> segmentFiles=SegmentFiles.list(STORAGE_DIRECTORY).stream()
+                    .filter(path -> VAULT_FILE.compare(path.toFile(), activeFile, FileManager.SortType.ASC) <= 0)
+                    .toList();
+            segmentPins.pin(segmentFiles);
+            return new Snapshot(this, logPosition, System.currentTimeMillis(), segmentFiles);
+        } finally {
+            segmentLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Backs the store up into {@code targetDir} while it keeps serving: the active file is sealed and
+     * every sealed segment is hard linked there with a manifest. Checkpointing into the same directory
+     * again only links the segments written or merged since. See {@link Checkpointer}.
+     */
+    public Checkpoint checkpoint(Path targetDir) throws IOException {
+        return checkpointer.checkpoint(targetDir);
+    }
+
+    /**
+     * Port followers connect to, see {@link ReplicaVault}.
+     */
+    public int replicationPort() {
+        if(Objects.isNull(replicationServer)){
+            throw new IllegalStateException("Replication is not enabled for " + STORAGE_DIRECTORY);
+        }
+        return replicationServer.port();
+    }
+
+    long lastSequence() {
+        return fileIO.logPosition().lastSequence();
+    }
+
+    /**
+     * Appends records replicated from a primary as one write. They are already encoded and numbered,
+     * and keep their sequence numbers.
+     */
+    void applyReplicated(List<FileLog> fileLogs) throws IOException {
+        long startNanos=System.nanoTime();
+        try {
+            fileIO.write(fileLogs);
+        } finally {
+            vaultMetrics.record(LatencyMetric.WRITE_BATCH, startNanos);
+        }
+    }
+
+    Keyspace defaultKeyspace() {
+        return defaultKeyspace;
+    }
+
+    void release(Snapshot snapshot) {
+        segmentPins.unpin(snapshot.segments());
+    }
+
+    /**
+     * The value of {@code key} as of the snapshot, or null when it was absent, deleted or expired.
+     * The index entry is used while it still points at a record the snapshot covers; once the key was
+     * written, deleted or expired since, or its keyspace dropped, its pinned segments are searched
+     * newest first.
+     */
+    byte[] snapshotGet(Snapshot snapshot, Keyspace keyspace, ByteArrayWrapper key) throws IOException {
+        FileMetaData fileMetaData=null;
+        if(isCacheEnabled){
+            // Held so a concurrent drop of the keyspace cannot release its key directory underneath.
+            segmentLock.readLock().lock();
+            try {
+                fileMetaData=keyspace.isDropped() ? null : indexed(keyspace, key);
+            } finally {
+                segmentLock.readLock().unlock();
+            }
+        }
+        if(Objects.nonNull(fileMetaData) && snapshot.covers(fileMetaData)){
+            byte[] value=keyspace.valueCache().get(key, fileMetaData);
+            if(Objects.nonNull(value)){
+                return FileLog.isExpired(fileMetaData.getExpiresAt(), snapshot.timestamp()) ? null : value;
+            }
+        } else {
+            fileMetaData=searchPinned(snapshot, new ByteArrayWrapper(LogKeys.qualify(keyspace.id(), key.array())));
+        }
+        return Objects.isNull(fileMetaData) ? null : snapshotValue(snapshot, keyspace, fileMetaData);
+    }
+
+    private FileMetaData searchPinned(Snapshot snapshot, ByteArrayWrapper key) throws IOException {
+        List<Path> segments=snapshot.segments();
+        for (int i = segments.size() - 1; i >= 0; i--) {
+            Path segmentPath=segments.get(i);
+            if(!segmentBloomFilters.mightContain(segmentPath.toString(), key.array())){
+                continue;
+            }
+            Map<ByteArrayWrapper, PinnedRecord> latest=new HashMap<>(1);
+            readPinned(snapshot, segmentPath, pinnedRecord -> {
+                if (pinnedRecord.key().equals(key)) {
+                    latest.merge(key, pinnedRecord, PinnedRecord::later);
+                }
+            });
+            if(latest.containsKey(key)){
+                PinnedRecord pinnedRecord=latest.get(key);
+                return pinnedRecord.deleted() ? null : pinnedRecord.metaData();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Where every key of the keyspace has its latest record as of the snapshot, in key order. Reads all
+     * pinned segments, compacted ones through their hint file, and holds one entry per key.
+     */
+    SortedMap<ByteArrayWrapper, FileMetaData> snapshotIndex(Snapshot snapshot, Keyspace keyspace) throws IOException {
+        Map<ByteArrayWrapper, PinnedRecord> latest=new HashMap<>();
+        for (Path segmentPath : snapshot.segments()) {
+            readPinned(snapshot, segmentPath, pinnedRecord -> {
+                if (LogKeys.keyspaceOf(pinnedRecord.key().array()) == keyspace.id()) {
+                    latest.merge(pinnedRecord.key(), pinnedRecord, PinnedRecord::later);
+                }
+            });
+        }
+        SortedMap<ByteArrayWrapper, FileMetaData> snapshotIndex=new TreeMap<>();
+        latest.forEach((logKey, pinnedRecord) -> {
+            if (!pinnedRecord.deleted()) {
+                snapshotIndex.put(new ByteArrayWrapper(LogKeys.keyOf(logKey.array())), pinnedRecord.metaData());
+            }
+        });
+        return snapshotIndex;
+    }
+
+    /**
+     * Reads a value the snapshot covers; null for a tombstone or a value expired as of the snapshot.
+     */
+    byte[] snapshotValue(Snapshot snapshot, Keyspace keyspace, FileMetaData fileMetaData) throws IOException {
+        if(fileMetaData.isTombstone() || FileLog.isExpired(fileMetaData.getExpiresAt(), snapshot.timestamp())){
+            return null;
+        }
+        ByteBuffer stored=ByteBuffer.allocate(fileMetaData.getValueSize());
+        fileIO.read(fileMetaData.getFilePath(), fileMetaData.getValueByteOffset(), fileMetaData.getValueSize(), stored);
+        return decode(keyspace, fileMetaData, stored.array());
+    }
+
+    /**
+     * Hands every record of a pinned segment that the snapshot covers to {@code visitor}, keyed by its
+     * log key.
+     */
+    private void readPinned(Snapshot snapshot, Path segmentPath, Consumer<PinnedRecord> visitor) throws IOException {
+        Path hintFilePath=SegmentFiles.hintFilePath(segmentPath);
+        if(Files.exists(hintFilePath)){
+            try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(hintFilePath)))) {
+                HintLog hintLog;
+                while ((hintLog = HintLog.readFrom(input)) != null) {
+                    if (hintLog.getSequence() <= snapshot.sequence()) {
+                        visitor.accept(new PinnedRecord(new ByteArrayWrapper(hintLog.getKey()), hintLog.getSequence(),
+                                new FileMetaData(segmentPath.toString(), hintLog.getValueByteOffset(), hintLog.getValueSize(),
+                                        hintLog.getTimestamp(), hintLog.getCodecFlags(), hintLog.getExpiresAt()),
+                                FileLog.isExpired(hintLog.getExpiresAt(), snapshot.timestamp())));
+                    }
+                }
+                return;
+            } catch (IOException e) {
+                // Records seen twice resolve by sequence number, so the scan may follow a partial hint read.
+                LOGGER.warn("Unreadable hint file {}, scanning its segment instead", hintFilePath, e);
+            }
+        }
+        // The segment may still be the active file, a record being appended past the snapshot reads as a torn tail.
+        try (SegmentReader segmentReader = new SegmentReader(segmentPath, DEFAULT_MERGE_BUFFER_SIZE)) {
+            SegmentRecord record;
+            while ((record = segmentReader.next()) != null) {
+                FileLog fileLog=record.fileLog();
+                if (fileLog.getSequence() <= snapshot.sequence()) {
+                    visitor.accept(new PinnedRecord(new ByteArrayWrapper(fileLog.getKey()), fileLog.getSequence(),
+                            new FileMetaData(segmentPath.toString(), record.valueByteOffset(), fileLog.getValueSize(), fileLog.getTimestamp(),
+                                    fileLog.getCodecFlags(), fileLog.getExpiresAt()),
+                            fileLog.isTombstone() || fileLog.isExpired(snapshot.timestamp())));
+                }
+            }
+        }
+    }
+
+    private record PinnedRecord(ByteArrayWrapper key, long sequence, FileMetaData metaData, boolean deleted) {
+        private static PinnedRecord later(PinnedRecord first, PinnedRecord second) {
+            return second.sequence > first.sequence ? second : first;
+        }
+    }
+
+    /**
+     * Cache figures of every keyspace added up.
+     */
+    public CacheStats cacheStats() {
+        long hits=0, misses=0, evictions=0;
+        int size=0;
+        for (Keyspace keyspace : keyspaceCatalog.keyspaces()) {
+            CacheStats cacheStats=keyspace.cacheStats();
+            hits+=cacheStats.hits();
+            misses+=cacheStats.misses();
+            evictions+=cacheStats.evictions();
+            size+=cacheStats.size();
+        }
+        return new CacheStats(hits, misses, evictions, size);
+    }
+
+    /**
+     * Latencies per operation and phase, byte counters, segment and live-data figures and cache stats,
+     * over every keyspace. Lists the storage directory, so it is meant for periodic polling rather than
+     * every request.
+     */
+    public VaultStats stats() throws IOException {
+        List<Path> segmentFiles=SegmentFiles.list(STORAGE_DIRECTORY);
+        long liveKeys=0, liveBytes=0;
+        if(isCacheEnabled){
+            for (Keyspace keyspace : keyspaceCatalog.keyspaces()) {
+                liveKeys+=keyspace.onDiskIndex().liveKeys();
+                liveBytes+=keyspace.onDiskIndex().liveBytes();
+            }
+        }
+        return vaultMetrics.snapshot(segmentFiles.size(), SegmentFiles.byteSize(segmentFiles),
+                isCacheEnabled ? liveKeys : -1, isCacheEnabled ? liveBytes : -1, cacheStats());
+    }
+
+    VaultStats stats(Keyspace keyspace) throws IOException {
+        List<Path> segmentFiles=SegmentFiles.list(STORAGE_DIRECTORY);
+        return keyspace.vaultMetrics().snapshot(segmentFiles.size(), SegmentFiles.byteSize(segmentFiles),
+                isCacheEnabled ? keyspace.onDiskIndex().liveKeys() : -1, isCacheEnabled ? keyspace.onDiskIndex().liveBytes() : -1,
+                keyspace.cacheStats());
+    }
+
+    private VaultStats statsUnchecked() {
+        try {
+            return stats();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void merge() throws IOException, ExecutionException, InterruptedException {
+        segmentMerger.merge();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (Objects.nonNull(vaultStatsBean)) {
+            vaultStatsBean.close();
+        }
+        if (Objects.nonNull(replicationServer)) {
+            replicationServer.close();
+        }
+        mergeScheduler.close();
+        if (isCacheEnabled) {
+            expiryReaper.close();
+        }
+        readExecutor.close();
+        fileIO.close();
+        keyspaceCatalog.close();
+    }
+
+    /**
+     * Resolves where the live value of a key is. Keys the store-wide filter rules out are rejected
+     * before touching the index; without an index the segments whose filter might hold the key are
+     * scanned newest first.
+     * Expired keys resolve to nothing, before their value is ever read. Callers hold the segment read lock.
+     */
+    private FileMetaData lookup(Keyspace keyspace, ByteArrayWrapper key) throws IOException {
+        FileMetaData fileMetaData=locate(keyspace, key);
+        if(Objects.isNull(fileMetaData)){
+            throw new InvalidKeyException(String.format("Key is not existed, key=%s", new String(key.array(), StandardCharsets.UTF_8)));
+        }
+        return fileMetaData;
+    }
+
+    private FileMetaData locate(Keyspace keyspace, ByteArrayWrapper key) throws IOException {
+        keyspace.checkLive();
+        long startNanos=System.nanoTime();
+        try {
+            ByteArrayWrapper logKey=new ByteArrayWrapper(LogKeys.qualify(keyspace.id(), key.array()));
+            recordAccess(logKey);
+            if(isCacheEnabled && !segmentBloomFilters.mightBeIndexed(logKey.array())){
+                return null;
+            }
+            FileMetaData fileMetaData=isCacheEnabled ? indexed(keyspace, key) : scanSegments(logKey);
+            return Objects.isNull(fileMetaData) || isExpired(fileMetaData.getExpiresAt()) ? null : fileMetaData;
+        } finally {
+            keyspace.vaultMetrics().record(LatencyMetric.INDEX_LOOKUP, startNanos);
+        }
+    }
+
+    private FileMetaData indexed(Keyspace keyspace, ByteArrayWrapper key) throws IOException {
+        return segmentMerger.relocated(keyspace.id(), key, keyspace.onDiskIndex().get(key));
+    }
+
+    private void recordAccess(ByteArrayWrapper key) {
+        if(Objects.nonNull(keyTemperature)){
+            keyTemperature.record(key);
+        }
+    }
+
+    private static boolean isExpired(long expiresAt) {
+        return expiresAt != FileLogConstants.NEVER_EXPIRES && FileLog.isExpired(expiresAt, System.currentTimeMillis());
+    }
+
+    private FileMetaData scanSegments(ByteArrayWrapper key) throws IOException {
+        List<Path> segmentFiles=SegmentFiles.list(STORAGE_DIRECTORY);
+        for (int i = segmentFiles.size() - 1; i >= 0; i--) {
+            Path segmentPath=segmentFiles.get(i);
+            if(!segmentBloomFilters.mightContain(segmentPath.toString(), key.array())){
+                continue;
+            }
+            SegmentRecord latest=null;
+            try (SegmentReader segmentReader = new SegmentReader(segmentPath, DEFAULT_MERGE_BUFFER_SIZE)) {
+                SegmentRecord record;
+                while ((record = segmentReader.next()) != null) {
+                    if (Arrays.equals(record.fileLog().getKey(), key.array())) {
+                        latest=record;
+                    }
+                }
+                vaultMetrics.bytesRead(segmentReader.validByteLength());
+            }
+            if(Objects.nonNull(latest)){
+                FileLog fileLog=latest.fileLog();
+                return fileLog.isTombstone() ? null
+                        : new FileMetaData(segmentPath.toString(), latest.valueByteOffset(), fileLog.getValueSize(), fileLog.getTimestamp(),
+                        fileLog.getCodecFlags(), fileLog.getExpiresAt());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Runs on the group-commit thread for every appended write, in log order, and hands each record to
+     * the key directory of its keyspace. A multi-record write is applied under the segment write lock so
+     * no reader sees part of it, and so is a catalog entry, which may release a key directory.
+     */
+    private void applyCommitted(List<FileLog> fileLogs, List<WriteResult> writeResults) throws IOException {
+        boolean catalogEntries=false;
+        for (FileLog fileLog : fileLogs) {
+            recordAccess(new ByteArrayWrapper(fileLog.getKey()));
+            catalogEntries|=KeyspaceCatalog.isCatalogEntry(fileLog.getKey());
+        }
+        if(!isCacheEnabled){
+            return;
+        }
+        Lock lock = fileLogs.size() > 1 || catalogEntries ? segmentLock.writeLock() : segmentLock.readLock();
+        lock.lock();
+        try {
+            for (int i = 0; i < fileLogs.size(); i++) {
+                FileLog fileLog=fileLogs.get(i);
+                int keyspaceId=LogKeys.keyspaceOf(fileLog.getKey());
+                if (keyspaceId == CATALOG_KEYSPACE_ID) {
+                    keyspaceCatalog.apply(fileLog);
+                    continue;
+                }
+                Keyspace keyspace=keyspaceCatalog.byId(keyspaceId);
+                // Writes that raced the drop of their keyspace are left for merges to reclaim.
+                if (Objects.isNull(keyspace)) {
+                    continue;
+                }
+                // Only replicated records get here unchecked, they are left unindexed as on replay.
+                if (!keyspace.onDiskIndex().accepts(fileLog.getKey())) {
+                    skipOverlongKey(Path.of(writeResults.get(i).writeFilePath()), fileLog.getKey());
+                    continue;
+                }
+                ByteArrayWrapper key=new ByteArrayWrapper(LogKeys.keyOf(fileLog.getKey()));
+                keyspace.valueCache().invalidate(key);
+                if (fileLog.isTombstone()) {
+                    keyspace.onDiskIndex().delete(key);
+                } else {
+                    WriteResult writeResult=writeResults.get(i);
+                    segmentBloomFilters.addIndexed(fileLog.getKey());
+                    keyspace.onDiskIndex().put(key, new FileMetaData(writeResult.writeFilePath(), writeResult.valueByteOffset(), fileLog.getValueSize(),
+                            fileLog.getTimestamp(), fileLog.getCodecFlags(), fileLog.getExpiresAt()));
+                    scheduleExpiry(fileLog.getKey(), fileLog.getExpiresAt());
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void scheduleExpiry(byte[] logKey, long expiresAt) {
+        if (expiresAt != FileLogConstants.NEVER_EXPIRES) {
+            expiryReaper.schedule(new ByteArrayWrapper(logKey), expiresAt);
+        }
+    }
+
+    /**
+     * Drops the index entries of expired keys in one go. Under the segment write lock, so a key
+     * rewritten since it was scheduled is recognised by its new expiry and kept. Keys are scheduled by
+     * log key, so one reaper serves every keyspace.
+     */
+    private void dropExpired(List<ExpiringKey> expiringKeys) throws IOException {
+        int dropped=0;
+        segmentLock.writeLock().lock();
+        try {
+            for (ExpiringKey expiringKey : expiringKeys) {
+                Keyspace keyspace=keyspaceCatalog.byId(LogKeys.keyspaceOf(expiringKey.key().array()));
+                if (Objects.isNull(keyspace)) {
+                    continue;
+                }
+                ByteArrayWrapper key=new ByteArrayWrapper(LogKeys.keyOf(expiringKey.key().array()));
+                FileMetaData current=keyspace.onDiskIndex().get(key);
+                if (Objects.nonNull(current) && current.getExpiresAt() == expiringKey.expiresAt()) {
+                    unindex(keyspace, key, current);
+                    dropped++;
+                }
+            }
+        } finally {
+            segmentLock.writeLock().unlock();
+        }
+        LOGGER.debug("Dropped {} of {} expired keys", dropped, expiringKeys.size());
+    }
+
+    private byte[] decode(Keyspace keyspace, FileMetaData fileMetaData, byte[] storedValue) {
+        if (fileMetaData.getCodecId() == Codecs.NONE.id()) {
+            return storedValue;
+        }
+        long startNanos=System.nanoTime();
+        byte[] value=Codecs.decode(fileMetaData.getCodecId(), storedValue);
+        keyspace.vaultMetrics().record(LatencyMetric.DECODE, startNanos);
+        return value;
+    }
+
+    /**
+     * Drops the entry of {@code key} while it still points at {@code fileMetaData}. Writes of a single
+     * record are indexed under the segment read lock too, so one committed since the entry was looked
+     * up is kept. Takes the segment read lock, which callers may hold already, so a drop of the keyspace
+     * cannot release its key directory underneath.
+     */
+    private void unindex(Keyspace keyspace, ByteArrayWrapper key, FileMetaData fileMetaData) {
+        if(!isCacheEnabled){
+            return;
+        }
+        segmentLock.readLock().lock();
+        try {
+            if(!keyspace.isDropped() && keyspace.onDiskIndex().delete(key, fileMetaData)){
+                keyspace.valueCache().invalidate(key);
+            }
+        } finally {
+            segmentLock.readLock().unlock();
+        }
+    }
+
+    private byte[] cachedValue(Keyspace keyspace, ByteArrayWrapper key, FileMetaData fileMetaData) {
+        return isCacheEnabled ? keyspace.valueCache().get(key, fileMetaData) : null;
+    }
+
+    private void cacheValue(Keyspace keyspace, ByteArrayWrapper key, FileMetaData fileMetaData, byte[] value) {
+        if(isCacheEnabled){
+            keyspace.valueCache().put(key, fileMetaData, value);
+        }
+    }
+
+    private void loadKeyDirectory() throws IOException {
+        // Segments are replayed oldest first straight into the index, so loading never holds all keys on the heap.
+        // Segments whose bloom filter was persisted are only replayed when there is an index to fill.
+        // A segment without one was never sealed. The newest of them was the active file when the last
+        // process died and is the only place a torn write can sit, so that tail is validated and cut back.
+        // Records of another format version fail the open rather than read as damage.
+        List<Path> segmentFiles = SegmentFiles.list(STORAGE_DIRECTORY);
+        List<Path> skippedSegments = new ArrayList<>();
+        Path newestSegment = segmentFiles.isEmpty() ? null : segmentFiles.get(segmentFiles.size() - 1);
+        for (Path segmentPath : segmentFiles) {
+            boolean rebuildBloomFilter = !segmentBloomFilters.load(segmentPath);
+            if (!isCacheEnabled && !rebuildBloomFilter) {
+                skippedSegments.add(segmentPath);
+                continue;
+            }
+            Path hintFilePath = SegmentFiles.hintFilePath(segmentPath);
+            if (!Files.exists(hintFilePath) || !loadFromHintFile(segmentPath, hintFilePath, rebuildBloomFilter)) {
+                loadFromSegment(segmentPath, rebuildBloomFilter, rebuildBloomFilter && segmentPath.equals(newestSegment));
+            }
+            if (rebuildBloomFilter) {
+                segmentBloomFilters.seal(segmentPath.toString());
+            }
+        }
+        lastSequence = Math.max(lastSequence, lastSequenceOf(skippedSegments));
+        LOGGER.info("Loaded key directory from {} segments in {}", segmentFiles.size(), STORAGE_DIRECTORY);
+    }
+
+    /**
+     * The highest sequence number in segments that were not replayed: every entry of their hint files,
+     * and the newest segment filled by appends, since appends number records in segment order.
+     */
+    private static long lastSequenceOf(List<Path> segmentPaths) throws IOException {
+        long lastSequence = 0;
+        boolean appendedSegmentRead = false;
+        for (int i = segmentPaths.size() - 1; i >= 0; i--) {
+            Path segmentPath = segmentPaths.get(i);
+            Path hintFilePath = SegmentFiles.hintFilePath(segmentPath);
+            if (Files.exists(hintFilePath)) {
+                try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(hintFilePath)))) {
+                    HintLog hintLog;
+                    while ((hintLog = HintLog.readFrom(input)) != null) {
+                        lastSequence = Math.max(lastSequence, hintLog.getSequence());
+                    }
+                    continue;
+                } catch (IOException e) {
+                    discardHintFile(hintFilePath, e);
+                }
+                // Merged segments hold records of any age, so this one is scanned whole.
+                lastSequence = Math.max(lastSequence, lastSequenceOf(segmentPath));
+            } else if (!appendedSegmentRead && Files.size(segmentPath) > 0) {
+                appendedSegmentRead = true;
+                lastSequence = Math.max(lastSequence, lastSequenceOf(segmentPath));
+            }
+        }
+        return lastSequence;
+    }
+
+    private static long lastSequenceOf(Path segmentPath) throws IOException {
+        long lastSequence = 0;
+        try (SegmentReader segmentReader = new SegmentReader(segmentPath, DEFAULT_MERGE_BUFFER_SIZE)) {
+            SegmentRecord record;
+            while ((record = segmentReader.next()) != null) {
+                lastSequence = Math.max(lastSequence, record.fileLog().getSequence());
+            }
+        }
+        return lastSequence;
+    }
+
+    /**
+     * Loads a segment through its hint file. Returns false, with the hint file deleted, when the hint
+     * file fails validation and the segment has to be replayed instead; replaying it over the entries
+     * already loaded from the hint ends in the same state.
+     */
+    private boolean loadFromHintFile(Path segmentPath, Path hintFilePath, boolean rebuildBloomFilter) throws IOException {
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(hintFilePath)))) {
+            HintLog hintLog;
+            while ((hintLog = HintLog.readFrom(input)) != null) {
+                lastSequence = Math.max(lastSequence, hintLog.getSequence());
+                if (rebuildBloomFilter) {
+                    segmentBloomFilters.add(segmentPath.toString(), hintLog.getKey());
+                }
+                if (!isCacheEnabled) {
+                    continue;
+                }
+                if (KeyspaceCatalog.isCatalogEntry(hintLog.getKey())) {
+                    // Hints carry no values, the keyspace name is read from the segment.
+                    keyspaceCatalog.load(hintLog.getKey(), readHinted(segmentPath, hintLog));
+                    continue;
+                }
+                OnDiskIndex onDiskIndex = keyspaceCatalog.loadingIndex(LogKeys.keyspaceOf(hintLog.getKey()));
+                if (!onDiskIndex.accepts(hintLog.getKey())) {
+                    skipOverlongKey(segmentPath, hintLog.getKey());
+                    continue;
+                }
+                ByteArrayWrapper key = new ByteArrayWrapper(LogKeys.keyOf(hintLog.getKey()));
+                if (FileLog.isExpired(hintLog.getExpiresAt(), System.currentTimeMillis())) {
+                    onDiskIndex.delete(key);
+                } else {
+                    segmentBloomFilters.addIndexed(hintLog.getKey());
+                    onDiskIndex.put(key, new FileMetaData(segmentPath.toString(), hintLog.getValueByteOffset(), hintLog.getValueSize(),
+                            hintLog.getTimestamp(), hintLog.getCodecFlags(), hintLog.getExpiresAt()));
+                    scheduleExpiry(hintLog.getKey(), hintLog.getExpiresAt());
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            discardHintFile(hintFilePath, e);
+            return false;
+        }
+    }
+
+    /**
+     * Records appended before keys were checked against the key directory, or under a directory that
+     * takes longer keys, are left unindexed rather than failing the open.
+     */
+    private static void skipOverlongKey(Path segmentPath, byte[] logKey) {
+        LOGGER.warn("Skipping record of a {} byte key in {}, it does not fit the key directory", logKey.length, segmentPath);
+    }
+
+    private static void discardHintFile(Path hintFilePath, IOException cause) throws IOException {
+        LOGGER.warn("Discarding hint file {}, scanning its segment instead", hintFilePath, cause);
+        Files.deleteIfExists(hintFilePath);
+    }
+
+    private static byte[] readHinted(Path segmentPath, HintLog hintLog) throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentPath, StandardOpenOption.READ)) {
+            ByteBuffer stored = ByteBuffer.allocate(hintLog.getValueSize());
+            while (stored.hasRemaining()) {
+                if (channel.read(stored, hintLog.getValueByteOffset() + stored.position()) < 0) {
+                    throw new EOFException("Segment " + segmentPath + " ends before its hinted value");
+                }
+            }
+            return Codecs.decode(hintLog.getCodecId(), stored.array());
+        }
+    }
+
+    /**
+     * Replays every record of a segment. Damage is only cut off the {@code activeTail}, where a write
+     * can have been torn by a crash; in a segment that was sealed it is reported and left in place.
+     */
+    private void loadFromSegment(Path segmentPath, boolean rebuildBloomFilter, boolean activeTail) throws IOException {
+        try (SegmentReader segmentReader = new SegmentReader(segmentPath, DEFAULT_MERGE_BUFFER_SIZE)) {
+            SegmentRecord record;
+            while ((record = segmentReader.next()) != null) {
+                FileLog fileLog = record.fileLog();
+                lastSequence = Math.max(lastSequence, fileLog.getSequence());
+                if (rebuildBloomFilter) {
+                    segmentBloomFilters.add(segmentPath.toString(), fileLog.getKey());
+                }
+                if (!isCacheEnabled) {
+                    continue;
+                }
+                if (KeyspaceCatalog.isCatalogEntry(fileLog.getKey())) {
+                    keyspaceCatalog.load(fileLog.getKey(), fileLog.decodedValue());
+                    continue;
+                }
+                OnDiskIndex onDiskIndex = keyspaceCatalog.loadingIndex(LogKeys.keyspaceOf(fileLog.getKey()));
+                if (!onDiskIndex.accepts(fileLog.getKey())) {
+                    skipOverlongKey(segmentPath, fileLog.getKey());
+                    continue;
+                }
+                ByteArrayWrapper key = new ByteArrayWrapper(LogKeys.keyOf(fileLog.getKey()));
+                if (fileLog.isTombstone() || fileLog.isExpired(System.currentTimeMillis())) {
+                    onDiskIndex.delete(key);
+                } else {
+                    segmentBloomFilters.addIndexed(fileLog.getKey());
+                    onDiskIndex.put(key, new FileMetaData(segmentPath.toString(), record.valueByteOffset(), fileLog.getValueSize(),
+                            fileLog.getTimestamp(), fileLog.getCodecFlags(), fileLog.getExpiresAt()));
+                    scheduleExpiry(fileLog.getKey(), fileLog.getExpiresAt());
+                }
+            }
+            if (segmentReader.isIntact()) {
+                return;
+            }
+            if (activeTail) {
+                truncateSegment(segmentPath, segmentReader.validByteLength());
+            } else {
+                LOGGER.error("Segment {} is corrupt at offset {}, records past it are not loaded", segmentPath, segmentReader.validByteLength());
+            }
+        }
+    }
+
+    private void truncateSegment(Path segmentPath, int validByteLength) throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentPath, StandardOpenOption.WRITE)) {
+            LOGGER.warn("Truncating segment {} from {} to {} bytes after an incomplete write", segmentPath, channel.size(), validByteLength);
+            channel.truncate(validByteLength);
+            channel.force(true);
+        }
+    }
+}
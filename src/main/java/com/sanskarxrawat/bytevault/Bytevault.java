@@ -1,204 +1,135 @@
 package com.sanskarxrawat.bytevault;
 
 
-import com.google.common.primitives.Ints;
+import com.sanskarxrawat.bytevault.checkpoint.Checkpoint;
 import com.sanskarxrawat.bytevault.config.VaultConfig;
 import com.sanskarxrawat.bytevault.datastructure.ByteArrayWrapper;
-import com.sanskarxrawat.bytevault.exception.storage.InvalidKeyException;
-import com.sanskarxrawat.bytevault.index.OnDiskIndex;
-import com.sanskarxrawat.bytevault.io.FileIO;
-import com.sanskarxrawat.bytevault.io.VaultIO;
-import com.sanskarxrawat.bytevault.io.WriteResult;
+import com.sanskarxrawat.bytevault.kv.CloseableIterator;
 import com.sanskarxrawat.bytevault.kv.MergedKeyValueStore;
-import com.sanskarxrawat.bytevault.log.FileLog;
-import com.sanskarxrawat.bytevault.log.FileLogConstants;
-import com.sanskarxrawat.bytevault.metadata.FileMetaData;
-import com.sanskarxrawat.bytevault.storage.file.FileManager;
-import com.sanskarxrawat.bytevault.storage.file.VaultFile;
-import com.sanskarxrawat.bytevault.utils.FileUtils;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
-import java.io.*;
+import com.sanskarxrawat.bytevault.stats.VaultStats;
+
+import java.io.Closeable;
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
-import java.util.*;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
-
-import static com.sanskarxrawat.bytevault.log.FileLogConstants.COMPACT_FILE_SUFFIX;
 
-public class Bytevault implements MergedKeyValueStore<String,String> {
-    private static final Logger LOGGER = LoggerFactory.getLogger(Bytevault.class);
-    private OnDiskIndex onDiskIndex;
-    private final FileIO fileIO;
-    private final Boolean isCacheEnabled;
-    private final String STORAGE_DIRECTORY;
+/**
+ * String view of a {@link BinaryVault}, keys and values are stored as UTF-8.
+ */
+public class Bytevault implements MergedKeyValueStore<String,String>, Closeable {
+    private final BinaryVault binaryVault;
 
-    private static final FileManager<?> VAULT_FILE=new VaultFile();
     public Bytevault(VaultConfig vaultConfig) throws IOException {
-        FileUtils.createFileIfNotExists(vaultConfig.getStorageDir(),Boolean.TRUE);
-        this.isCacheEnabled=vaultConfig.isCacheEnabled();
-        this.STORAGE_DIRECTORY=vaultConfig.getStorageDir();
-        if(this.isCacheEnabled){
-            this.onDiskIndex=new OnDiskIndex(vaultConfig.getStorageDir());
-        }
-        FileManager<?> VAULT_FILE = new VaultFile();
-        this.fileIO=new VaultIO(vaultConfig.getStorageDir(), VAULT_FILE, vaultConfig.getFileSizeLimit());
+        this.binaryVault=BinaryVault.open(vaultConfig);
     }
 
+    public BinaryVault binary() {
+        return binaryVault;
+    }
 
     @Override
     public String get(String key) throws IOException, InterruptedException, ExecutionException {
-        ByteArrayWrapper byteArrayWrapper=new ByteArrayWrapper(key.getBytes());
-        FileMetaData fileMetaData=onDiskIndex.get(byteArrayWrapper);
-
-        if(Objects.isNull(fileMetaData)){
-            throw new InvalidKeyException(String.format("Key is not existed, key=%s", key));
-        }
-
-        String value=fileIO.read(fileMetaData.getFilePath(), fileMetaData.getValueByteOffset(), fileMetaData.getValueSize()).get();
-        if (FileLogConstants.TOMBSTONE.equals(value)) {
-            onDiskIndex.delete(byteArrayWrapper);
-            throw new InvalidKeyException(String.format("Key was Deleted, key=%s", key));
-        }
-        return value;
+        return new String(binaryVault.get(key.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8);
     }
 
     @Override
     public void set(String key, String value) throws IOException {
-        final FileLog fileLog = new FileLog(System.currentTimeMillis(), key.getBytes().length, FileLogConstants.TOMBSTONE.getBytes().length,
-                key, FileLogConstants.TOMBSTONE);
-        WriteResult writeResult=fileIO.write(fileLog);
-        FileMetaData fileMetaData=new FileMetaData(writeResult.writeFilePath(), writeResult.valueByteOffset(), fileLog.getValueSize(), System.currentTimeMillis());
-        ByteArrayWrapper byteArrayWrapper=new ByteArrayWrapper(key.getBytes());
-        if(isCacheEnabled){
-            onDiskIndex.put(byteArrayWrapper,fileMetaData);
-        }
+        binaryVault.set(key.getBytes(StandardCharsets.UTF_8), value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public void set(String key, String value, Duration ttl) throws IOException {
+        binaryVault.set(key.getBytes(StandardCharsets.UTF_8), value.getBytes(StandardCharsets.UTF_8), ttl);
     }
 
     @Override
     public void remove(String key) throws IOException {
-        ByteArrayWrapper byteArrayWrapper=new ByteArrayWrapper(key.getBytes());
-        FileMetaData fileMetaData=onDiskIndex.get(byteArrayWrapper);
+        binaryVault.remove(key.getBytes(StandardCharsets.UTF_8));
+    }
 
-        if(Objects.isNull(fileMetaData)){
-            throw new InvalidKeyException(String.format("Key is not existed, key=%s", key));
-        }
-        final FileLog fileLog = new FileLog(System.currentTimeMillis(), key.getBytes().length, FileLogConstants.TOMBSTONE.getBytes().length,
-                key, FileLogConstants.TOMBSTONE);
-        fileIO.write(fileLog);
-        if(isCacheEnabled){
-            onDiskIndex.delete(byteArrayWrapper);
-        }
+    public CompletableFuture<String> getAsync(String key) {
+        return binaryVault.getAsync(key.getBytes(StandardCharsets.UTF_8)).thenApply(value -> new String(value, StandardCharsets.UTF_8));
     }
 
-    @Override
-    public void merge() throws IOException, ExecutionException, InterruptedException {
-        List<Path> mergeAbleFiles=getMergeAbleFiles();
-        if (mergeAbleFiles.size() <= 1) {
-            return;
-        }
+    public CompletableFuture<Void> setAsync(String key, String value) {
+        return binaryVault.setAsync(key.getBytes(StandardCharsets.UTF_8), value.getBytes(StandardCharsets.UTF_8));
+    }
 
-        Map<ByteArrayWrapper, FileMetaData> mergedIndex = buildMergedIndex(mergeAbleFiles);
-        Path compactedFilePath = createCompactedFile(mergedIndex, mergeAbleFiles.get(mergeAbleFiles.size() - 1));
+    public CompletableFuture<Void> setAsync(String key, String value, Duration ttl) {
+        return binaryVault.setAsync(key.getBytes(StandardCharsets.UTF_8), value.getBytes(StandardCharsets.UTF_8), ttl);
+    }
 
-        updateOnDiskIndex(mergedIndex, compactedFilePath);
-        deleteFiles(mergeAbleFiles);
-        renameCompactedFile(compactedFilePath);
+    public CompletableFuture<Void> removeAsync(String key) {
+        return binaryVault.removeAsync(key.getBytes(StandardCharsets.UTF_8));
     }
 
-    private List<Path> getMergeAbleFiles() throws IOException {
-        try (Stream<Path> files = Files.list(Path.of(STORAGE_DIRECTORY))) {
-            return files
-                    .filter(Files::isRegularFile)
-                    .filter(path -> !path.getFileName().toString().endsWith(COMPACT_FILE_SUFFIX))
-                    .sorted(Comparator.comparingLong(this::getFileLastModifiedTime))
-                    .collect(Collectors.toList());
+    /**
+     * Reads many keys at once, absent and deleted keys are left out of the result.
+     */
+    public Map<String,String> multiGet(Collection<String> keys) throws IOException {
+        List<byte[]> binaryKeys=new ArrayList<>(keys.size());
+        for (String key : keys) {
+            binaryKeys.add(key.getBytes(StandardCharsets.UTF_8));
         }
+        Map<String,String> values=new HashMap<>();
+        for (Map.Entry<byte[], byte[]> entry : binaryVault.multiGet(binaryKeys)) {
+            values.put(new String(entry.getKey(), StandardCharsets.UTF_8), new String(entry.getValue(), StandardCharsets.UTF_8));
+        }
+        return values;
     }
 
-    private Map<ByteArrayWrapper, FileMetaData> buildMergedIndex(List<Path> mergeAbleFiles) throws IOException, InterruptedException, ExecutionException {
-        Map<ByteArrayWrapper, FileMetaData> mergedIndex = new HashMap<>();
-        for (Path filePath : mergeAbleFiles) {
-            byte[] fileBytes = Files.readAllBytes(filePath);
-            int byteCursor = 0;
-            while (byteCursor < fileBytes.length) {
-                int fileLogByteSize = Ints.fromByteArray(fileBytes);
-                byteCursor += 4;
-
-                byte[] fileLogBytes = Arrays.copyOfRange(fileBytes, byteCursor, byteCursor + fileLogByteSize);
-                FileLog fileLog = FileLog.valueOf(fileLogBytes);
+    /**
+     * Iterates the keys from {@code startKey} (inclusive) to {@code endKey} (exclusive) in the order of
+     * their UTF-8 bytes compared signed, which is string order for ASCII keys. Either bound may be null.
+     */
+    public CloseableIterator<Map.Entry<String,String>> scan(String startKey, String endKey) {
+        return binaryVault.scan(Objects.isNull(startKey) ? null : startKey.getBytes(StandardCharsets.UTF_8),
+                Objects.isNull(endKey) ? null : endKey.getBytes(StandardCharsets.UTF_8)).map(Bytevault::toStrings);
+    }
 
-                int valueByteOffset = byteCursor + 16 + fileLog.getKeySize();
-                ByteArrayWrapper key = new ByteArrayWrapper(fileLog.getKey().getBytes());
-                Future<String> valueFuture = fileIO.read(filePath.toString(), valueByteOffset, fileLog.getValueSize());
-                String value = valueFuture.get(); // Blocks until the value is read
+    public CloseableIterator<Map.Entry<String,String>> prefixScan(String prefix) {
+        return binaryVault.prefixScan(prefix.getBytes(StandardCharsets.UTF_8)).map(Bytevault::toStrings);
+    }
 
-                if (!FileLogConstants.TOMBSTONE.equals(value)) {
-                    mergedIndex.put(key, new FileMetaData(filePath.toString(), valueByteOffset, fileLog.getValueSize(), fileLog.getTimestamp()));
-                } else {
-                    mergedIndex.remove(key);
-                }
+    private static Map.Entry<String,String> toStrings(Map.Entry<ByteArrayWrapper, byte[]> entry) {
+        return Map.entry(new String(entry.getKey().array(), StandardCharsets.UTF_8), new String(entry.getValue(), StandardCharsets.UTF_8));
+    }
 
-                byteCursor += fileLogByteSize;
-            }
-        }
-        return mergedIndex;
-    }
-
-    private Path createCompactedFile(Map<ByteArrayWrapper, FileMetaData> mergedIndex, Path lastMergedFile) throws IOException, InterruptedException, ExecutionException {
-        Path compactedFilePath = lastMergedFile.resolveSibling(lastMergedFile.getFileName() + COMPACT_FILE_SUFFIX);
-        Files.createFile(compactedFilePath);
-        for (Map.Entry<ByteArrayWrapper, FileMetaData> entry : mergedIndex.entrySet()) {
-            ByteArrayWrapper key = entry.getKey();
-            FileMetaData metaData = entry.getValue();
-            Future<String> valueFuture = readFromFile(metaData.getFilePath(), metaData.getValueByteOffset(), metaData.getValueSize());
-            String value = valueFuture.get(); // Blocks until the value is read
-
-            FileLog fileLog = new FileLog(metaData.getTimestamp(), key.array().length, metaData.getValueSize(), new String(key.array(), StandardCharsets.UTF_8),value);
-            WriteResult writeResult = fileIO.write(fileLog);
-            FileMetaData updatedMetaData = new FileMetaData(compactedFilePath.toString(), writeResult.valueByteOffset(), metaData.getValueSize(),metaData.getTimestamp());
-            mergedIndex.put(key, updatedMetaData);
-        }
-        return compactedFilePath;
+    public void write(WriteBatch writeBatch) throws IOException {
+        binaryVault.write(writeBatch);
     }
 
-    private void updateOnDiskIndex(Map<ByteArrayWrapper, FileMetaData> mergedIndex, Path compactedFilePath) {
-        for (Map.Entry<ByteArrayWrapper, FileMetaData> entry : mergedIndex.entrySet()) {
-            onDiskIndex.put(entry.getKey(), entry.getValue());
-        }
+    /**
+     * A consistent read-only view of the store, see {@link BinaryVault#snapshot()}. Keys and values of
+     * the snapshot are UTF-8 bytes.
+     */
+    public Snapshot snapshot() throws IOException {
+        return binaryVault.snapshot();
     }
 
-    private void deleteFiles(List<Path> filePaths) throws IOException {
-        for (Path filePath : filePaths) {
-            Files.deleteIfExists(filePath);
-        }
+    public Checkpoint checkpoint(Path targetDir) throws IOException {
+        return binaryVault.checkpoint(targetDir);
     }
 
-    private void renameCompactedFile(Path compactedFilePath) throws IOException {
-        Path targetFilePath = compactedFilePath.resolveSibling(compactedFilePath.getFileName().toString().replace(COMPACT_FILE_SUFFIX, ""));
-        Files.move(compactedFilePath, targetFilePath, StandardCopyOption.REPLACE_EXISTING);
+    public VaultStats stats() throws IOException {
+        return binaryVault.stats();
     }
 
-    private long getFileLastModifiedTime(Path file) {
-        try {
-            return Files.getLastModifiedTime(file).toMillis();
-        } catch (IOException e) {
-            LOGGER.error("Error getting last modified time for file: {}", file, e);
-            return 0;
-        }
+    @Override
+    public void merge() throws IOException, ExecutionException, InterruptedException {
+        binaryVault.merge();
     }
 
-    private Future<String> readFromFile(String filePath, int valueByteOffset, int valueSize) throws IOException {
-        try {
-            return fileIO.read(filePath, valueByteOffset, valueSize);
-        } catch (InterruptedException e) {
-            throw new IOException("Error reading from file: " + filePath, e);
-        }
+    @Override
+    public void close() throws IOException {
+        binaryVault.close();
     }
-}
\ No newline at end of file
+}
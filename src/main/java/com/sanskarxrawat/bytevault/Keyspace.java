@@ -0,0 +1,192 @@
+package com.sanskarxrawat.bytevault;
+
+import com.sanskarxrawat.bytevault.cache.CacheStats;
+import com.sanskarxrawat.bytevault.cache.ValueCache;
+import com.sanskarxrawat.bytevault.compress.Codec;
+import com.sanskarxrawat.bytevault.config.KeyspaceConfig;
+import com.sanskarxrawat.bytevault.exception.storage.KeyTooLargeException;
+import com.sanskarxrawat.bytevault.index.OnDiskIndex;
+import com.sanskarxrawat.bytevault.kv.KeyValueStore;
+import com.sanskarxrawat.bytevault.stats.VaultMetrics;
+import com.sanskarxrawat.bytevault.stats.VaultStats;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static com.sanskarxrawat.bytevault.log.FileLogConstants.KEYSPACE_ID_BYTE_LENGTH;
+
+/**
+ * A named set of keys isolated from the rest of its {@link BinaryVault}, opened with
+ * {@link BinaryVault#keyspace(String)}. Keyspaces share the store's log, group commit, merges and
+ * threads, so each one costs little more than its key directory; it has its own value cache, stats
+ * and merge codec, see {@link KeyspaceConfig}. A {@link WriteBatch} written to one keyspace is atomic
+ * like any other. Operations on a dropped keyspace fail with {@link IllegalStateException}.
+ */
+public class Keyspace implements KeyValueStore<byte[], byte[]> {
+    private final BinaryVault binaryVault;
+    private final int id;
+    private final String name;
+    private final OnDiskIndex onDiskIndex;
+    private final ValueCache valueCache;
+    private final VaultMetrics vaultMetrics;
+    private final Codec compressionCodec;
+    private final int compressionThreshold;
+    private final Codec mergeCodec;
+    private volatile boolean dropped;
+
+    Keyspace(BinaryVault binaryVault, int id, String name, OnDiskIndex onDiskIndex, KeyspaceConfig keyspaceConfig, VaultMetrics storeMetrics) {
+        this.binaryVault = binaryVault;
+        this.id = id;
+        this.name = name;
+        this.onDiskIndex = onDiskIndex;
+        this.valueCache = onDiskIndex == null ? null : new ValueCache(keyspaceConfig.getCacheSize());
+        this.vaultMetrics = new VaultMetrics(storeMetrics);
+        this.compressionCodec = keyspaceConfig.getCompressionCodec();
+        this.compressionThreshold = keyspaceConfig.getCompressionThreshold();
+        this.mergeCodec = keyspaceConfig.getMergeCompressionCodec();
+    }
+
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public byte[] get(byte[] key) throws IOException, InterruptedException, ExecutionException {
+        return binaryVault.get(this, key);
+    }
+
+    /**
+     * Copies the value into {@code dst}, see {@link BinaryVault#get(byte[], ByteBuffer)}.
+     */
+    public int get(byte[] key, ByteBuffer dst) throws IOException {
+        return binaryVault.get(this, key, dst);
+    }
+
+    @Override
+    public void set(byte[] key, byte[] value) throws IOException {
+        binaryVault.set(this, key, value);
+    }
+
+    public void set(byte[] key, byte[] value, Duration ttl) throws IOException {
+        binaryVault.set(this, key, value, ttl);
+    }
+
+    @Override
+    public void remove(byte[] key) throws IOException {
+        binaryVault.remove(this, key);
+    }
+
+    public void write(WriteBatch writeBatch) throws IOException {
+        binaryVault.write(this, writeBatch.fileLogs());
+    }
+
+    public CompletableFuture<byte[]> getAsync(byte[] key) {
+        return binaryVault.getAsync(this, key);
+    }
+
+    public CompletableFuture<Void> setAsync(byte[] key, byte[] value) {
+        return binaryVault.setAsync(this, key, value);
+    }
+
+    public CompletableFuture<Void> setAsync(byte[] key, byte[] value, Duration ttl) {
+        return binaryVault.setAsync(this, key, value, ttl);
+    }
+
+    public CompletableFuture<Void> removeAsync(byte[] key) {
+        return binaryVault.removeAsync(this, key);
+    }
+
+    public List<Map.Entry<byte[], byte[]>> multiGet(Collection<byte[]> keys) throws IOException {
+        return binaryVault.multiGet(this, keys);
+    }
+
+    public ScanIterator scan(byte[] startKey, byte[] endKey) {
+        return binaryVault.scan(this, startKey, endKey);
+    }
+
+    public ScanIterator prefixScan(byte[] prefix) {
+        return binaryVault.prefixScan(this, prefix);
+    }
+
+    /**
+     * Latencies of this keyspace's operations and its live keys and cache. Segment figures and byte
+     * counters are those of the log it shares with the rest of the store.
+     */
+    public VaultStats stats() throws IOException {
+        return binaryVault.stats(this);
+    }
+
+    public CacheStats cacheStats() {
+        return valueCache == null ? new CacheStats(0, 0, 0, 0) : valueCache.stats();
+    }
+
+    int id() {
+        return id;
+    }
+
+    BinaryVault binaryVault() {
+        return binaryVault;
+    }
+
+    OnDiskIndex onDiskIndex() {
+        return onDiskIndex;
+    }
+
+    ValueCache valueCache() {
+        return valueCache;
+    }
+
+    VaultMetrics vaultMetrics() {
+        return vaultMetrics;
+    }
+
+    Codec compressionCodec() {
+        return compressionCodec;
+    }
+
+    int compressionThreshold() {
+        return compressionThreshold;
+    }
+
+    Codec mergeCodec() {
+        return mergeCodec;
+    }
+
+    boolean isDropped() {
+        return dropped;
+    }
+
+    /**
+     * Marks the keyspace dropped and releases its key directory. Called under the segment write lock,
+     * so no reader is using the directory.
+     */
+    void drop() throws IOException {
+        dropped = true;
+        if (onDiskIndex != null) {
+            onDiskIndex.drop();
+        }
+    }
+
+    void checkLive() {
+        if (dropped) {
+            throw new IllegalStateException("Keyspace " + name + " was dropped");
+        }
+    }
+
+    /**
+     * Rejects a record whose key, qualified with the keyspace, would not fit the key directory, before
+     * it reaches the log.
+     */
+    void checkKey(byte[] logKey) {
+        if (onDiskIndex != null && !onDiskIndex.accepts(logKey)) {
+            throw new KeyTooLargeException(String.format("Key of %d bytes exceeds the %d bytes the key directory of keyspace %s takes",
+                    logKey.length - KEYSPACE_ID_BYTE_LENGTH, onDiskIndex.maxKeySize() - KEYSPACE_ID_BYTE_LENGTH, name));
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.sanskarxrawat.bytevault;
+
+import com.sanskarxrawat.bytevault.compress.Codec;
+import com.sanskarxrawat.bytevault.config.KeyspaceConfig;
+import com.sanskarxrawat.bytevault.config.VaultConfig;
+import com.sanskarxrawat.bytevault.datastructure.ByteArrayWrapper;
+import com.sanskarxrawat.bytevault.index.OnDiskIndex;
+import com.sanskarxrawat.bytevault.log.FileLog;
+import com.sanskarxrawat.bytevault.log.LogKeys;
+import com.sanskarxrawat.bytevault.merge.MergeKeyspaces;
+import com.sanskarxrawat.bytevault.metadata.FileMetaData;
+import com.sanskarxrawat.bytevault.stats.VaultMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.sanskarxrawat.bytevault.constant.VaultConstants.CATALOG_KEYSPACE_ID;
+import static com.sanskarxrawat.bytevault.constant.VaultConstants.DEFAULT_KEYSPACE;
+import static com.sanskarxrawat.bytevault.constant.VaultConstants.DEFAULT_KEYSPACE_ID;
+import static com.sanskarxrawat.bytevault.constant.VaultConstants.FIRST_KEYSPACE_ID;
+import static com.sanskarxrawat.bytevault.constant.VaultConstants.INDEX_FILE_SUFFIX;
+import static com.sanskarxrawat.bytevault.constant.VaultConstants.KEYSPACE_INDEX_FILE_PREFIX;
+
+/**
+ * The keyspaces of a store, kept in the log itself: creating or dropping one appends a record to the
+ * catalog keyspace keyed by the keyspace id, so the catalog is recovered, merged, checkpointed and
+ * replicated like any other write. The entry of a dropped keyspace is kept, ids are never reused, so
+ * records of a dropped keyspace that merges have not reached yet never come back.
+ */
+final class KeyspaceCatalog implements MergeKeyspaces {
+    private static final Logger LOGGER = LoggerFactory.getLogger(KeyspaceCatalog.class);
+    private static final byte LIVE = 1;
+    private static final byte DROPPED = 0;
+    private final BinaryVault binaryVault;
+    private final VaultConfig vaultConfig;
+    private final VaultMetrics vaultMetrics;
+    private final boolean indexed;
+    private final Map<Integer, Keyspace> keyspacesById = new ConcurrentHashMap<>();
+    private final Map<String, Keyspace> keyspacesByName = new ConcurrentHashMap<>();
+    private final AtomicInteger nextKeyspaceId = new AtomicInteger(FIRST_KEYSPACE_ID);
+    private final Map<Integer, OnDiskIndex> loadedIndexes = new HashMap<>();
+    private final Map<Integer, String> loadedNames = new HashMap<>();
+
+    KeyspaceCatalog(BinaryVault binaryVault, VaultConfig vaultConfig, VaultMetrics vaultMetrics) throws IOException {
+        this.binaryVault = binaryVault;
+        this.vaultConfig = vaultConfig;
+        this.vaultMetrics = vaultMetrics;
+        this.indexed = vaultConfig.isCacheEnabled();
+        // Key directories are rebuilt on open, and the ones of keyspaces dropped since would never be reopened.
+        try (DirectoryStream<Path> indexFiles = Files.newDirectoryStream(Path.of(vaultConfig.getStorageDir()),
+                KEYSPACE_INDEX_FILE_PREFIX + "*" + INDEX_FILE_SUFFIX)) {
+            for (Path indexFile : indexFiles) {
+                Files.deleteIfExists(indexFile);
+            }
+        }
+    }
+
+    /**
+     * The key directory being filled for {@code keyspaceId} while the store loads. Records can be
+     * replayed before the catalog entry of their keyspace, so every id gets one until {@link #open}.
+     */
+    OnDiskIndex loadingIndex(int keyspaceId) {
+        return loadedIndexes.computeIfAbsent(keyspaceId, id -> new OnDiskIndex(vaultConfig, id));
+    }
+
+    /**
+     * Replays a catalog entry while the store loads, later entries win.
+     */
+    void load(byte[] logKey, byte[] value) {
+        int keyspaceId = idOf(logKey);
+        loadedNames.put(keyspaceId, nameOf(value));
+        nextKeyspaceId.accumulateAndGet(keyspaceId + 1, Math::max);
+    }
+
+    /**
+     * Opens every keyspace the loaded catalog lists and drops the key directories filled for the
+     * others. Returns the default keyspace.
+     */
+    Keyspace open() throws IOException {
+        register(DEFAULT_KEYSPACE_ID, DEFAULT_KEYSPACE, KeyspaceConfig.of(vaultConfig));
+        loadedNames.forEach((keyspaceId, name) -> {
+            if (Objects.nonNull(name)) {
+                register(keyspaceId, name, vaultConfig.getKeyspaceConfig(name));
+            }
+        });
+        for (OnDiskIndex onDiskIndex : loadedIndexes.values()) {
+            onDiskIndex.drop();
+        }
+        if (!loadedIndexes.isEmpty()) {
+            LOGGER.info("Dropped the key directories of {} dropped keyspaces", loadedIndexes.size());
+        }
+        loadedIndexes.clear();
+        loadedNames.clear();
+        return keyspacesById.get(DEFAULT_KEYSPACE_ID);
+    }
+
+    private void register(int keyspaceId, String name, KeyspaceConfig keyspaceConfig) {
+        OnDiskIndex onDiskIndex = indexed ? loadedIndexes.remove(keyspaceId) : null;
+        if (indexed && Objects.isNull(onDiskIndex)) {
+            onDiskIndex = new OnDiskIndex(vaultConfig, keyspaceId);
+        }
+        Keyspace keyspace = new Keyspace(binaryVault, keyspaceId, name, onDiskIndex, keyspaceConfig, vaultMetrics);
+        keyspacesById.put(keyspaceId, keyspace);
+        keyspacesByName.put(name, keyspace);
+    }
+
+    Keyspace byName(String name) {
+        return keyspacesByName.get(name);
+    }
+
+    Keyspace byId(int keyspaceId) {
+        return keyspacesById.get(keyspaceId);
+    }
+
+    Collection<Keyspace> keyspaces() {
+        return keyspacesById.values();
+    }
+
+    Set<String> names() {
+        return Set.copyOf(keyspacesByName.keySet());
+    }
+
+    /**
+     * The entry creating keyspace {@code name} under a fresh id. Callers append it one at a time.
+     */
+    FileLog createEntry(String name) {
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        byte[] value = ByteBuffer.allocate(1 + nameBytes.length).put(LIVE).put(nameBytes).array();
+        return new FileLog(System.currentTimeMillis(), logKeyOf(nextKeyspaceId.getAndIncrement()), value);
+    }
+
+    FileLog dropEntry(Keyspace keyspace) {
+        return new FileLog(System.currentTimeMillis(), logKeyOf(keyspace.id()), new byte[]{DROPPED});
+    }
+
+    /**
+     * Applies a committed catalog entry. Runs on the group-commit thread under the segment write lock.
+     */
+    void apply(FileLog fileLog) throws IOException {
+        int keyspaceId = idOf(fileLog.getKey());
+        String name = nameOf(fileLog.decodedValue());
+        nextKeyspaceId.accumulateAndGet(keyspaceId + 1, Math::max);
+        Keyspace current = keyspacesById.get(keyspaceId);
+        if (Objects.nonNull(name) && Objects.isNull(current)) {
+            register(keyspaceId, name, vaultConfig.getKeyspaceConfig(name));
+            LOGGER.info("Created keyspace {} with id {}", name, keyspaceId);
+        } else if (Objects.isNull(name) && Objects.nonNull(current)) {
+            keyspacesById.remove(keyspaceId);
+            keyspacesByName.remove(current.name(), current);
+            current.drop();
+            LOGGER.info("Dropped keyspace {} with id {}", current.name(), keyspaceId);
+        }
+    }
+
+    static boolean isCatalogEntry(byte[] logKey) {
+        return LogKeys.keyspaceOf(logKey) == CATALOG_KEYSPACE_ID;
+    }
+
+    @Override
+    public boolean isLive(byte[] logKey) {
+        int keyspaceId = LogKeys.keyspaceOf(logKey);
+        // Without an index the catalog is never loaded, so nothing can be told apart as dropped.
+        return !indexed || keyspaceId == CATALOG_KEYSPACE_ID || keyspacesById.containsKey(keyspaceId);
+    }
+
+    @Override
+    public Codec mergeCodec(byte[] logKey) {
+        int keyspaceId = LogKeys.keyspaceOf(logKey);
+        if (keyspaceId == CATALOG_KEYSPACE_ID) {
+            return null;
+        }
+        Keyspace keyspace = keyspacesById.get(keyspaceId);
+        return Objects.isNull(keyspace) ? vaultConfig.getMergeCompressionCodec() : keyspace.mergeCodec();
+    }
+
+    @Override
+    public void relocate(ByteArrayWrapper logKey, Set<String> mergedFilePaths, FileMetaData to) throws IOException {
+        Keyspace keyspace = keyspacesById.get(LogKeys.keyspaceOf(logKey.array()));
+        if (Objects.isNull(keyspace) || Objects.isNull(keyspace.onDiskIndex())) {
+            return;
+        }
+        ByteArrayWrapper key = new ByteArrayWrapper(LogKeys.keyOf(logKey.array()));
+        FileMetaData current = keyspace.onDiskIndex().get(key);
+        // Keys rewritten into the active file since the merge started keep their newer location.
+        if (Objects.nonNull(current) && mergedFilePaths.contains(current.getFilePath())) {
+            keyspace.onDiskIndex().put(key, to);
+            keyspace.valueCache().relocate(key, current, to);
+        }
+    }
+
+    void close() throws IOException {
+        for (Keyspace keyspace : keyspacesById.values()) {
+            if (Objects.nonNull(keyspace.onDiskIndex())) {
+                keyspace.onDiskIndex().close();
+            }
+        }
+    }
+
+    private static byte[] logKeyOf(int keyspaceId) {
+        return LogKeys.qualify(CATALOG_KEYSPACE_ID, ByteBuffer.allocate(Integer.BYTES).putInt(keyspaceId).array());
+    }
+
+    private static int idOf(byte[] logKey) {
+        return ByteBuffer.wrap(LogKeys.keyOf(logKey)).getInt();
+    }
+
+    /**
+     * The name a catalog value gives its keyspace, or null once it was dropped.
+     */
+    private static String nameOf(byte[] value) {
+        return value.length > 0 && value[0] == LIVE ? new String(Arrays.copyOfRange(value, 1, value.length), StandardCharsets.UTF_8) : null;
+    }
+}
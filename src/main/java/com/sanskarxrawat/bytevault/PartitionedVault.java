@@ -0,0 +1,449 @@
+package com.sanskarxrawat.bytevault;
+
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import com.sanskarxrawat.bytevault.cache.CacheStats;
+import com.sanskarxrawat.bytevault.checkpoint.Checkpoint;
+import com.sanskarxrawat.bytevault.config.VaultConfig;
+import com.sanskarxrawat.bytevault.datastructure.ByteArrayWrapper;
+import com.sanskarxrawat.bytevault.exception.storage.InvalidConfigStorageException;
+import com.sanskarxrawat.bytevault.kv.CloseableIterator;
+import com.sanskarxrawat.bytevault.kv.MergedKeyValueStore;
+import com.sanskarxrawat.bytevault.log.FileLog;
+import com.sanskarxrawat.bytevault.stats.VaultMetrics;
+import com.sanskarxrawat.bytevault.stats.VaultStats;
+import com.sanskarxrawat.bytevault.stats.VaultStatsBean;
+import com.sanskarxrawat.bytevault.utils.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static com.sanskarxrawat.bytevault.constant.VaultConstants.PARTITION_COUNT_FILE;
+import static com.sanskarxrawat.bytevault.constant.VaultConstants.PARTITION_DIR_PREFIX;
+import static com.sanskarxrawat.bytevault.log.FileLogConstants.COMPACT_FILE_SUFFIX;
+
+/**
+ * Routes every key by hash to one of several independent {@link BinaryVault} partitions. Each
+ * partition has its own segments, active file, group-commit writer, index, cache and merge schedule,
+ * so writes to different partitions never contend. Partitions may live on different devices.
+ * The routing depends on the number of partitions, which must not change for an existing store;
+ * {@link #open(VaultConfig, int)} records it and enforces that.
+ */
+public class PartitionedVault implements MergedKeyValueStore<byte[],byte[]>, Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PartitionedVault.class);
+    private static final HashFunction PARTITION_HASH = Hashing.murmur3_32_fixed();
+    private final List<BinaryVault> partitions;
+    private final ExecutorService partitionExecutor=Executors.newVirtualThreadPerTaskExecutor();
+    private final VaultMetrics vaultMetrics=new VaultMetrics();
+    private VaultStatsBean vaultStatsBean;
+
+    /**
+     * Opens {@code partitionCount} partitions in subdirectories of the configured storage directory.
+     * The count is recorded with a new store, and an existing one refuses to open with another.
+     */
+    public static PartitionedVault open(VaultConfig vaultConfig, int partitionCount) throws IOException {
+        List<String> partitionDirs=partitionDirs(vaultConfig.getStorageDir(), partitionCount);
+        checkPartitionCount(Path.of(vaultConfig.getStorageDir()), partitionCount);
+        return open(vaultConfig, partitionDirs);
+    }
+
+    /**
+     * Opens one partition per directory, in the given order, each with {@code vaultConfig} otherwise.
+     * Partitions are loaded and recovered in parallel. They record into one shared set of metrics,
+     * published over JMX under the configured storage directory when enabled. Partitions do not serve
+     * followers.
+     */
+    public static PartitionedVault open(VaultConfig vaultConfig, List<String> partitionDirs) throws IOException {
+        PartitionedVault partitionedVault=new PartitionedVault(vaultConfig, partitionDirs);
+        // Published once the store is whole, so the bean never reads a partly built one.
+        if (vaultConfig.isJmxEnabled()) {
+            try {
+                partitionedVault.vaultStatsBean=VaultStatsBean.register(vaultConfig.getStorageDir(), partitionedVault::statsUnchecked);
+            } catch (RuntimeException e) {
+                partitionedVault.close();
+                throw e;
+            }
+        }
+        return partitionedVault;
+    }
+
+    private PartitionedVault(VaultConfig vaultConfig, List<String> partitionDirs) throws IOException {
+        if (partitionDirs.isEmpty()) {
+            throw new InvalidConfigStorageException("Invalid config partitionDirs = " + partitionDirs);
+        }
+        List<Future<BinaryVault>> openings=new ArrayList<>(partitionDirs.size());
+        for (String partitionDir : partitionDirs) {
+            VaultConfig partitionConfig=vaultConfig.toBuilder().storageDir(partitionDir).jmxEnabled(false).replicationEnabled(false).build();
+            openings.add(partitionExecutor.submit(() -> BinaryVault.open(partitionConfig, vaultMetrics)));
+        }
+        try {
+            this.partitions=List.copyOf(await(openings));
+        } catch (IOException | RuntimeException e) {
+            closeOpened(openings);
+            partitionExecutor.close();
+            throw e;
+        }
+        LOGGER.info("Opened {} partitions", partitions.size());
+    }
+
+    private static void closeOpened(List<Future<BinaryVault>> openings) {
+        for (Future<BinaryVault> opening : openings) {
+            try {
+                opening.get().close();
+            } catch (Exception e) {
+                LOGGER.debug("Partition was not opened or failed to close", e);
+            }
+        }
+    }
+
+    private static List<String> partitionDirs(String storageDir, int partitionCount) {
+        if (partitionCount <= 0) {
+            throw new InvalidConfigStorageException("Invalid config partitionCount = " + partitionCount);
+        }
+        List<String> partitionDirs=new ArrayList<>(partitionCount);
+        for (int i = 0; i < partitionCount; i++) {
+            partitionDirs.add(Path.of(storageDir, PARTITION_DIR_PREFIX + i).toString());
+        }
+        return partitionDirs;
+    }
+
+    /**
+     * Another count would route keys to partitions that do not hold them. A store from before the count
+     * was recorded is checked against its partition directories, then gets it recorded.
+     */
+    private static void checkPartitionCount(Path storageDirectory, int partitionCount) throws IOException {
+        Path countPath=storageDirectory.resolve(PARTITION_COUNT_FILE);
+        int recordedCount;
+        if (Files.exists(countPath)) {
+            try {
+                recordedCount=Integer.parseInt(Files.readString(countPath, StandardCharsets.UTF_8).trim());
+            } catch (NumberFormatException e) {
+                throw new IOException("Corrupted partition count " + countPath, e);
+            }
+        } else {
+            recordedCount=countPartitionDirs(storageDirectory);
+        }
+        if (recordedCount != 0 && recordedCount != partitionCount) {
+            throw new InvalidConfigStorageException(String.format("Store %s has %d partitions, invalid config partitionCount = %d",
+                    storageDirectory, recordedCount, partitionCount));
+        }
+        if (!Files.exists(countPath)) {
+            Files.createDirectories(storageDirectory);
+            Path writingPath=storageDirectory.resolve(PARTITION_COUNT_FILE + COMPACT_FILE_SUFFIX);
+            try (FileOutputStream stream=new FileOutputStream(writingPath.toFile())) {
+                stream.write(Integer.toString(partitionCount).getBytes(StandardCharsets.UTF_8));
+                stream.getFD().sync();
+            }
+            Files.move(writingPath, countPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            FileUtils.syncDirectory(storageDirectory);
+        }
+    }
+
+    private static int countPartitionDirs(Path storageDirectory) throws IOException {
+        if (!Files.isDirectory(storageDirectory)) {
+            return 0;
+        }
+        try (Stream<Path> files=Files.list(storageDirectory)) {
+            return (int) files.filter(Files::isDirectory).filter(path -> path.getFileName().toString().startsWith(PARTITION_DIR_PREFIX)).count();
+        }
+    }
+
+    public int partitionCount() {
+        return partitions.size();
+    }
+
+    public BinaryVault partition(int index) {
+        return partitions.get(index);
+    }
+
+    @Override
+    public byte[] get(byte[] key) throws IOException, InterruptedException, ExecutionException {
+        return partitionOf(key).get(key);
+    }
+
+    public int get(byte[] key, ByteBuffer dst) throws IOException {
+        return partitionOf(key).get(key, dst);
+    }
+
+    @Override
+    public void set(byte[] key, byte[] value) throws IOException {
+        partitionOf(key).set(key, value);
+    }
+
+    public void set(byte[] key, byte[] value, Duration ttl) throws IOException {
+        partitionOf(key).set(key, value, ttl);
+    }
+
+    @Override
+    public void remove(byte[] key) throws IOException {
+        partitionOf(key).remove(key);
+    }
+
+    /**
+     * Async operations go to the key's partition, each partition enforcing its own in-flight limit.
+     */
+    public CompletableFuture<byte[]> getAsync(byte[] key) {
+        return partitionOf(key).getAsync(key);
+    }
+
+    public CompletableFuture<Void> setAsync(byte[] key, byte[] value) {
+        return partitionOf(key).setAsync(key, value);
+    }
+
+    public CompletableFuture<Void> setAsync(byte[] key, byte[] value, Duration ttl) {
+        return partitionOf(key).setAsync(key, value, ttl);
+    }
+
+    public CompletableFuture<Void> removeAsync(byte[] key) {
+        return partitionOf(key).removeAsync(key);
+    }
+
+    /**
+     * Splits the batch by partition and writes each part with a single write. A batch is atomic per
+     * partition only: after a failure, parts already written to other partitions stay applied.
+     */
+    public void write(WriteBatch writeBatch) throws IOException {
+        Map<Integer, List<FileLog>> fileLogsByPartition=new HashMap<>();
+        for (FileLog fileLog : writeBatch.fileLogs()) {
+            fileLogsByPartition.computeIfAbsent(partitionIndex(fileLog.getKey()), index -> new ArrayList<>()).add(fileLog);
+        }
+        if (fileLogsByPartition.size() == 1) {
+            Map.Entry<Integer, List<FileLog>> entry=fileLogsByPartition.entrySet().iterator().next();
+            partitions.get(entry.getKey()).write(entry.getValue());
+            return;
+        }
+        List<Future<Void>> partitionWrites=new ArrayList<>();
+        fileLogsByPartition.forEach((index, fileLogs) -> partitionWrites.add(partitionExecutor.submit(() -> {
+            partitions.get(index).write(fileLogs);
+            return null;
+        })));
+        await(partitionWrites);
+    }
+
+    /**
+     * Reads many keys at once, each partition serving its share of the keys in parallel. Returns an
+     * entry per key found, in the order of {@code keys}; absent and deleted keys are left out.
+     */
+    public List<Map.Entry<byte[], byte[]>> multiGet(Collection<byte[]> keys) throws IOException {
+        Map<Integer, List<byte[]>> keysByPartition=new HashMap<>();
+        for (byte[] key : keys) {
+            keysByPartition.computeIfAbsent(partitionIndex(key), index -> new ArrayList<>()).add(key);
+        }
+        if (keysByPartition.size() <= 1) {
+            return keysByPartition.isEmpty() ? new ArrayList<>()
+                    : partitions.get(keysByPartition.keySet().iterator().next()).multiGet(keys);
+        }
+        List<Future<Map<ByteArrayWrapper, byte[]>>> partitionReads=new ArrayList<>();
+        keysByPartition.forEach((index, partitionKeys) ->
+                partitionReads.add(partitionExecutor.submit(() -> partitions.get(index).multiGetValues(partitionKeys))));
+        Map<ByteArrayWrapper, byte[]> values=new HashMap<>();
+        for (Map<ByteArrayWrapper, byte[]> partitionValues : await(partitionReads)) {
+            values.putAll(partitionValues);
+        }
+        return BinaryVault.inKeyOrder(keys, values);
+    }
+
+    /**
+     * Iterates a key range across all partitions in key order, merging one {@link ScanIterator} per
+     * partition. See {@link BinaryVault#scan}.
+     */
+    public CloseableIterator<Map.Entry<ByteArrayWrapper, byte[]>> scan(byte[] startKey, byte[] endKey) {
+        List<ScanIterator> scanIterators=new ArrayList<>(partitions.size());
+        for (BinaryVault binaryVault : partitions) {
+            scanIterators.add(binaryVault.scan(startKey, endKey));
+        }
+        return new MergedScan(scanIterators);
+    }
+
+    public CloseableIterator<Map.Entry<ByteArrayWrapper, byte[]>> prefixScan(byte[] prefix) {
+        List<ScanIterator> scanIterators=new ArrayList<>(partitions.size());
+        for (BinaryVault binaryVault : partitions) {
+            scanIterators.add(binaryVault.prefixScan(prefix));
+        }
+        return new MergedScan(scanIterators);
+    }
+
+    public CacheStats cacheStats() {
+        long hits=0, misses=0, evictions=0;
+        int size=0;
+        for (BinaryVault binaryVault : partitions) {
+            CacheStats cacheStats=binaryVault.cacheStats();
+            hits+=cacheStats.hits();
+            misses+=cacheStats.misses();
+            evictions+=cacheStats.evictions();
+            size+=cacheStats.size();
+        }
+        return new CacheStats(hits, misses, evictions, size);
+    }
+
+    /**
+     * Stats of the whole store: latencies and byte counters are shared by all partitions, segment,
+     * live-data and cache figures are summed over them.
+     */
+    public VaultStats stats() throws IOException {
+        VaultStats stats=null;
+        int segmentCount=0;
+        long segmentBytes=0, liveKeys=0, liveBytes=0;
+        for (BinaryVault binaryVault : partitions) {
+            stats=binaryVault.stats();
+            segmentCount+=stats.segmentCount();
+            segmentBytes+=stats.segmentBytes();
+            liveKeys+=stats.liveKeys();
+            liveBytes+=stats.liveBytes();
+        }
+        boolean indexed=stats.liveBytes() >= 0;
+        return new VaultStats(stats.latencies(), stats.bytesWritten(), stats.bytesRead(), segmentCount, segmentBytes,
+                indexed ? liveKeys : -1, indexed ? liveBytes : -1, stats.segmentRollovers(), stats.merges(), cacheStats());
+    }
+
+    private VaultStats statsUnchecked() {
+        try {
+            return stats();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Merges every partition in turn. Partitions are also merged on their own schedules.
+     */
+    @Override
+    public void merge() throws IOException, ExecutionException, InterruptedException {
+        for (BinaryVault binaryVault : partitions) {
+            binaryVault.merge();
+        }
+    }
+
+    /**
+     * Checkpoints every partition in turn into a subdirectory of {@code targetDir} named like the
+     * partition directories. Each partition is consistent on its own, the set is not taken atomically.
+     */
+    public List<Checkpoint> checkpoint(Path targetDir) throws IOException {
+        List<Checkpoint> checkpoints=new ArrayList<>(partitions.size());
+        for (int i = 0; i < partitions.size(); i++) {
+            checkpoints.add(partitions.get(i).checkpoint(targetDir.resolve(PARTITION_DIR_PREFIX + i)));
+        }
+        return checkpoints;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (Objects.nonNull(vaultStatsBean)) {
+            vaultStatsBean.close();
+        }
+        partitionExecutor.close();
+        IOException failure=null;
+        for (BinaryVault binaryVault : partitions) {
+            try {
+                binaryVault.close();
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure=e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private BinaryVault partitionOf(byte[] key) {
+        return partitions.get(partitionIndex(key));
+    }
+
+    private int partitionIndex(byte[] key) {
+        return Math.floorMod(PARTITION_HASH.hashBytes(key).asInt(), partitions.size());
+    }
+
+    /**
+     * Merges per-partition iterators by their next key. A key lives in exactly one partition, so
+     * there are no duplicates to resolve.
+     */
+    private static final class MergedScan implements CloseableIterator<Map.Entry<ByteArrayWrapper, byte[]>> {
+        private final List<ScanIterator> scanIterators;
+        private final PriorityQueue<Head> heads=new PriorityQueue<>((h1, h2) -> h1.entry().getKey().compareTo(h2.entry().getKey()));
+
+        private MergedScan(List<ScanIterator> scanIterators) {
+            this.scanIterators=scanIterators;
+            scanIterators.forEach(this::advance);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !heads.isEmpty();
+        }
+
+        @Override
+        public Map.Entry<ByteArrayWrapper, byte[]> next() {
+            Head head=heads.poll();
+            if (head == null) {
+                throw new NoSuchElementException();
+            }
+            advance(head.source());
+            return head.entry();
+        }
+
+        @Override
+        public void close() {
+            heads.clear();
+            scanIterators.forEach(ScanIterator::close);
+        }
+
+        private void advance(ScanIterator source) {
+            if (source.hasNext()) {
+                heads.add(new Head(source.next(), source));
+            }
+        }
+
+        private record Head(Map.Entry<ByteArrayWrapper, byte[]> entry, ScanIterator source) {
+        }
+    }
+
+    private static <T> List<T> await(List<Future<T>> futures) throws IOException {
+        List<T> results=new ArrayList<>(futures.size());
+        try {
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for partitions", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IOException("Partition operation failed", e.getCause());
+        }
+        return results;
+    }
+}
@@ -0,0 +1,177 @@
+package com.sanskarxrawat.bytevault;
+
+import com.sanskarxrawat.bytevault.config.VaultConfig;
+import com.sanskarxrawat.bytevault.log.FileLog;
+import com.sanskarxrawat.bytevault.replication.ReplicationClient;
+import com.sanskarxrawat.bytevault.replication.ReplicationStatus;
+import com.sanskarxrawat.bytevault.replication.SyncJournal;
+import com.sanskarxrawat.bytevault.stats.VaultStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static com.sanskarxrawat.bytevault.constant.VaultConstants.REPLICA_SYNC_DIR;
+
+/**
+ * A read-only follower of a primary {@link BinaryVault} that has {@code replicationEnabled}. Every
+ * commit of the primary is appended to the follower's own segments, keeping its sequence numbers, and
+ * indexed as it arrives; the follower rolls over and merges on its own. A follower the primary cannot
+ * catch up from its backlog is sent the primary's sealed segments and reopens on them, which fails
+ * iterators and snapshots taken before; the swap is journaled by {@link SyncJournal}. Reads see the
+ * primary as of {@link #replicationStatus()}.
+ */
+public class ReplicaVault implements Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReplicaVault.class);
+    private final VaultConfig vaultConfig;
+    private final ReentrantReadWriteLock reopenLock = new ReentrantReadWriteLock();
+    private final ReplicationClient replicationClient;
+    private volatile BinaryVault binaryVault;
+    private volatile long appliedSequence;
+
+    public ReplicaVault(VaultConfig vaultConfig, String primaryHost, int primaryPort) throws IOException {
+        this.vaultConfig=vaultConfig;
+        SyncJournal.recover(Path.of(vaultConfig.getStorageDir()), Path.of(vaultConfig.getStorageDir(), REPLICA_SYNC_DIR));
+        this.binaryVault=BinaryVault.open(vaultConfig);
+        this.appliedSequence=binaryVault.lastSequence();
+        this.replicationClient=new ReplicationClient(primaryHost, primaryPort, Path.of(vaultConfig.getStorageDir(), REPLICA_SYNC_DIR), new Replica());
+    }
+
+    public byte[] get(byte[] key) throws IOException, InterruptedException, ExecutionException {
+        reopenLock.readLock().lock();
+        try {
+            return binaryVault.get(key);
+        } finally {
+            reopenLock.readLock().unlock();
+        }
+    }
+
+    public int get(byte[] key, ByteBuffer dst) throws IOException {
+        reopenLock.readLock().lock();
+        try {
+            return binaryVault.get(key, dst);
+        } finally {
+            reopenLock.readLock().unlock();
+        }
+    }
+
+    public List<Map.Entry<byte[], byte[]>> multiGet(Collection<byte[]> keys) throws IOException {
+        reopenLock.readLock().lock();
+        try {
+            return binaryVault.multiGet(keys);
+        } finally {
+            reopenLock.readLock().unlock();
+        }
+    }
+
+    public ScanIterator scan(byte[] startKey, byte[] endKey) {
+        reopenLock.readLock().lock();
+        try {
+            return binaryVault.scan(startKey, endKey);
+        } finally {
+            reopenLock.readLock().unlock();
+        }
+    }
+
+    public ScanIterator prefixScan(byte[] prefix) {
+        reopenLock.readLock().lock();
+        try {
+            return binaryVault.prefixScan(prefix);
+        } finally {
+            reopenLock.readLock().unlock();
+        }
+    }
+
+    public Snapshot snapshot() throws IOException {
+        reopenLock.readLock().lock();
+        try {
+            return binaryVault.snapshot();
+        } finally {
+            reopenLock.readLock().unlock();
+        }
+    }
+
+    public VaultStats stats() throws IOException {
+        reopenLock.readLock().lock();
+        try {
+            return binaryVault.stats();
+        } finally {
+            reopenLock.readLock().unlock();
+        }
+    }
+
+    public ReplicationStatus replicationStatus() {
+        return replicationClient.status();
+    }
+
+    @Override
+    public void close() throws IOException {
+        replicationClient.close();
+        reopenLock.writeLock().lock();
+        try {
+            binaryVault.close();
+        } finally {
+            reopenLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Applies the stream on the replication thread. A commit is applied under the read side of the
+     * reopen lock like any read; a full sync swaps the store under the write side.
+     */
+    private final class Replica implements ReplicationClient.Replica {
+
+        @Override
+        public long appliedSequence() {
+            return appliedSequence;
+        }
+
+        @Override
+        public void apply(List<FileLog> fileLogs, long lastSequence) throws IOException {
+            reopenLock.readLock().lock();
+            try {
+                binaryVault.applyReplicated(fileLogs);
+                appliedSequence=lastSequence;
+            } finally {
+                reopenLock.readLock().unlock();
+            }
+        }
+
+        @Override
+        public void install(Path syncDirectory, long sequence) throws IOException {
+            Path storageDirectory=Path.of(vaultConfig.getStorageDir());
+            reopenLock.writeLock().lock();
+            try {
+                binaryVault.close();
+                SyncJournal syncJournal=SyncJournal.prepare(storageDirectory, syncDirectory);
+                syncJournal.commit(storageDirectory);
+                syncJournal.apply(storageDirectory, syncDirectory);
+                try {
+                    binaryVault=BinaryVault.open(vaultConfig);
+                } catch (IOException | RuntimeException e) {
+                    LOGGER.error("Could not open replica {} on the primary's segments, reopening it on its own", storageDirectory, e);
+                    try {
+                        syncJournal.revert(storageDirectory, syncDirectory);
+                        binaryVault=BinaryVault.open(vaultConfig);
+                    } catch (IOException | RuntimeException reopenFailure) {
+                        e.addSuppressed(reopenFailure);
+                    }
+                    throw e;
+                }
+                syncJournal.finish(storageDirectory);
+                appliedSequence=sequence;
+                LOGGER.info("Reopened replica {} on the primary's segments up to sequence {}", storageDirectory, sequence);
+            } finally {
+                reopenLock.writeLock().unlock();
+            }
+        }
+    }
+}
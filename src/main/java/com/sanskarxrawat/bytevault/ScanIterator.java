@@ -0,0 +1,95 @@
+package com.sanskarxrawat.bytevault;
+
+import com.sanskarxrawat.bytevault.datastructure.ByteArrayWrapper;
+import com.sanskarxrawat.bytevault.kv.CloseableIterator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Lazily walks a key range of a {@link Keyspace} in key order, one batch of index entries at a
+ * time. No lock is held between batches, so an open iterator never holds up writes or merges; each
+ * batch is a consistent view, the range as a whole is not. Read failures surface as
+ * {@link UncheckedIOException}.
+ */
+public class ScanIterator implements CloseableIterator<Map.Entry<ByteArrayWrapper, byte[]>> {
+    private final BinaryVault binaryVault;
+    private final Keyspace keyspace;
+    private final ByteArrayWrapper endKey;
+    private ByteArrayWrapper resumeKey;
+    private boolean resumeExclusive;
+    private boolean exhausted;
+    private List<Map.Entry<ByteArrayWrapper, byte[]>> batch = List.of();
+    private int position;
+
+    ScanIterator(BinaryVault binaryVault, Keyspace keyspace, ByteArrayWrapper startKey, ByteArrayWrapper endKey) {
+        this.binaryVault = binaryVault;
+        this.keyspace = keyspace;
+        this.resumeKey = startKey;
+        this.endKey = endKey;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (position >= batch.size() && !exhausted) {
+            fetch();
+        }
+        return position < batch.size();
+    }
+
+    @Override
+    public Map.Entry<ByteArrayWrapper, byte[]> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return batch.get(position++);
+    }
+
+    @Override
+    public void close() {
+        exhausted = true;
+        batch = List.of();
+    }
+
+    private void fetch() {
+        try {
+            ScanBatch scanBatch = binaryVault.scanBatch(keyspace, resumeKey, resumeExclusive, endKey);
+            batch = scanBatch.entries();
+            position = 0;
+            if (scanBatch.lastIndexKey() == null) {
+                exhausted = true;
+            } else {
+                resumeKey = scanBatch.lastIndexKey();
+                resumeExclusive = true;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * The live values of one batch, and the last index key it covered (null once the range is done),
+     * which may belong to a deleted or expired key left out of the entries.
+     */
+    record ScanBatch(List<Map.Entry<ByteArrayWrapper, byte[]>> entries, ByteArrayWrapper lastIndexKey) {
+    }
+
+    /**
+     * The smallest key greater than every key starting with {@code prefix}, under the signed byte
+     * order of {@link ByteArrayWrapper}, or null when there is none.
+     */
+    static ByteArrayWrapper prefixEnd(byte[] prefix) {
+        for (int i = prefix.length - 1; i >= 0; i--) {
+            if (prefix[i] != Byte.MAX_VALUE) {
+                byte[] end = Arrays.copyOf(prefix, i + 1);
+                end[i]++;
+                return new ByteArrayWrapper(end);
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,161 @@
+package com.sanskarxrawat.bytevault;
+
+import com.sanskarxrawat.bytevault.datastructure.ByteArrayWrapper;
+import com.sanskarxrawat.bytevault.exception.storage.InvalidKeyException;
+import com.sanskarxrawat.bytevault.io.LogPosition;
+import com.sanskarxrawat.bytevault.kv.CloseableIterator;
+import com.sanskarxrawat.bytevault.metadata.FileMetaData;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * A read-only view of a {@link BinaryVault} as of one sequence number: it sees every write committed
+ * before it was taken and none after, while writers carry on. The segments it reads are pinned, so
+ * merges leave them alone until it is closed. Expiry is judged at the time it was taken.
+ */
+public class Snapshot implements Closeable {
+    private final BinaryVault binaryVault;
+    private final LogPosition logPosition;
+    private final long timestamp;
+    private final List<Path> segments;
+    private final Set<String> segmentPaths;
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    Snapshot(BinaryVault binaryVault, LogPosition logPosition, long timestamp, List<Path> segments) {
+        this.binaryVault = binaryVault;
+        this.logPosition = logPosition;
+        this.timestamp = timestamp;
+        this.segments = List.copyOf(segments);
+        this.segmentPaths = segments.stream().map(Path::toString).collect(Collectors.toSet());
+    }
+
+    /**
+     * Sequence number of the last write the snapshot sees.
+     */
+    public long sequence() {
+        return logPosition.lastSequence();
+    }
+
+    /**
+     * Epoch millis the snapshot was taken at.
+     */
+    public long timestamp() {
+        return timestamp;
+    }
+
+    public byte[] get(byte[] key) throws IOException {
+        return get(binaryVault.defaultKeyspace(), key);
+    }
+
+    /**
+     * The value of {@code key} in {@code keyspace} as of the snapshot. A keyspace dropped since still
+     * reads as it was.
+     */
+    public byte[] get(Keyspace keyspace, byte[] key) throws IOException {
+        checkOpen();
+        checkKeyspace(keyspace);
+        byte[] value = binaryVault.snapshotGet(this, keyspace, new ByteArrayWrapper(key));
+        if (Objects.isNull(value)) {
+            throw new InvalidKeyException(String.format("Key is not existed, key=%s", new String(key, StandardCharsets.UTF_8)));
+        }
+        return value;
+    }
+
+    /**
+     * Every live key of the snapshot with its value, in key order. The keys are located up front by
+     * reading the pinned segments, holding one entry per key; values are read as the iterator advances.
+     * Read failures surface as {@link UncheckedIOException}.
+     */
+    public CloseableIterator<Map.Entry<ByteArrayWrapper, byte[]>> entries() throws IOException {
+        return entries(binaryVault.defaultKeyspace());
+    }
+
+    /**
+     * Every live key of {@code keyspace} with its value, in key order, see {@link #entries()}.
+     */
+    public CloseableIterator<Map.Entry<ByteArrayWrapper, byte[]>> entries(Keyspace keyspace) throws IOException {
+        checkOpen();
+        checkKeyspace(keyspace);
+        Iterator<Map.Entry<ByteArrayWrapper, FileMetaData>> locations = binaryVault.snapshotIndex(this, keyspace).entrySet().iterator();
+        return new CloseableIterator<>() {
+            private Map.Entry<ByteArrayWrapper, byte[]> next;
+
+            @Override
+            public boolean hasNext() {
+                while (Objects.isNull(next) && locations.hasNext()) {
+                    checkOpen();
+                    Map.Entry<ByteArrayWrapper, FileMetaData> location = locations.next();
+                    try {
+                        byte[] value = binaryVault.snapshotValue(Snapshot.this, keyspace, location.getValue());
+                        if (Objects.nonNull(value)) {
+                            next = Map.entry(location.getKey(), value);
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+                return Objects.nonNull(next);
+            }
+
+            @Override
+            public Map.Entry<ByteArrayWrapper, byte[]> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Map.Entry<ByteArrayWrapper, byte[]> entry = next;
+                next = null;
+                return entry;
+            }
+
+            @Override
+            public void close() {
+                next = null;
+            }
+        };
+    }
+
+    /**
+     * Whether the record at {@code fileMetaData} was written before the snapshot was taken. Such records
+     * only live in pinned segments, which no merge rewrites while the snapshot is open.
+     */
+    boolean covers(FileMetaData fileMetaData) {
+        String filePath = fileMetaData.getFilePath();
+        return segmentPaths.contains(filePath)
+                && (!filePath.equals(logPosition.activeFilePath()) || fileMetaData.getValueByteOffset() < logPosition.activeFileSize());
+    }
+
+    List<Path> segments() {
+        return segments;
+    }
+
+    private void checkKeyspace(Keyspace keyspace) {
+        if (keyspace.binaryVault() != binaryVault) {
+            throw new IllegalArgumentException("Keyspace " + keyspace.name() + " belongs to another store");
+        }
+    }
+
+    private void checkOpen() {
+        if (closed.get()) {
+            throw new IllegalStateException("Snapshot is closed");
+        }
+    }
+
+    @Override
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            binaryVault.release(this);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.sanskarxrawat.bytevault;
+
+import com.sanskarxrawat.bytevault.compress.Codecs;
+import com.sanskarxrawat.bytevault.log.FileLog;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Puts and deletes applied together by {@link BinaryVault#write(WriteBatch)}. The batch is encoded
+ * into one buffer and appended with a single write, and readers see either none or all of it.
+ * Deleting a key that does not exist is not an error. A batch is not thread-safe.
+ */
+public class WriteBatch {
+    private final List<FileLog> fileLogs = new ArrayList<>();
+
+    public WriteBatch put(byte[] key, byte[] value) {
+        fileLogs.add(new FileLog(System.currentTimeMillis(), key, value));
+        return this;
+    }
+
+    public WriteBatch put(byte[] key, byte[] value, Duration ttl) {
+        long now = System.currentTimeMillis();
+        fileLogs.add(new FileLog(now, key, value, Codecs.NONE.id(), BinaryVault.expiresAt(now, ttl)));
+        return this;
+    }
+
+    public WriteBatch delete(byte[] key) {
+        fileLogs.add(FileLog.tombstone(System.currentTimeMillis(), key));
+        return this;
+    }
+
+    public int size() {
+        return fileLogs.size();
+    }
+
+    public boolean isEmpty() {
+        return fileLogs.isEmpty();
+    }
+
+    public void clear() {
+        fileLogs.clear();
+    }
+
+    List<FileLog> fileLogs() {
+        return Collections.unmodifiableList(fileLogs);
+    }
+}
@@ -0,0 +1,39 @@
+package com.sanskarxrawat.bytevault.cache;
+
+import com.sanskarxrawat.bytevault.datastructure.ByteArrayWrapper;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Tells hot keys from cold ones by how often they were read or written lately. Recording never
+ * waits: a sample that finds the sketch busy is dropped, which only blurs the estimate.
+ */
+public class KeyTemperature {
+    private final FrequencySketch sketch;
+    private final int hotMinFrequency;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public KeyTemperature(int trackedKeys, int hotMinFrequency) {
+        this.sketch = new FrequencySketch(trackedKeys);
+        this.hotMinFrequency = hotMinFrequency;
+    }
+
+    public void record(ByteArrayWrapper key) {
+        if (lock.tryLock()) {
+            try {
+                sketch.increment(key.hashCode());
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    public boolean isHot(ByteArrayWrapper key) {
+        lock.lock();
+        try {
+            return sketch.frequency(key.hashCode()) >= hotMinFrequency;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.sanskarxrawat.bytevault.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Lossy ring buffer of recent reads, filled by any number of threads and drained by one at a time.
+ * A read that loses the race for a slot is dropped, the frequency sketch only needs a sample.
+ */
+final class ReadBuffer<E> {
+    static final int SIZE = 16;
+    private static final int MASK = SIZE - 1;
+
+    private final AtomicReferenceArray<E> buffer = new AtomicReferenceArray<>(SIZE);
+    private final AtomicLong writeCounter = new AtomicLong();
+    private volatile long readCounter;
+
+    /**
+     * Records {@code e} unless it loses a race, and returns false when the buffer is full and should be drained.
+     */
+    boolean offer(E e) {
+        long tail = writeCounter.get();
+        if (tail - readCounter >= SIZE) {
+            return false;
+        }
+        if (writeCounter.compareAndSet(tail, tail + 1)) {
+            buffer.lazySet((int) (tail & MASK), e);
+        }
+        return true;
+    }
+
+    /**
+     * Hands the recorded reads to {@code consumer}. Callers drain one at a time.
+     */
+    void drainTo(Consumer<E> consumer) {
+        long head = readCounter;
+        long tail = writeCounter.get();
+        for (; head < tail; head++) {
+            int index = (int) (head & MASK);
+            E e = buffer.get(index);
+            // Claimed but not yet written, the rest is drained next time.
+            if (e == null) {
+                break;
+            }
+            buffer.lazySet(index, null);
+            consumer.accept(e);
+        }
+        readCounter = head;
+    }
+}
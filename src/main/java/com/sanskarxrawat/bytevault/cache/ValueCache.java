@@ -0,0 +1,218 @@
+package com.sanskarxrawat.bytevault.cache;
+
+import com.sanskarxrawat.bytevault.datastructure.ByteArrayWrapper;
+import com.sanskarxrawat.bytevault.metadata.FileMetaData;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded value cache with W-TinyLFU eviction. New entries land in a small LRU window; when the
+ * window overflows its oldest entry only enters the segmented-LRU main space if the
+ * {@link FrequencySketch} says it was requested more often than the main space's victim, so a
+ * one-off scan cannot flush the hot set.
+ * <p>
+ * Reads take no lock: values are looked up in a concurrent map and the read is recorded in one of
+ * several striped {@link ReadBuffer}s. The buffers are replayed into the sketch and the LRU order
+ * under the lock by whichever thread finds one full, and before every write.
+ * <p>
+ * Every entry remembers where its value was read from and is only served while the key directory
+ * still points there. Overwrites and merge relocations therefore never return a stale value.
+ */
+public class ValueCache {
+    private final int windowCapacity;
+    private final int mainCapacity;
+    private final int protectedCapacity;
+    private final LinkedHashMap<ByteArrayWrapper, CachedValue> window = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<ByteArrayWrapper, CachedValue> probation = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<ByteArrayWrapper, CachedValue> protectedSegment = new LinkedHashMap<>(16, 0.75f, true);
+    private final ConcurrentHashMap<ByteArrayWrapper, CachedValue> values = new ConcurrentHashMap<>();
+    private final FrequencySketch sketch;
+    private final ReadBuffer<ByteArrayWrapper>[] readBuffers;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ValueCache(int maximumSize) {
+        this.windowCapacity = Math.max(1, maximumSize / 100);
+        this.mainCapacity = Math.max(1, maximumSize - windowCapacity);
+        this.protectedCapacity = (int) (mainCapacity * 0.8);
+        this.sketch = new FrequencySketch(maximumSize);
+        this.readBuffers = newReadBuffers(Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()) * 2 - 1));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ReadBuffer<ByteArrayWrapper>[] newReadBuffers(int stripes) {
+        ReadBuffer<ByteArrayWrapper>[] readBuffers = new ReadBuffer[stripes];
+        for (int i = 0; i < stripes; i++) {
+            readBuffers[i] = new ReadBuffer<>();
+        }
+        return readBuffers;
+    }
+
+    /**
+     * Returns the cached value of {@code key} if it was read from {@code location}, otherwise null.
+     */
+    public byte[] get(ByteArrayWrapper key, FileMetaData location) {
+        recordRead(key);
+        CachedValue cachedValue = values.get(key);
+        if (cachedValue != null && cachedValue.isAt(location)) {
+            hits.increment();
+            return cachedValue.value();
+        }
+        if (cachedValue != null) {
+            lock.lock();
+            try {
+                if (values.get(key) == cachedValue) {
+                    remove(key);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    public void put(ByteArrayWrapper key, FileMetaData location, byte[] value) {
+        lock.lock();
+        try {
+            drainReadBuffers();
+            remove(key);
+            CachedValue cachedValue = new CachedValue(location.getFilePath(), location.getValueByteOffset(), value);
+            window.put(key, cachedValue);
+            values.put(key, cachedValue);
+            if (window.size() > windowCapacity) {
+                Map.Entry<ByteArrayWrapper, CachedValue> candidate = removeEldest(window);
+                admit(candidate.getKey(), candidate.getValue());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidate(ByteArrayWrapper key) {
+        lock.lock();
+        try {
+            drainReadBuffers();
+            remove(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Keeps a cached value warm when merge moves its record, as long as it was read from {@code from}.
+     */
+    public void relocate(ByteArrayWrapper key, FileMetaData from, FileMetaData to) {
+        lock.lock();
+        try {
+            for (LinkedHashMap<ByteArrayWrapper, CachedValue> segment : List.of(window, probation, protectedSegment)) {
+                CachedValue cachedValue = segment.get(key);
+                if (cachedValue != null) {
+                    if (cachedValue.isAt(from)) {
+                        CachedValue relocated = new CachedValue(to.getFilePath(), to.getValueByteOffset(), cachedValue.value());
+                        segment.put(key, relocated);
+                        values.put(key, relocated);
+                    }
+                    return;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), values.size());
+    }
+
+    private void recordRead(ByteArrayWrapper key) {
+        ReadBuffer<ByteArrayWrapper> readBuffer = readBuffers[(int) mix(Thread.currentThread().threadId()) & (readBuffers.length - 1)];
+        // A full buffer is drained by whoever gets the lock; if someone else holds it, this read goes unrecorded.
+        if (!readBuffer.offer(key) && lock.tryLock()) {
+            try {
+                drainReadBuffers();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private static long mix(long threadId) {
+        long hash = threadId * 0x9e3779b97f4a7c15L;
+        return hash ^ (hash >>> 32);
+    }
+
+    private void drainReadBuffers() {
+        for (ReadBuffer<ByteArrayWrapper> readBuffer : readBuffers) {
+            readBuffer.drainTo(this::onRead);
+        }
+    }
+
+    private void onRead(ByteArrayWrapper key) {
+        sketch.increment(key.hashCode());
+        // Access-ordered maps move the entry to their young end on get.
+        if (window.get(key) != null || protectedSegment.get(key) != null) {
+            return;
+        }
+        CachedValue cachedValue = probation.remove(key);
+        if (cachedValue != null) {
+            promote(key, cachedValue);
+        }
+    }
+
+    private void admit(ByteArrayWrapper candidateKey, CachedValue candidate) {
+        if (probation.size() + protectedSegment.size() < mainCapacity) {
+            probation.put(candidateKey, candidate);
+            return;
+        }
+        LinkedHashMap<ByteArrayWrapper, CachedValue> victimSegment = probation.isEmpty() ? protectedSegment : probation;
+        ByteArrayWrapper victimKey = victimSegment.keySet().iterator().next();
+        if (sketch.frequency(candidateKey.hashCode()) > sketch.frequency(victimKey.hashCode())) {
+            victimSegment.remove(victimKey);
+            values.remove(victimKey);
+            evictions.increment();
+            probation.put(candidateKey, candidate);
+        } else {
+            // A candidate turned away by admission is not counted as an eviction.
+            values.remove(candidateKey);
+        }
+    }
+
+    private void promote(ByteArrayWrapper key, CachedValue cachedValue) {
+        protectedSegment.put(key, cachedValue);
+        if (protectedSegment.size() > protectedCapacity) {
+            Map.Entry<ByteArrayWrapper, CachedValue> demoted = removeEldest(protectedSegment);
+            probation.put(demoted.getKey(), demoted.getValue());
+        }
+    }
+
+    private void remove(ByteArrayWrapper key) {
+        values.remove(key);
+        if (window.remove(key) == null && probation.remove(key) == null) {
+            protectedSegment.remove(key);
+        }
+    }
+
+    private static Map.Entry<ByteArrayWrapper, CachedValue> removeEldest(LinkedHashMap<ByteArrayWrapper, CachedValue> segment) {
+        Iterator<Map.Entry<ByteArrayWrapper, CachedValue>> iterator = segment.entrySet().iterator();
+        Map.Entry<ByteArrayWrapper, CachedValue> eldest = iterator.next();
+        Map.Entry<ByteArrayWrapper, CachedValue> removed = Map.entry(eldest.getKey(), eldest.getValue());
+        iterator.remove();
+        return removed;
+    }
+
+    private record CachedValue(String filePath, int valueByteOffset, byte[] value) {
+
+        private boolean isAt(FileMetaData location) {
+            return valueByteOffset == location.getValueByteOffset() && filePath.equals(location.getFilePath());
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.sanskarxrawat.bytevault.checkpoint;
+
+import java.nio.file.Path;
+
+/**
+ * Outcome of a checkpoint: the directory holds every record numbered up to {@code sequence}, in
+ * {@code segments} sealed segments of which {@code linkedSegments}, {@code linkedBytes} in all, were
+ * new since the checkpoint before.
+ */
+public record Checkpoint(Path directory, long sequence, int segments, int linkedSegments, long linkedBytes) {
+}
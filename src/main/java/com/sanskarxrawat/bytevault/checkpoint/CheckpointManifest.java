@@ -0,0 +1,81 @@
+package com.sanskarxrawat.bytevault.checkpoint;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.sanskarxrawat.bytevault.log.FileLogConstants.CHECKPOINT_MANIFEST_FILE;
+import static com.sanskarxrawat.bytevault.log.FileLogConstants.COMPACT_FILE_SUFFIX;
+
+/**
+ * What a checkpoint directory holds, one line per field:
+ * <pre>
+ * sequence &lt;last sequence&gt;
+ * timestamp &lt;epoch millis&gt;
+ * segment &lt;file name&gt; &lt;byte size&gt; &lt;last modified millis&gt;
+ * </pre>
+ * Sealed segments never change, so size and modification time tell a segment apart from the one a
+ * merge later installed under the same name.
+ */
+record CheckpointManifest(long sequence, long timestamp, List<CheckpointedSegment> segments) {
+
+    static final CheckpointManifest EMPTY = new CheckpointManifest(0, 0, List.of());
+
+    record CheckpointedSegment(String fileName, long byteSize, long lastModifiedMils) {
+
+        static CheckpointedSegment of(Path segmentPath) throws IOException {
+            return new CheckpointedSegment(segmentPath.getFileName().toString(), Files.size(segmentPath),
+                    Files.getLastModifiedTime(segmentPath).toMillis());
+        }
+    }
+
+    static CheckpointManifest readFrom(Path directory) throws IOException {
+        Path manifestPath = directory.resolve(CHECKPOINT_MANIFEST_FILE);
+        if (!Files.exists(manifestPath)) {
+            return EMPTY;
+        }
+        long sequence = 0;
+        long timestamp = 0;
+        List<CheckpointedSegment> segments = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(manifestPath, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split(" ");
+                switch (fields[0]) {
+                    case "sequence" -> sequence = Long.parseLong(fields[1]);
+                    case "timestamp" -> timestamp = Long.parseLong(fields[1]);
+                    case "segment" -> segments.add(new CheckpointedSegment(fields[1], Long.parseLong(fields[2]), Long.parseLong(fields[3])));
+                    default -> throw new IOException("Unknown line in checkpoint manifest " + manifestPath + ": " + line);
+                }
+            }
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            throw new IOException("Corrupted checkpoint manifest " + manifestPath, e);
+        }
+        return new CheckpointManifest(sequence, timestamp, segments);
+    }
+
+    /**
+     * Replaces the manifest of {@code directory} in one rename, so it never reads half written.
+     */
+    void writeTo(Path directory) throws IOException {
+        Path manifestPath = directory.resolve(CHECKPOINT_MANIFEST_FILE);
+        Path writingPath = directory.resolve(CHECKPOINT_MANIFEST_FILE + COMPACT_FILE_SUFFIX);
+        try (BufferedWriter writer = Files.newBufferedWriter(writingPath, StandardCharsets.UTF_8)) {
+            writer.write("sequence " + sequence);
+            writer.newLine();
+            writer.write("timestamp " + timestamp);
+            writer.newLine();
+            for (CheckpointedSegment segment : segments) {
+                writer.write("segment " + segment.fileName() + " " + segment.byteSize() + " " + segment.lastModifiedMils());
+                writer.newLine();
+            }
+        }
+        Files.move(writingPath, manifestPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
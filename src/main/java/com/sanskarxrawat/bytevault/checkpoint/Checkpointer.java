@@ -0,0 +1,183 @@
+package com.sanskarxrawat.bytevault.checkpoint;
+
+import com.sanskarxrawat.bytevault.checkpoint.CheckpointManifest.CheckpointedSegment;
+import com.sanskarxrawat.bytevault.constant.VaultConstants;
+import com.sanskarxrawat.bytevault.io.FileIO;
+import com.sanskarxrawat.bytevault.io.LogPosition;
+import com.sanskarxrawat.bytevault.merge.SegmentMerger;
+import com.sanskarxrawat.bytevault.merge.SegmentPins;
+import com.sanskarxrawat.bytevault.storage.file.FileManager;
+import com.sanskarxrawat.bytevault.storage.file.SegmentFiles;
+import com.sanskarxrawat.bytevault.storage.file.VaultFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import static com.sanskarxrawat.bytevault.log.FileLogConstants.BLOOM_FILE_SUFFIX;
+import static com.sanskarxrawat.bytevault.log.FileLogConstants.COLD_FILE_SUFFIX;
+import static com.sanskarxrawat.bytevault.log.FileLogConstants.COMPACT_FILE_SUFFIX;
+import static com.sanskarxrawat.bytevault.log.FileLogConstants.HINT_FILE_SUFFIX;
+
+/**
+ * Backs a live store up into a directory without pausing it. The active file is rolled over, and
+ * every sealed segment is hard linked into the target together with its hint file, bloom filter and
+ * cold marker; sealed segments never change, so the link is a consistent copy that costs no I/O.
+ * Across file systems segments are copied instead. A target that already holds a checkpoint only
+ * gets the segments its manifest does not list, and loses the ones merged away since, so checkpointing
+ * into the same directory again is incremental. The directory opens as a store of its own; one left
+ * behind by an interrupted checkpoint is only consistent again once a checkpoint into it completes.
+ */
+public class Checkpointer {
+    private static final Logger LOGGER = LoggerFactory.getLogger(Checkpointer.class);
+    private static final FileManager<?> VAULT_FILE = new VaultFile();
+    private final String storageDirectory;
+    private final FileIO fileIO;
+    private final ReentrantReadWriteLock segmentLock;
+    private final SegmentPins segmentPins;
+    private final SegmentMerger segmentMerger;
+
+    public Checkpointer(String storageDirectory, FileIO fileIO, ReentrantReadWriteLock segmentLock, SegmentPins segmentPins,
+                        SegmentMerger segmentMerger) {
+        this.storageDirectory = storageDirectory;
+        this.fileIO = fileIO;
+        this.segmentLock = segmentLock;
+        this.segmentPins = segmentPins;
+        this.segmentMerger = segmentMerger;
+    }
+
+    public Checkpoint checkpoint(Path targetDirectory) throws IOException {
+        Files.createDirectories(targetDirectory);
+        if (Files.isSameFile(targetDirectory, Path.of(storageDirectory))) {
+            throw new IllegalArgumentException("Cannot checkpoint a store into its own directory: " + targetDirectory);
+        }
+        CheckpointManifest previous = CheckpointManifest.readFrom(targetDirectory);
+        Map<String, CheckpointedSegment> previousSegments = new HashMap<>();
+        previous.segments().forEach(segment -> previousSegments.put(segment.fileName(), segment));
+
+        SealedSegments sealedSegments = pinSealedSegments();
+        try {
+            List<CheckpointedSegment> segments = new ArrayList<>(sealedSegments.segmentPaths().size());
+            int linkedSegments = 0;
+            long linkedBytes = 0;
+            for (Path segmentPath : sealedSegments.segmentPaths()) {
+                CheckpointedSegment segment = CheckpointedSegment.of(segmentPath);
+                if (!segment.equals(previousSegments.get(segment.fileName())) || !Files.exists(targetDirectory.resolve(segment.fileName()))) {
+                    linkSegment(segmentPath, targetDirectory);
+                    linkedSegments++;
+                    linkedBytes += segment.byteSize();
+                }
+                segments.add(segment);
+            }
+            new CheckpointManifest(sealedSegments.logPosition().lastSequence(), System.currentTimeMillis(), segments).writeTo(targetDirectory);
+            int droppedFiles = dropStaleFiles(targetDirectory, segments);
+            LOGGER.info("Checkpointed {} segments up to sequence {} into {}, linked {} segments of {} bytes and dropped {} stale files",
+                    segments.size(), sealedSegments.logPosition().lastSequence(), targetDirectory, linkedSegments, linkedBytes, droppedFiles);
+            return new Checkpoint(targetDirectory, sealedSegments.logPosition().lastSequence(), segments.size(), linkedSegments, linkedBytes);
+        } finally {
+            release(sealedSegments);
+        }
+    }
+
+    /**
+     * Seals the active file and pins every segment older than the new one, which together hold exactly
+     * the records numbered up to the sealed position. A merge switched in meanwhile may have folded a
+     * later segment into an older name, so the roll over is retried until none did. The segments stay
+     * pinned until {@link #release} is called.
+     */
+    public SealedSegments pinSealedSegments() throws IOException {
+        while (true) {
+            long generation = segmentMerger.generation();
+            LogPosition logPosition = fileIO.seal();
+            File activeFile = new File(logPosition.activeFilePath());
+            segmentLock.readLock().lock();
+            try {
+                if (segmentMerger.generation() == generation) {
+                    List<Path> segmentPaths = SegmentFiles.list(storageDirectory).stream()
+                            .filter(path -> VAULT_FILE.compare(path.toFile(), activeFile, FileManager.SortType.ASC) < 0)
+                            .toList();
+                    segmentPins.pin(segmentPaths);
+                    return new SealedSegments(logPosition, segmentPaths);
+                }
+            } finally {
+                segmentLock.readLock().unlock();
+            }
+            LOGGER.debug("Segments merged while checkpointing {}, sealing again", storageDirectory);
+        }
+    }
+
+    public void release(SealedSegments sealedSegments) {
+        segmentPins.unpin(sealedSegments.segmentPaths());
+    }
+
+    /**
+     * The files making up a sealed segment on disk: the segment itself, then its hint file, bloom filter
+     * and cold marker, which may be missing.
+     */
+    public static List<Path> segmentFilesOf(Path segmentPath) {
+        return List.of(segmentPath, SegmentFiles.hintFilePath(segmentPath), SegmentFiles.bloomFilePath(segmentPath),
+                SegmentFiles.coldMarkerPath(segmentPath));
+    }
+
+    private static void linkSegment(Path segmentPath, Path targetDirectory) throws IOException {
+        // Side files of a segment this one replaced, such as a cold marker, must not stay behind.
+        for (Path filePath : segmentFilesOf(segmentPath)) {
+            Path targetPath = targetDirectory.resolve(filePath.getFileName());
+            Files.deleteIfExists(targetPath);
+            if (Files.exists(filePath)) {
+                link(filePath, targetPath);
+            }
+        }
+    }
+
+    private static void link(Path filePath, Path targetPath) throws IOException {
+        try {
+            Files.createLink(targetPath, filePath);
+        } catch (UnsupportedOperationException | FileSystemException e) {
+            LOGGER.debug("Cannot hard link {} into {}, copying it", filePath, targetPath, e);
+            Files.copy(filePath, targetPath);
+            Files.setLastModifiedTime(targetPath, Files.getLastModifiedTime(filePath));
+        }
+    }
+
+    /**
+     * Deletes the segment files of the target the manifest no longer lists, such as segments merged
+     * away since the checkpoint before.
+     */
+    private static int dropStaleFiles(Path targetDirectory, List<CheckpointedSegment> segments) throws IOException {
+        Set<String> segmentNames = new HashSet<>();
+        segments.forEach(segment -> segmentNames.add(segment.fileName()));
+        List<Path> staleFiles;
+        try (Stream<Path> files = Files.list(targetDirectory)) {
+            staleFiles = files
+                    .filter(path -> path.getFileName().toString().startsWith(VaultConstants.FILE_LOG_PREFIX))
+                    .filter(path -> !segmentNames.contains(segmentNameOf(path.getFileName().toString())))
+                    .toList();
+        }
+        for (Path staleFile : staleFiles) {
+            Files.deleteIfExists(staleFile);
+        }
+        return staleFiles.size();
+    }
+
+    private static String segmentNameOf(String fileName) {
+        for (String suffix : List.of(HINT_FILE_SUFFIX, BLOOM_FILE_SUFFIX, COLD_FILE_SUFFIX, COMPACT_FILE_SUFFIX)) {
+            if (fileName.endsWith(suffix)) {
+                return fileName.substring(0, fileName.length() - suffix.length());
+            }
+        }
+        return fileName;
+    }
+}
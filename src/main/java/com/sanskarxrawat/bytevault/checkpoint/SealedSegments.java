@@ -0,0 +1,13 @@
+package com.sanskarxrawat.bytevault.checkpoint;
+
+import com.sanskarxrawat.bytevault.io.LogPosition;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Pinned segments holding exactly the records numbered up to {@code logPosition.lastSequence()},
+ * oldest first.
+ */
+public record SealedSegments(LogPosition logPosition, List<Path> segmentPaths) {
+}
@@ -0,0 +1,21 @@
+package com.sanskarxrawat.bytevault.compress;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A value compression scheme. The id is written into every record it encoded, so it must stay
+ * stable and unique; custom codecs are made known through {@link Codecs#register(Codec)} before a
+ * store holding their records is opened.
+ */
+public interface Codec {
+
+    byte id();
+
+    byte[] compress(byte[] value);
+
+    /**
+     * Decompresses everything remaining in {@code src} into {@code dst}, filling exactly the
+     * remaining room of {@code dst}, which is the original value size.
+     */
+    void decompress(ByteBuffer src, ByteBuffer dst);
+}
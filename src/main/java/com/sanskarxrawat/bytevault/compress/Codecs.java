@@ -0,0 +1,116 @@
+package com.sanskarxrawat.bytevault.compress;
+
+import com.sanskarxrawat.bytevault.exception.file.FileReadException;
+import com.sanskarxrawat.bytevault.exception.storage.InvalidConfigStorageException;
+import com.sanskarxrawat.bytevault.log.FileLogConstants;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.Deflater;
+
+/**
+ * Registry of codecs by id, and the framing of stored values. A value encoded by any codec but
+ * {@link #NONE} is stored as
+ * ----------------------------------
+ * | Raw size |  Compressed value   |
+ * |  4 bytes |       byte[]        |
+ * ----------------------------------
+ * so readers can size their buffer before decompressing.
+ */
+public final class Codecs {
+    public static final int RAW_SIZE_BYTE_LENGTH = 4;
+    public static final Codec NONE = new NoneCodec();
+    public static final Codec DEFLATE = new DeflateCodec(Deflater.BEST_SPEED);
+    private static final Map<Byte, Codec> CODECS = new ConcurrentHashMap<>();
+
+    static {
+        register(NONE);
+        register(DEFLATE);
+    }
+
+    private Codecs() {
+    }
+
+    public static void register(Codec codec) {
+        if ((codec.id() & ~FileLogConstants.CODEC_ID_MASK) != 0) {
+            throw new InvalidConfigStorageException("Codec id " + codec.id() + " is out of range, ids go up to " + FileLogConstants.CODEC_ID_MASK);
+        }
+        Codec registered = CODECS.putIfAbsent(codec.id(), codec);
+        if (registered != null && registered.getClass() != codec.getClass()) {
+            throw new InvalidConfigStorageException("Codec id " + codec.id() + " is already taken by " + registered.getClass().getName());
+        }
+    }
+
+    public static Codec of(byte id) {
+        Codec codec = CODECS.get(id);
+        if (codec == null) {
+            throw new FileReadException("Unknown codec id " + id + ", register the codec before opening the store");
+        }
+        return codec;
+    }
+
+    /**
+     * Encodes {@code value} with {@code codec}, or returns null when that would not make it smaller.
+     */
+    public static byte[] encode(Codec codec, byte[] value) {
+        byte[] compressed = codec.compress(value);
+        if (RAW_SIZE_BYTE_LENGTH + compressed.length >= value.length) {
+            return null;
+        }
+        return ByteBuffer.allocate(RAW_SIZE_BYTE_LENGTH + compressed.length)
+                .putInt(value.length)
+                .put(compressed)
+                .array();
+    }
+
+    /**
+     * The original size of the {@code length} stored bytes at {@code offset} of {@code stored}.
+     */
+    public static int decodedSize(byte codecId, ByteBuffer stored, int offset, int length) {
+        return codecId == NONE.id() ? length : stored.getInt(offset);
+    }
+
+    public static byte[] decode(byte codecId, byte[] stored) {
+        if (codecId == NONE.id()) {
+            return stored;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(stored);
+        byte[] value = new byte[buffer.getInt(0)];
+        of(codecId).decompress(buffer.position(RAW_SIZE_BYTE_LENGTH), ByteBuffer.wrap(value));
+        return value;
+    }
+
+    /**
+     * Decodes the {@code length} stored bytes at {@code offset} of {@code stored} into {@code dst} at
+     * its position, which must have room for {@link #decodedSize}.
+     */
+    public static void decode(byte codecId, ByteBuffer stored, int offset, int length, ByteBuffer dst) {
+        int decodedSize = decodedSize(codecId, stored, offset, length);
+        ByteBuffer src = stored.slice(offset, length);
+        if (codecId == NONE.id()) {
+            dst.put(src);
+            return;
+        }
+        of(codecId).decompress(src.position(RAW_SIZE_BYTE_LENGTH), dst.slice(dst.position(), decodedSize));
+        dst.position(dst.position() + decodedSize);
+    }
+
+    private static final class NoneCodec implements Codec {
+
+        @Override
+        public byte id() {
+            return 0;
+        }
+
+        @Override
+        public byte[] compress(byte[] value) {
+            return value;
+        }
+
+        @Override
+        public void decompress(ByteBuffer src, ByteBuffer dst) {
+            dst.put(src);
+        }
+    }
+}
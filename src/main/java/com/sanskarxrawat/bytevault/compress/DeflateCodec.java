@@ -0,0 +1,61 @@
+package com.sanskarxrawat.bytevault.compress;
+
+import com.sanskarxrawat.bytevault.exception.file.FileReadException;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * JDK deflate. Deflaters and inflaters hold native memory and are costly to create, so each thread
+ * keeps and resets its own.
+ */
+public class DeflateCodec implements Codec {
+    public static final byte ID = 1;
+    private final ThreadLocal<Deflater> deflaters;
+    private final ThreadLocal<Inflater> inflaters = ThreadLocal.withInitial(Inflater::new);
+
+    public DeflateCodec(int level) {
+        this.deflaters = ThreadLocal.withInitial(() -> new Deflater(level));
+    }
+
+    @Override
+    public byte id() {
+        return ID;
+    }
+
+    @Override
+    public byte[] compress(byte[] value) {
+        Deflater deflater = deflaters.get();
+        deflater.reset();
+        deflater.setInput(value);
+        deflater.finish();
+        byte[] compressed = new byte[value.length + 64];
+        int length = 0;
+        while (!deflater.finished()) {
+            if (length == compressed.length) {
+                compressed = Arrays.copyOf(compressed, compressed.length * 2);
+            }
+            length += deflater.deflate(compressed, length, compressed.length - length);
+        }
+        return Arrays.copyOf(compressed, length);
+    }
+
+    @Override
+    public void decompress(ByteBuffer src, ByteBuffer dst) {
+        Inflater inflater = inflaters.get();
+        inflater.reset();
+        inflater.setInput(src);
+        try {
+            while (dst.hasRemaining()) {
+                if (inflater.inflate(dst) == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new FileReadException("Deflated value ended " + dst.remaining() + " bytes short");
+                }
+            }
+        } catch (DataFormatException e) {
+            throw new FileReadException("Corrupt deflated value", e);
+        }
+    }
+}
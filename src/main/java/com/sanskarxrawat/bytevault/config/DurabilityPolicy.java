@@ -0,0 +1,16 @@
+package com.sanskarxrawat.bytevault.config;
+
+public enum DurabilityPolicy {
+    /**
+     * Records are handed to the OS page cache and never forced by the store.
+     */
+    NONE,
+    /**
+     * The active file is forced at most once every {@code syncIntervalMils}; writers wait for that force.
+     */
+    EVERY_N_MILLIS,
+    /**
+     * Every group-committed batch is forced before its writers are released.
+     */
+    EVERY_WRITE
+}
@@ -0,0 +1,12 @@
+package com.sanskarxrawat.bytevault.config;
+
+public enum KeyDirectoryType {
+    /**
+     * Ordered key directory backed by the paged {@link com.sanskarxrawat.bytevault.datastructure.BPlusTree}.
+     */
+    BTREE,
+    /**
+     * Open-addressing hash table kept outside the Java heap, see {@link com.sanskarxrawat.bytevault.index.OffHeapKeyDirectory}.
+     */
+    OFF_HEAP
+}
@@ -0,0 +1,102 @@
+package com.sanskarxrawat.bytevault.config;
+
+import com.sanskarxrawat.bytevault.compress.Codec;
+import com.sanskarxrawat.bytevault.exception.storage.InvalidConfigStorageException;
+
+import static com.sanskarxrawat.bytevault.constant.VaultConstants.*;
+
+/**
+ * Settings of one keyspace of a store, see {@link VaultConfig.Builder#keyspace}. Like the store's own
+ * config they are not persisted, they apply for as long as the store is open.
+ */
+public class KeyspaceConfig {
+
+    private Integer cacheSize;
+    private Codec compressionCodec;
+    private Integer compressionThreshold;
+    private Codec mergeCompressionCodec;
+
+    protected KeyspaceConfig(Builder builder) {
+        this.cacheSize = builder.cacheSize;
+        this.compressionCodec = builder.compressionCodec;
+        this.compressionThreshold = builder.compressionThreshold;
+        this.mergeCompressionCodec = builder.mergeCompressionCodec;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * The settings the store applies to its default keyspace, already validated with the store's config.
+     */
+    public static KeyspaceConfig of(VaultConfig vaultConfig) {
+        return new KeyspaceConfig(builder()
+                .cacheSize(vaultConfig.getCacheSize())
+                .compressionCodec(vaultConfig.getCompressionCodec())
+                .compressionThreshold(vaultConfig.getCompressionThreshold())
+                .mergeCompressionCodec(vaultConfig.getMergeCompressionCodec()));
+    }
+
+    /**
+     * How many values the keyspace's own cache holds.
+     */
+    public Integer getCacheSize() {
+        return cacheSize;
+    }
+
+    public Codec getCompressionCodec() {
+        return compressionCodec;
+    }
+
+    public Integer getCompressionThreshold() {
+        return compressionThreshold;
+    }
+
+    /**
+     * Codec merges rewrite the keyspace's surviving values with, or null to copy them as they are.
+     */
+    public Codec getMergeCompressionCodec() {
+        return mergeCompressionCodec;
+    }
+
+    public static class Builder {
+
+        private Integer cacheSize = DEFAULT_KEYSPACE_CACHE_SIZE;
+        private Codec compressionCodec = DEFAULT_COMPRESSION_CODEC;
+        private Integer compressionThreshold = DEFAULT_COMPRESSION_THRESHOLD;
+        private Codec mergeCompressionCodec;
+
+        public Builder cacheSize(int cacheSize) {
+            this.cacheSize = cacheSize;
+            return this;
+        }
+
+        public Builder compressionCodec(Codec compressionCodec) {
+            this.compressionCodec = compressionCodec;
+            return this;
+        }
+
+        public Builder compressionThreshold(int compressionThreshold) {
+            this.compressionThreshold = compressionThreshold;
+            return this;
+        }
+
+        public Builder mergeCompressionCodec(Codec mergeCompressionCodec) {
+            this.mergeCompressionCodec = mergeCompressionCodec;
+            return this;
+        }
+
+        public KeyspaceConfig build() {
+            if (cacheSize <= 0) {
+                throw new InvalidConfigStorageException("Invalid config cacheSize = " + cacheSize);
+            } else if (compressionCodec == null) {
+                throw new InvalidConfigStorageException("Invalid config compressionCodec = null");
+            } else if (compressionThreshold < 0) {
+                throw new InvalidConfigStorageException("Invalid config compressionThreshold = " + compressionThreshold);
+            }
+
+            return new KeyspaceConfig(this);
+        }
+    }
+}
@@ -1,8 +1,12 @@
 package com.sanskarxrawat.bytevault.config;
 
+import com.sanskarxrawat.bytevault.compress.Codec;
 import com.sanskarxrawat.bytevault.constant.VaultConstants;
 import com.sanskarxrawat.bytevault.exception.storage.InvalidConfigStorageException;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import static com.sanskarxrawat.bytevault.constant.VaultConstants.*;
 
 public class VaultConfig {
@@ -15,6 +19,27 @@ public class VaultConfig {
     private Boolean cacheEnabled;
     private Integer cacheSize;
     private Integer mergePeriodMils;
+    private DurabilityPolicy durabilityPolicy;
+    private Integer syncIntervalMils;
+    private KeyDirectoryType keyDirectoryType;
+    private Integer indexPageSize;
+    private Integer indexBufferPoolPages;
+    private Integer mergeBytesPerSecond;
+    private Integer mergeBufferSize;
+    private Double bloomFilterFpp;
+    private Codec compressionCodec;
+    private Integer compressionThreshold;
+    private Codec mergeCompressionCodec;
+    private Integer expiryTickMils;
+    private Boolean jmxEnabled;
+    private Integer asyncMaxInFlight;
+    private Boolean tieredMergeEnabled;
+    private Integer hotKeyMinFrequency;
+    private Boolean replicationEnabled;
+    private Integer replicationPort;
+    private Integer replicationBacklogBytes;
+    private KeyspaceConfig keyspaceDefaults;
+    private Map<String, KeyspaceConfig> keyspaceConfigs;
 
     protected VaultConfig(Builder builder) {
         this.storageDir = builder.storageDir;
@@ -22,12 +47,67 @@ public class VaultConfig {
         this.cacheEnabled = builder.cacheEnabled;
         this.cacheSize = builder.cacheSize;
         this.mergePeriodMils = builder.mergePeriodMils;
+        this.durabilityPolicy = builder.durabilityPolicy;
+        this.syncIntervalMils = builder.syncIntervalMils;
+        this.keyDirectoryType = builder.keyDirectoryType;
+        this.indexPageSize = builder.indexPageSize;
+        this.indexBufferPoolPages = builder.indexBufferPoolPages;
+        this.mergeBytesPerSecond = builder.mergeBytesPerSecond;
+        this.mergeBufferSize = builder.mergeBufferSize;
+        this.bloomFilterFpp = builder.bloomFilterFpp;
+        this.compressionCodec = builder.compressionCodec;
+        this.compressionThreshold = builder.compressionThreshold;
+        this.mergeCompressionCodec = builder.mergeCompressionCodec;
+        this.expiryTickMils = builder.expiryTickMils;
+        this.jmxEnabled = builder.jmxEnabled;
+        this.asyncMaxInFlight = builder.asyncMaxInFlight;
+        this.tieredMergeEnabled = builder.tieredMergeEnabled;
+        this.hotKeyMinFrequency = builder.hotKeyMinFrequency;
+        this.replicationEnabled = builder.replicationEnabled;
+        this.replicationPort = builder.replicationPort;
+        this.replicationBacklogBytes = builder.replicationBacklogBytes;
+        this.keyspaceDefaults = builder.keyspaceDefaults;
+        this.keyspaceConfigs = Map.copyOf(builder.keyspaceConfigs);
     }
 
     public static Builder builder() {
         return new Builder();
     }
 
+    /**
+     * A builder starting from this config's values.
+     */
+    public Builder toBuilder() {
+        Builder builder = new Builder();
+        builder.storageDir = storageDir;
+        builder.fileSizeLimit = fileSizeLimit;
+        builder.cacheEnabled = cacheEnabled;
+        builder.cacheSize = cacheSize;
+        builder.mergePeriodMils = mergePeriodMils;
+        builder.durabilityPolicy = durabilityPolicy;
+        builder.syncIntervalMils = syncIntervalMils;
+        builder.keyDirectoryType = keyDirectoryType;
+        builder.indexPageSize = indexPageSize;
+        builder.indexBufferPoolPages = indexBufferPoolPages;
+        builder.mergeBytesPerSecond = mergeBytesPerSecond;
+        builder.mergeBufferSize = mergeBufferSize;
+        builder.bloomFilterFpp = bloomFilterFpp;
+        builder.compressionCodec = compressionCodec;
+        builder.compressionThreshold = compressionThreshold;
+        builder.mergeCompressionCodec = mergeCompressionCodec;
+        builder.expiryTickMils = expiryTickMils;
+        builder.jmxEnabled = jmxEnabled;
+        builder.asyncMaxInFlight = asyncMaxInFlight;
+        builder.tieredMergeEnabled = tieredMergeEnabled;
+        builder.hotKeyMinFrequency = hotKeyMinFrequency;
+        builder.replicationEnabled = replicationEnabled;
+        builder.replicationPort = replicationPort;
+        builder.replicationBacklogBytes = replicationBacklogBytes;
+        builder.keyspaceDefaults = keyspaceDefaults;
+        builder.keyspaceConfigs = new HashMap<>(keyspaceConfigs);
+        return builder;
+    }
+
     public String getStorageDir() {
         return storageDir;
     }
@@ -48,6 +128,122 @@ public class VaultConfig {
         return mergePeriodMils;
     }
 
+    public DurabilityPolicy getDurabilityPolicy() {
+        return durabilityPolicy;
+    }
+
+    public Integer getSyncIntervalMils() {
+        return syncIntervalMils;
+    }
+
+    public KeyDirectoryType getKeyDirectoryType() {
+        return keyDirectoryType;
+    }
+
+    public Integer getIndexPageSize() {
+        return indexPageSize;
+    }
+
+    public Integer getIndexBufferPoolPages() {
+        return indexBufferPoolPages;
+    }
+
+    public Integer getMergeBytesPerSecond() {
+        return mergeBytesPerSecond;
+    }
+
+    public Integer getMergeBufferSize() {
+        return mergeBufferSize;
+    }
+
+    public Double getBloomFilterFpp() {
+        return bloomFilterFpp;
+    }
+
+    public Codec getCompressionCodec() {
+        return compressionCodec;
+    }
+
+    public Integer getCompressionThreshold() {
+        return compressionThreshold;
+    }
+
+    /**
+     * Codec merges rewrite surviving values with, or null to copy records as they are.
+     */
+    public Codec getMergeCompressionCodec() {
+        return mergeCompressionCodec;
+    }
+
+    public Integer getExpiryTickMils() {
+        return expiryTickMils;
+    }
+
+    /**
+     * Whether the store publishes its stats as an MXBean on the platform MBean server.
+     */
+    public Boolean isJmxEnabled() {
+        return jmxEnabled;
+    }
+
+    /**
+     * How many async operations may be in flight before new ones are rejected.
+     */
+    public Integer getAsyncMaxInFlight() {
+        return asyncMaxInFlight;
+    }
+
+    /**
+     * Whether merges write hot and cold keys to separate segments and leave cold segments alone.
+     */
+    public Boolean isTieredMergeEnabled() {
+        return tieredMergeEnabled;
+    }
+
+    /**
+     * How many recent reads and writes make a key hot, at most 15.
+     */
+    public Integer getHotKeyMinFrequency() {
+        return hotKeyMinFrequency;
+    }
+
+    /**
+     * Whether the store serves followers, see {@code ReplicaVault}.
+     */
+    public Boolean isReplicationEnabled() {
+        return replicationEnabled;
+    }
+
+    /**
+     * Port followers connect to, 0 picks a free one.
+     */
+    public Integer getReplicationPort() {
+        return replicationPort;
+    }
+
+    /**
+     * How many bytes of recent commits are kept for followers to catch up from after a disconnect;
+     * a follower further behind is sent every sealed segment instead.
+     */
+    public Integer getReplicationBacklogBytes() {
+        return replicationBacklogBytes;
+    }
+
+    /**
+     * Settings of the keyspace {@code name}, the keyspace defaults unless it was configured on its own.
+     */
+    public KeyspaceConfig getKeyspaceConfig(String name) {
+        return keyspaceConfigs.getOrDefault(name, keyspaceDefaults);
+    }
+
+    public KeyspaceConfig getKeyspaceDefaults() {
+        return keyspaceDefaults;
+    }
+
+    public Map<String, KeyspaceConfig> getKeyspaceConfigs() {
+        return keyspaceConfigs;
+    }
+
     public static class Builder {
 
         private String storageDir = VaultConstants.DEFAULT_STORAGE_DIR;
@@ -55,6 +251,27 @@ public class VaultConfig {
         private Boolean cacheEnabled = DEFAULT_CACHE_ENABLED;
         private Integer cacheSize = DEFAULT_CACHE_SIZE;
         private Integer mergePeriodMils = DEFAULT_MERGE_PERIOD_MILS;
+        private DurabilityPolicy durabilityPolicy = DEFAULT_DURABILITY_POLICY;
+        private Integer syncIntervalMils = DEFAULT_SYNC_INTERVAL_MILS;
+        private KeyDirectoryType keyDirectoryType = DEFAULT_KEY_DIRECTORY_TYPE;
+        private Integer indexPageSize = DEFAULT_INDEX_PAGE_SIZE;
+        private Integer indexBufferPoolPages = DEFAULT_INDEX_BUFFER_POOL_PAGES;
+        private Integer mergeBytesPerSecond = DEFAULT_MERGE_BYTES_PER_SECOND;
+        private Integer mergeBufferSize = DEFAULT_MERGE_BUFFER_SIZE;
+        private Double bloomFilterFpp = DEFAULT_BLOOM_FILTER_FPP;
+        private Codec compressionCodec = DEFAULT_COMPRESSION_CODEC;
+        private Integer compressionThreshold = DEFAULT_COMPRESSION_THRESHOLD;
+        private Codec mergeCompressionCodec;
+        private Integer expiryTickMils = DEFAULT_EXPIRY_TICK_MILS;
+        private Boolean jmxEnabled = DEFAULT_JMX_ENABLED;
+        private Integer asyncMaxInFlight = DEFAULT_ASYNC_MAX_IN_FLIGHT;
+        private Boolean tieredMergeEnabled = DEFAULT_TIERED_MERGE_ENABLED;
+        private Integer hotKeyMinFrequency = DEFAULT_HOT_KEY_MIN_FREQUENCY;
+        private Boolean replicationEnabled = DEFAULT_REPLICATION_ENABLED;
+        private Integer replicationPort = DEFAULT_REPLICATION_PORT;
+        private Integer replicationBacklogBytes = DEFAULT_REPLICATION_BACKLOG_BYTES;
+        private KeyspaceConfig keyspaceDefaults = KeyspaceConfig.builder().build();
+        private Map<String, KeyspaceConfig> keyspaceConfigs = new HashMap<>();
 
         public Builder storageDir(String storageDir) {
             this.storageDir = storageDir;
@@ -81,6 +298,114 @@ public class VaultConfig {
             return this;
         }
 
+        public Builder durabilityPolicy(DurabilityPolicy durabilityPolicy) {
+            this.durabilityPolicy = durabilityPolicy;
+            return this;
+        }
+
+        public Builder syncIntervalMils(int syncIntervalMils) {
+            this.syncIntervalMils = syncIntervalMils;
+            return this;
+        }
+
+        public Builder keyDirectoryType(KeyDirectoryType keyDirectoryType) {
+            this.keyDirectoryType = keyDirectoryType;
+            return this;
+        }
+
+        public Builder indexPageSize(int indexPageSize) {
+            this.indexPageSize = indexPageSize;
+            return this;
+        }
+
+        public Builder indexBufferPoolPages(int indexBufferPoolPages) {
+            this.indexBufferPoolPages = indexBufferPoolPages;
+            return this;
+        }
+
+        public Builder mergeBytesPerSecond(int mergeBytesPerSecond) {
+            this.mergeBytesPerSecond = mergeBytesPerSecond;
+            return this;
+        }
+
+        public Builder mergeBufferSize(int mergeBufferSize) {
+            this.mergeBufferSize = mergeBufferSize;
+            return this;
+        }
+
+        public Builder bloomFilterFpp(double bloomFilterFpp) {
+            this.bloomFilterFpp = bloomFilterFpp;
+            return this;
+        }
+
+        public Builder compressionCodec(Codec compressionCodec) {
+            this.compressionCodec = compressionCodec;
+            return this;
+        }
+
+        public Builder compressionThreshold(int compressionThreshold) {
+            this.compressionThreshold = compressionThreshold;
+            return this;
+        }
+
+        public Builder mergeCompressionCodec(Codec mergeCompressionCodec) {
+            this.mergeCompressionCodec = mergeCompressionCodec;
+            return this;
+        }
+
+        public Builder expiryTickMils(int expiryTickMils) {
+            this.expiryTickMils = expiryTickMils;
+            return this;
+        }
+
+        public Builder jmxEnabled(boolean jmxEnabled) {
+            this.jmxEnabled = jmxEnabled;
+            return this;
+        }
+
+        public Builder asyncMaxInFlight(int asyncMaxInFlight) {
+            this.asyncMaxInFlight = asyncMaxInFlight;
+            return this;
+        }
+
+        public Builder tieredMergeEnabled(boolean tieredMergeEnabled) {
+            this.tieredMergeEnabled = tieredMergeEnabled;
+            return this;
+        }
+
+        public Builder hotKeyMinFrequency(int hotKeyMinFrequency) {
+            this.hotKeyMinFrequency = hotKeyMinFrequency;
+            return this;
+        }
+
+        public Builder replicationEnabled(boolean replicationEnabled) {
+            this.replicationEnabled = replicationEnabled;
+            return this;
+        }
+
+        public Builder replicationPort(int replicationPort) {
+            this.replicationPort = replicationPort;
+            return this;
+        }
+
+        public Builder replicationBacklogBytes(int replicationBacklogBytes) {
+            this.replicationBacklogBytes = replicationBacklogBytes;
+            return this;
+        }
+
+        /**
+         * Settings of every keyspace not configured with {@link #keyspace}.
+         */
+        public Builder keyspaceDefaults(KeyspaceConfig keyspaceDefaults) {
+            this.keyspaceDefaults = keyspaceDefaults;
+            return this;
+        }
+
+        public Builder keyspace(String name, KeyspaceConfig keyspaceConfig) {
+            this.keyspaceConfigs.put(name, keyspaceConfig);
+            return this;
+        }
+
         public VaultConfig build() {
             if (storageDir == null || storageDir.isEmpty()) {
                 throw new InvalidConfigStorageException("Invalid config storageDir = " + storageDir);
@@ -90,6 +415,40 @@ public class VaultConfig {
                 throw new InvalidConfigStorageException("Invalid config cacheSize = " + cacheSize);
             } else if (mergePeriodMils <= 0) {
                 throw new InvalidConfigStorageException("Invalid config mergePeriodMils = " + mergePeriodMils);
+            } else if (durabilityPolicy == null) {
+                throw new InvalidConfigStorageException("Invalid config durabilityPolicy = null");
+            } else if (DurabilityPolicy.EVERY_N_MILLIS.equals(durabilityPolicy) && syncIntervalMils <= 0) {
+                throw new InvalidConfigStorageException("Invalid config syncIntervalMils = " + syncIntervalMils);
+            } else if (keyDirectoryType == null) {
+                throw new InvalidConfigStorageException("Invalid config keyDirectoryType = null");
+            } else if (indexPageSize < 512) {
+                throw new InvalidConfigStorageException("Invalid config indexPageSize = " + indexPageSize);
+            } else if (indexBufferPoolPages < 16) {
+                throw new InvalidConfigStorageException("Invalid config indexBufferPoolPages = " + indexBufferPoolPages);
+            } else if (mergeBytesPerSecond <= 0) {
+                throw new InvalidConfigStorageException("Invalid config mergeBytesPerSecond = " + mergeBytesPerSecond);
+            } else if (mergeBufferSize <= 0) {
+                throw new InvalidConfigStorageException("Invalid config mergeBufferSize = " + mergeBufferSize);
+            } else if (!(bloomFilterFpp > 0 && bloomFilterFpp < 1)) {
+                throw new InvalidConfigStorageException("Invalid config bloomFilterFpp = " + bloomFilterFpp);
+            } else if (compressionCodec == null) {
+                throw new InvalidConfigStorageException("Invalid config compressionCodec = null");
+            } else if (compressionThreshold < 0) {
+                throw new InvalidConfigStorageException("Invalid config compressionThreshold = " + compressionThreshold);
+            } else if (expiryTickMils <= 0) {
+                throw new InvalidConfigStorageException("Invalid config expiryTickMils = " + expiryTickMils);
+            } else if (asyncMaxInFlight <= 0) {
+                throw new InvalidConfigStorageException("Invalid config asyncMaxInFlight = " + asyncMaxInFlight);
+            } else if (hotKeyMinFrequency < 1 || hotKeyMinFrequency > 15) {
+                throw new InvalidConfigStorageException("Invalid config hotKeyMinFrequency = " + hotKeyMinFrequency);
+            } else if (replicationPort < 0 || replicationPort > 65535) {
+                throw new InvalidConfigStorageException("Invalid config replicationPort = " + replicationPort);
+            } else if (replicationBacklogBytes <= 0) {
+                throw new InvalidConfigStorageException("Invalid config replicationBacklogBytes = " + replicationBacklogBytes);
+            } else if (keyspaceDefaults == null) {
+                throw new InvalidConfigStorageException("Invalid config keyspaceDefaults = null");
+            } else if (keyspaceConfigs.containsKey(null) || keyspaceConfigs.containsValue(null)) {
+                throw new InvalidConfigStorageException("Invalid config keyspace = null");
             }
 
             return new VaultConfig(this);
@@ -1,5 +1,10 @@
 package com.sanskarxrawat.bytevault.constant;
 
+import com.sanskarxrawat.bytevault.compress.Codec;
+import com.sanskarxrawat.bytevault.compress.Codecs;
+import com.sanskarxrawat.bytevault.config.DurabilityPolicy;
+import com.sanskarxrawat.bytevault.config.KeyDirectoryType;
+
 public class VaultConstants {
 
     public static final String DEFAULT_STORAGE_DIR = "/bcask";
@@ -7,7 +12,53 @@ public class VaultConstants {
     public static final Boolean DEFAULT_CACHE_ENABLED = true;
     public static final Integer DEFAULT_CACHE_SIZE = 10000;
     public static final Integer DEFAULT_MERGE_PERIOD_MILS = 300000;
+    public static final DurabilityPolicy DEFAULT_DURABILITY_POLICY = DurabilityPolicy.NONE;
+    public static final Integer DEFAULT_SYNC_INTERVAL_MILS = 1000;
+    public static final Integer GROUP_COMMIT_MAX_BATCH_SIZE = 4096;
+    public static final KeyDirectoryType DEFAULT_KEY_DIRECTORY_TYPE = KeyDirectoryType.BTREE;
+    public static final Integer DEFAULT_KEY_DIRECTORY_CAPACITY = 1 << 16;
+    public static final Integer DEFAULT_INDEX_PAGE_SIZE = 4096;
+    public static final Integer DEFAULT_INDEX_BUFFER_POOL_PAGES = 1024;
+    public static final Integer DEFAULT_MERGE_BYTES_PER_SECOND = 64 * 1024 * 1024;
+    public static final Integer DEFAULT_MERGE_BUFFER_SIZE = 1024 * 1024;
+    public static final Integer MERGE_RELOCATION_BATCH_SIZE = 1024;
+    public static final Double DEFAULT_BLOOM_FILTER_FPP = 0.01;
+    public static final Integer BLOOM_FILTER_BYTES_PER_KEY = 64;
+    public static final Integer MULTI_GET_MAX_GAP_BYTES = 4096;
+    public static final Integer MULTI_GET_MAX_READ_BYTES = 1024 * 1024;
+    public static final Codec DEFAULT_COMPRESSION_CODEC = Codecs.NONE;
+    public static final Integer DEFAULT_COMPRESSION_THRESHOLD = 512;
+    public static final Integer DEFAULT_EXPIRY_TICK_MILS = 1000;
+    public static final Integer EXPIRY_WHEEL_SIZE = 64;
+    public static final Boolean DEFAULT_JMX_ENABLED = false;
+    public static final Integer DEFAULT_ASYNC_MAX_IN_FLIGHT = 1024;
+    public static final Integer ASYNC_READ_ATTEMPTS = 3;
+    public static final Integer SCAN_BATCH_SIZE = 256;
+    public static final Boolean DEFAULT_TIERED_MERGE_ENABLED = false;
+    public static final Integer DEFAULT_HOT_KEY_MIN_FREQUENCY = 2;
+    public static final Integer COLD_TIER_MAX_SEGMENTS = 8;
+    public static final Boolean DEFAULT_REPLICATION_ENABLED = false;
+    public static final Integer DEFAULT_REPLICATION_PORT = 0;
+    public static final Integer DEFAULT_REPLICATION_BACKLOG_BYTES = 64 * 1024 * 1024;
+    public static final Integer REPLICATION_HEARTBEAT_MILS = 500;
+    public static final Integer REPLICA_RECONNECT_MILS = 1000;
+    public static final String REPLICA_SYNC_DIR = "replica-sync";
+    public static final String REPLICA_PREVIOUS_DIR = "replica-previous";
+    public static final String SYNC_JOURNAL_FILE = "sync.journal";
+    public static final String DEFAULT_KEYSPACE = "default";
+    public static final Integer DEFAULT_KEYSPACE_ID = 0;
+    public static final Integer CATALOG_KEYSPACE_ID = -1;
+    public static final Integer FIRST_KEYSPACE_ID = 1;
+    public static final Integer MAX_KEYSPACE_NAME_BYTES = 255;
+    public static final Integer DEFAULT_KEYSPACE_CACHE_SIZE = 1000;
+    public static final Integer KEYSPACE_INDEX_BUFFER_POOL_PAGES = 64;
+    public static final Integer KEYSPACE_KEY_DIRECTORY_CAPACITY = 1024;
+    public static final String INDEX_FILE_NAME = "index.db";
+    public static final String KEYSPACE_INDEX_FILE_PREFIX = "index-";
+    public static final String INDEX_FILE_SUFFIX = ".db";
 
     public static final String FILE_LOG_PREFIX = "bcask_";
     public static final String DELIMITER = "_";
+    public static final String PARTITION_DIR_PREFIX = "partition-";
+    public static final String PARTITION_COUNT_FILE = "partitions";
 }
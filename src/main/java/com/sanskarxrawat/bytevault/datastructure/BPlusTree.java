@@ -0,0 +1,448 @@
+package com.sanskarxrawat.bytevault.datastructure;
+
+import com.sanskarxrawat.bytevault.exception.file.FileReadException;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Page-oriented B+tree over byte[] keys ordered like {@link ByteArrayWrapper}. Nodes live in fixed-size
+ * pages of the index file and are cached in a bounded {@link BufferPool}, so an update touches only the
+ * pages on its root-to-leaf path. Leaves are chained through sibling links. Deletes never rebalance,
+ * under-full leaves are reused by later inserts.
+ * <pre>
+ * Meta page (page 0)
+ * ---------------------------------------------------------
+ * | Magic   | Page size | Root page id | Next page id |
+ * | 4 bytes |  4 bytes  |    8 bytes   |    8 bytes   |
+ * ---------------------------------------------------------
+ * Node page
+ * ------------------------------------------------------------------------------------------
+ * | Is leaf | Entry count | Link    | Entries                                            |
+ * | 1 byte  |   4 bytes   | 8 bytes | leaf: key size, key, value size, value             |
+ * |         |             |         | internal: key size, key, child page id             |
+ * ------------------------------------------------------------------------------------------
+ * </pre>
+ * The link is the next sibling for a leaf and the leftmost child for an internal node.
+ */
+public class BPlusTree implements AutoCloseable {
+    private static final int MAGIC = 0x42505452;
+    private static final int NODE_HEADER_SIZE = 13;
+    private static final long META_PAGE_ID = 0;
+    private static final long NO_PAGE = -1;
+
+    private final File indexFile;
+    private final RandomAccessFile raf;
+    private final FileChannel channel;
+    private final int pageSize;
+    private final int maxEntrySize;
+    private final BufferPool<Node> bufferPool;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private long rootPageId;
+    private long nextPageId;
+
+    public BPlusTree(File indexFile, int pageSize, int bufferPoolPages) {
+        this.indexFile = indexFile;
+        this.pageSize = pageSize;
+        // At least four entries per page so a split always leaves both halves non-empty.
+        this.maxEntrySize = (pageSize - NODE_HEADER_SIZE) / 4;
+        try {
+            this.raf = new RandomAccessFile(indexFile, "rw");
+            this.channel = raf.getChannel();
+            this.bufferPool = new BufferPool<>(new NodeStore(), bufferPoolPages);
+            if (raf.length() >= pageSize) {
+                loadMeta();
+            } else {
+                this.nextPageId = META_PAGE_ID + 1;
+                this.rootPageId = allocate(new Node(true));
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Error initializing B+Tree", e);
+        }
+    }
+
+    public byte[] get(byte[] key) {
+        lock.readLock().lock();
+        try {
+            long pageId = rootPageId;
+            while (true) {
+                Node node = bufferPool.pin(pageId);
+                try {
+                    if (node.isLeaf) {
+                        int i = search(node.keys, key);
+                        return i >= 0 ? node.values.get(i) : null;
+                    }
+                    pageId = node.children.get(childIndex(node, key));
+                } finally {
+                    bufferPool.unpin(node.pageId);
+                }
+            }
+        } catch (IOException e) {
+            throw new FileReadException("Failed to read index page from " + indexFile, e);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Collects up to {@code limit} entries in key order, from {@code startKey} (the first key when null,
+     * skipped itself when {@code startExclusive}) up to but excluding {@code endKey} (no bound when null).
+     * Descends once and then follows the leaf chain; the tree is locked for this batch only.
+     */
+    public List<Entry> scan(byte[] startKey, boolean startExclusive, byte[] endKey, int limit) {
+        List<Entry> entries = new ArrayList<>(limit);
+        lock.readLock().lock();
+        try {
+            long pageId = rootPageId;
+            int i = -1;
+            while (pageId != NO_PAGE && entries.size() < limit) {
+                Node node = bufferPool.pin(pageId);
+                try {
+                    if (!node.isLeaf) {
+                        pageId = node.children.get(startKey == null ? 0 : childIndex(node, startKey));
+                        continue;
+                    }
+                    if (i < 0) {
+                        i = startKey == null ? 0 : search(node.keys, startKey);
+                        i = i >= 0 ? (startExclusive ? i + 1 : i) : -i - 1;
+                    }
+                    for (; i < node.keys.size() && entries.size() < limit; i++) {
+                        byte[] key = node.keys.get(i);
+                        if (endKey != null && Arrays.compare(key, endKey) >= 0) {
+                            return entries;
+                        }
+                        entries.add(new Entry(key, node.values.get(i)));
+                    }
+                    if (i >= node.keys.size()) {
+                        pageId = node.next;
+                        i = 0;
+                    }
+                } finally {
+                    bufferPool.unpin(node.pageId);
+                }
+            }
+            return entries;
+        } catch (IOException e) {
+            throw new FileReadException("Failed to read index page from " + indexFile, e);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Longest key {@link #put} accepts with a value of {@code valueSize} bytes.
+     */
+    public int maxKeySize(int valueSize) {
+        return maxEntrySize - Math.max(8 + valueSize, 12);
+    }
+
+    /**
+     * Returns the value {@code key} had before, or null.
+     */
+    public byte[] put(byte[] key, byte[] value) throws IOException {
+        if (key.length > maxKeySize(value.length)) {
+            throw new IllegalArgumentException("Index entry of " + (key.length + value.length) + " bytes exceeds " + maxEntrySize);
+        }
+        lock.writeLock().lock();
+        try {
+            byte[][] previous = new byte[1][];
+            Split split = insert(rootPageId, key, value, previous);
+            if (split != null) {
+                Node newRoot = new Node(false);
+                newRoot.children.add(rootPageId);
+                newRoot.keys.add(split.key());
+                newRoot.children.add(split.rightPageId());
+                rootPageId = allocate(newRoot);
+            }
+            return previous[0];
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the removed value, or null when {@code key} was absent.
+     */
+    public byte[] delete(byte[] key) throws IOException {
+        return delete(key, null);
+    }
+
+    /**
+     * Removes {@code key} only while its value is still {@code expectedValue}, any value when null.
+     * Returns the removed value, or null when nothing was removed.
+     */
+    public byte[] delete(byte[] key, byte[] expectedValue) throws IOException {
+        lock.writeLock().lock();
+        try {
+            long pageId = rootPageId;
+            while (true) {
+                Node node = bufferPool.pin(pageId);
+                try {
+                    if (node.isLeaf) {
+                        int i = search(node.keys, key);
+                        if (i < 0 || (expectedValue != null && !Arrays.equals(expectedValue, node.values.get(i)))) {
+                            return null;
+                        }
+                        byte[] removed = node.values.remove(i);
+                        node.byteSize -= 8 + node.keys.remove(i).length + removed.length;
+                        bufferPool.markDirty(pageId);
+                        return removed;
+                    }
+                    pageId = node.children.get(childIndex(node, key));
+                } finally {
+                    bufferPool.unpin(node.pageId);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void flush() throws IOException {
+        lock.writeLock().lock();
+        try {
+            bufferPool.flush();
+            ByteBuffer meta = ByteBuffer.allocate(pageSize);
+            meta.putInt(MAGIC).putInt(pageSize).putLong(rootPageId).putLong(nextPageId).flip();
+            writePage(META_PAGE_ID, meta);
+            channel.force(false);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        raf.close();
+        indexFile.delete();
+    }
+
+    private Split insert(long pageId, byte[] key, byte[] value, byte[][] previous) throws IOException {
+        Node node = bufferPool.pin(pageId);
+        try {
+            if (node.isLeaf) {
+                int i = search(node.keys, key);
+                if (i >= 0) {
+                    node.byteSize += value.length - node.values.get(i).length;
+                    previous[0] = node.values.set(i, value);
+                } else {
+                    node.keys.add(-i - 1, key);
+                    node.values.add(-i - 1, value);
+                    node.byteSize += 8 + key.length + value.length;
+                }
+                bufferPool.markDirty(pageId);
+                return node.byteSize > pageSize ? splitLeaf(pageId, node) : null;
+            }
+            int childIndex = childIndex(node, key);
+            Split split = insert(node.children.get(childIndex), key, value, previous);
+            if (split == null) {
+                return null;
+            }
+            node.keys.add(childIndex, split.key());
+            node.children.add(childIndex + 1, split.rightPageId());
+            node.byteSize += 12 + split.key().length;
+            bufferPool.markDirty(pageId);
+            return node.byteSize > pageSize ? splitInternal(pageId, node) : null;
+        } finally {
+            bufferPool.unpin(pageId);
+        }
+    }
+
+    private Split splitLeaf(long pageId, Node node) throws IOException {
+        int middle = splitPoint(node);
+        Node right = new Node(true);
+        right.keys.addAll(node.keys.subList(middle, node.keys.size()));
+        right.values.addAll(node.values.subList(middle, node.values.size()));
+        node.keys.subList(middle, node.keys.size()).clear();
+        node.values.subList(middle, node.values.size()).clear();
+        right.next = node.next;
+        long rightPageId = allocate(right);
+        node.next = rightPageId;
+        node.recomputeByteSize();
+        checkFits(node);
+        checkFits(right);
+        bufferPool.markDirty(pageId);
+        return new Split(right.keys.get(0), rightPageId);
+    }
+
+    private Split splitInternal(long pageId, Node node) throws IOException {
+        // The separator moves up, so the right half keeps at least one key of its own.
+        int middle = Math.min(splitPoint(node), node.keys.size() - 2);
+        byte[] separator = node.keys.get(middle);
+        Node right = new Node(false);
+        right.keys.addAll(node.keys.subList(middle + 1, node.keys.size()));
+        right.children.addAll(node.children.subList(middle + 1, node.children.size()));
+        node.keys.subList(middle, node.keys.size()).clear();
+        node.children.subList(middle + 1, node.children.size()).clear();
+        long rightPageId = allocate(right);
+        node.recomputeByteSize();
+        checkFits(node);
+        checkFits(right);
+        bufferPool.markDirty(pageId);
+        return new Split(separator, rightPageId);
+    }
+
+    /**
+     * Index of the first entry of the right half, chosen by serialized bytes rather than entry count so
+     * a run of large entries cannot leave one half over the page size. Both halves keep an entry.
+     */
+    private static int splitPoint(Node node) {
+        int half = (node.byteSize - NODE_HEADER_SIZE) / 2;
+        int leftByteSize = 0;
+        int middle = 0;
+        while (middle < node.keys.size() - 1 && leftByteSize + node.entryByteSize(middle) <= half) {
+            leftByteSize += node.entryByteSize(middle);
+            middle++;
+        }
+        return Math.max(1, middle);
+    }
+
+    private void checkFits(Node node) {
+        if (node.byteSize > pageSize) {
+            throw new IllegalStateException("Index node of " + node.byteSize + " bytes does not fit a page of " + pageSize + " bytes");
+        }
+    }
+
+    private long allocate(Node node) throws IOException {
+        node.pageId = nextPageId++;
+        node.recomputeByteSize();
+        bufferPool.add(node.pageId, node);
+        return node.pageId;
+    }
+
+    private static int search(List<byte[]> keys, byte[] key) {
+        int low = 0;
+        int high = keys.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = Arrays.compare(keys.get(mid), key);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private static int childIndex(Node node, byte[] key) {
+        int i = search(node.keys, key);
+        // Separators are the first key of their right subtree, so an exact match descends right.
+        return i >= 0 ? i + 1 : -i - 1;
+    }
+
+    private void loadMeta() throws IOException {
+        ByteBuffer meta = readPage(META_PAGE_ID);
+        if (meta.getInt() != MAGIC || meta.getInt() != pageSize) {
+            throw new IOException("Index file " + indexFile + " is not a B+Tree with page size " + pageSize);
+        }
+        this.rootPageId = meta.getLong();
+        this.nextPageId = meta.getLong();
+    }
+
+    private ByteBuffer readPage(long pageId) throws IOException {
+        ByteBuffer page = ByteBuffer.allocate(pageSize);
+        while (page.hasRemaining()) {
+            if (channel.read(page, pageId * pageSize + page.position()) < 0) {
+                throw new IOException("Unexpected end of index file " + indexFile + " at page " + pageId);
+            }
+        }
+        return page.flip();
+    }
+
+    private void writePage(long pageId, ByteBuffer page) throws IOException {
+        while (page.hasRemaining()) {
+            channel.write(page, pageId * pageSize + page.position());
+        }
+    }
+
+    public record Entry(byte[] key, byte[] value) {
+    }
+
+    private record Split(byte[] key, long rightPageId) {
+    }
+
+    private final class NodeStore implements BufferPool.PageStore<Node> {
+
+        @Override
+        public Node read(long pageId) throws IOException {
+            ByteBuffer page = readPage(pageId);
+            Node node = new Node(page.get() == 1);
+            node.pageId = pageId;
+            int count = page.getInt();
+            long link = page.getLong();
+            if (node.isLeaf) {
+                node.next = link;
+            } else {
+                node.children.add(link);
+            }
+            for (int i = 0; i < count; i++) {
+                byte[] key = new byte[page.getInt()];
+                page.get(key);
+                node.keys.add(key);
+                if (node.isLeaf) {
+                    byte[] value = new byte[page.getInt()];
+                    page.get(value);
+                    node.values.add(value);
+                } else {
+                    node.children.add(page.getLong());
+                }
+            }
+            node.recomputeByteSize();
+            return node;
+        }
+
+        @Override
+        public void write(long pageId, Node node) throws IOException {
+            ByteBuffer page = ByteBuffer.allocate(pageSize);
+            page.put((byte) (node.isLeaf ? 1 : 0));
+            page.putInt(node.keys.size());
+            page.putLong(node.isLeaf ? node.next : node.children.get(0));
+            for (int i = 0; i < node.keys.size(); i++) {
+                page.putInt(node.keys.get(i).length).put(node.keys.get(i));
+                if (node.isLeaf) {
+                    page.putInt(node.values.get(i).length).put(node.values.get(i));
+                } else {
+                    page.putLong(node.children.get(i + 1));
+                }
+            }
+            page.position(0).limit(pageSize);
+            writePage(pageId, page);
+        }
+    }
+
+    private static final class Node {
+        private final boolean isLeaf;
+        private final List<byte[]> keys = new ArrayList<>();
+        private final List<byte[]> values = new ArrayList<>();
+        private final List<Long> children = new ArrayList<>();
+        private long pageId;
+        private long next = NO_PAGE;
+        private int byteSize;
+
+        private Node(boolean isLeaf) {
+            this.isLeaf = isLeaf;
+        }
+
+        private int entryByteSize(int i) {
+            return isLeaf ? 8 + keys.get(i).length + values.get(i).length : 12 + keys.get(i).length;
+        }
+
+        private void recomputeByteSize() {
+            int size = NODE_HEADER_SIZE;
+            for (int i = 0; i < keys.size(); i++) {
+                size += entryByteSize(i);
+            }
+            byteSize = size;
+        }
+    }
+}
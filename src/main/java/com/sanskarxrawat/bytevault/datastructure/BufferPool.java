@@ -0,0 +1,121 @@
+package com.sanskarxrawat.bytevault.datastructure;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fixed number of in-memory page frames with clock (second chance) eviction. Dirty frames are
+ * only written back when they are evicted or flushed; pinned frames are never evicted.
+ */
+public final class BufferPool<T> {
+
+    public interface PageStore<T> {
+        T read(long pageId) throws IOException;
+
+        void write(long pageId, T page) throws IOException;
+    }
+
+    private final PageStore<T> pageStore;
+    private final List<Frame<T>> frames;
+    private final Map<Long, Integer> frameIndex;
+    private int clockHand;
+
+    public BufferPool(PageStore<T> pageStore, int capacity) {
+        this.pageStore = pageStore;
+        this.frames = new ArrayList<>(Collections.nCopies(capacity, null));
+        this.frameIndex = new HashMap<>(capacity * 2);
+    }
+
+    public synchronized T pin(long pageId) throws IOException {
+        Integer index = frameIndex.get(pageId);
+        if (index == null) {
+            index = install(pageId, pageStore.read(pageId), false);
+        }
+        Frame<T> frame = frames.get(index);
+        frame.pinCount++;
+        frame.referenced = true;
+        return frame.page;
+    }
+
+    public synchronized void unpin(long pageId) {
+        Integer index = frameIndex.get(pageId);
+        if (index != null) {
+            frames.get(index).pinCount--;
+        }
+    }
+
+    public synchronized void markDirty(long pageId) {
+        frames.get(frameIndex.get(pageId)).dirty = true;
+    }
+
+    /**
+     * Installs a freshly allocated page as a dirty, unpinned frame.
+     */
+    public synchronized void add(long pageId, T page) throws IOException {
+        install(pageId, page, true);
+    }
+
+    public synchronized void flush() throws IOException {
+        for (Frame<T> frame : frames) {
+            if (frame != null && frame.dirty) {
+                pageStore.write(frame.pageId, frame.page);
+                frame.dirty = false;
+            }
+        }
+    }
+
+    private int install(long pageId, T page, boolean dirty) throws IOException {
+        int index = findVictim();
+        Frame<T> victim = frames.get(index);
+        if (victim != null) {
+            if (victim.dirty) {
+                pageStore.write(victim.pageId, victim.page);
+            }
+            frameIndex.remove(victim.pageId);
+        }
+        Frame<T> frame = new Frame<>(pageId, page);
+        frame.dirty = dirty;
+        frame.referenced = true;
+        frames.set(index, frame);
+        frameIndex.put(pageId, index);
+        return index;
+    }
+
+    private int findVictim() {
+        // Two full sweeps clear every reference bit, so a third finding nothing means every frame is pinned.
+        for (int step = 0; step < frames.size() * 3; step++) {
+            int index = clockHand;
+            clockHand = (clockHand + 1) % frames.size();
+            Frame<T> frame = frames.get(index);
+            if (frame == null) {
+                return index;
+            }
+            if (frame.pinCount > 0) {
+                continue;
+            }
+            if (frame.referenced) {
+                frame.referenced = false;
+                continue;
+            }
+            return index;
+        }
+        throw new IllegalStateException("Buffer pool exhausted, all " + frames.size() + " frames are pinned");
+    }
+
+    private static final class Frame<T> {
+        private final long pageId;
+        private final T page;
+        private int pinCount;
+        private boolean dirty;
+        private boolean referenced;
+
+        private Frame(long pageId, T page) {
+            this.pageId = pageId;
+            this.page = page;
+        }
+    }
+}
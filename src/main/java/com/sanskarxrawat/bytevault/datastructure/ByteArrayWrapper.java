@@ -8,4 +8,14 @@ public record ByteArrayWrapper(byte[] array) implements Comparable<ByteArrayWrap
     public int compareTo(ByteArrayWrapper other) {
         return Arrays.compare(array, other.array);
     }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof ByteArrayWrapper wrapper && Arrays.equals(array, wrapper.array);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(array);
+    }
 }
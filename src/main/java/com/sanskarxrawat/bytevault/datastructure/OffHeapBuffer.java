@@ -0,0 +1,105 @@
+package com.sanskarxrawat.bytevault.datastructure;
+
+import sun.misc.Unsafe;
+
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Growable direct memory addressed by long offsets, allocated in power-of-two chunks so a
+ * single buffer is not capped at 2 GiB. Callers must not let a single value straddle two chunks.
+ * Chunks count against {@code -XX:MaxDirectMemorySize} and are freed on {@link #close()} rather than
+ * whenever the garbage collector gets to them; the buffer is unusable afterwards.
+ */
+public final class OffHeapBuffer implements AutoCloseable {
+    private static final Unsafe UNSAFE = unsafe();
+    private final int chunkShift;
+    private final int chunkMask;
+    private final List<ByteBuffer> chunks;
+
+    public OffHeapBuffer(int chunkSize, long initialCapacity) {
+        if (Integer.bitCount(chunkSize) != 1) {
+            throw new IllegalArgumentException("Chunk size must be a power of two: " + chunkSize);
+        }
+        this.chunkShift = Integer.numberOfTrailingZeros(chunkSize);
+        this.chunkMask = chunkSize - 1;
+        this.chunks = new ArrayList<>();
+        ensureCapacity(initialCapacity);
+    }
+
+    public int chunkSize() {
+        return chunkMask + 1;
+    }
+
+    public long capacity() {
+        return (long) chunks.size() << chunkShift;
+    }
+
+    public void ensureCapacity(long capacity) {
+        while (capacity() < capacity) {
+            chunks.add(ByteBuffer.allocateDirect(chunkSize()));
+        }
+    }
+
+    public long getLong(long address) {
+        return chunk(address).getLong(offset(address));
+    }
+
+    public void putLong(long address, long value) {
+        chunk(address).putLong(offset(address), value);
+    }
+
+    public int getInt(long address) {
+        return chunk(address).getInt(offset(address));
+    }
+
+    public void putInt(long address, int value) {
+        chunk(address).putInt(offset(address), value);
+    }
+
+    public void get(long address, byte[] destination) {
+        chunk(address).get(offset(address), destination);
+    }
+
+    public void put(long address, byte[] source) {
+        chunk(address).put(offset(address), source);
+    }
+
+    /**
+     * Whether the bytes at {@code address} equal {@code other}, compared in place without copying them out.
+     */
+    public boolean regionEquals(long address, byte[] other) {
+        return chunk(address).slice(offset(address), other.length).mismatch(ByteBuffer.wrap(other)) < 0;
+    }
+
+    /**
+     * Frees every chunk now. Callers make sure nothing reads the buffer concurrently or afterwards.
+     */
+    @Override
+    public void close() {
+        for (ByteBuffer chunk : chunks) {
+            UNSAFE.invokeCleaner(chunk);
+        }
+        chunks.clear();
+    }
+
+    private ByteBuffer chunk(long address) {
+        return chunks.get((int) (address >>> chunkShift));
+    }
+
+    private int offset(long address) {
+        return (int) (address & chunkMask);
+    }
+
+    private static Unsafe unsafe() {
+        try {
+            Field field = Unsafe.class.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            return (Unsafe) field.get(null);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.sanskarxrawat.bytevault.datastructure;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing (linear probing) hash table whose slots and key bytes live off-heap.
+ * <pre>
+ * ---------------------------------------------------------------------------------------
+ * | Key ref | Key hash | Segment id | Value offset | Value size | Timestamp | Expires at |
+ * | 8 bytes |  4 bytes |   4 bytes  |    4 bytes   |   4 bytes  |  8 bytes  |   8 bytes  |
+ * ---------------------------------------------------------------------------------------
+ * </pre>
+ * The key ref packs the key's arena address (upper 40 bits) and length (lower 24 bits); 0 marks an
+ * empty slot and -1 a deleted one. Not thread-safe, callers serialise access. A rehash frees the
+ * memory it moved out of at once, and {@link #close()} frees the rest.
+ */
+public final class OffHeapHashTable implements AutoCloseable {
+    private static final int SLOT_SIZE = 40;
+    private static final int KEY_REF_OFFSET = 0;
+    private static final int HASH_OFFSET = 8;
+    private static final int SEGMENT_ID_OFFSET = 12;
+    private static final int VALUE_OFFSET_OFFSET = 16;
+    private static final int VALUE_SIZE_OFFSET = 20;
+    private static final int TIMESTAMP_OFFSET = 24;
+    private static final int EXPIRES_AT_OFFSET = 32;
+
+    private static final long EMPTY = 0L;
+    private static final long DELETED = -1L;
+    private static final int KEY_LENGTH_BITS = 24;
+    private static final long KEY_LENGTH_MASK = (1L << KEY_LENGTH_BITS) - 1;
+    private static final int MAX_CHUNK_SIZE = 1 << 26;
+    private static final int ARENA_CHUNK_SIZE = 1 << 22;
+    // A key never straddles two arena chunks.
+    public static final int MAX_KEY_LENGTH = ARENA_CHUNK_SIZE;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private OffHeapBuffer slots;
+    private long capacity;
+    private OffHeapBuffer arena;
+    // Arena address 0 is reserved so that an occupied slot never holds the EMPTY key ref.
+    private long arenaPosition;
+    private long size;
+    private long deleted;
+
+    public OffHeapHashTable(long initialCapacity) {
+        allocate(Math.max(16, Long.highestOneBit(Math.max(1, initialCapacity) - 1) << 1));
+    }
+
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Returns the slot holding {@code key}, or -1 when absent. The slot stays valid until the next mutation.
+     */
+    public long find(byte[] key) {
+        final int hash = hash(key);
+        long slot = hash & (capacity - 1);
+        while (true) {
+            long keyRef = slots.getLong(address(slot) + KEY_REF_OFFSET);
+            if (keyRef == EMPTY) {
+                return -1;
+            }
+            if (keyRef != DELETED && slots.getInt(address(slot) + HASH_OFFSET) == hash && keyEquals(keyRef, key)) {
+                return slot;
+            }
+            slot = (slot + 1) & (capacity - 1);
+        }
+    }
+
+    public int segmentId(long slot) {
+        return slots.getInt(address(slot) + SEGMENT_ID_OFFSET);
+    }
+
+    public int valueOffset(long slot) {
+        return slots.getInt(address(slot) + VALUE_OFFSET_OFFSET);
+    }
+
+    public int valueSize(long slot) {
+        return slots.getInt(address(slot) + VALUE_SIZE_OFFSET);
+    }
+
+    public long timestamp(long slot) {
+        return slots.getLong(address(slot) + TIMESTAMP_OFFSET);
+    }
+
+    public long expiresAt(long slot) {
+        return slots.getLong(address(slot) + EXPIRES_AT_OFFSET);
+    }
+
+    /**
+     * Returns the value size {@code key} had before, or -1 when it was absent.
+     */
+    public int put(byte[] key, int segmentId, int valueOffset, int valueSize, long timestamp, long expiresAt) {
+        if (key.length > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Key exceeds " + MAX_KEY_LENGTH + " bytes: " + key.length);
+        }
+        long slot = find(key);
+        int previousValueSize = slot < 0 ? -1 : valueSize(slot);
+        if (slot < 0) {
+            if (size + deleted + 1 > capacity * LOAD_FACTOR) {
+                // Rehash in place when tombstones dominate, grow otherwise; either way the arena is compacted.
+                rehash(size + 1 > capacity * LOAD_FACTOR / 2 ? capacity << 1 : capacity);
+            }
+            slot = insertKey(key, hash(key));
+        }
+        writeValue(slot, segmentId, valueOffset, valueSize, timestamp, expiresAt);
+        return previousValueSize;
+    }
+
+    /**
+     * Returns the value size of the removed entry, or -1 when {@code key} was absent.
+     */
+    public int remove(byte[] key) {
+        long slot = find(key);
+        if (slot < 0) {
+            return -1;
+        }
+        int valueSize = valueSize(slot);
+        slots.putLong(address(slot) + KEY_REF_OFFSET, DELETED);
+        size--;
+        deleted++;
+        return valueSize;
+    }
+
+    private long insertKey(byte[] key, int hash) {
+        long slot = hash & (capacity - 1);
+        long keyRef;
+        while ((keyRef = slots.getLong(address(slot) + KEY_REF_OFFSET)) != EMPTY && keyRef != DELETED) {
+            slot = (slot + 1) & (capacity - 1);
+        }
+        if (keyRef == DELETED) {
+            deleted--;
+        }
+        slots.putLong(address(slot) + KEY_REF_OFFSET, appendKey(key));
+        slots.putInt(address(slot) + HASH_OFFSET, hash);
+        size++;
+        return slot;
+    }
+
+    private void writeValue(long slot, int segmentId, int valueOffset, int valueSize, long timestamp, long expiresAt) {
+        long address = address(slot);
+        slots.putInt(address + SEGMENT_ID_OFFSET, segmentId);
+        slots.putInt(address + VALUE_OFFSET_OFFSET, valueOffset);
+        slots.putInt(address + VALUE_SIZE_OFFSET, valueSize);
+        slots.putLong(address + TIMESTAMP_OFFSET, timestamp);
+        slots.putLong(address + EXPIRES_AT_OFFSET, expiresAt);
+    }
+
+    private long appendKey(byte[] key) {
+        long chunkRemaining = arena.chunkSize() - (arenaPosition & (arena.chunkSize() - 1));
+        if (key.length > chunkRemaining) {
+            arenaPosition += chunkRemaining;
+        }
+        arena.ensureCapacity(arenaPosition + key.length);
+        arena.put(arenaPosition, key);
+        long keyRef = (arenaPosition << KEY_LENGTH_BITS) | key.length;
+        arenaPosition += key.length;
+        return keyRef;
+    }
+
+    private static byte[] readKey(OffHeapBuffer arena, long keyRef) {
+        byte[] key = new byte[(int) (keyRef & KEY_LENGTH_MASK)];
+        arena.get(keyRef >>> KEY_LENGTH_BITS, key);
+        return key;
+    }
+
+    private boolean keyEquals(long keyRef, byte[] key) {
+        return (keyRef & KEY_LENGTH_MASK) == key.length && arena.regionEquals(keyRef >>> KEY_LENGTH_BITS, key);
+    }
+
+    private void rehash(long newCapacity) {
+        OffHeapBuffer oldSlots = slots;
+        OffHeapBuffer oldArena = arena;
+        long oldCapacity = capacity;
+        allocate(newCapacity);
+        for (long slot = 0; slot < oldCapacity; slot++) {
+            long address = slot * SLOT_SIZE;
+            long keyRef = oldSlots.getLong(address + KEY_REF_OFFSET);
+            if (keyRef == EMPTY || keyRef == DELETED) {
+                continue;
+            }
+            byte[] key = readKey(oldArena, keyRef);
+            long newSlot = insertKey(key, oldSlots.getInt(address + HASH_OFFSET));
+            writeValue(newSlot, oldSlots.getInt(address + SEGMENT_ID_OFFSET), oldSlots.getInt(address + VALUE_OFFSET_OFFSET),
+                    oldSlots.getInt(address + VALUE_SIZE_OFFSET), oldSlots.getLong(address + TIMESTAMP_OFFSET),
+                    oldSlots.getLong(address + EXPIRES_AT_OFFSET));
+        }
+        oldSlots.close();
+        oldArena.close();
+    }
+
+    @Override
+    public void close() {
+        slots.close();
+        arena.close();
+        size = 0;
+        deleted = 0;
+    }
+
+    private void allocate(long newCapacity) {
+        long tableBytes = newCapacity * SLOT_SIZE;
+        // Capacity is a power of two and a slot five times eight bytes, so a quarter of the table's
+        // highest power of two divides it exactly and keeps every slot field inside one chunk.
+        this.slots = new OffHeapBuffer((int) Math.min(MAX_CHUNK_SIZE, Long.highestOneBit(tableBytes) >> 2), tableBytes);
+        this.capacity = newCapacity;
+        this.arena = new OffHeapBuffer(ARENA_CHUNK_SIZE, ARENA_CHUNK_SIZE);
+        this.arenaPosition = 1;
+        this.size = 0;
+        this.deleted = 0;
+    }
+
+    private long address(long slot) {
+        return slot * SLOT_SIZE;
+    }
+
+    private static int hash(byte[] key) {
+        int h = Arrays.hashCode(key);
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
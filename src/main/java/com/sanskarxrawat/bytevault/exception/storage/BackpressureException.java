@@ -0,0 +1,10 @@
+package com.sanskarxrawat.bytevault.exception.storage;
+
+/**
+ * Thrown, through the returned future, when an async operation would exceed the in-flight limit.
+ */
+public class BackpressureException extends StorageException {
+    public BackpressureException(String msg) {
+        super(msg);
+    }
+}
@@ -0,0 +1,7 @@
+package com.sanskarxrawat.bytevault.exception.storage;
+
+public class KeyTooLargeException extends StorageException {
+    public KeyTooLargeException(String msg) {
+        super(msg);
+    }
+}
@@ -0,0 +1,10 @@
+package com.sanskarxrawat.bytevault.exception.storage;
+
+/**
+ * Thrown when opening a store whose segments were written in a record format this build cannot read.
+ */
+public class UnsupportedFormatException extends StorageException {
+    public UnsupportedFormatException(String msg) {
+        super(msg);
+    }
+}
@@ -0,0 +1,10 @@
+package com.sanskarxrawat.bytevault.expiry;
+
+import com.sanskarxrawat.bytevault.datastructure.ByteArrayWrapper;
+
+/**
+ * A key that was written with a time-to-live, and the epoch millis its value expires at.
+ */
+public record ExpiringKey(ByteArrayWrapper key, long expiresAt) {
+
+}
@@ -0,0 +1,14 @@
+package com.sanskarxrawat.bytevault.expiry;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Receives the keys whose deadline passed during one tick of the {@link ExpiryReaper}. A key may
+ * have been rewritten since it was scheduled, so listeners check it is still the expiring version.
+ */
+@FunctionalInterface
+public interface ExpiryListener {
+
+    void expired(List<ExpiringKey> expiringKeys) throws IOException;
+}
@@ -0,0 +1,78 @@
+package com.sanskarxrawat.bytevault.expiry;
+
+import com.sanskarxrawat.bytevault.datastructure.ByteArrayWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks the deadline of every key written with a time-to-live in a {@link TimingWheel} and hands
+ * the expired ones to an {@link ExpiryListener} in bulk, once per tick.
+ */
+public class ExpiryReaper implements AutoCloseable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExpiryReaper.class);
+    private final TimingWheel<ExpiringKey> timingWheel;
+    private final List<ExpiringKey> due = new ArrayList<>();
+    private final long tickMils;
+    private final ScheduledExecutorService scheduler;
+    private ExpiryListener expiryListener;
+
+    public ExpiryReaper(long tickMils, int wheelSize) {
+        this.timingWheel = new TimingWheel<>(tickMils, wheelSize, System.currentTimeMillis());
+        this.tickMils = tickMils;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().daemon().name("bytevault-expiry").factory());
+    }
+
+    /**
+     * Starts the ticks that hand expired keys to {@code expiryListener}. Keys may be scheduled before,
+     * they are reaped from the first tick on.
+     */
+    public void start(ExpiryListener expiryListener) {
+        this.expiryListener = expiryListener;
+        scheduler.scheduleWithFixedDelay(this::reap, tickMils, tickMils, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void schedule(ByteArrayWrapper key, long expiresAt) {
+        ExpiringKey expiringKey = new ExpiringKey(key, expiresAt);
+        if (!timingWheel.add(expiringKey, expiresAt)) {
+            due.add(expiringKey);
+        }
+    }
+
+    private void reap() {
+        List<ExpiringKey> expired;
+        synchronized (this) {
+            expired = new ArrayList<>(due);
+            due.clear();
+            timingWheel.advance(System.currentTimeMillis(), expired::add);
+        }
+        if (expired.isEmpty()) {
+            return;
+        }
+        try {
+            expiryListener.expired(expired);
+        } catch (Exception e) {
+            // Expired keys already read as absent, their entries are only dropped again on the next open.
+            LOGGER.error("Failed to drop {} expired keys", expired.size(), e);
+        }
+    }
+
+    /**
+     * Stops the ticks and waits for a running one to finish. An interrupt while waiting is kept on the
+     * calling thread.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        try {
+            scheduler.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.sanskarxrawat.bytevault.expiry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel. Each level has {@code wheelSize} buckets of one tick; deadlines past a
+ * level's span go to an overflow level whose tick is that whole span, created on demand. Scheduling
+ * and advancing are O(1) per entry and level, however many entries are pending. Not thread-safe.
+ */
+final class TimingWheel<T> {
+    private final long tickMils;
+    private final int wheelSize;
+    private final long intervalMils;
+    private final List<List<Entry<T>>> buckets;
+    private long currentTime;
+    private TimingWheel<T> overflowWheel;
+
+    TimingWheel(long tickMils, int wheelSize, long startMils) {
+        this.tickMils = tickMils;
+        this.wheelSize = wheelSize;
+        this.intervalMils = tickMils * wheelSize;
+        this.buckets = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            buckets.add(new ArrayList<>());
+        }
+        this.currentTime = startMils - Math.floorMod(startMils, tickMils);
+    }
+
+    /**
+     * Schedules {@code item} for {@code deadlineMils}, or returns false when that is already due.
+     */
+    boolean add(T item, long deadlineMils) {
+        return add(new Entry<>(item, deadlineMils));
+    }
+
+    private boolean add(Entry<T> entry) {
+        if (entry.deadlineMils() < currentTime) {
+            return false;
+        }
+        // A level whose span would overflow once more keeps everything past it, handing it down again each round.
+        if (entry.deadlineMils() - currentTime < intervalMils || intervalMils > Long.MAX_VALUE / wheelSize) {
+            bucket(entry.deadlineMils()).add(entry);
+            return true;
+        }
+        return overflowWheel().add(entry);
+    }
+
+    /**
+     * Moves every level's clock up to {@code nowMils} and hands each item whose deadline has passed
+     * to {@code expired}. Entries of overflow buckets that come into range cascade down a level.
+     */
+    void advance(long nowMils, Consumer<T> expired) {
+        advance(nowMils, this, expired);
+    }
+
+    private void advance(long nowMils, TimingWheel<T> root, Consumer<T> expired) {
+        // The lowest level fires a bucket once all of its tick lies in the past, higher levels hand
+        // theirs down as soon as the level below reaches its start.
+        boolean lowest = root == this;
+        while (currentTime + tickMils <= nowMils) {
+            currentTime += tickMils;
+            List<Entry<T>> bucket = bucket(lowest ? currentTime - tickMils : currentTime);
+            if (bucket.isEmpty()) {
+                continue;
+            }
+            List<Entry<T>> drained = new ArrayList<>(bucket);
+            bucket.clear();
+            for (Entry<T> entry : drained) {
+                if (!root.add(entry)) {
+                    expired.accept(entry.item());
+                }
+            }
+        }
+        if (overflowWheel != null) {
+            overflowWheel.advance(nowMils, root, expired);
+        }
+    }
+
+    private List<Entry<T>> bucket(long deadlineMils) {
+        return buckets.get((int) Math.floorMod(deadlineMils / tickMils, (long) wheelSize));
+    }
+
+    private TimingWheel<T> overflowWheel() {
+        if (overflowWheel == null) {
+            overflowWheel = new TimingWheel<>(intervalMils, wheelSize, currentTime);
+        }
+        return overflowWheel;
+    }
+
+    private record Entry<T>(T item, long deadlineMils) {
+    }
+}
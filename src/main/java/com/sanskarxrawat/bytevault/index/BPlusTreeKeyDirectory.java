@@ -0,0 +1,115 @@
+package com.sanskarxrawat.bytevault.index;
+
+import com.sanskarxrawat.bytevault.datastructure.BPlusTree;
+import com.sanskarxrawat.bytevault.datastructure.ByteArrayWrapper;
+import com.sanskarxrawat.bytevault.metadata.FileMetaData;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BPlusTreeKeyDirectory implements KeyDirectory {
+    /**
+     * ----------------------------------------------------------------------------
+     * | Segment id | Value offset | Value size | Timestamp |  Codec | Expires at |
+     * |   4 bytes  |    4 bytes   |   4 bytes  |  8 bytes  | 1 byte |   8 bytes  |
+     * ----------------------------------------------------------------------------
+     */
+    private static final int ENTRY_BYTE_LENGTH = 29;
+    private static final int VALUE_SIZE_OFFSET = 8;
+    private final File indexFile;
+    private final BPlusTree bPlusTree;
+    private final SegmentIds segmentIds;
+
+    public BPlusTreeKeyDirectory(String storageDir, String indexFileName, int pageSize, int bufferPoolPages) {
+        this.indexFile = new File(storageDir, indexFileName);
+        // The key directory is rebuilt from hint files and segments on open, a stale index is never reused.
+        indexFile.delete();
+        this.bPlusTree = new BPlusTree(indexFile, pageSize, bufferPoolPages);
+        this.segmentIds = new SegmentIds();
+    }
+
+    @Override
+    public int put(ByteArrayWrapper key, FileMetaData metaData) throws IOException {
+        return valueSize(bPlusTree.put(key.array(), encode(metaData)));
+    }
+
+    @Override
+    public FileMetaData get(ByteArrayWrapper key) {
+        byte[] entry = bPlusTree.get(key.array());
+        return entry == null ? null : decode(entry);
+    }
+
+    @Override
+    public int delete(ByteArrayWrapper key) {
+        try {
+            return valueSize(bPlusTree.delete(key.array()));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public int delete(ByteArrayWrapper key, FileMetaData expected) {
+        try {
+            return valueSize(bPlusTree.delete(key.array(), encode(expected)));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public int maxKeySize() {
+        return bPlusTree.maxKeySize(ENTRY_BYTE_LENGTH);
+    }
+
+    @Override
+    public boolean isOrdered() {
+        return true;
+    }
+
+    @Override
+    public List<IndexEntry> range(ByteArrayWrapper startKey, boolean startExclusive, ByteArrayWrapper endKey, int limit) {
+        List<BPlusTree.Entry> entries = bPlusTree.scan(startKey == null ? null : startKey.array(), startExclusive,
+                endKey == null ? null : endKey.array(), limit);
+        List<IndexEntry> indexEntries = new ArrayList<>(entries.size());
+        for (BPlusTree.Entry entry : entries) {
+            indexEntries.add(new IndexEntry(new ByteArrayWrapper(entry.key()), decode(entry.value())));
+        }
+        return indexEntries;
+    }
+
+    @Override
+    public void close() throws IOException {
+        bPlusTree.close();
+    }
+
+    @Override
+    public void drop() throws IOException {
+        close();
+        Files.deleteIfExists(indexFile.toPath());
+    }
+
+    private byte[] encode(FileMetaData metaData) {
+        return ByteBuffer.allocate(ENTRY_BYTE_LENGTH)
+                .putInt(segmentIds.intern(metaData.getFilePath()))
+                .putInt(metaData.getValueByteOffset())
+                .putInt(metaData.getValueSize())
+                .putLong(metaData.getTimestamp())
+                .put(metaData.getCodecFlags())
+                .putLong(metaData.getExpiresAt())
+                .array();
+    }
+
+    private static int valueSize(byte[] entry) {
+        return entry == null ? -1 : ByteBuffer.wrap(entry).getInt(VALUE_SIZE_OFFSET);
+    }
+
+    private FileMetaData decode(byte[] entry) {
+        ByteBuffer buffer = ByteBuffer.wrap(entry);
+        return new FileMetaData(segmentIds.path(buffer.getInt()), buffer.getInt(), buffer.getInt(), buffer.getLong(), buffer.get(), buffer.getLong());
+    }
+}
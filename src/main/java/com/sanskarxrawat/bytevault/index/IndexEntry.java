@@ -0,0 +1,7 @@
+package com.sanskarxrawat.bytevault.index;
+
+import com.sanskarxrawat.bytevault.datastructure.ByteArrayWrapper;
+import com.sanskarxrawat.bytevault.metadata.FileMetaData;
+
+public record IndexEntry(ByteArrayWrapper key, FileMetaData metaData) {
+}
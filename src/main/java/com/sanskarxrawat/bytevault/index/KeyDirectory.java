@@ -0,0 +1,56 @@
+package com.sanskarxrawat.bytevault.index;
+
+import com.sanskarxrawat.bytevault.datastructure.ByteArrayWrapper;
+import com.sanskarxrawat.bytevault.metadata.FileMetaData;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Mutations return the stored value size of the entry they replaced or removed, or -1 when the key
+ * was absent, so callers can account for live bytes without a second lookup.
+ */
+public interface KeyDirectory extends AutoCloseable {
+
+    int put(ByteArrayWrapper key, FileMetaData metaData) throws IOException;
+
+    FileMetaData get(ByteArrayWrapper key);
+
+    int delete(ByteArrayWrapper key);
+
+    /**
+     * Deletes {@code key} only while it still points at {@code expected}, so a lookup acting on what it
+     * found cannot remove an entry written since.
+     */
+    int delete(ByteArrayWrapper key, FileMetaData expected);
+
+    /**
+     * Longest key {@link #put} accepts.
+     */
+    int maxKeySize();
+
+    /**
+     * Whether {@link #range} is supported, i.e. the directory keeps its keys ordered.
+     */
+    default boolean isOrdered() {
+        return false;
+    }
+
+    /**
+     * Up to {@code limit} entries in key order, from {@code startKey} (the first key when null, skipped
+     * itself when {@code startExclusive}) up to but excluding {@code endKey} (no bound when null).
+     */
+    default List<IndexEntry> range(ByteArrayWrapper startKey, boolean startExclusive, ByteArrayWrapper endKey, int limit) {
+        throw new UnsupportedOperationException(getClass().getSimpleName() + " does not keep keys ordered");
+    }
+
+    @Override
+    void close() throws IOException;
+
+    /**
+     * Closes the directory for good, releasing whatever it keeps on disk.
+     */
+    default void drop() throws IOException {
+        close();
+    }
+}
@@ -0,0 +1,108 @@
+package com.sanskarxrawat.bytevault.index;
+
+import com.sanskarxrawat.bytevault.datastructure.ByteArrayWrapper;
+import com.sanskarxrawat.bytevault.datastructure.OffHeapHashTable;
+import com.sanskarxrawat.bytevault.metadata.FileMetaData;
+
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static com.sanskarxrawat.bytevault.constant.VaultConstants.DEFAULT_KEY_DIRECTORY_CAPACITY;
+
+/**
+ * Key directory that keeps no per-key objects on the heap: entries are packed into an
+ * {@link OffHeapHashTable} and segment paths are interned to int ids.
+ */
+public class OffHeapKeyDirectory implements KeyDirectory {
+    // Slots have no spare room, so the codec id rides in the top byte of the segment id.
+    private static final int CODEC_SHIFT = 24;
+    private static final int SEGMENT_ID_MASK = (1 << CODEC_SHIFT) - 1;
+    private final OffHeapHashTable table;
+    private final SegmentIds segmentIds;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public OffHeapKeyDirectory() {
+        this(DEFAULT_KEY_DIRECTORY_CAPACITY);
+    }
+
+    public OffHeapKeyDirectory(long initialCapacity) {
+        this.table = new OffHeapHashTable(initialCapacity);
+        this.segmentIds = new SegmentIds();
+    }
+
+    @Override
+    public int put(ByteArrayWrapper key, FileMetaData metaData) {
+        lock.writeLock().lock();
+        try {
+            int segmentId = segmentIds.intern(metaData.getFilePath());
+            if (segmentId > SEGMENT_ID_MASK) {
+                throw new IllegalStateException("Segment id " + segmentId + " exceeds " + SEGMENT_ID_MASK);
+            }
+            return table.put(key.array(), (metaData.getCodecFlags() & 0xFF) << CODEC_SHIFT | segmentId,
+                    metaData.getValueByteOffset(), metaData.getValueSize(), metaData.getTimestamp(), metaData.getExpiresAt());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int maxKeySize() {
+        return OffHeapHashTable.MAX_KEY_LENGTH;
+    }
+
+    @Override
+    public FileMetaData get(ByteArrayWrapper key) {
+        lock.readLock().lock();
+        try {
+            long slot = table.find(key.array());
+            if (slot < 0) {
+                return null;
+            }
+            int segment = table.segmentId(slot);
+            return new FileMetaData(segmentIds.path(segment & SEGMENT_ID_MASK), table.valueOffset(slot), table.valueSize(slot),
+                    table.timestamp(slot), (byte) (segment >>> CODEC_SHIFT), table.expiresAt(slot));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int delete(ByteArrayWrapper key) {
+        lock.writeLock().lock();
+        try {
+            return table.remove(key.array());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int delete(ByteArrayWrapper key, FileMetaData expected) {
+        lock.writeLock().lock();
+        try {
+            long slot = table.find(key.array());
+            if (slot < 0) {
+                return -1;
+            }
+            int segment = table.segmentId(slot);
+            boolean unchanged = segmentIds.path(segment & SEGMENT_ID_MASK).equals(expected.getFilePath())
+                    && (byte) (segment >>> CODEC_SHIFT) == expected.getCodecFlags()
+                    && table.valueOffset(slot) == expected.getValueByteOffset()
+                    && table.valueSize(slot) == expected.getValueSize()
+                    && table.timestamp(slot) == expected.getTimestamp()
+                    && table.expiresAt(slot) == expected.getExpiresAt();
+            return unchanged ? table.remove(key.array()) : -1;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            table.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
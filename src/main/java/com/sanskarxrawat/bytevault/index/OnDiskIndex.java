@@ -1,45 +1,128 @@
 package com.sanskarxrawat.bytevault.index;
 
-import com.sanskarxrawat.bytevault.datastructure.BTree;
+import com.sanskarxrawat.bytevault.config.VaultConfig;
 import com.sanskarxrawat.bytevault.datastructure.ByteArrayWrapper;
 import com.sanskarxrawat.bytevault.metadata.FileMetaData;
 
-import java.io.File;
 import java.io.IOException;
-import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
 
+import static com.sanskarxrawat.bytevault.constant.VaultConstants.DEFAULT_KEYSPACE_ID;
+import static com.sanskarxrawat.bytevault.constant.VaultConstants.DEFAULT_KEY_DIRECTORY_CAPACITY;
+import static com.sanskarxrawat.bytevault.constant.VaultConstants.INDEX_FILE_NAME;
+import static com.sanskarxrawat.bytevault.constant.VaultConstants.INDEX_FILE_SUFFIX;
+import static com.sanskarxrawat.bytevault.constant.VaultConstants.KEYSPACE_INDEX_BUFFER_POOL_PAGES;
+import static com.sanskarxrawat.bytevault.constant.VaultConstants.KEYSPACE_INDEX_FILE_PREFIX;
+import static com.sanskarxrawat.bytevault.constant.VaultConstants.KEYSPACE_KEY_DIRECTORY_CAPACITY;
+import static com.sanskarxrawat.bytevault.log.FileLogConstants.KEYSPACE_ID_BYTE_LENGTH;
+import static com.sanskarxrawat.bytevault.log.FileLogConstants.KEY_BYTE_OFFSET;
+import static com.sanskarxrawat.bytevault.log.FileLogConstants.LOG_SIZE_BYTE_LENGTH;
 
+
+/**
+ * Updates are applied synchronously by their caller. Writes reach it from the group-commit thread in
+ * log order, so the directory never points at an older record than the last one appended.
+ * Every update also keeps count of the live keys and the segment bytes their records take up.
+ */
 public class OnDiskIndex {
-    private static final String INDEX_FILE_NAME = "index.db";
-    private final BTree<ByteArrayWrapper, FileMetaData> btree;
-    private final Executor executor;
+    private final KeyDirectory keyDirectory;
+    private final LongAdder liveKeys = new LongAdder();
+    private final LongAdder liveBytes = new LongAdder();
+
+    /**
+     * The key directory of one keyspace. The default keyspace's is sized as configured for the store,
+     * the others start small and keep few index pages in memory.
+     */
+    public OnDiskIndex(VaultConfig vaultConfig, int keyspaceId) {
+        boolean defaultKeyspace = keyspaceId == DEFAULT_KEYSPACE_ID;
+        this.keyDirectory = switch (vaultConfig.getKeyDirectoryType()) {
+            case BTREE -> new BPlusTreeKeyDirectory(vaultConfig.getStorageDir(), defaultKeyspace ? INDEX_FILE_NAME : indexFileName(keyspaceId),
+                    vaultConfig.getIndexPageSize(), defaultKeyspace ? vaultConfig.getIndexBufferPoolPages() : KEYSPACE_INDEX_BUFFER_POOL_PAGES);
+            case OFF_HEAP -> new OffHeapKeyDirectory(defaultKeyspace ? DEFAULT_KEY_DIRECTORY_CAPACITY : KEYSPACE_KEY_DIRECTORY_CAPACITY);
+        };
+    }
 
-    public OnDiskIndex(String storageDir) {
-        File indexFile = new File(storageDir, INDEX_FILE_NAME);
-        this.btree = new BTree<>(indexFile);
-        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+    public static String indexFileName(int keyspaceId) {
+        return KEYSPACE_INDEX_FILE_PREFIX + keyspaceId + INDEX_FILE_SUFFIX;
     }
 
-    public void put(ByteArrayWrapper key, FileMetaData metaData) {
-        executor.execute(() -> {
-            try {
-                btree.insert(key, metaData);
-            } catch (IOException e) {
-                throw new RuntimeException(e);
-            }
-        });
+    public void put(ByteArrayWrapper key, FileMetaData metaData) throws IOException {
+        int previousValueSize = keyDirectory.put(key, metaData);
+        if (previousValueSize < 0) {
+            liveKeys.increment();
+            liveBytes.add(recordByteSize(key, metaData.getValueSize()));
+        } else {
+            liveBytes.add(metaData.getValueSize() - previousValueSize);
+        }
     }
 
     public FileMetaData get(ByteArrayWrapper key) {
-        return btree.get(key);
+        return keyDirectory.get(key);
     }
 
     public void delete(ByteArrayWrapper key) {
-        executor.execute(() -> btree.delete(key));
+        removed(key, keyDirectory.delete(key));
+    }
+
+    /**
+     * Deletes {@code key} only while it still points at {@code expected}; returns whether it did.
+     */
+    public boolean delete(ByteArrayWrapper key, FileMetaData expected) {
+        return removed(key, keyDirectory.delete(key, expected));
+    }
+
+    private boolean removed(ByteArrayWrapper key, int removedValueSize) {
+        if (removedValueSize < 0) {
+            return false;
+        }
+        liveKeys.decrement();
+        liveBytes.add(-recordByteSize(key, removedValueSize));
+        return true;
+    }
+
+    /**
+     * Whether a record of {@code logKey}, a key qualified with its keyspace, fits the key directory.
+     */
+    public boolean accepts(byte[] logKey) {
+        return logKey.length <= keyDirectory.maxKeySize();
+    }
+
+    public int maxKeySize() {
+        return keyDirectory.maxKeySize();
+    }
+
+    public boolean isOrdered() {
+        return keyDirectory.isOrdered();
+    }
+
+    public List<IndexEntry> range(ByteArrayWrapper startKey, boolean startExclusive, ByteArrayWrapper endKey, int limit) {
+        return keyDirectory.range(startKey, startExclusive, endKey, limit);
+    }
+
+    public long liveKeys() {
+        return liveKeys.sum();
+    }
+
+    /**
+     * Segment bytes held by the records the directory points at, size prefixes included.
+     */
+    public long liveBytes() {
+        return liveBytes.sum();
+    }
+
+    private static long recordByteSize(ByteArrayWrapper key, int valueSize) {
+        return LOG_SIZE_BYTE_LENGTH + KEY_BYTE_OFFSET + KEYSPACE_ID_BYTE_LENGTH + key.array().length + valueSize;
     }
 
     public void close() throws IOException {
-        btree.close();
+        keyDirectory.close();
+    }
+
+    /**
+     * Closes the directory of a dropped keyspace and deletes its index file.
+     */
+    public void drop() throws IOException {
+        keyDirectory.drop();
     }
-}
\ No newline at end of file
+}
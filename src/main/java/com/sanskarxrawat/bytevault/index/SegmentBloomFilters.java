@@ -0,0 +1,124 @@
+package com.sanskarxrawat.bytevault.index;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import com.sanskarxrawat.bytevault.storage.file.SegmentFiles;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * One Bloom filter per segment over every key appended to it, tombstones included. A key no filter
+ * might contain was never written to a live segment, so a scan of the segments can skip it.
+ * <p>
+ * Lookups through the index probe a single store-wide filter instead, over every key the index was
+ * given since open, so a miss costs the same however many segments there are. It grows in stages of
+ * doubling size rather than being resized, and keeps keys deleted or merged away until the next open.
+ */
+public class SegmentBloomFilters {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SegmentBloomFilters.class);
+    private final Map<String, BloomFilter<byte[]>> filters = new ConcurrentHashMap<>();
+    private final List<BloomFilter<byte[]>> indexedFilters = new CopyOnWriteArrayList<>();
+    private final int expectedInsertions;
+    private final double fpp;
+    private int indexedCapacity;
+    private int indexedInNewest;
+
+    public SegmentBloomFilters(int expectedInsertions, double fpp) {
+        this.expectedInsertions = expectedInsertions;
+        this.fpp = fpp;
+        this.indexedCapacity = Math.max(1, expectedInsertions);
+        this.indexedFilters.add(newFilter(indexedCapacity));
+    }
+
+    public BloomFilter<byte[]> newFilter(int expectedInsertions) {
+        return BloomFilter.create(Funnels.byteArrayFunnel(), Math.max(1, expectedInsertions), fpp);
+    }
+
+    public void add(String segmentPath, byte[] key) {
+        filters.computeIfAbsent(segmentPath, path -> newFilter(expectedInsertions)).put(key);
+    }
+
+    /**
+     * Records a key about to be put into the index. Called before the put, so a reader that finds the
+     * entry never has it filtered out.
+     */
+    public synchronized void addIndexed(byte[] key) {
+        if (indexedInNewest >= indexedCapacity) {
+            indexedCapacity = (int) Math.min(Integer.MAX_VALUE, 2L * indexedCapacity);
+            indexedFilters.add(newFilter(indexedCapacity));
+            indexedInNewest = 0;
+        }
+        indexedFilters.get(indexedFilters.size() - 1).put(key);
+        indexedInNewest++;
+    }
+
+    public boolean mightBeIndexed(byte[] key) {
+        for (BloomFilter<byte[]> filter : indexedFilters) {
+            if (filter.mightContain(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean mightContain(String segmentPath, byte[] key) {
+        BloomFilter<byte[]> filter = filters.get(segmentPath);
+        return filter != null && filter.mightContain(key);
+    }
+
+    /**
+     * Persists the filter of a segment that no longer takes writes.
+     */
+    public void seal(String segmentPath) throws IOException {
+        BloomFilter<byte[]> filter = filters.computeIfAbsent(segmentPath, path -> newFilter(expectedInsertions));
+        writeTo(filter, SegmentFiles.bloomFilePath(Path.of(segmentPath)));
+    }
+
+    /**
+     * Loads the persisted filter of a segment, returning false when it has none and must be rebuilt.
+     */
+    public boolean load(Path segmentPath) throws IOException {
+        Path bloomFilePath = SegmentFiles.bloomFilePath(segmentPath);
+        if (!Files.exists(bloomFilePath)) {
+            return false;
+        }
+        try (InputStream input = new BufferedInputStream(Files.newInputStream(bloomFilePath))) {
+            filters.put(segmentPath.toString(), BloomFilter.readFrom(input, Funnels.byteArrayFunnel()));
+            return true;
+        } catch (IOException | IllegalArgumentException e) {
+            LOGGER.warn("Discarding unreadable bloom filter {}, rebuilding it", bloomFilePath, e);
+            return false;
+        }
+    }
+
+    public void install(String segmentPath, BloomFilter<byte[]> filter) {
+        filters.put(segmentPath, filter);
+    }
+
+    public void remove(String segmentPath) throws IOException {
+        filters.remove(segmentPath);
+        Files.deleteIfExists(SegmentFiles.bloomFilePath(Path.of(segmentPath)));
+    }
+
+    public static void writeTo(BloomFilter<byte[]> filter, Path bloomFilePath) throws IOException {
+        try (FileOutputStream stream = new FileOutputStream(bloomFilePath.toFile());
+             OutputStream output = new BufferedOutputStream(stream)) {
+            filter.writeTo(output);
+            output.flush();
+            stream.getFD().sync();
+        }
+    }
+}
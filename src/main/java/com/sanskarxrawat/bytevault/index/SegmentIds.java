@@ -0,0 +1,30 @@
+package com.sanskarxrawat.bytevault.index;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Interns segment file paths to dense int ids so key directories can store a segment in four bytes.
+ * Lookups by id are lock-free; interning copies the (small) id table.
+ */
+public class SegmentIds {
+    private final Map<String, Integer> ids = new HashMap<>();
+    private volatile String[] paths = new String[0];
+
+    public synchronized int intern(String filePath) {
+        Integer id = ids.get(filePath);
+        if (id == null) {
+            id = paths.length;
+            String[] grown = Arrays.copyOf(paths, id + 1);
+            grown[id] = filePath;
+            paths = grown;
+            ids.put(filePath, id);
+        }
+        return id;
+    }
+
+    public String path(int id) {
+        return paths[id];
+    }
+}
@@ -0,0 +1,14 @@
+package com.sanskarxrawat.bytevault.io;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Handed the bytes of every group commit exactly as they were appended, size prefixes and sequence
+ * numbers included, on the group-commit thread once the commit is published. The buffers are not
+ * touched again by the writer.
+ */
+@FunctionalInterface
+public interface AppendListener {
+
+    void appended(ByteBuffer[] records, long lastSequence);
+}
@@ -0,0 +1,56 @@
+package com.sanskarxrawat.bytevault.io;
+
+import com.sanskarxrawat.bytevault.metadata.FileMetaData;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One read covering the values of several keys that sit close together in a segment.
+ */
+public record CoalescedRead<K>(String filePath, int offset, int length, List<ValueRead<K>> valueReads) {
+
+    public record ValueRead<K>(K key, FileMetaData fileMetaData) {
+    }
+
+    /**
+     * Groups the reads by segment, orders them by offset and merges neighbours whose gap is at most
+     * {@code maxGapBytes} while the merged read stays within {@code maxReadBytes}. The result is
+     * keyed by segment path.
+     */
+    public static <K> Map<String, List<CoalescedRead<K>>> plan(List<ValueRead<K>> valueReads, int maxGapBytes, int maxReadBytes) {
+        Map<String, List<ValueRead<K>>> readsBySegment = new LinkedHashMap<>();
+        for (ValueRead<K> valueRead : valueReads) {
+            readsBySegment.computeIfAbsent(valueRead.fileMetaData().getFilePath(), filePath -> new ArrayList<>()).add(valueRead);
+        }
+        Map<String, List<CoalescedRead<K>>> plan = new LinkedHashMap<>();
+        for (Map.Entry<String, List<ValueRead<K>>> segment : readsBySegment.entrySet()) {
+            List<ValueRead<K>> segmentReads = segment.getValue();
+            segmentReads.sort(Comparator.comparingInt(valueRead -> valueRead.fileMetaData().getValueByteOffset()));
+            List<CoalescedRead<K>> coalescedReads = new ArrayList<>();
+            int start = 0;
+            int end = 0;
+            List<ValueRead<K>> current = new ArrayList<>();
+            for (ValueRead<K> valueRead : segmentReads) {
+                int valueStart = valueRead.fileMetaData().getValueByteOffset();
+                int valueEnd = valueStart + valueRead.fileMetaData().getValueSize();
+                if (!current.isEmpty() && (valueStart - end > maxGapBytes || Math.max(end, valueEnd) - start > maxReadBytes)) {
+                    coalescedReads.add(new CoalescedRead<>(segment.getKey(), start, end - start, current));
+                    current = new ArrayList<>();
+                }
+                if (current.isEmpty()) {
+                    start = valueStart;
+                    end = valueEnd;
+                }
+                end = Math.max(end, valueEnd);
+                current.add(valueRead);
+            }
+            coalescedReads.add(new CoalescedRead<>(segment.getKey(), start, end - start, current));
+            plan.put(segment.getKey(), coalescedReads);
+        }
+        return plan;
+    }
+}
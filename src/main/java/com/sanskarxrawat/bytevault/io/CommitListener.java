@@ -0,0 +1,16 @@
+package com.sanskarxrawat.bytevault.io;
+
+import com.sanskarxrawat.bytevault.log.FileLog;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Told about every appended write on the group-commit thread, in log order and before the writer is
+ * released, so whatever it maintains (the key directory) never runs behind or out of order.
+ */
+@FunctionalInterface
+public interface CommitListener {
+
+    void committed(List<FileLog> fileLogs, List<WriteResult> writeResults) throws IOException;
+}
@@ -3,19 +3,55 @@ package com.sanskarxrawat.bytevault.io;
 import com.sanskarxrawat.bytevault.log.FileLog;
 import com.sanskarxrawat.bytevault.storage.file.VaultFile;
 
+import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
-import java.nio.channels.FileChannel;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
 
-public interface FileIO extends KeyValueWriter<FileLog,WriteResult> {
+public interface FileIO extends KeyValueWriter<FileLog,WriteResult>, Closeable {
 
-    Future<String> read(String filepath, int offset, int length) throws IOException, InterruptedException;
+    Future<byte[]> read(String filepath, int offset, int length) throws IOException, InterruptedException;
+
+    /**
+     * Copies the value straight into {@code dst} at its position and advances it by {@code length}.
+     */
+    void read(String filepath, int offset, int length, ByteBuffer dst) throws IOException;
+
+    /**
+     * Issues the read before returning and fills {@code dst} in the background, without parking the
+     * calling thread. The future completes once {@code length} bytes are in {@code dst}, which must not
+     * be touched until then.
+     */
+    CompletableFuture<Void> readAsync(String filepath, int offset, int length, ByteBuffer dst);
 
     void removeFile(File file);
 
-    WriteResult writeTo(FileLog data, File file, FileChannel channel) throws IOException;
+    CompletableFuture<WriteResult> writeAsync(FileLog data) throws IOException;
+
+    /**
+     * Appends all logs back to back in the same segment with a single write.
+     */
+    List<WriteResult> write(List<FileLog> data) throws IOException;
+
+    CompletableFuture<List<WriteResult>> writeAsync(List<FileLog> data) throws IOException;
 
     File[] getStoredFiles(String storageDirectory);
 
+    String getActiveFilePath();
+
+    /**
+     * Where the log stood after the last group commit, once its records were reported as committed.
+     */
+    LogPosition logPosition();
+
+    /**
+     * Rolls over to a new active file once the writes queued before the call are committed, and returns
+     * the position right after: every record numbered up to its {@code lastSequence} is then in a
+     * sealed segment older than its active file.
+     */
+    LogPosition seal() throws IOException;
+
 }
@@ -0,0 +1,9 @@
+package com.sanskarxrawat.bytevault.io;
+
+/**
+ * How far the log had got after a group commit: every record in the first {@code activeFileSize}
+ * bytes of the active file, and in older segments, is numbered at most {@code lastSequence} and was
+ * already reported to the commit listener; every record appended later is numbered above it.
+ */
+public record LogPosition(String activeFilePath, long activeFileSize, long lastSequence) {
+}
@@ -0,0 +1,99 @@
+package com.sanskarxrawat.bytevault.io;
+
+import com.sanskarxrawat.bytevault.exception.storage.UnsupportedFormatException;
+import com.sanskarxrawat.bytevault.log.FileLog;
+import com.sanskarxrawat.bytevault.log.FileLogConstants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Streams the records of a segment front to back through a fixed-size buffer.
+ */
+public class SegmentReader implements Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SegmentReader.class);
+    private final Path segmentPath;
+    private final DataInputStream input;
+    private final long segmentByteSize;
+    private int byteCursor;
+    private boolean intact = true;
+
+    public SegmentReader(Path segmentPath, int bufferSize) throws IOException {
+        this.segmentPath = segmentPath;
+        this.segmentByteSize = Files.size(segmentPath);
+        this.input = new DataInputStream(new BufferedInputStream(Files.newInputStream(segmentPath), bufferSize));
+    }
+
+    /**
+     * Returns the next record, or null at the end of the segment. A truncated or corrupt record is
+     * logged and treated as the end, see {@link #isIntact()}. A whole record of another format version
+     * is not damage, reading stops with an {@link UnsupportedFormatException} instead.
+     */
+    public SegmentRecord next() throws IOException {
+        if (!intact) {
+            return null;
+        }
+        try {
+            int fileLogByteSize = input.readInt();
+            if (fileLogByteSize <= FileLogConstants.VERSION_BYTE_OFFSET
+                    || fileLogByteSize > segmentByteSize - byteCursor - FileLogConstants.LOG_SIZE_BYTE_LENGTH) {
+                return corrupt();
+            }
+            byte[] fileLogBytes = new byte[fileLogByteSize];
+            input.readFully(fileLogBytes);
+            if (!FileLog.isChecksumValid(fileLogBytes)) {
+                return corrupt();
+            }
+            if (FileLog.versionOf(fileLogBytes) != FileLogConstants.FORMAT_VERSION) {
+                throw new UnsupportedFormatException(String.format("Segment %s holds a record of format version %d at offset %d, "
+                        + "this build reads version %d only", segmentPath, FileLog.versionOf(fileLogBytes), byteCursor, FileLogConstants.FORMAT_VERSION));
+            }
+            if (!FileLog.isIntact(fileLogBytes)) {
+                return corrupt();
+            }
+            FileLog fileLog = FileLog.valueOf(fileLogBytes);
+
+            int recordByteOffset = byteCursor;
+            int valueByteOffset = recordByteOffset + FileLogConstants.LOG_SIZE_BYTE_LENGTH + FileLogConstants.KEY_BYTE_OFFSET + fileLog.getKeySize();
+            byteCursor += FileLogConstants.LOG_SIZE_BYTE_LENGTH + fileLogByteSize;
+            return new SegmentRecord(fileLog, fileLogBytes, recordByteOffset, valueByteOffset);
+        } catch (EOFException e) {
+            if (byteCursor < segmentByteSize) {
+                return corrupt();
+            }
+            return null;
+        }
+    }
+
+    private SegmentRecord corrupt() {
+        LOGGER.warn("Ignoring torn or corrupt record at offset {} of segment {}", byteCursor, segmentPath);
+        intact = false;
+        return null;
+    }
+
+    /**
+     * False once a record failed validation; everything from {@link #validByteLength()} on was skipped.
+     */
+    public boolean isIntact() {
+        return intact;
+    }
+
+    /**
+     * Bytes of the segment covered by the records returned so far.
+     */
+    public int validByteLength() {
+        return byteCursor;
+    }
+
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+}
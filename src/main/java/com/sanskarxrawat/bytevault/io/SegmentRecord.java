@@ -0,0 +1,11 @@
+package com.sanskarxrawat.bytevault.io;
+
+import com.sanskarxrawat.bytevault.log.FileLog;
+
+/**
+ * A record read back from a segment: the decoded log, its raw bytes (without the size prefix)
+ * and where it sits in the segment.
+ */
+public record SegmentRecord(FileLog fileLog, byte[] fileLogBytes, int recordByteOffset, int valueByteOffset) {
+
+}
@@ -1,10 +1,15 @@
 package com.sanskarxrawat.bytevault.io;
 
 
-import com.google.common.primitives.Bytes;
-import com.google.common.primitives.Ints;
+import com.sanskarxrawat.bytevault.config.DurabilityPolicy;
 import com.sanskarxrawat.bytevault.exception.file.FileDeleteException;
+import com.sanskarxrawat.bytevault.exception.file.FileReadException;
+import com.sanskarxrawat.bytevault.index.SegmentBloomFilters;
 import com.sanskarxrawat.bytevault.log.FileLog;
+import com.sanskarxrawat.bytevault.log.FileLogConstants;
+import com.sanskarxrawat.bytevault.stats.LatencyMetric;
+import com.sanskarxrawat.bytevault.stats.SegmentRolloverEvent;
+import com.sanskarxrawat.bytevault.stats.VaultMetrics;
 import com.sanskarxrawat.bytevault.storage.file.FileManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,42 +17,165 @@ import org.slf4j.LoggerFactory;
 import java.io.File;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.CompletionHandler;
 import java.nio.channels.FileChannel;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.FileSystems;
-import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.sanskarxrawat.bytevault.constant.VaultConstants.GROUP_COMMIT_MAX_BATCH_SIZE;
 
 public class VaultIO implements FileIO{
 
     private static final Logger LOGGER = LoggerFactory.getLogger(VaultIO.class);
-    private static final ExecutorService executorService = Executors.newVirtualThreadPerTaskExecutor();
+    private static final PendingWrite CLOSE_MARKER = new PendingWrite(ByteBuffer.allocate(0), List.of(), new int[0], new CompletableFuture<>());
+    private static final PendingWrite ROLL_OVER_MARKER = new PendingWrite(ByteBuffer.allocate(0), List.of(), new int[0], new CompletableFuture<>());
     private final String fileLogDirectory;
-    private File activeFile;
+    private volatile File activeFile;
+    private long activeFileSize;
     private final FileManager fileManager;
     private final Integer fileSizeLimit;
     private final Map<String, RandomAccessFile> fileAccessors;
+    private final Map<String, MappedByteBuffer> sealedSegments;
+    private final Map<String, AsynchronousFileChannel> asyncChannels;
+    private final DurabilityPolicy durabilityPolicy;
+    private final SegmentBloomFilters segmentBloomFilters;
+    private final CommitListener commitListener;
+    private final AppendListener appendListener;
+    private final VaultMetrics vaultMetrics;
+    private final long syncIntervalMils;
+    private final BlockingQueue<PendingWrite> pendingWrites;
+    private final Queue<CompletableFuture<LogPosition>> rollOverRequests;
+    private final List<UnsyncedWrite> unsyncedWrites;
+    private final Thread committer;
+    private long lastSyncMils;
+    private long lastSequence;
+    private volatile LogPosition logPosition;
+    // Taken around the closed check and the enqueue, so nothing is queued after the committer saw it closed.
+    private final ReentrantLock enqueueLock = new ReentrantLock();
+    private volatile boolean closed;
 
 
-    public VaultIO(String fileLogDirectory,FileManager fileManager,Integer fileSizeLimit) throws IOException {
+    public VaultIO(String fileLogDirectory,FileManager fileManager,Integer fileSizeLimit,DurabilityPolicy durabilityPolicy,Integer syncIntervalMils,
+                   SegmentBloomFilters segmentBloomFilters, CommitListener commitListener, VaultMetrics vaultMetrics,
+                   long lastSequence, AppendListener appendListener) throws IOException {
         this.fileLogDirectory = fileLogDirectory;
         this.fileManager = fileManager;
         this.fileSizeLimit = fileSizeLimit;
         this.fileAccessors = new ConcurrentHashMap<>();
+        this.sealedSegments = new ConcurrentHashMap<>();
+        this.asyncChannels = new ConcurrentHashMap<>();
+        this.durabilityPolicy = durabilityPolicy;
+        this.syncIntervalMils = syncIntervalMils;
+        this.segmentBloomFilters = segmentBloomFilters;
+        this.commitListener = commitListener;
+        this.appendListener = appendListener;
+        this.vaultMetrics = vaultMetrics;
+        this.pendingWrites = new LinkedBlockingQueue<>();
+        this.rollOverRequests = new ConcurrentLinkedQueue<>();
+        this.unsyncedWrites = new ArrayList<>();
+        this.lastSequence = lastSequence;
         createNewActiveFile(fileLogDirectory);
+        this.lastSyncMils = System.currentTimeMillis();
+        this.committer = Thread.ofPlatform().daemon().name("bytevault-group-commit").start(this::runCommitter);
     }
     @Override
-    public Future<String> read(String filepath, int offset, int length) throws IOException, InterruptedException {
-        return executorService.submit(() -> readAsync(filepath, offset, length));
+    public Future<byte[]> read(String filepath, int offset, int length) throws IOException, InterruptedException {
+        try {
+            byte[] data = new byte[length];
+            read(filepath, offset, length, ByteBuffer.wrap(data));
+            return CompletableFuture.completedFuture(data);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Only the active file is read through its channel; sealed segments never change once rolled over,
+     * so they are served from a read-only mapping without a shared file pointer.
+     */
+    @Override
+    public void read(String filepath, int offset, int length, ByteBuffer dst) throws IOException {
+        if (dst.remaining() < length) {
+            throw new BufferOverflowException();
+        }
+        long startNanos = System.nanoTime();
+        try {
+            readInto(filepath, offset, length, dst);
+        } finally {
+            vaultMetrics.record(LatencyMetric.DISK_READ, startNanos);
+        }
+        vaultMetrics.bytesRead(length);
+    }
+
+    private void readInto(String filepath, int offset, int length, ByteBuffer dst) throws IOException {
+        if (filepath.equals(activeFile.getPath())) {
+            RandomAccessFile accessor = fileAccessors.get(filepath);
+            if (accessor != null) {
+                int start = dst.position();
+                try {
+                    readFromChannel(accessor.getChannel(), offset, dst.slice(start, length));
+                    dst.position(start + length);
+                    return;
+                } catch (ClosedChannelException e) {
+                    LOGGER.debug("Active file {} was sealed during read, retrying from mapped segment", filepath);
+                }
+            }
+        }
+        dst.put(getSealedSegment(filepath).slice(offset, length));
+    }
+
+    @Override
+    public CompletableFuture<Void> readAsync(String filepath, int offset, int length, ByteBuffer dst) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        if (dst.remaining() < length) {
+            result.completeExceptionally(new BufferOverflowException());
+            return result;
+        }
+        if (closed) {
+            result.completeExceptionally(new IOException("VaultIO is closed, cannot read from " + filepath));
+            return result;
+        }
+        try {
+            new AsyncRead(getAsyncChannel(filepath), offset, dst, length, result).start();
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    private AsynchronousFileChannel getAsyncChannel(String filepath) {
+        return asyncChannels.computeIfAbsent(filepath, key -> {
+            try {
+                return AsynchronousFileChannel.open(Path.of(filepath), StandardOpenOption.READ);
+            } catch (IOException e) {
+                throw new FileReadException("Failed to open segment for async reads: " + filepath, e);
+            }
+        });
     }
 
     @Override
     public void removeFile(File file) {
+        sealedSegments.remove(file.getPath());
+        closeAsyncChannel(file.getPath());
         if (fileAccessors.containsKey(file.getPath())) {
             RandomAccessFile randomAccessFile = fileAccessors.remove(file.getPath());
             try {
@@ -59,12 +187,16 @@ public class VaultIO implements FileIO{
         }
     }
 
-    @Override
-    public WriteResult writeTo(FileLog data, File file, FileChannel channel) throws IOException {
-        final byte[] fileLogBytes = data.toBytes();
-        final int valueByteOffset = (int)channel.size() + 20 + data.getKey().getBytes().length;
-        channel.write(ByteBuffer.wrap(Bytes.concat(Ints.toByteArray(fileLogBytes.length), fileLogBytes)));
-        return new WriteResult(file.getPath(), valueByteOffset);
+    private void closeAsyncChannel(String filepath) {
+        AsynchronousFileChannel asyncChannel = asyncChannels.remove(filepath);
+        if (asyncChannel != null) {
+            try {
+                // Reads still in flight fail with an AsynchronousCloseException.
+                asyncChannel.close();
+            } catch (IOException e) {
+                LOGGER.warn("Failed to close async channel of {}", filepath, e);
+            }
+        }
     }
 
     @Override
@@ -73,37 +205,417 @@ public class VaultIO implements FileIO{
         return storageDir.listFiles();
     }
 
+    @Override
+    public String getActiveFilePath() {
+        return activeFile.getPath();
+    }
+
+    @Override
+    public LogPosition logPosition() {
+        return logPosition;
+    }
+
     private void createNewActiveFile(String fileLogDirectory) throws IOException {
-        activeFile = new File(fileLogDirectory + FileSystems.getDefault().getSeparator() + fileManager.format(System.currentTimeMillis()));
-        if (!activeFile.createNewFile()) {
-            throw new IOException("Failed to create new active file: " + activeFile.getPath());
+        long timestamp = System.currentTimeMillis();
+        File newActiveFile = new File(fileLogDirectory + FileSystems.getDefault().getSeparator() + fileManager.format(timestamp));
+        // Two rollovers within one millisecond would pick the same name; segment names only have to grow.
+        while (!newActiveFile.createNewFile()) {
+            if (!newActiveFile.exists()) {
+                throw new IOException("Failed to create new active file: " + newActiveFile.getPath());
+            }
+            newActiveFile = new File(fileLogDirectory + FileSystems.getDefault().getSeparator() + fileManager.format(++timestamp));
         }
-        fileAccessors.put(activeFile.getPath(), new RandomAccessFile(activeFile.getPath(), "rw"));
+        fileAccessors.put(newActiveFile.getPath(), new RandomAccessFile(newActiveFile.getPath(), "rw"));
+        // Published before the old file can be merged away, so a position never names a dropped segment.
+        logPosition = new LogPosition(newActiveFile.getPath(), 0, lastSequence);
+        activeFile = newActiveFile;
+        activeFileSize = 0;
     }
 
-    private String readAsync(String filepath, int offset, int length) throws IOException {
-        RandomAccessFile accessFile = getFileAccessor(filepath);
-        byte[] data = new byte[length];
-        accessFile.seek(offset);
-        accessFile.readFully(data, 0, length);
-        return new String(data, StandardCharsets.UTF_8);
+    private void readFromChannel(FileChannel channel, int offset, ByteBuffer data) throws IOException {
+        int length = data.remaining();
+        while (data.hasRemaining()) {
+            if (channel.read(data, offset + data.position()) < 0) {
+                throw new FileReadException("Unexpected end of file while reading " + length + " bytes at offset " + offset);
+            }
+        }
     }
 
-    private RandomAccessFile getFileAccessor(String filepath) throws IOException {
-        return fileAccessors.computeIfAbsent(filepath, key -> {
-            try {
-                return new RandomAccessFile(filepath, "rw");
+    private MappedByteBuffer getSealedSegment(String filepath) {
+        return sealedSegments.computeIfAbsent(filepath, key -> {
+            try (FileChannel channel = FileChannel.open(Path.of(filepath), StandardOpenOption.READ)) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
             } catch (IOException e) {
-                throw new RuntimeException("Failed to create RandomAccessFile for path: " + filepath, e);
+                throw new FileReadException("Failed to map sealed segment: " + filepath, e);
             }
         });
     }
 
+    private void sealActiveFile(File sealedFile) throws IOException {
+        RandomAccessFile accessor = fileAccessors.remove(sealedFile.getPath());
+        if (accessor != null) {
+            accessor.close();
+        }
+        sealBloomFilter(sealedFile);
+    }
+
+    private void sealBloomFilter(File sealedFile) {
+        try {
+            segmentBloomFilters.seal(sealedFile.getPath());
+        } catch (IOException e) {
+            // Not fatal, a segment without a persisted filter gets it rebuilt on the next open.
+            LOGGER.warn("Failed to persist bloom filter of segment {}", sealedFile.getPath(), e);
+        }
+    }
+
     @Override
     public WriteResult write(FileLog data) throws IOException {
-        if (this.activeFile.length() >= this.fileSizeLimit) {
-            createNewActiveFile(this.fileLogDirectory);
+        return write(List.of(data)).get(0);
+    }
+
+    @Override
+    public CompletableFuture<WriteResult> writeAsync(FileLog data) throws IOException {
+        return writeAsync(List.of(data)).thenApply(writeResults -> writeResults.get(0));
+    }
+
+    @Override
+    public List<WriteResult> write(List<FileLog> data) throws IOException {
+        try {
+            return writeAsync(data).join();
+        } catch (CompletionException e) {
+            // Callers of the blocking write see what failed it, not the future it failed.
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    @Override
+    public CompletableFuture<List<WriteResult>> writeAsync(List<FileLog> data) throws IOException {
+        int byteSize = 0;
+        for (FileLog fileLog : data) {
+            byteSize += FileLogConstants.LOG_SIZE_BYTE_LENGTH + fileLog.byteSize();
+        }
+        final ByteBuffer records = ByteBuffer.allocate(byteSize);
+        final int[] valueOffsetsInRecords = new int[data.size()];
+        for (int i = 0; i < data.size(); i++) {
+            FileLog fileLog = data.get(i);
+            valueOffsetsInRecords[i] = records.position() + FileLogConstants.LOG_SIZE_BYTE_LENGTH + FileLogConstants.KEY_BYTE_OFFSET + fileLog.getKeySize();
+            fileLog.writeUnsealedTo(records.putInt(fileLog.byteSize()));
+        }
+        final PendingWrite pendingWrite = new PendingWrite(records.flip(), data, valueOffsetsInRecords, new CompletableFuture<>());
+        enqueueLock.lock();
+        try {
+            if (closed) {
+                throw new IOException("VaultIO is closed, cannot write to " + fileLogDirectory);
+            }
+            pendingWrites.add(pendingWrite);
+        } finally {
+            enqueueLock.unlock();
+        }
+        return pendingWrite.result();
+    }
+
+    @Override
+    public LogPosition seal() throws IOException {
+        final CompletableFuture<LogPosition> request = new CompletableFuture<>();
+        enqueueLock.lock();
+        try {
+            if (closed) {
+                throw new IOException("VaultIO is closed, cannot seal " + fileLogDirectory);
+            }
+            rollOverRequests.add(request);
+            pendingWrites.add(ROLL_OVER_MARKER);
+        } finally {
+            enqueueLock.unlock();
+        }
+        try {
+            return request.join();
+        } catch (CompletionException e) {
+            // Callers of the blocking write see what failed it, not the future it failed.
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        enqueueLock.lock();
+        try {
+            closed = true;
+            pendingWrites.add(CLOSE_MARKER);
+        } finally {
+            enqueueLock.unlock();
+        }
+        try {
+            committer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for group commit to finish", e);
+        }
+        sealBloomFilter(activeFile);
+        for (RandomAccessFile accessor : fileAccessors.values()) {
+            accessor.close();
+        }
+        fileAccessors.clear();
+        sealedSegments.clear();
+        for (String filepath : List.copyOf(asyncChannels.keySet())) {
+            closeAsyncChannel(filepath);
+        }
+    }
+
+    /**
+     * Single writer loop: drains every queued write, numbers its records in log order, appends them
+     * with one gathering write, reports them to the {@link CommitListener} and releases the writers once
+     * they are durable under the configured {@link DurabilityPolicy}. A multi-record write is one
+     * buffer, so it always lands whole in a single segment.
+     */
+    private void runCommitter() {
+        final List<PendingWrite> batch = new ArrayList<>();
+        while (!closed || !pendingWrites.isEmpty()) {
+            try {
+                PendingWrite first = pendingWrites.poll(pollTimeoutMils(), TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    pendingWrites.drainTo(batch, GROUP_COMMIT_MAX_BATCH_SIZE - 1);
+                    batch.removeIf(pendingWrite -> pendingWrite == CLOSE_MARKER || pendingWrite == ROLL_OVER_MARKER);
+                }
+                if (!batch.isEmpty()) {
+                    commit(batch);
+                }
+                if (!unsyncedWrites.isEmpty() && System.currentTimeMillis() - lastSyncMils >= syncIntervalMils) {
+                    sync();
+                }
+            } catch (InterruptedException e) {
+                LOGGER.warn("Group commit interrupted while store is open, continuing");
+            } catch (IOException e) {
+                LOGGER.error("Group commit failed for {} writes", batch.size(), e);
+                batch.forEach(pendingWrite -> pendingWrite.result().completeExceptionally(e));
+                unsyncedWrites.forEach(unsyncedWrite -> unsyncedWrite.result().completeExceptionally(e));
+                unsyncedWrites.clear();
+            } finally {
+                batch.clear();
+            }
+            if (!rollOverRequests.isEmpty()) {
+                rollOverOnRequest();
+            }
+        }
+        try {
+            sync();
+        } catch (IOException e) {
+            LOGGER.error("Final sync of active file {} failed", activeFile.getPath(), e);
+            unsyncedWrites.forEach(unsyncedWrite -> unsyncedWrite.result().completeExceptionally(e));
+        }
+    }
+
+    private long pollTimeoutMils() {
+        if (closed) {
+            return 0;
+        }
+        return DurabilityPolicy.EVERY_N_MILLIS.equals(durabilityPolicy) ? syncIntervalMils : Long.MAX_VALUE;
+    }
+
+    private void commit(List<PendingWrite> batch) throws IOException {
+        if (activeFileSize >= fileSizeLimit) {
+            rollOver();
+        }
+        final String activeFilePath = activeFile.getPath();
+        final FileChannel channel = fileAccessors.get(activeFilePath).getChannel();
+        final ByteBuffer[] records = new ByteBuffer[batch.size()];
+        final List<List<WriteResult>> writeResults = new ArrayList<>(batch.size());
+        long position = activeFileSize;
+        for (int i = 0; i < batch.size(); i++) {
+            PendingWrite pendingWrite = batch.get(i);
+            records[i] = pendingWrite.records();
+            List<WriteResult> pendingWriteResults = new ArrayList<>(pendingWrite.fileLogs().size());
+            for (int j = 0; j < pendingWrite.fileLogs().size(); j++) {
+                int valueOffsetInRecords = pendingWrite.valueOffsetsInRecords()[j];
+                FileLog fileLog = pendingWrite.fileLogs().get(j);
+                // Records replicated from a primary keep its numbering, which only skips ahead.
+                lastSequence = Math.max(lastSequence + 1, fileLog.getSequence());
+                FileLog.seal(pendingWrite.records(), valueOffsetInRecords - FileLogConstants.KEY_BYTE_OFFSET - fileLog.getKeySize(), lastSequence);
+                pendingWriteResults.add(new WriteResult(activeFilePath, (int) position + valueOffsetInRecords));
+            }
+            writeResults.add(pendingWriteResults);
+            position += pendingWrite.records().remaining();
+        }
+
+        long startNanos = System.nanoTime();
+        channel.position(activeFileSize);
+        long written = 0;
+        while (written < position - activeFileSize) {
+            written += channel.write(records);
+        }
+        vaultMetrics.record(LatencyMetric.APPEND, startNanos);
+        vaultMetrics.bytesWritten(written);
+        activeFileSize = position;
+
+        if (DurabilityPolicy.EVERY_WRITE.equals(durabilityPolicy)) {
+            force(channel);
+            lastSyncMils = System.currentTimeMillis();
+        }
+        Exception[] failures = new Exception[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            PendingWrite pendingWrite = batch.get(i);
+            for (FileLog fileLog : pendingWrite.fileLogs()) {
+                segmentBloomFilters.add(activeFilePath, fileLog.getKey());
+            }
+            try {
+                commitListener.committed(pendingWrite.fileLogs(), writeResults.get(i));
+            } catch (IOException | RuntimeException e) {
+                // The records are in the log and will be indexed on the next open, but this writer must hear about it.
+                LOGGER.error("Commit listener failed for {} records in {}", pendingWrite.fileLogs().size(), activeFilePath, e);
+                failures[i] = e;
+            }
+        }
+        // Published once the batch is indexed and before its writers return, so a snapshot taken after a
+        // write returned covers it.
+        logPosition = new LogPosition(activeFilePath, activeFileSize, lastSequence);
+        for (int i = 0; i < batch.size(); i++) {
+            PendingWrite pendingWrite = batch.get(i);
+            if (failures[i] != null) {
+                pendingWrite.result().completeExceptionally(failures[i]);
+            } else if (DurabilityPolicy.EVERY_N_MILLIS.equals(durabilityPolicy)) {
+                unsyncedWrites.add(new UnsyncedWrite(pendingWrite.result(), writeResults.get(i)));
+            } else {
+                pendingWrite.result().complete(writeResults.get(i));
+            }
         }
-        return writeTo(data, this.activeFile, this.fileAccessors.get(this.activeFile.getPath()).getChannel());
+        if (appendListener != null) {
+            for (ByteBuffer record : records) {
+                record.rewind();
+            }
+            try {
+                appendListener.appended(records, lastSequence);
+            } catch (RuntimeException e) {
+                LOGGER.error("Append listener failed for records up to sequence {}", lastSequence, e);
+            }
+        }
+    }
+
+    private void rollOver() throws IOException {
+        SegmentRolloverEvent rolloverEvent = new SegmentRolloverEvent();
+        rolloverEvent.begin();
+        sync();
+        File sealedFile = activeFile;
+        long sealedBytes = activeFileSize;
+        createNewActiveFile(fileLogDirectory);
+        sealActiveFile(sealedFile);
+        vaultMetrics.segmentRolledOver();
+        if (rolloverEvent.shouldCommit()) {
+            rolloverEvent.sealedSegment = sealedFile.getPath();
+            rolloverEvent.sealedBytes = sealedBytes;
+            rolloverEvent.activeSegment = activeFile.getPath();
+            rolloverEvent.commit();
+        }
+    }
+
+    /**
+     * Rolls over for every waiting {@link #seal()} at once, after the writes committed ahead of them.
+     * An empty active file holds nothing to seal and is kept.
+     */
+    private void rollOverOnRequest() {
+        List<CompletableFuture<LogPosition>> requests = new ArrayList<>();
+        CompletableFuture<LogPosition> request;
+        while ((request = rollOverRequests.poll()) != null) {
+            requests.add(request);
+        }
+        try {
+            if (activeFileSize > 0) {
+                rollOver();
+            }
+        } catch (IOException e) {
+            LOGGER.error("Failed to roll over active file {} on request", activeFile.getPath(), e);
+            requests.forEach(sealRequest -> sealRequest.completeExceptionally(e));
+            return;
+        }
+        requests.forEach(sealRequest -> sealRequest.complete(logPosition));
+    }
+
+    private void force(FileChannel channel) throws IOException {
+        long startNanos = System.nanoTime();
+        channel.force(false);
+        vaultMetrics.record(LatencyMetric.FSYNC, startNanos);
+    }
+
+    private void sync() throws IOException {
+        if (!DurabilityPolicy.NONE.equals(durabilityPolicy) && fileAccessors.containsKey(activeFile.getPath())) {
+            force(fileAccessors.get(activeFile.getPath()).getChannel());
+        }
+        lastSyncMils = System.currentTimeMillis();
+        unsyncedWrites.forEach(unsyncedWrite -> unsyncedWrite.result().complete(unsyncedWrite.writeResults()));
+        unsyncedWrites.clear();
+    }
+
+    /**
+     * Reads into a slice of the destination, reissuing itself from the completion handler until the
+     * slice is full.
+     */
+    private final class AsyncRead implements CompletionHandler<Integer, Void> {
+        private final AsynchronousFileChannel channel;
+        private final int offset;
+        private final ByteBuffer dst;
+        private final ByteBuffer target;
+        private final CompletableFuture<Void> result;
+        private final long startNanos = System.nanoTime();
+
+        private AsyncRead(AsynchronousFileChannel channel, int offset, ByteBuffer dst, int length, CompletableFuture<Void> result) {
+            this.channel = channel;
+            this.offset = offset;
+            this.dst = dst;
+            this.target = dst.slice(dst.position(), length);
+            this.result = result;
+        }
+
+        private void start() {
+            channel.read(target, offset, null, this);
+        }
+
+        @Override
+        public void completed(Integer read, Void attachment) {
+            if (read < 0) {
+                failed(new FileReadException("Unexpected end of file while reading " + target.capacity() + " bytes at offset " + offset), null);
+                return;
+            }
+            if (target.hasRemaining()) {
+                try {
+                    channel.read(target, offset + target.position(), null, this);
+                } catch (RuntimeException e) {
+                    failed(e, null);
+                }
+                return;
+            }
+            vaultMetrics.record(LatencyMetric.DISK_READ, startNanos);
+            vaultMetrics.bytesRead(target.capacity());
+            dst.position(dst.position() + target.capacity());
+            result.complete(null);
+        }
+
+        @Override
+        public void failed(Throwable failure, Void attachment) {
+            result.completeExceptionally(failure);
+        }
+    }
+
+    private record PendingWrite(ByteBuffer records, List<FileLog> fileLogs, int[] valueOffsetsInRecords,
+                                CompletableFuture<List<WriteResult>> result) {
+    }
+
+    private record UnsyncedWrite(CompletableFuture<List<WriteResult>> result, List<WriteResult> writeResults) {
     }
 }
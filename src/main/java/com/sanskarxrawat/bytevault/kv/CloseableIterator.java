@@ -0,0 +1,31 @@
+package com.sanskarxrawat.bytevault.kv;
+
+import java.io.Closeable;
+import java.util.Iterator;
+import java.util.function.Function;
+
+public interface CloseableIterator<T> extends Iterator<T>, Closeable {
+
+    @Override
+    void close();
+
+    default <R> CloseableIterator<R> map(Function<? super T, ? extends R> mapper) {
+        CloseableIterator<T> source = this;
+        return new CloseableIterator<>() {
+            @Override
+            public boolean hasNext() {
+                return source.hasNext();
+            }
+
+            @Override
+            public R next() {
+                return mapper.apply(source.next());
+            }
+
+            @Override
+            public void close() {
+                source.close();
+            }
+        };
+    }
+}
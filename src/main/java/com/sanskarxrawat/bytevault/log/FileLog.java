@@ -1,24 +1,59 @@
 package com.sanskarxrawat.bytevault.log;
 
-import com.google.common.primitives.Ints;
-import com.google.common.primitives.Longs;
+import com.sanskarxrawat.bytevault.compress.Codec;
+import com.sanskarxrawat.bytevault.compress.Codecs;
 import com.sanskarxrawat.bytevault.kv.KeyValue;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-import java.nio.charset.StandardCharsets;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
+import java.util.zip.CRC32C;
 
-public class FileLog extends KeyValue<String, String> {
+public class FileLog extends KeyValue<byte[], byte[]> {
+    protected final long sequence;
     protected final long timestamp;
     protected final int keySize;
     protected final int valueSize;
+    protected final byte codecId;
+    protected final long expiresAt;
+    protected final boolean tombstone;
 
-    public FileLog(long timestamp, int keySize, int valueSize, String key, String value) {
+    public FileLog(long timestamp, byte[] key, byte[] value) {
+        this(timestamp, key, value, Codecs.NONE.id(), FileLogConstants.NEVER_EXPIRES);
+    }
+
+    /**
+     * A log whose {@code value} is already encoded by the codec with {@code codecId} and that expires
+     * at {@code expiresAt} epoch millis, or never with {@link FileLogConstants#NEVER_EXPIRES}. Its
+     * sequence number is stamped when it is appended.
+     */
+    public FileLog(long timestamp, byte[] key, byte[] value, byte codecId, long expiresAt) {
+        this(0L, timestamp, key, value, codecId, expiresAt);
+    }
+
+    public FileLog(long sequence, long timestamp, byte[] key, byte[] value, byte codecId, long expiresAt) {
+        this(sequence, timestamp, key, value, codecId, expiresAt, false);
+    }
+
+    private FileLog(long sequence, long timestamp, byte[] key, byte[] value, byte codecId, long expiresAt, boolean tombstone) {
         super(key, value);
+        this.sequence = sequence;
         this.timestamp = timestamp;
-        this.keySize = keySize;
-        this.valueSize = valueSize;
+        this.keySize = key.length;
+        this.valueSize = value.length;
+        this.codecId = codecId;
+        this.expiresAt = expiresAt;
+        this.tombstone = tombstone;
+    }
+
+    public static FileLog tombstone(long timestamp, byte[] key) {
+        return new FileLog(0L, timestamp, key, new byte[0], Codecs.NONE.id(), FileLogConstants.NEVER_EXPIRES, true);
+    }
+
+    /**
+     * Position of this log in the order records were appended to the store, zero until appended.
+     */
+    public long getSequence() {
+        return sequence;
     }
 
     public long getTimestamp() {
@@ -33,44 +68,161 @@ public class FileLog extends KeyValue<String, String> {
         return valueSize;
     }
 
+    public byte getCodecId() {
+        return codecId;
+    }
+
+    /**
+     * The codec byte as stored: the codec id with {@link FileLogConstants#TOMBSTONE_FLAG} set for a tombstone.
+     */
+    public byte getCodecFlags() {
+        return tombstone ? (byte) (codecId | FileLogConstants.TOMBSTONE_FLAG) : codecId;
+    }
+
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    public boolean isExpired(long nowMils) {
+        return isExpired(expiresAt, nowMils);
+    }
+
+    public static boolean isExpired(long expiresAt, long nowMils) {
+        return expiresAt != FileLogConstants.NEVER_EXPIRES && expiresAt <= nowMils;
+    }
+
+    /**
+     * This log with its value encoded by {@code codec}. Values under {@code threshold} bytes, and
+     * values the codec cannot shrink, are stored raw; tombstones are never encoded.
+     */
+    public FileLog encodeWith(Codec codec, int threshold) {
+        if (codecId == codec.id() || isTombstone()) {
+            return this;
+        }
+        byte[] raw = decodedValue();
+        byte[] encoded = codec.id() == Codecs.NONE.id() || raw.length < threshold ? null : Codecs.encode(codec, raw);
+        if (encoded == null) {
+            return codecId == Codecs.NONE.id() ? this : new FileLog(sequence, timestamp, key, raw, Codecs.NONE.id(), expiresAt);
+        }
+        return new FileLog(sequence, timestamp, key, encoded, codec.id(), expiresAt);
+    }
+
+    /**
+     * This log under another key, with everything else unchanged.
+     */
+    public FileLog withKey(byte[] key) {
+        return new FileLog(sequence, timestamp, key, value, codecId, expiresAt, tombstone);
+    }
+
+    public byte[] decodedValue() {
+        return Codecs.decode(codecId, value);
+    }
+
+    public boolean isTombstone() {
+        return tombstone;
+    }
+
+    public static boolean isTombstone(byte codecFlags) {
+        return (codecFlags & FileLogConstants.TOMBSTONE_FLAG) != 0;
+    }
+
+    public static byte codecIdOf(byte codecFlags) {
+        return (byte) (codecFlags & FileLogConstants.CODEC_ID_MASK);
+    }
+
     public static FileLog valueOf(byte[] bytes) {
-        final long timestamp = parseTimestamp(bytes);
-        final int keySize = parseKeySize(bytes);
-        final int valueSize = parseValueSize(bytes);
-        final String key = parseKey(bytes, keySize);
-        final String value = parseValue(bytes, FileLogConstants.KEY_BYTE_OFFSET + keySize, valueSize);
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        final byte codecFlags = buffer.get(FileLogConstants.CODEC_BYTE_OFFSET);
+        final long sequence = buffer.getLong(FileLogConstants.SEQUENCE_BYTE_OFFSET);
+        final long timestamp = buffer.getLong(FileLogConstants.TIMESTAMP_BYTE_OFFSET);
+        final long expiresAt = buffer.getLong(FileLogConstants.EXPIRES_AT_BYTE_OFFSET);
+        final int keySize = buffer.getInt(FileLogConstants.KEY_SIZE_BYTE_OFFSET);
+        final int valueSize = buffer.getInt(FileLogConstants.VALUE_SIZE_BYTE_OFFSET);
+        final byte[] key = Arrays.copyOfRange(bytes, FileLogConstants.KEY_BYTE_OFFSET, FileLogConstants.KEY_BYTE_OFFSET + keySize);
+        final byte[] value = Arrays.copyOfRange(bytes, FileLogConstants.KEY_BYTE_OFFSET + keySize, FileLogConstants.KEY_BYTE_OFFSET + keySize + valueSize);
+
+        return new FileLog(sequence, timestamp, key, value, codecIdOf(codecFlags), expiresAt, isTombstone(codecFlags));
+    }
+
+    /**
+     * Whether {@code bytes} hold one whole record of the current format whose checksum matches.
+     */
+    public static boolean isIntact(byte[] bytes) {
+        if (bytes.length < FileLogConstants.KEY_BYTE_OFFSET || !isChecksumValid(bytes)) {
+            return false;
+        }
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        final long keyAndValueSize = (long) buffer.getInt(FileLogConstants.KEY_SIZE_BYTE_OFFSET) + buffer.getInt(FileLogConstants.VALUE_SIZE_BYTE_OFFSET);
+        return versionOf(bytes) == FileLogConstants.FORMAT_VERSION
+                && keyAndValueSize == bytes.length - FileLogConstants.KEY_BYTE_OFFSET;
+    }
 
-        return new FileLog(timestamp, keySize, valueSize, key, value);
+    /**
+     * Whether the checksum of {@code bytes} matches, in any format version: every version so far starts
+     * with a checksum over the rest of the record, then the version byte.
+     */
+    public static boolean isChecksumValid(byte[] bytes) {
+        if (bytes.length <= FileLogConstants.VERSION_BYTE_OFFSET) {
+            return false;
+        }
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return buffer.getInt(FileLogConstants.CHECKSUM_BYTE_OFFSET) == checksum(buffer, FileLogConstants.VERSION_BYTE_OFFSET, bytes.length);
     }
 
-    public byte[] toBytes() throws IOException {
-        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        outputStream.write(Longs.toByteArray(timestamp));
-        outputStream.write(Ints.toByteArray(keySize));
-        outputStream.write(Ints.toByteArray(valueSize));
-        outputStream.write(key.getBytes());
-        outputStream.write(value.getBytes());
+    public static byte versionOf(byte[] bytes) {
+        return bytes[FileLogConstants.VERSION_BYTE_OFFSET];
+    }
 
-        return outputStream.toByteArray();
+    private static int checksum(ByteBuffer buffer, int from, int to) {
+        final CRC32C crc32c = new CRC32C();
+        crc32c.update(buffer.slice(from, to - from));
+        return (int) crc32c.getValue();
     }
 
-    private static long parseTimestamp(byte[] bytes) {
-        return Longs.fromByteArray(Arrays.copyOfRange(bytes, FileLogConstants.TIMESTAMP_BYTE_OFFSET, FileLogConstants.TIMESTAMP_BYTE_OFFSET + FileLogConstants.TIMESTAMP_BYTE_LENGTH));
+    public int byteSize() {
+        return FileLogConstants.KEY_BYTE_OFFSET + keySize + valueSize;
     }
 
-    private static int parseKeySize(byte[] bytes) {
-        return Ints.fromByteArray(Arrays.copyOfRange(bytes, FileLogConstants.KEY_SIZE_BYTE_OFFSET, FileLogConstants.KEY_SIZE_BYTE_OFFSET + FileLogConstants.KEY_SIZE_BYTE_LENGTH));
+    /**
+     * Encodes the log at the position of {@code buffer}, so callers can frame it without an intermediate copy.
+     */
+    public ByteBuffer writeTo(ByteBuffer buffer) {
+        final int start = buffer.position();
+        writeUnsealedTo(buffer);
+        seal(buffer, start, sequence);
+        return buffer;
     }
 
-    private static int parseValueSize(byte[] bytes) {
-        return Ints.fromByteArray(Arrays.copyOfRange(bytes, FileLogConstants.VALUE_SIZE_BYTE_OFFSET, FileLogConstants.VALUE_SIZE_BYTE_OFFSET + FileLogConstants.VALUE_SIZE_BYTE_LENGTH));
+    /**
+     * Encodes the log like {@link #writeTo} but leaves its sequence number and checksum blank, for a
+     * writer that only learns the sequence number later and then calls {@link #seal}.
+     */
+    public ByteBuffer writeUnsealedTo(ByteBuffer buffer) {
+        final int start = buffer.position();
+        return buffer.position(start + FileLogConstants.VERSION_BYTE_OFFSET)
+                .put(FileLogConstants.FORMAT_VERSION)
+                .put(getCodecFlags())
+                .putLong(0L)
+                .putLong(timestamp)
+                .putLong(expiresAt)
+                .putInt(keySize)
+                .putInt(valueSize)
+                .put(key)
+                .put(value);
     }
 
-    private static String parseKey(byte[] bytes, int keySize) {
-        return new String(Arrays.copyOfRange(bytes, FileLogConstants.KEY_BYTE_OFFSET, FileLogConstants.KEY_BYTE_OFFSET + keySize), StandardCharsets.UTF_8);
+    /**
+     * Stamps {@code sequence} into the log encoded at {@code start} of {@code buffer} and checksums it,
+     * without moving the buffer's position.
+     */
+    public static void seal(ByteBuffer buffer, int start, long sequence) {
+        final int end = start + FileLogConstants.KEY_BYTE_OFFSET + buffer.getInt(start + FileLogConstants.KEY_SIZE_BYTE_OFFSET)
+                + buffer.getInt(start + FileLogConstants.VALUE_SIZE_BYTE_OFFSET);
+        buffer.putLong(start + FileLogConstants.SEQUENCE_BYTE_OFFSET, sequence);
+        buffer.putInt(start + FileLogConstants.CHECKSUM_BYTE_OFFSET, checksum(buffer, start + FileLogConstants.VERSION_BYTE_OFFSET, end));
     }
 
-    private static String parseValue(byte[] bytes, int valuePosition, int valueSize) {
-        return new String(Arrays.copyOfRange(bytes, valuePosition, valuePosition + valueSize), StandardCharsets.UTF_8);
+    public byte[] toBytes() {
+        return writeTo(ByteBuffer.allocate(byteSize())).array();
     }
-}
\ No newline at end of file
+}
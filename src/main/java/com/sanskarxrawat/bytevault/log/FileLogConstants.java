@@ -5,18 +5,53 @@ public final class FileLogConstants {
     private FileLogConstants() {}
 
     /**
-     * ----------------------------------------------------
-     * | Timestamp | Key size | Value size | Key | Value |
-     * |   8 bytes |  4 bytes |   4 bytes  |    byte[]   |
-     * ----------------------------------------------------
+     * ---------------------------------------------------------------------------------------------------------
+     * | CRC32C  | Version |  Codec | Sequence | Timestamp | Expires at | Key size | Value size | Key | Value |
+     * | 4 bytes |  1 byte | 1 byte |  8 bytes |   8 bytes |   8 bytes  |  4 bytes |   4 bytes  |    byte[]   |
+     * ---------------------------------------------------------------------------------------------------------
+     * The checksum covers every byte after it. Records are framed by a 4-byte size prefix. The codec
+     * byte holds the codec id in its low bits and TOMBSTONE_FLAG, a tombstone has an empty value. Value
+     * size is the stored size, a value written by a codec is framed as described in Codecs. Expires at is
+     * epoch millis, or NEVER_EXPIRES. Sequence numbers grow with every record appended to the store.
+     * The key starts with the 4-byte id of the keyspace the record belongs to, see LogKeys.
      */
-    public static final int TIMESTAMP_BYTE_OFFSET = 0;
+    public static final int CHECKSUM_BYTE_OFFSET = 0;
+    public static final int CHECKSUM_BYTE_LENGTH = 4;
+    public static final int VERSION_BYTE_OFFSET = 4;
+    public static final int VERSION_BYTE_LENGTH = 1;
+    public static final int CODEC_BYTE_OFFSET = 5;
+    public static final int CODEC_BYTE_LENGTH = 1;
+    public static final int SEQUENCE_BYTE_OFFSET = 6;
+    public static final int SEQUENCE_BYTE_LENGTH = 8;
+    public static final int TIMESTAMP_BYTE_OFFSET = 14;
     public static final int TIMESTAMP_BYTE_LENGTH = 8;
-    public static final int KEY_SIZE_BYTE_OFFSET = 8;
+    public static final int EXPIRES_AT_BYTE_OFFSET = 22;
+    public static final int EXPIRES_AT_BYTE_LENGTH = 8;
+    public static final int KEY_SIZE_BYTE_OFFSET = 30;
     public static final int KEY_SIZE_BYTE_LENGTH = 4;
-    public static final int VALUE_SIZE_BYTE_OFFSET = 12;
+    public static final int VALUE_SIZE_BYTE_OFFSET = 34;
     public static final int VALUE_SIZE_BYTE_LENGTH = 4;
-    public static final int KEY_BYTE_OFFSET = 16;
-    public static final String TOMBSTONE = "tmbstn";
+    public static final int KEY_BYTE_OFFSET = 38;
+    public static final byte FORMAT_VERSION = 6;
+    public static final int KEYSPACE_ID_BYTE_LENGTH = 4;
+    public static final long NEVER_EXPIRES = 0L;
+    public static final int LOG_SIZE_BYTE_LENGTH = 4;
+    public static final byte TOMBSTONE_FLAG = (byte) 0x80;
+    public static final int CODEC_ID_MASK = 0x7F;
     public static final String COMPACT_FILE_SUFFIX = "~cmpct";
+
+    /**
+     * Hint file entry, one per live key of a compacted segment. The checksum covers every byte after it.
+     * ------------------------------------------------------------------------------------------------------
+     * | CRC32C  | Timestamp | Sequence | Expires at | Key size | Value size | Value offset |  Codec | Key  |
+     * | 4 bytes |   8 bytes |  8 bytes |   8 bytes  |  4 bytes |   4 bytes  |    4 bytes   | 1 byte |byte[]|
+     * ------------------------------------------------------------------------------------------------------
+     * The codec byte is the one of the record, flags included.
+     */
+    public static final int HINT_HEADER_BYTE_LENGTH = 41;
+    public static final String HINT_FILE_SUFFIX = ".hint";
+    public static final String BLOOM_FILE_SUFFIX = ".bloom";
+    public static final String COLD_FILE_SUFFIX = ".cold";
+    public static final String CHECKPOINT_MANIFEST_FILE = "checkpoint.manifest";
+    public static final String MERGE_JOURNAL_FILE = "merge.journal";
 }
\ No newline at end of file
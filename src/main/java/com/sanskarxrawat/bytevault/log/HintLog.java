@@ -0,0 +1,130 @@
+package com.sanskarxrawat.bytevault.log;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.zip.CRC32C;
+
+public class HintLog {
+    private final long timestamp;
+    private final long sequence;
+    private final long expiresAt;
+    private final int keySize;
+    private final int valueSize;
+    private final int valueByteOffset;
+    private final byte codecFlags;
+    private final byte[] key;
+
+    public HintLog(long timestamp, long sequence, long expiresAt, int keySize, int valueSize, int valueByteOffset, byte codecFlags, byte[] key) {
+        this.timestamp = timestamp;
+        this.sequence = sequence;
+        this.expiresAt = expiresAt;
+        this.keySize = keySize;
+        this.valueSize = valueSize;
+        this.valueByteOffset = valueByteOffset;
+        this.codecFlags = codecFlags;
+        this.key = key;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    public int getKeySize() {
+        return keySize;
+    }
+
+    public int getValueSize() {
+        return valueSize;
+    }
+
+    public int getValueByteOffset() {
+        return valueByteOffset;
+    }
+
+    public byte getCodecId() {
+        return FileLog.codecIdOf(codecFlags);
+    }
+
+    /**
+     * The codec byte of the hinted record, flags included.
+     */
+    public byte getCodecFlags() {
+        return codecFlags;
+    }
+
+    public boolean isTombstone() {
+        return FileLog.isTombstone(codecFlags);
+    }
+
+    public byte[] getKey() {
+        return key;
+    }
+
+    public void writeTo(DataOutput output) throws IOException {
+        final ByteBuffer entry = ByteBuffer.allocate(FileLogConstants.HINT_HEADER_BYTE_LENGTH + keySize)
+                .position(FileLogConstants.CHECKSUM_BYTE_LENGTH)
+                .putLong(timestamp)
+                .putLong(sequence)
+                .putLong(expiresAt)
+                .putInt(keySize)
+                .putInt(valueSize)
+                .putInt(valueByteOffset)
+                .put(codecFlags)
+                .put(key);
+        entry.putInt(0, checksum(entry.array()));
+        output.write(entry.array());
+    }
+
+    /**
+     * Reads the next entry of a hint file, or returns null once the stream is exhausted. An entry cut
+     * short or failing its checksum throws, and the hint file should not be trusted past it.
+     */
+    public static HintLog readFrom(DataInput input) throws IOException {
+        final int checksum;
+        try {
+            checksum = input.readInt();
+        } catch (EOFException e) {
+            return null;
+        }
+        final byte[] header = new byte[FileLogConstants.HINT_HEADER_BYTE_LENGTH];
+        input.readFully(header, FileLogConstants.CHECKSUM_BYTE_LENGTH, header.length - FileLogConstants.CHECKSUM_BYTE_LENGTH);
+        final ByteBuffer buffer = ByteBuffer.wrap(header).position(FileLogConstants.CHECKSUM_BYTE_LENGTH);
+        final long timestamp = buffer.getLong();
+        final long sequence = buffer.getLong();
+        final long expiresAt = buffer.getLong();
+        final int keySize = buffer.getInt();
+        final int valueSize = buffer.getInt();
+        final int valueByteOffset = buffer.getInt();
+        final byte codecFlags = buffer.get();
+        // A key sits before its value in the segment, a larger one can only be a damaged size.
+        if (keySize < 0 || valueSize < 0 || keySize > valueByteOffset) {
+            throw new IOException("Corrupt hint entry with key size " + keySize + " and value offset " + valueByteOffset);
+        }
+        final byte[] entry = Arrays.copyOf(header, header.length + keySize);
+        input.readFully(entry, header.length, keySize);
+        if (checksum(entry) != checksum) {
+            throw new IOException("Corrupt hint entry, checksum mismatch at sequence " + sequence);
+        }
+
+        return new HintLog(timestamp, sequence, expiresAt, keySize, valueSize, valueByteOffset, codecFlags,
+                Arrays.copyOfRange(entry, header.length, entry.length));
+    }
+
+    private static int checksum(byte[] entry) {
+        final CRC32C crc32c = new CRC32C();
+        crc32c.update(entry, FileLogConstants.CHECKSUM_BYTE_LENGTH, entry.length - FileLogConstants.CHECKSUM_BYTE_LENGTH);
+        return (int) crc32c.getValue();
+    }
+}
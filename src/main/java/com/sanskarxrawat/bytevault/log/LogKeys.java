@@ -0,0 +1,28 @@
+package com.sanskarxrawat.bytevault.log;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static com.sanskarxrawat.bytevault.log.FileLogConstants.KEYSPACE_ID_BYTE_LENGTH;
+
+/**
+ * Keys as they are written to the log: the id of their keyspace followed by the key. Everything that
+ * reads records back (merges, hint files, bloom filters, snapshots) sees these log keys, the key
+ * directory of each keyspace holds the keys without the id.
+ */
+public final class LogKeys {
+
+    private LogKeys() {}
+
+    public static byte[] qualify(int keyspaceId, byte[] key) {
+        return ByteBuffer.allocate(KEYSPACE_ID_BYTE_LENGTH + key.length).putInt(keyspaceId).put(key).array();
+    }
+
+    public static int keyspaceOf(byte[] logKey) {
+        return ByteBuffer.wrap(logKey).getInt(0);
+    }
+
+    public static byte[] keyOf(byte[] logKey) {
+        return Arrays.copyOfRange(logKey, KEYSPACE_ID_BYTE_LENGTH, logKey.length);
+    }
+}
@@ -0,0 +1,143 @@
+package com.sanskarxrawat.bytevault.merge;
+
+import com.sanskarxrawat.bytevault.storage.file.SegmentFiles;
+import com.sanskarxrawat.bytevault.utils.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static com.sanskarxrawat.bytevault.log.FileLogConstants.COMPACT_FILE_SUFFIX;
+import static com.sanskarxrawat.bytevault.log.FileLogConstants.MERGE_JOURNAL_FILE;
+
+/**
+ * The file switch a merge commits to, one line per step:
+ * <pre>
+ * install &lt;compacted segment&gt; &lt;target segment&gt; &lt;hot|cold&gt;
+ * delete &lt;merged segment&gt;
+ * </pre>
+ * Merge outputs are fsynced under a temporary name before the journal is written, and the journal
+ * lands in one rename, so once it exists the merge is done: applying it again after a crash moves
+ * whatever was not installed yet and deletes the merged segments that are still around. Without a
+ * journal, files left under a temporary name belong to a merge that never committed and are dropped.
+ */
+record MergeJournal(List<Install> installs, List<String> deletions) {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MergeJournal.class);
+
+    record Install(String compactedName, String targetName, boolean cold) {
+    }
+
+    /**
+     * Finishes a merge a crash interrupted after it committed and drops the leftovers of one that did not.
+     */
+    static void recover(Path directory) throws IOException {
+        Path journalPath = directory.resolve(MERGE_JOURNAL_FILE);
+        if (Files.exists(journalPath)) {
+            LOGGER.warn("Finishing merge interrupted in {}", directory);
+            readFrom(journalPath).apply(directory);
+        }
+        List<Path> leftovers;
+        try (Stream<Path> files = Files.list(directory)) {
+            leftovers = files.filter(path -> path.getFileName().toString().contains(COMPACT_FILE_SUFFIX)).toList();
+        }
+        for (Path leftover : leftovers) {
+            LOGGER.warn("Deleting {} left behind by an interrupted merge", leftover);
+            Files.deleteIfExists(leftover);
+        }
+        if (!leftovers.isEmpty()) {
+            FileUtils.syncDirectory(directory);
+        }
+    }
+
+    private static MergeJournal readFrom(Path journalPath) throws IOException {
+        List<Install> installs = new ArrayList<>();
+        List<String> deletions = new ArrayList<>();
+        for (String line : Files.readAllLines(journalPath, StandardCharsets.UTF_8)) {
+            String[] fields = line.split(" ");
+            switch (fields[0]) {
+                case "install" -> {
+                    if (fields.length != 4) {
+                        throw new IOException("Corrupted merge journal " + journalPath + ": " + line);
+                    }
+                    installs.add(new Install(fields[1], fields[2], "cold".equals(fields[3])));
+                }
+                case "delete" -> deletions.add(fields[1]);
+                default -> throw new IOException("Unknown line in merge journal " + journalPath + ": " + line);
+            }
+        }
+        return new MergeJournal(installs, deletions);
+    }
+
+    /**
+     * Durably writes the journal into {@code directory}, the point after which the merge survives a crash.
+     */
+    void commit(Path directory) throws IOException {
+        Path writingPath = directory.resolve(MERGE_JOURNAL_FILE + COMPACT_FILE_SUFFIX);
+        try (FileOutputStream stream = new FileOutputStream(writingPath.toFile());
+             BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8))) {
+            for (Install install : installs) {
+                writer.write("install " + install.compactedName() + " " + install.targetName() + " " + (install.cold() ? "cold" : "hot"));
+                writer.newLine();
+            }
+            for (String deletion : deletions) {
+                writer.write("delete " + deletion);
+                writer.newLine();
+            }
+            writer.flush();
+            stream.getFD().sync();
+        }
+        Files.move(writingPath, directory.resolve(MERGE_JOURNAL_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        FileUtils.syncDirectory(directory);
+    }
+
+    /**
+     * Carries the journal out. Every step checks what is already done, so it can be repeated.
+     */
+    void apply(Path directory) throws IOException {
+        for (Install install : installs) {
+            Path compactedPath = directory.resolve(install.compactedName());
+            Path targetPath = directory.resolve(install.targetName());
+            // The segment moves last, once it is gone everything else has moved too.
+            if (!Files.exists(compactedPath)) {
+                continue;
+            }
+            if (install.cold()) {
+                if (!Files.exists(SegmentFiles.coldMarkerPath(targetPath))) {
+                    Files.createFile(SegmentFiles.coldMarkerPath(targetPath));
+                }
+            } else {
+                Files.deleteIfExists(SegmentFiles.coldMarkerPath(targetPath));
+            }
+            moveIfExists(SegmentFiles.hintFilePath(compactedPath), SegmentFiles.hintFilePath(targetPath));
+            moveIfExists(SegmentFiles.bloomFilePath(compactedPath), SegmentFiles.bloomFilePath(targetPath));
+            Files.move(compactedPath, targetPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        FileUtils.syncDirectory(directory);
+        for (String deletion : deletions) {
+            Path segmentPath = directory.resolve(deletion);
+            Files.deleteIfExists(segmentPath);
+            Files.deleteIfExists(SegmentFiles.hintFilePath(segmentPath));
+            Files.deleteIfExists(SegmentFiles.bloomFilePath(segmentPath));
+            Files.deleteIfExists(SegmentFiles.coldMarkerPath(segmentPath));
+        }
+        FileUtils.syncDirectory(directory);
+        Files.deleteIfExists(directory.resolve(MERGE_JOURNAL_FILE));
+        FileUtils.syncDirectory(directory);
+    }
+
+    private static void moveIfExists(Path source, Path target) throws IOException {
+        if (Files.exists(source)) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+}
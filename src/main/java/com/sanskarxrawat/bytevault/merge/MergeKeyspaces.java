@@ -0,0 +1,31 @@
+package com.sanskarxrawat.bytevault.merge;
+
+import com.sanskarxrawat.bytevault.compress.Codec;
+import com.sanskarxrawat.bytevault.datastructure.ByteArrayWrapper;
+import com.sanskarxrawat.bytevault.metadata.FileMetaData;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * What a merge needs to know about the keyspaces its records belong to. Records are passed by their
+ * log key, see {@link com.sanskarxrawat.bytevault.log.LogKeys}.
+ */
+public interface MergeKeyspaces {
+
+    /**
+     * Whether the keyspace of the record still exists; records of dropped keyspaces are left out.
+     */
+    boolean isLive(byte[] logKey);
+
+    /**
+     * Codec the keyspace's surviving values are rewritten with, or null to copy them as they are.
+     */
+    Codec mergeCodec(byte[] logKey);
+
+    /**
+     * Repoints the key to {@code to}, unless its keyspace's key directory has moved on from the
+     * merged files since. Called under the segment write lock.
+     */
+    void relocate(ByteArrayWrapper logKey, Set<String> mergedFilePaths, FileMetaData to) throws IOException;
+}
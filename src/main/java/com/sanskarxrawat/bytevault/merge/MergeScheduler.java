@@ -0,0 +1,49 @@
+package com.sanskarxrawat.bytevault.merge;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.InterruptedIOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class MergeScheduler implements AutoCloseable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MergeScheduler.class);
+    private final SegmentMerger segmentMerger;
+    private final ScheduledExecutorService scheduler;
+
+    public MergeScheduler(SegmentMerger segmentMerger, long mergePeriodMils) {
+        this.segmentMerger = segmentMerger;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().daemon().name("bytevault-merge").factory());
+        this.scheduler.scheduleWithFixedDelay(this::runMerge, mergePeriodMils, mergePeriodMils, TimeUnit.MILLISECONDS);
+    }
+
+    private void runMerge() {
+        try {
+            segmentMerger.merge();
+        } catch (InterruptedIOException e) {
+            LOGGER.info("Background merge cancelled: {}", e.getMessage());
+        } catch (Exception e) {
+            // Keep the schedule alive, the next period retries from whatever segments are sealed then.
+            LOGGER.error("Background merge failed", e);
+        }
+    }
+
+    /**
+     * Stops the schedule and cancels a running merge, background or not, returning once it stopped. An
+     * interrupt while waiting for the merge thread is kept on the calling thread.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        segmentMerger.cancel();
+        try {
+            if (!scheduler.awaitTermination(1, TimeUnit.MINUTES)) {
+                LOGGER.warn("Merge thread still running a minute after the merge was cancelled");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
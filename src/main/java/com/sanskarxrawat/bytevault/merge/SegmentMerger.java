@@ -0,0 +1,522 @@
+package com.sanskarxrawat.bytevault.merge;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.util.concurrent.RateLimiter;
+import com.sanskarxrawat.bytevault.cache.KeyTemperature;
+import com.sanskarxrawat.bytevault.compress.Codec;
+import com.sanskarxrawat.bytevault.datastructure.ByteArrayWrapper;
+import com.sanskarxrawat.bytevault.index.SegmentBloomFilters;
+import com.sanskarxrawat.bytevault.io.FileIO;
+import com.sanskarxrawat.bytevault.io.SegmentReader;
+import com.sanskarxrawat.bytevault.io.SegmentRecord;
+import com.sanskarxrawat.bytevault.log.FileLog;
+import com.sanskarxrawat.bytevault.log.FileLogConstants;
+import com.sanskarxrawat.bytevault.log.HintLog;
+import com.sanskarxrawat.bytevault.log.LogKeys;
+import com.sanskarxrawat.bytevault.metadata.FileMetaData;
+import com.sanskarxrawat.bytevault.stats.LatencyMetric;
+import com.sanskarxrawat.bytevault.stats.MergeEvent;
+import com.sanskarxrawat.bytevault.stats.VaultMetrics;
+import com.sanskarxrawat.bytevault.storage.file.SegmentFiles;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+import static com.sanskarxrawat.bytevault.constant.VaultConstants.COLD_TIER_MAX_SEGMENTS;
+import static com.sanskarxrawat.bytevault.constant.VaultConstants.MERGE_RELOCATION_BATCH_SIZE;
+import static com.sanskarxrawat.bytevault.log.FileLogConstants.COMPACT_FILE_SUFFIX;
+
+/**
+ * Compacts every sealed segment into one. Segments are streamed through a fixed-size buffer and all
+ * merge I/O is throttled to a bytes-per-second budget, so foreground reads and writes keep running.
+ * Only the final switch of files excludes them; it goes through a {@link MergeJournal} so a crash
+ * midway is finished or rolled back on the next open. The index is then repointed in batches. A merge
+ * can be cancelled up to the switch; what it wrote so far is dropped.
+ * With a merge codec configured for their keyspace, surviving values written with another codec are
+ * recompressed. Expired records are dropped like deleted ones, and so is every record of a dropped
+ * keyspace.
+ * With a {@link KeyTemperature} the merge is tiered: hot keys and cold keys are written to separate
+ * segments, and cold segments are left out of later merges until {@code COLD_TIER_MAX_SEGMENTS} of
+ * them pile up, so rarely touched data is not rewritten on every merge. Segments pinned by an open
+ * snapshot, and everything older, are left out as well.
+ */
+public class SegmentMerger {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SegmentMerger.class);
+    private final String storageDirectory;
+    private final FileIO fileIO;
+    private final MergeKeyspaces mergeKeyspaces;
+    private final SegmentBloomFilters segmentBloomFilters;
+    private final ReentrantReadWriteLock segmentLock;
+    private final int bufferSize;
+    private final RateLimiter rateLimiter;
+    private final int compressionThreshold;
+    private final VaultMetrics vaultMetrics;
+    private final KeyTemperature keyTemperature;
+    private final SegmentPins segmentPins;
+    private final ReentrantLock mergeLock = new ReentrantLock();
+    private int unthrottledBytes;
+    private volatile long generation;
+    private volatile boolean cancelled;
+    // Where the keys of the last merge live until the index points there, guarded by the segment lock.
+    private Map<ByteArrayWrapper, FileMetaData> relocations = Map.of();
+    private Set<String> relocatedFilePaths = Set.of();
+
+    public SegmentMerger(String storageDirectory, FileIO fileIO, MergeKeyspaces mergeKeyspaces, SegmentBloomFilters segmentBloomFilters,
+                         ReentrantReadWriteLock segmentLock, int bufferSize, int bytesPerSecond, int compressionThreshold,
+                         VaultMetrics vaultMetrics, KeyTemperature keyTemperature, SegmentPins segmentPins) {
+        this.storageDirectory = storageDirectory;
+        this.fileIO = fileIO;
+        this.mergeKeyspaces = mergeKeyspaces;
+        this.segmentBloomFilters = segmentBloomFilters;
+        this.segmentLock = segmentLock;
+        this.bufferSize = bufferSize;
+        this.rateLimiter = RateLimiter.create(bytesPerSecond);
+        this.compressionThreshold = compressionThreshold;
+        this.vaultMetrics = vaultMetrics;
+        this.keyTemperature = keyTemperature;
+        this.segmentPins = segmentPins;
+    }
+
+    public void merge() throws IOException {
+        mergeLock.lock();
+        try {
+            if (cancelled) {
+                return;
+            }
+            List<Path> sealedFiles = getMergeAbleFiles();
+            // Cold segments are left alone until enough of them pile up to be worth rewriting.
+            boolean keepCold = Objects.nonNull(keyTemperature)
+                    && sealedFiles.stream().filter(SegmentFiles::isCold).count() < COLD_TIER_MAX_SEGMENTS;
+            // Only a newest run of segments is merged, after every pinned one and the cold ones leading up
+            // to it, so each segment left out is older than the merge outputs and replaying by name still
+            // ends on the latest record.
+            int firstMerged = 0;
+            for (int i = 0; i < sealedFiles.size(); i++) {
+                if (segmentPins.isPinned(sealedFiles.get(i))) {
+                    firstMerged = i + 1;
+                }
+            }
+            while (keepCold && firstMerged < sealedFiles.size() && SegmentFiles.isCold(sealedFiles.get(firstMerged))) {
+                firstMerged++;
+            }
+            List<Path> keptFiles = sealedFiles.subList(0, firstMerged);
+            List<Path> mergeAbleFiles = sealedFiles.subList(firstMerged, sealedFiles.size());
+            if (mergeAbleFiles.size() <= 1) {
+                return;
+            }
+            long startNanos = System.nanoTime();
+            MergeEvent mergeEvent = new MergeEvent();
+            mergeEvent.begin();
+            long bytesBefore = SegmentFiles.byteSize(mergeAbleFiles);
+
+            Set<ByteArrayWrapper> deletions = new HashSet<>();
+            Map<ByteArrayWrapper, FileMetaData> mergedIndex = buildMergedIndex(mergeAbleFiles, keptFiles, deletions);
+            // The hot output is named after the last merged file and the cold one after the first.
+            CompactedSegment hotSegment = new CompactedSegment(mergeAbleFiles.get(mergeAbleFiles.size() - 1), mergedIndex.size(), false);
+            CompactedSegment coldSegment = Objects.isNull(keyTemperature) ? null
+                    : new CompactedSegment(mergeAbleFiles.get(0), mergedIndex.size(), true);
+            try {
+                writeCompactedSegments(mergedIndex, deletions, mergeAbleFiles, hotSegment, coldSegment);
+                checkCancelled();
+            } catch (IOException | RuntimeException e) {
+                hotSegment.discard();
+                if (Objects.nonNull(coldSegment)) {
+                    coldSegment.discard();
+                }
+                throw e;
+            }
+            int liveKeys = mergedIndex.size() - deletions.size();
+            Set<String> mergedFilePaths = mergeAbleFiles.stream().map(Path::toString).collect(Collectors.toSet());
+
+            segmentLock.writeLock().lock();
+            try {
+                // A snapshot taken since the merge started may read the merged segments, they have to stay.
+                if (mergeAbleFiles.stream().anyMatch(segmentPins::isPinned)) {
+                    hotSegment.discard();
+                    if (Objects.nonNull(coldSegment)) {
+                        coldSegment.discard();
+                    }
+                    LOGGER.info("Abandoned merge of {} segments pinned by a snapshot", mergeAbleFiles.size());
+                    return;
+                }
+                generation++;
+                List<CompactedSegment> installed = new ArrayList<>();
+                if (Objects.isNull(coldSegment)) {
+                    installed.add(hotSegment);
+                } else {
+                    // A tier that got no records is not installed, unless both are empty.
+                    keepOrDiscard(hotSegment, hotSegment.records > 0 || coldSegment.records == 0, installed);
+                    keepOrDiscard(coldSegment, coldSegment.records > 0, installed);
+                }
+                switchFiles(mergeAbleFiles, installed);
+                // Past the switch the merge is no longer cancelled, the index has to follow the files.
+                mergedIndex.keySet().removeAll(deletions);
+                relocations = mergedIndex;
+                relocatedFilePaths = mergedFilePaths;
+            } finally {
+                segmentLock.writeLock().unlock();
+            }
+            updateOnDiskIndex(mergedIndex, mergedFilePaths);
+            vaultMetrics.record(LatencyMetric.MERGE, startNanos);
+            vaultMetrics.merged();
+            long bytesAfter = hotSegment.byteCursor + (Objects.isNull(coldSegment) ? 0 : coldSegment.byteCursor);
+            if (mergeEvent.shouldCommit()) {
+                mergeEvent.storageDir = storageDirectory;
+                mergeEvent.segments = mergeAbleFiles.size();
+                mergeEvent.liveKeys = liveKeys;
+                mergeEvent.bytesBefore = bytesBefore;
+                mergeEvent.bytesAfter = bytesAfter;
+                mergeEvent.commit();
+            }
+            LOGGER.info("Merged {} segments of {} bytes into {} with {} live keys in {} bytes", mergeAbleFiles.size(), bytesBefore,
+                    hotSegment.targetPath, liveKeys, bytesAfter);
+            if (Objects.nonNull(coldSegment)) {
+                LOGGER.info("Tiered merge wrote {} cold records", coldSegment.records);
+            }
+            if (!keptFiles.isEmpty()) {
+                LOGGER.info("Left {} older cold or pinned segments out of the merge", keptFiles.size());
+            }
+        } finally {
+            mergeLock.unlock();
+        }
+    }
+
+    /**
+     * Bumped under the segment write lock every time merged segments are dropped. A reader that let go
+     * of the read lock before its read finished compares it to tell whether its segment was replaced.
+     */
+    public long generation() {
+        return generation;
+    }
+
+    /**
+     * Where the key {@code key} of keyspace {@code keyspaceId} lives, given the entry the index holds for
+     * it. Until a merge has repointed every entry, one still pointing into the merged segments is read
+     * from where the merge moved its record. Callers hold the segment read lock, which each batch of
+     * repointing excludes.
+     */
+    public FileMetaData relocated(int keyspaceId, ByteArrayWrapper key, FileMetaData indexed) {
+        if (Objects.isNull(indexed) || relocations.isEmpty() || !relocatedFilePaths.contains(indexed.getFilePath())) {
+            return indexed;
+        }
+        FileMetaData relocated = relocations.get(new ByteArrayWrapper(LogKeys.qualify(keyspaceId, key.array())));
+        return Objects.isNull(relocated) ? indexed : relocated;
+    }
+
+    /**
+     * Stops a running merge at its next record, waits for it to return, and turns later merges into
+     * no-ops. A merge that already switched its files finishes repointing the index first.
+     */
+    public void cancel() {
+        cancelled = true;
+        mergeLock.lock();
+        mergeLock.unlock();
+    }
+
+    private List<Path> getMergeAbleFiles() throws IOException {
+        Path activeFilePath = Path.of(fileIO.getActiveFilePath());
+        return SegmentFiles.list(storageDirectory).stream()
+                .filter(path -> !path.equals(activeFilePath))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Finds the latest live record of every key. Segments compacted by an earlier merge are read from
+     * their hint file instead of being scanned. A key deleted or expired in the merged segments is
+     * dropped, unless one of the older segments left out of the merge may still hold a record of it;
+     * then its latest record is kept as a deletion so the older one stays shadowed.
+     */
+    private Map<ByteArrayWrapper, FileMetaData> buildMergedIndex(List<Path> mergeAbleFiles, List<Path> keptFiles,
+                                                                Set<ByteArrayWrapper> deletions) throws IOException {
+        Map<ByteArrayWrapper, FileMetaData> mergedIndex = new HashMap<>();
+        long now = System.currentTimeMillis();
+        for (Path filePath : mergeAbleFiles) {
+            if (readHintFile(filePath, mergedIndex, deletions, now)) {
+                continue;
+            }
+            try (SegmentReader segmentReader = new SegmentReader(filePath, bufferSize)) {
+                SegmentRecord record;
+                while ((record = segmentReader.next()) != null) {
+                    throttle(FileLogConstants.LOG_SIZE_BYTE_LENGTH + record.fileLogBytes().length);
+                    FileLog fileLog = record.fileLog();
+                    if (!mergeKeyspaces.isLive(fileLog.getKey())) {
+                        continue;
+                    }
+                    ByteArrayWrapper key = new ByteArrayWrapper(fileLog.getKey());
+                    mergedIndex.put(key, new FileMetaData(filePath.toString(), record.valueByteOffset(), fileLog.getValueSize(),
+                            fileLog.getTimestamp(), fileLog.getCodecFlags(), fileLog.getExpiresAt()));
+                    track(key, fileLog.isTombstone() || fileLog.isExpired(now), deletions);
+                }
+                // Merging would drop every record past the damage for good, so leave the segment as it is.
+                if (!segmentReader.isIntact()) {
+                    throw new IOException(String.format("Segment %s is corrupt at offset %d, not merging", filePath, segmentReader.validByteLength()));
+                }
+            }
+        }
+        deletions.removeIf(key -> {
+            if (keptFiles.stream().anyMatch(keptFile -> segmentBloomFilters.mightContain(keptFile.toString(), key.array()))) {
+                return false;
+            }
+            mergedIndex.remove(key);
+            return true;
+        });
+        return mergedIndex;
+    }
+
+    /**
+     * Reads the latest record of every key of a compacted segment from its hint file. Returns false when
+     * there is no hint file or it fails validation, and the segment has to be scanned; the scan ends in
+     * the same state whatever the hint file already contributed.
+     */
+    private boolean readHintFile(Path filePath, Map<ByteArrayWrapper, FileMetaData> mergedIndex, Set<ByteArrayWrapper> deletions,
+                                 long now) throws IOException {
+        Path hintFilePath = SegmentFiles.hintFilePath(filePath);
+        if (!Files.exists(hintFilePath)) {
+            return false;
+        }
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(hintFilePath), bufferSize))) {
+            HintLog hintLog;
+            while ((hintLog = HintLog.readFrom(input)) != null) {
+                throttle(FileLogConstants.HINT_HEADER_BYTE_LENGTH + hintLog.getKeySize());
+                if (!mergeKeyspaces.isLive(hintLog.getKey())) {
+                    continue;
+                }
+                ByteArrayWrapper key = new ByteArrayWrapper(hintLog.getKey());
+                mergedIndex.put(key, new FileMetaData(filePath.toString(), hintLog.getValueByteOffset(), hintLog.getValueSize(),
+                        hintLog.getTimestamp(), hintLog.getCodecFlags(), hintLog.getExpiresAt()));
+                track(key, FileLog.isExpired(hintLog.getExpiresAt(), now), deletions);
+            }
+            return true;
+        } catch (IOException e) {
+            LOGGER.warn("Unreadable hint file {}, scanning its segment instead", hintFilePath, e);
+            return false;
+        }
+    }
+
+    private static void track(ByteArrayWrapper key, boolean deleted, Set<ByteArrayWrapper> deletions) {
+        if (deleted) {
+            deletions.add(key);
+        } else {
+            deletions.remove(key);
+        }
+    }
+
+    /**
+     * Streams the merged segments once more and copies the raw bytes of each winning record into a
+     * compacted segment, writing its hint entry alongside. With tiering on, keys that are not hot go
+     * to the cold segment. Entries of the merged index are repointed to where their record landed.
+     * Kept deletions are hinted as already expired, so loading the hint drops the key.
+     */
+    private void writeCompactedSegments(Map<ByteArrayWrapper, FileMetaData> mergedIndex, Set<ByteArrayWrapper> deletions, List<Path> mergeAbleFiles,
+                                        CompactedSegment hotSegment, CompactedSegment coldSegment) throws IOException {
+        try (hotSegment; coldSegment) {
+            for (Path filePath : mergeAbleFiles) {
+                try (SegmentReader segmentReader = new SegmentReader(filePath, bufferSize)) {
+                    SegmentRecord record;
+                    while ((record = segmentReader.next()) != null) {
+                        throttle(FileLogConstants.LOG_SIZE_BYTE_LENGTH + record.fileLogBytes().length);
+                        FileLog fileLog = record.fileLog();
+                        ByteArrayWrapper key = new ByteArrayWrapper(fileLog.getKey());
+                        FileMetaData winner = mergedIndex.get(key);
+                        // The winner is the key's last occurrence, so no later record can match its relocated entry.
+                        if (Objects.isNull(winner) || !winner.getFilePath().equals(filePath.toString())
+                                || winner.getValueByteOffset() != record.valueByteOffset()) {
+                            continue;
+                        }
+                        if (deletions.contains(key)) {
+                            long expiredAt = fileLog.isTombstone() ? fileLog.getTimestamp() : fileLog.getExpiresAt();
+                            mergedIndex.put(key, hotSegment.append(fileLog, record.fileLogBytes(), expiredAt));
+                            continue;
+                        }
+                        Codec mergeCodec = mergeKeyspaces.mergeCodec(fileLog.getKey());
+                        FileLog compactedLog = Objects.isNull(mergeCodec) ? fileLog : fileLog.encodeWith(mergeCodec, compressionThreshold);
+                        byte[] compactedLogBytes = compactedLog == fileLog ? record.fileLogBytes() : compactedLog.toBytes();
+                        CompactedSegment target = Objects.isNull(coldSegment) || keyTemperature.isHot(key) ? hotSegment : coldSegment;
+                        mergedIndex.put(key, target.append(compactedLog, compactedLogBytes, compactedLog.getExpiresAt()));
+                    }
+                }
+            }
+            hotSegment.seal();
+            if (Objects.nonNull(coldSegment)) {
+                coldSegment.seal();
+            }
+        }
+    }
+
+    /**
+     * Repoints the index at the compacted segments {@code MERGE_RELOCATION_BATCH_SIZE} keys at a time,
+     * letting foreground reads and writes in between batches; {@link #relocated} covers the keys not
+     * repointed yet.
+     */
+    private void updateOnDiskIndex(Map<ByteArrayWrapper, FileMetaData> relocations, Set<String> mergedFilePaths) throws IOException {
+        Iterator<Map.Entry<ByteArrayWrapper, FileMetaData>> iterator = relocations.entrySet().iterator();
+        while (iterator.hasNext()) {
+            segmentLock.writeLock().lock();
+            try {
+                for (int i = 0; i < MERGE_RELOCATION_BATCH_SIZE && iterator.hasNext(); i++) {
+                    Map.Entry<ByteArrayWrapper, FileMetaData> entry = iterator.next();
+                    mergeKeyspaces.relocate(entry.getKey(), mergedFilePaths, entry.getValue());
+                    iterator.remove();
+                }
+            } finally {
+                segmentLock.writeLock().unlock();
+            }
+        }
+        segmentLock.writeLock().lock();
+        try {
+            this.relocations = Map.of();
+            this.relocatedFilePaths = Set.of();
+        } finally {
+            segmentLock.writeLock().unlock();
+        }
+    }
+
+    private static void keepOrDiscard(CompactedSegment compactedSegment, boolean install, List<CompactedSegment> installed) throws IOException {
+        if (install) {
+            installed.add(compactedSegment);
+        } else {
+            compactedSegment.discard();
+        }
+    }
+
+    /**
+     * Replaces the merged segments by the installed outputs through a {@link MergeJournal}, so a crash
+     * at any point leaves either the merged segments or the outputs, never a mix or neither.
+     */
+    private void switchFiles(List<Path> mergedFiles, List<CompactedSegment> installed) throws IOException {
+        Set<Path> targetPaths = installed.stream().map(compactedSegment -> compactedSegment.targetPath).collect(Collectors.toSet());
+        List<Path> deletedFiles = mergedFiles.stream().filter(filePath -> !targetPaths.contains(filePath)).toList();
+        for (Path filePath : mergedFiles) {
+            fileIO.removeFile(filePath.toFile());
+        }
+        MergeJournal journal = new MergeJournal(
+                installed.stream().map(compactedSegment -> new MergeJournal.Install(compactedSegment.compactedPath.getFileName().toString(),
+                        compactedSegment.targetPath.getFileName().toString(), compactedSegment.cold)).toList(),
+                deletedFiles.stream().map(filePath -> filePath.getFileName().toString()).toList());
+        Path directory = Path.of(storageDirectory);
+        journal.commit(directory);
+        journal.apply(directory);
+        for (Path filePath : deletedFiles) {
+            segmentBloomFilters.remove(filePath.toString());
+        }
+        for (CompactedSegment compactedSegment : installed) {
+            segmentBloomFilters.install(compactedSegment.targetPath.toString(), compactedSegment.filter);
+        }
+    }
+
+    /**
+     * Finishes or rolls back a merge the last process died in, before the segments of {@code storageDirectory} are loaded.
+     */
+    public static void recover(String storageDirectory) throws IOException {
+        MergeJournal.recover(Path.of(storageDirectory));
+    }
+
+    /**
+     * Waits out the budget one buffer at a time, so a cancelled or interrupted merge stops within one
+     * buffer's worth of throttling.
+     */
+    private void throttle(int bytes) throws InterruptedIOException {
+        checkCancelled();
+        unthrottledBytes += bytes;
+        while (unthrottledBytes >= bufferSize) {
+            rateLimiter.acquire(bufferSize);
+            unthrottledBytes -= bufferSize;
+            checkCancelled();
+        }
+    }
+
+    private void checkCancelled() throws InterruptedIOException {
+        if (cancelled || Thread.currentThread().isInterrupted()) {
+            throw new InterruptedIOException("Merge of " + storageDirectory + " was cancelled");
+        }
+    }
+
+    /**
+     * One output of a merge: a compacted segment with its hint file and bloom filter, written under a
+     * temporary name and installed under the name of one of the merged segments.
+     */
+    private final class CompactedSegment implements Closeable {
+        private final Path targetPath;
+        private final Path compactedPath;
+        private final boolean cold;
+        private final BloomFilter<byte[]> filter;
+        private final FileOutputStream stream;
+        private final FileOutputStream hintStream;
+        private final DataOutputStream output;
+        private final DataOutputStream hintOutput;
+        private int byteCursor;
+        private int records;
+
+        private CompactedSegment(Path targetPath, int expectedKeys, boolean cold) throws IOException {
+            this.targetPath = targetPath;
+            this.compactedPath = targetPath.resolveSibling(targetPath.getFileName() + COMPACT_FILE_SUFFIX);
+            this.cold = cold;
+            this.filter = segmentBloomFilters.newFilter(expectedKeys);
+            this.stream = new FileOutputStream(compactedPath.toFile());
+            this.output = new DataOutputStream(new BufferedOutputStream(stream, bufferSize));
+            this.hintStream = new FileOutputStream(SegmentFiles.hintFilePath(compactedPath).toFile());
+            this.hintOutput = new DataOutputStream(new BufferedOutputStream(hintStream, bufferSize));
+        }
+
+        private FileMetaData append(FileLog fileLog, byte[] fileLogBytes, long hintExpiresAt) throws IOException {
+            int recordByteSize = FileLogConstants.LOG_SIZE_BYTE_LENGTH + fileLogBytes.length;
+            output.writeInt(fileLogBytes.length);
+            output.write(fileLogBytes);
+            throttle(recordByteSize);
+
+            int valueByteOffset = byteCursor + FileLogConstants.LOG_SIZE_BYTE_LENGTH + FileLogConstants.KEY_BYTE_OFFSET + fileLog.getKeySize();
+            new HintLog(fileLog.getTimestamp(), fileLog.getSequence(), hintExpiresAt, fileLog.getKeySize(), fileLog.getValueSize(), valueByteOffset,
+                    fileLog.getCodecFlags(), fileLog.getKey()).writeTo(hintOutput);
+            filter.put(fileLog.getKey());
+            byteCursor += recordByteSize;
+            records++;
+            return new FileMetaData(targetPath.toString(), valueByteOffset, fileLog.getValueSize(), fileLog.getTimestamp(),
+                    fileLog.getCodecFlags(), fileLog.getExpiresAt());
+        }
+
+        /**
+         * Forces the segment, its hint file and its bloom filter to disk, so a journal may name them.
+         */
+        private void seal() throws IOException {
+            output.flush();
+            hintOutput.flush();
+            stream.getFD().sync();
+            hintStream.getFD().sync();
+            SegmentBloomFilters.writeTo(filter, SegmentFiles.bloomFilePath(compactedPath));
+        }
+
+        private void discard() throws IOException {
+            Files.deleteIfExists(SegmentFiles.hintFilePath(compactedPath));
+            Files.deleteIfExists(SegmentFiles.bloomFilePath(compactedPath));
+            Files.deleteIfExists(compactedPath);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try (stream; hintStream; output; hintOutput) {
+                // Closes all four even if one fails.
+            }
+        }
+    }
+}
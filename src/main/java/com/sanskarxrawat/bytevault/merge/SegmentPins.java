@@ -0,0 +1,34 @@
+package com.sanskarxrawat.bytevault.merge;
+
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Segments that open snapshots still read, counted per snapshot. A merge never drops a pinned
+ * segment, nor any segment older than one.
+ */
+public class SegmentPins {
+    private final Map<Path, Integer> pins = new ConcurrentHashMap<>();
+
+    public void pin(Collection<Path> segmentPaths) {
+        for (Path segmentPath : segmentPaths) {
+            pins.merge(segmentPath, 1, Integer::sum);
+        }
+    }
+
+    public void unpin(Collection<Path> segmentPaths) {
+        for (Path segmentPath : segmentPaths) {
+            pins.computeIfPresent(segmentPath, (path, count) -> count == 1 ? null : count - 1);
+        }
+    }
+
+    public boolean isPinned(Path segmentPath) {
+        return pins.containsKey(segmentPath);
+    }
+
+    public boolean isEmpty() {
+        return pins.isEmpty();
+    }
+}
@@ -1,17 +1,23 @@
 package com.sanskarxrawat.bytevault.metadata;
 
+import com.sanskarxrawat.bytevault.log.FileLog;
+
 
 public class FileMetaData {
     private final String filePath;
     private final int valueByteOffset;
     private final int valueSize;
     private final long timestamp;
+    private final byte codecFlags;
+    private final long expiresAt;
 
-    public FileMetaData(String filePath, int valueByteOffset, int valueSize, long timestamp) {
+    public FileMetaData(String filePath, int valueByteOffset, int valueSize, long timestamp, byte codecFlags, long expiresAt) {
         this.filePath = filePath;
         this.valueByteOffset = valueByteOffset;
         this.valueSize = valueSize;
         this.timestamp = timestamp;
+        this.codecFlags = codecFlags;
+        this.expiresAt = expiresAt;
     }
 
     public String getFilePath() {
@@ -29,4 +35,26 @@ public class FileMetaData {
     public long getTimestamp() {
         return timestamp;
     }
+
+    /**
+     * Codec the stored value was written with; {@link #getValueSize()} is the stored size.
+     */
+    public byte getCodecId() {
+        return FileLog.codecIdOf(codecFlags);
+    }
+
+    /**
+     * The codec byte of the record, flags included, as key directories store it.
+     */
+    public byte getCodecFlags() {
+        return codecFlags;
+    }
+
+    public boolean isTombstone() {
+        return FileLog.isTombstone(codecFlags);
+    }
+
+    public long getExpiresAt() {
+        return expiresAt;
+    }
 }
@@ -0,0 +1,208 @@
+package com.sanskarxrawat.bytevault.replication;
+
+import com.sanskarxrawat.bytevault.log.FileLog;
+import com.sanskarxrawat.bytevault.log.FileLogConstants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static com.sanskarxrawat.bytevault.constant.VaultConstants.REPLICA_RECONNECT_MILS;
+import static com.sanskarxrawat.bytevault.replication.ReplicationConstants.FULL_SYNC;
+import static com.sanskarxrawat.bytevault.replication.ReplicationConstants.HEARTBEAT;
+import static com.sanskarxrawat.bytevault.replication.ReplicationConstants.MAGIC;
+import static com.sanskarxrawat.bytevault.replication.ReplicationConstants.RECORDS;
+import static com.sanskarxrawat.bytevault.replication.ReplicationConstants.SOCKET_BUFFER_SIZE;
+import static com.sanskarxrawat.bytevault.replication.ReplicationConstants.VERSION;
+
+/**
+ * Follower side of replication: keeps a connection to the primary, reconnecting from the last applied
+ * sequence number whenever it drops, and hands what arrives to its {@link Replica} on one thread.
+ */
+public class ReplicationClient implements Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReplicationClient.class);
+    private final String host;
+    private final int port;
+    private final Path syncDirectory;
+    private final Replica replica;
+    private final Thread follower;
+    private volatile Socket socket;
+    private volatile boolean connected;
+    private volatile boolean closed;
+    private volatile long primarySequence;
+    private volatile long appliedCommitMils;
+
+    /**
+     * What a follower store does with the stream.
+     */
+    public interface Replica {
+
+        long appliedSequence();
+
+        /**
+         * Appends the records of one primary commit, numbered up to {@code lastSequence}, as one write.
+         */
+        void apply(List<FileLog> fileLogs, long lastSequence) throws IOException;
+
+        /**
+         * Replaces every segment with the files of {@code syncDirectory}, which end at {@code sequence}.
+         */
+        void install(Path syncDirectory, long sequence) throws IOException;
+    }
+
+    public ReplicationClient(String host, int port, Path syncDirectory, Replica replica) {
+        this.host = host;
+        this.port = port;
+        this.syncDirectory = syncDirectory;
+        this.replica = replica;
+        this.follower = Thread.ofPlatform().daemon().name("bytevault-replica").start(this::run);
+    }
+
+    public ReplicationStatus status() {
+        long appliedSequence = replica.appliedSequence();
+        long knownPrimarySequence = Math.max(primarySequence, appliedSequence);
+        long lagMils = appliedSequence >= knownPrimarySequence ? 0 : Math.max(0, System.currentTimeMillis() - appliedCommitMils);
+        return new ReplicationStatus(connected, appliedSequence, knownPrimarySequence, lagMils);
+    }
+
+    private void run() {
+        while (!closed) {
+            try (Socket primary = new Socket(host, port)) {
+                socket = primary;
+                if (closed) {
+                    break;
+                }
+                primary.setTcpNoDelay(true);
+                follow(primary);
+            } catch (IOException e) {
+                if (closed) {
+                    break;
+                }
+                LOGGER.warn("Lost primary {}:{}, reconnecting in {} ms", host, port, REPLICA_RECONNECT_MILS, e);
+            } finally {
+                connected = false;
+            }
+            try {
+                Thread.sleep(REPLICA_RECONNECT_MILS);
+            } catch (InterruptedException e) {
+                break;
+            }
+        }
+    }
+
+    private void follow(Socket primary) throws IOException {
+        DataOutputStream output = new DataOutputStream(new BufferedOutputStream(primary.getOutputStream()));
+        output.writeInt(MAGIC);
+        output.writeByte(VERSION);
+        output.writeLong(replica.appliedSequence());
+        output.flush();
+        DataInputStream input = new DataInputStream(new BufferedInputStream(primary.getInputStream(), SOCKET_BUFFER_SIZE));
+        connected = true;
+        if (appliedCommitMils == 0) {
+            // Nothing applied yet this run, so how old the store's data is is unknown; lag counts from now.
+            appliedCommitMils = System.currentTimeMillis();
+        }
+        LOGGER.info("Following primary {}:{} from sequence {}", host, port, replica.appliedSequence());
+        while (!closed) {
+            byte type = input.readByte();
+            switch (type) {
+                case RECORDS -> {
+                    primarySequence = input.readLong();
+                    long lastSequence = input.readLong();
+                    long commitMils = input.readLong();
+                    byte[] records = new byte[input.readInt()];
+                    input.readFully(records);
+                    replica.apply(parse(records), lastSequence);
+                    appliedCommitMils = commitMils;
+                }
+                case HEARTBEAT -> primarySequence = input.readLong();
+                case FULL_SYNC -> receiveFullSync(input);
+                default -> throw new IOException("Unknown replication message " + type + " from " + host + ":" + port);
+            }
+        }
+    }
+
+    private static List<FileLog> parse(byte[] records) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(records);
+        List<FileLog> fileLogs = new ArrayList<>();
+        while (buffer.hasRemaining()) {
+            int fileLogByteSize = buffer.getInt();
+            if (fileLogByteSize < FileLogConstants.KEY_BYTE_OFFSET || fileLogByteSize > buffer.remaining()) {
+                throw new IOException("Truncated record from primary at offset " + (buffer.position() - FileLogConstants.LOG_SIZE_BYTE_LENGTH));
+            }
+            byte[] fileLogBytes = new byte[fileLogByteSize];
+            buffer.get(fileLogBytes);
+            if (!FileLog.isIntact(fileLogBytes)) {
+                throw new IOException("Corrupt record from primary at offset " + (buffer.position() - fileLogByteSize));
+            }
+            fileLogs.add(FileLog.valueOf(fileLogBytes));
+        }
+        return fileLogs;
+    }
+
+    private void receiveFullSync(DataInputStream input) throws IOException {
+        long sequence = input.readLong();
+        int fileCount = input.readInt();
+        clearSyncDirectory();
+        byte[] buffer = new byte[SOCKET_BUFFER_SIZE];
+        for (int i = 0; i < fileCount; i++) {
+            Path filePath = syncDirectory.resolve(input.readUTF()).normalize();
+            if (!syncDirectory.equals(filePath.getParent())) {
+                throw new IOException("Primary sent a file outside the sync directory: " + filePath);
+            }
+            long remaining = input.readLong();
+            try (OutputStream fileOutput = Files.newOutputStream(filePath)) {
+                while (remaining > 0) {
+                    int read = input.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                    if (read < 0) {
+                        throw new IOException("Primary closed the connection in the middle of " + filePath);
+                    }
+                    fileOutput.write(buffer, 0, read);
+                    remaining -= read;
+                }
+            }
+        }
+        replica.install(syncDirectory, sequence);
+        appliedCommitMils = System.currentTimeMillis();
+        primarySequence = Math.max(primarySequence, sequence);
+        LOGGER.info("Installed {} segment files up to sequence {} from primary {}:{}", fileCount, sequence, host, port);
+    }
+
+    private void clearSyncDirectory() throws IOException {
+        Files.createDirectories(syncDirectory);
+        try (Stream<Path> files = Files.list(syncDirectory)) {
+            for (Path filePath : files.toList()) {
+                Files.delete(filePath);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        follower.interrupt();
+        Socket primary = socket;
+        if (primary != null) {
+            primary.close();
+        }
+        try {
+            follower.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while stopping replication from " + host + ":" + port, e);
+        }
+    }
+}
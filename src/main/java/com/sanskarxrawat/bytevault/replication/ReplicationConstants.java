@@ -0,0 +1,24 @@
+package com.sanskarxrawat.bytevault.replication;
+
+/**
+ * Replication protocol. A follower opens with its handshake, after which only the primary talks:
+ * <pre>
+ * Handshake  | Magic 4 | Version 1 | Applied sequence 8 |
+ * Records    | 1 | Primary sequence 8 | Last sequence 8 | Commit millis 8 | Length 4 | Size-prefixed records |
+ * Heartbeat  | 2 | Primary sequence 8 |
+ * Full sync  | 3 | Sequence 8 | File count 4 | then per file: Name (modified UTF-8) | Length 8 | Bytes |
+ * </pre>
+ * Records frames carry one group commit each, as the primary appended it. A full sync replaces the
+ * follower's segments with the primary's sealed segments and their side files.
+ */
+public final class ReplicationConstants {
+    public static final int MAGIC = 0x42565250;
+    public static final byte VERSION = 1;
+    public static final byte RECORDS = 1;
+    public static final byte HEARTBEAT = 2;
+    public static final byte FULL_SYNC = 3;
+    public static final int SOCKET_BUFFER_SIZE = 64 * 1024;
+
+    private ReplicationConstants() {
+    }
+}
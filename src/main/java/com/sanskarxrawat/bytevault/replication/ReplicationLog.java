@@ -0,0 +1,125 @@
+package com.sanskarxrawat.bytevault.replication;
+
+import com.sanskarxrawat.bytevault.io.AppendListener;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The primary's backlog of recent group commits, kept as appended until they add up to more than
+ * {@code maxBytes}. Followers stream from it, and one that reconnects resumes from it as long as its
+ * last applied sequence number was not evicted yet.
+ */
+public class ReplicationLog implements AppendListener {
+    private final long maxBytes;
+    private final Deque<CommitFrame> frames = new ArrayDeque<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition appended = lock.newCondition();
+    private long bytes;
+    private long baseSequence;
+    private long lastSequence;
+    private boolean closed;
+
+    public ReplicationLog(long lastSequence, long maxBytes) {
+        this.maxBytes = maxBytes;
+        this.baseSequence = lastSequence;
+        this.lastSequence = lastSequence;
+    }
+
+    @Override
+    public void appended(ByteBuffer[] records, long lastSequence) {
+        int byteSize = 0;
+        for (ByteBuffer record : records) {
+            byteSize += record.remaining();
+        }
+        ByteBuffer frame = ByteBuffer.allocate(byteSize);
+        for (ByteBuffer record : records) {
+            frame.put(record.duplicate());
+        }
+        lock.lock();
+        try {
+            frames.addLast(new CommitFrame(lastSequence, System.currentTimeMillis(), frame.array()));
+            this.lastSequence = lastSequence;
+            bytes += byteSize;
+            while (bytes > maxBytes && frames.size() > 1) {
+                CommitFrame evicted = frames.removeFirst();
+                baseSequence = evicted.lastSequence();
+                bytes -= evicted.records().length;
+            }
+            appended.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long lastSequence() {
+        lock.lock();
+        try {
+            return lastSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Whether a follower that applied everything up to {@code sequence} can catch up from the backlog.
+     */
+    public boolean covers(long sequence) {
+        lock.lock();
+        try {
+            return sequence >= baseSequence && sequence <= lastSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The commits after {@code sequence}, waiting up to {@code timeoutMils} for one when there are none
+     * yet. Empty when none came in time or the log was closed, null once the backlog no longer covers
+     * {@code sequence}.
+     */
+    List<CommitFrame> after(long sequence, long timeoutMils) throws InterruptedException {
+        lock.lock();
+        try {
+            long remainingNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMils);
+            while (lastSequence == sequence && !closed && remainingNanos > 0) {
+                remainingNanos = appended.awaitNanos(remainingNanos);
+            }
+            if (sequence < baseSequence || sequence > lastSequence) {
+                return null;
+            }
+            List<CommitFrame> after = new ArrayList<>();
+            for (CommitFrame frame : frames) {
+                if (frame.lastSequence() > sequence) {
+                    after.add(frame);
+                }
+            }
+            return after;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            appended.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * One group commit: size-prefixed records numbered up to {@code lastSequence}, appended at
+     * {@code commitMils} on the primary's clock.
+     */
+    record CommitFrame(long lastSequence, long commitMils, byte[] records) {
+    }
+}
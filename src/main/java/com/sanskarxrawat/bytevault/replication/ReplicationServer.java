@@ -0,0 +1,159 @@
+package com.sanskarxrawat.bytevault.replication;
+
+import com.sanskarxrawat.bytevault.checkpoint.Checkpointer;
+import com.sanskarxrawat.bytevault.checkpoint.SealedSegments;
+import com.sanskarxrawat.bytevault.replication.ReplicationLog.CommitFrame;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.sanskarxrawat.bytevault.constant.VaultConstants.REPLICATION_HEARTBEAT_MILS;
+import static com.sanskarxrawat.bytevault.replication.ReplicationConstants.FULL_SYNC;
+import static com.sanskarxrawat.bytevault.replication.ReplicationConstants.HEARTBEAT;
+import static com.sanskarxrawat.bytevault.replication.ReplicationConstants.MAGIC;
+import static com.sanskarxrawat.bytevault.replication.ReplicationConstants.RECORDS;
+import static com.sanskarxrawat.bytevault.replication.ReplicationConstants.SOCKET_BUFFER_SIZE;
+import static com.sanskarxrawat.bytevault.replication.ReplicationConstants.VERSION;
+
+/**
+ * Primary side of replication: streams every group commit from the {@link ReplicationLog} to each
+ * connected follower, one virtual thread per follower, with heartbeats while the store is idle. A
+ * follower the backlog cannot catch up, because it is new or was away too long, is first sent every
+ * sealed segment, pinned against merges while they are sent.
+ */
+public class ReplicationServer implements Closeable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReplicationServer.class);
+    private final ServerSocket serverSocket;
+    private final ReplicationLog replicationLog;
+    private final Checkpointer checkpointer;
+    private final Set<Socket> followers = ConcurrentHashMap.newKeySet();
+    private volatile boolean closed;
+
+    public ReplicationServer(int port, ReplicationLog replicationLog, Checkpointer checkpointer) throws IOException {
+        this.serverSocket = new ServerSocket(port);
+        this.replicationLog = replicationLog;
+        this.checkpointer = checkpointer;
+        Thread.ofPlatform().daemon().name("bytevault-replication").start(this::acceptFollowers);
+        LOGGER.info("Serving followers on port {}", serverSocket.getLocalPort());
+    }
+
+    public int port() {
+        return serverSocket.getLocalPort();
+    }
+
+    private void acceptFollowers() {
+        while (!closed) {
+            try {
+                Socket socket = serverSocket.accept();
+                followers.add(socket);
+                Thread.ofVirtual().name("bytevault-replication-follower").start(() -> serve(socket));
+            } catch (IOException e) {
+                if (!closed) {
+                    LOGGER.error("Failed to accept follower", e);
+                }
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket) {
+            socket.setTcpNoDelay(true);
+            DataInputStream input = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), SOCKET_BUFFER_SIZE));
+            if (input.readInt() != MAGIC || input.readByte() != VERSION) {
+                LOGGER.warn("Rejected follower {} speaking another protocol", socket.getRemoteSocketAddress());
+                return;
+            }
+            long sequence = input.readLong();
+            LOGGER.info("Follower {} connected at sequence {}", socket.getRemoteSocketAddress(), sequence);
+            if (!replicationLog.covers(sequence)) {
+                sequence = sendFullSync(output);
+            }
+            while (!closed) {
+                List<CommitFrame> frames = replicationLog.after(sequence, REPLICATION_HEARTBEAT_MILS);
+                if (frames == null) {
+                    LOGGER.warn("Follower {} fell out of the replication backlog at sequence {}, resyncing", socket.getRemoteSocketAddress(), sequence);
+                    sequence = sendFullSync(output);
+                    continue;
+                }
+                long primarySequence = replicationLog.lastSequence();
+                if (frames.isEmpty()) {
+                    output.writeByte(HEARTBEAT);
+                    output.writeLong(primarySequence);
+                }
+                for (CommitFrame frame : frames) {
+                    output.writeByte(RECORDS);
+                    output.writeLong(primarySequence);
+                    output.writeLong(frame.lastSequence());
+                    output.writeLong(frame.commitMils());
+                    output.writeInt(frame.records().length);
+                    output.write(frame.records());
+                    sequence = frame.lastSequence();
+                }
+                output.flush();
+            }
+        } catch (IOException e) {
+            if (!closed) {
+                LOGGER.info("Follower {} disconnected", socket.getRemoteSocketAddress(), e);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            followers.remove(socket);
+        }
+    }
+
+    /**
+     * Sends every sealed segment with its side files and returns the sequence number they end at.
+     */
+    private long sendFullSync(DataOutputStream output) throws IOException {
+        SealedSegments sealedSegments = checkpointer.pinSealedSegments();
+        try {
+            List<Path> filePaths = new ArrayList<>();
+            for (Path segmentPath : sealedSegments.segmentPaths()) {
+                for (Path filePath : Checkpointer.segmentFilesOf(segmentPath)) {
+                    if (Files.exists(filePath)) {
+                        filePaths.add(filePath);
+                    }
+                }
+            }
+            output.writeByte(FULL_SYNC);
+            output.writeLong(sealedSegments.logPosition().lastSequence());
+            output.writeInt(filePaths.size());
+            for (Path filePath : filePaths) {
+                output.writeUTF(filePath.getFileName().toString());
+                output.writeLong(Files.size(filePath));
+                Files.copy(filePath, output);
+            }
+            output.flush();
+            LOGGER.info("Sent {} segment files up to sequence {} to a follower", filePaths.size(), sealedSegments.logPosition().lastSequence());
+            return sealedSegments.logPosition().lastSequence();
+        } finally {
+            checkpointer.release(sealedSegments);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        replicationLog.close();
+        serverSocket.close();
+        for (Socket follower : followers) {
+            follower.close();
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.sanskarxrawat.bytevault.replication;
+
+/**
+ * Where a follower stands. {@code primarySequence} is the newest sequence number the primary last
+ * reported; {@code lagMils} is how old, on the primary's clock, the newest applied commit is while the
+ * follower is behind, and 0 once it caught up.
+ */
+public record ReplicationStatus(boolean connected, long appliedSequence, long primarySequence, long lagMils) {
+
+    public long sequenceLag() {
+        return Math.max(0, primarySequence - appliedSequence);
+    }
+}
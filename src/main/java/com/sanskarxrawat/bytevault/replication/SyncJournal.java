@@ -0,0 +1,164 @@
+package com.sanskarxrawat.bytevault.replication;
+
+import com.sanskarxrawat.bytevault.utils.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static com.sanskarxrawat.bytevault.constant.VaultConstants.FILE_LOG_PREFIX;
+import static com.sanskarxrawat.bytevault.constant.VaultConstants.REPLICA_PREVIOUS_DIR;
+import static com.sanskarxrawat.bytevault.constant.VaultConstants.SYNC_JOURNAL_FILE;
+import static com.sanskarxrawat.bytevault.log.FileLogConstants.COMPACT_FILE_SUFFIX;
+
+/**
+ * The swap of a follower's segments for the ones a full sync staged, one line per staged file:
+ * <pre>
+ * install &lt;staged file&gt;
+ * </pre>
+ * The follower's own files are moved aside into {@link com.sanskarxrawat.bytevault.constant.VaultConstants#REPLICA_PREVIOUS_DIR}
+ * before the journal is written, and the journal lands in one rename. A crash before it exists rolls
+ * back to the files moved aside; once it exists the sync rolls forward, moving in whatever staged file
+ * is still left. Every step checks what is already done, so recovery can be repeated.
+ */
+public record SyncJournal(List<String> installs) {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SyncJournal.class);
+
+    /**
+     * Finishes a sync a crash interrupted after it committed and undoes one that did not.
+     */
+    public static void recover(Path storageDirectory, Path syncDirectory) throws IOException {
+        Path journalPath = storageDirectory.resolve(SYNC_JOURNAL_FILE);
+        Path previousDirectory = storageDirectory.resolve(REPLICA_PREVIOUS_DIR);
+        if (Files.exists(journalPath)) {
+            LOGGER.warn("Finishing full sync interrupted in {}", storageDirectory);
+            SyncJournal syncJournal = readFrom(journalPath);
+            syncJournal.apply(storageDirectory, syncDirectory);
+            syncJournal.finish(storageDirectory);
+        } else if (Files.isDirectory(previousDirectory)) {
+            LOGGER.warn("Restoring the segments of {} a full sync moved aside before it committed", storageDirectory);
+            moveSegments(previousDirectory, storageDirectory);
+            deleteDirectory(previousDirectory);
+        }
+        Files.deleteIfExists(storageDirectory.resolve(SYNC_JOURNAL_FILE + COMPACT_FILE_SUFFIX));
+    }
+
+    /**
+     * Fsyncs the staged files and moves the follower's own segments aside, the state {@link #recover}
+     * rolls back from until the returned journal is committed.
+     */
+    public static SyncJournal prepare(Path storageDirectory, Path syncDirectory) throws IOException {
+        List<String> installs = new ArrayList<>();
+        try (Stream<Path> files = Files.list(syncDirectory)) {
+            for (Path filePath : files.filter(Files::isRegularFile).toList()) {
+                try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.WRITE)) {
+                    channel.force(true);
+                }
+                installs.add(filePath.getFileName().toString());
+            }
+        }
+        FileUtils.syncDirectory(syncDirectory);
+        Path previousDirectory = storageDirectory.resolve(REPLICA_PREVIOUS_DIR);
+        Files.createDirectories(previousDirectory);
+        moveSegments(storageDirectory, previousDirectory);
+        return new SyncJournal(installs);
+    }
+
+    private static SyncJournal readFrom(Path journalPath) throws IOException {
+        List<String> installs = new ArrayList<>();
+        for (String line : Files.readAllLines(journalPath, StandardCharsets.UTF_8)) {
+            String[] fields = line.split(" ");
+            if (fields.length != 2 || !"install".equals(fields[0])) {
+                throw new IOException("Corrupted sync journal " + journalPath + ": " + line);
+            }
+            installs.add(fields[1]);
+        }
+        return new SyncJournal(installs);
+    }
+
+    /**
+     * Durably writes the journal into {@code storageDirectory}, the point after which the sync survives a crash.
+     */
+    public void commit(Path storageDirectory) throws IOException {
+        Path writingPath = storageDirectory.resolve(SYNC_JOURNAL_FILE + COMPACT_FILE_SUFFIX);
+        try (FileOutputStream stream = new FileOutputStream(writingPath.toFile());
+             BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8))) {
+            for (String install : installs) {
+                writer.write("install " + install);
+                writer.newLine();
+            }
+            writer.flush();
+            stream.getFD().sync();
+        }
+        Files.move(writingPath, storageDirectory.resolve(SYNC_JOURNAL_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        FileUtils.syncDirectory(storageDirectory);
+    }
+
+    /**
+     * Moves the staged files that are still in {@code syncDirectory} into {@code storageDirectory}.
+     */
+    public void apply(Path storageDirectory, Path syncDirectory) throws IOException {
+        for (String install : installs) {
+            Path stagedPath = syncDirectory.resolve(install);
+            if (Files.exists(stagedPath)) {
+                Files.move(stagedPath, storageDirectory.resolve(install), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+        }
+        FileUtils.syncDirectory(storageDirectory);
+    }
+
+    /**
+     * Drops the segments moved aside and then the journal, once the synced store opened.
+     */
+    public void finish(Path storageDirectory) throws IOException {
+        deleteDirectory(storageDirectory.resolve(REPLICA_PREVIOUS_DIR));
+        Files.deleteIfExists(storageDirectory.resolve(SYNC_JOURNAL_FILE));
+        FileUtils.syncDirectory(storageDirectory);
+    }
+
+    /**
+     * Puts the segments moved aside back, for a synced store that failed to open. The synced files go
+     * back to {@code syncDirectory} while the journal still rolls forward, and the journal goes before
+     * anything is restored, so a crash half way through lands on one side or the other.
+     */
+    public void revert(Path storageDirectory, Path syncDirectory) throws IOException {
+        moveSegments(storageDirectory, syncDirectory);
+        Files.deleteIfExists(storageDirectory.resolve(SYNC_JOURNAL_FILE));
+        FileUtils.syncDirectory(storageDirectory);
+        recover(storageDirectory, syncDirectory);
+    }
+
+    private static void moveSegments(Path source, Path target) throws IOException {
+        try (Stream<Path> files = Files.list(source)) {
+            for (Path filePath : files.filter(Files::isRegularFile).filter(path -> path.getFileName().toString().startsWith(FILE_LOG_PREFIX)).toList()) {
+                Files.move(filePath, target.resolve(filePath.getFileName()), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+        }
+        FileUtils.syncDirectory(target);
+        FileUtils.syncDirectory(source);
+    }
+
+    private static void deleteDirectory(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path filePath : files.toList()) {
+                Files.delete(filePath);
+            }
+        }
+        Files.delete(directory);
+    }
+}
@@ -0,0 +1,19 @@
+package com.sanskarxrawat.bytevault.stats;
+
+/**
+ * Whole operations, followed by the phases they spend their time in.
+ */
+public enum LatencyMetric {
+    GET,
+    SET,
+    REMOVE,
+    WRITE_BATCH,
+    MULTI_GET,
+    SCAN,
+    MERGE,
+    INDEX_LOOKUP,
+    DISK_READ,
+    DECODE,
+    APPEND,
+    FSYNC
+}
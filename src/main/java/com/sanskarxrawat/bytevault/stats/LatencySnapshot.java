@@ -0,0 +1,8 @@
+package com.sanskarxrawat.bytevault.stats;
+
+/**
+ * Latencies in nanoseconds. Percentiles are the upper bound of the bucket they fall in, so they
+ * overstate by at most 1/16th.
+ */
+public record LatencySnapshot(long count, long meanNanos, long p50Nanos, long p90Nanos, long p99Nanos, long p999Nanos, long maxNanos) {
+}
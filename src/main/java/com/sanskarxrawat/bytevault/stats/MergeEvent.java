@@ -0,0 +1,31 @@
+package com.sanskarxrawat.bytevault.stats;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.sanskarxrawat.bytevault.Merge")
+@Label("Segment Merge")
+@Category("Bytevault")
+@Description("Sealed segments compacted into one")
+public class MergeEvent extends Event {
+    @Label("Storage Directory")
+    public String storageDir;
+
+    @Label("Merged Segments")
+    public int segments;
+
+    @Label("Live Keys")
+    public long liveKeys;
+
+    @Label("Bytes Before")
+    @DataAmount
+    public long bytesBefore;
+
+    @Label("Bytes After")
+    @DataAmount
+    public long bytesAfter;
+}
@@ -0,0 +1,24 @@
+package com.sanskarxrawat.bytevault.stats;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.sanskarxrawat.bytevault.SegmentRollover")
+@Label("Segment Rollover")
+@Category("Bytevault")
+@Description("Active file sealed and replaced by a new one, on the group-commit thread")
+public class SegmentRolloverEvent extends Event {
+    @Label("Sealed Segment")
+    public String sealedSegment;
+
+    @Label("Sealed Bytes")
+    @DataAmount
+    public long sealedBytes;
+
+    @Label("Active Segment")
+    public String activeSegment;
+}
@@ -0,0 +1,74 @@
+package com.sanskarxrawat.bytevault.stats;
+
+import com.sanskarxrawat.bytevault.cache.CacheStats;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live counters of a store, shared by the threads serving it. Everything here is cumulative since
+ * the store was opened; {@link VaultStats} is the point-in-time view callers get. A keyspace has
+ * metrics of its own that time its operations and count them towards its store's as well.
+ */
+public final class VaultMetrics {
+    private static final LatencyMetric[] LATENCY_METRICS = LatencyMetric.values();
+    private final LatencyHistogram[] latencies = new LatencyHistogram[LATENCY_METRICS.length];
+    private final LongAdder bytesWritten = new LongAdder();
+    private final LongAdder bytesRead = new LongAdder();
+    private final LongAdder segmentRollovers = new LongAdder();
+    private final LongAdder merges = new LongAdder();
+    private final VaultMetrics parent;
+
+    public VaultMetrics() {
+        this(null);
+    }
+
+    /**
+     * Metrics whose latencies also count towards {@code parent}, and that report the byte, rollover
+     * and merge counters of {@code parent}, which belong to the log they share.
+     */
+    public VaultMetrics(VaultMetrics parent) {
+        this.parent = parent;
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * Records the time elapsed since {@code startNanos}, a {@link System#nanoTime()} reading.
+     */
+    public void record(LatencyMetric metric, long startNanos) {
+        long nanos = System.nanoTime() - startNanos;
+        latencies[metric.ordinal()].record(nanos);
+        if (parent != null) {
+            parent.latencies[metric.ordinal()].record(nanos);
+        }
+    }
+
+    public void bytesWritten(long bytes) {
+        bytesWritten.add(bytes);
+    }
+
+    public void bytesRead(long bytes) {
+        bytesRead.add(bytes);
+    }
+
+    public void segmentRolledOver() {
+        segmentRollovers.increment();
+    }
+
+    public void merged() {
+        merges.increment();
+    }
+
+    public VaultStats snapshot(int segmentCount, long segmentBytes, long liveKeys, long liveBytes, CacheStats cacheStats) {
+        Map<LatencyMetric, LatencySnapshot> latencySnapshots = new EnumMap<>(LatencyMetric.class);
+        for (LatencyMetric metric : LATENCY_METRICS) {
+            latencySnapshots.put(metric, latencies[metric.ordinal()].snapshot());
+        }
+        VaultMetrics counters = parent == null ? this : parent;
+        return new VaultStats(latencySnapshots, counters.bytesWritten.sum(), counters.bytesRead.sum(), segmentCount, segmentBytes, liveKeys,
+                liveBytes, counters.segmentRollovers.sum(), counters.merges.sum(), cacheStats);
+    }
+}
@@ -0,0 +1,25 @@
+package com.sanskarxrawat.bytevault.stats;
+
+import com.sanskarxrawat.bytevault.cache.CacheStats;
+
+import java.util.Map;
+
+/**
+ * Point-in-time view of a store. Latencies and byte counters are cumulative since open; segment
+ * and live figures describe the store as it is now. Live figures count indexed keys only, so they
+ * are -1 when the store runs without an index.
+ */
+public record VaultStats(Map<LatencyMetric, LatencySnapshot> latencies, long bytesWritten, long bytesRead, int segmentCount,
+                         long segmentBytes, long liveKeys, long liveBytes, long segmentRollovers, long merges, CacheStats cacheStats) {
+
+    public LatencySnapshot latency(LatencyMetric metric) {
+        return latencies.get(metric);
+    }
+
+    /**
+     * Bytes of segment space merging could reclaim: overwritten, deleted and expired records.
+     */
+    public long deadBytes() {
+        return liveBytes < 0 ? -1 : Math.max(0, segmentBytes - liveBytes);
+    }
+}
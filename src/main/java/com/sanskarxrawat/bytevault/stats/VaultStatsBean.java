@@ -0,0 +1,116 @@
+package com.sanskarxrawat.bytevault.stats;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+/**
+ * Publishes a store's stats on the platform MBean server, named after its storage directory, until closed.
+ */
+public final class VaultStatsBean implements VaultStatsMXBean, AutoCloseable {
+    private static final String DOMAIN = "com.sanskarxrawat.bytevault";
+    private final Supplier<VaultStats> stats;
+    private final ObjectName objectName;
+
+    private VaultStatsBean(Supplier<VaultStats> stats, ObjectName objectName) {
+        this.stats = stats;
+        this.objectName = objectName;
+    }
+
+    public static VaultStatsBean register(String storageDir, Supplier<VaultStats> stats) {
+        try {
+            ObjectName objectName = new ObjectName(DOMAIN + ":type=VaultStats,storageDir=" + ObjectName.quote(storageDir));
+            VaultStatsBean bean = new VaultStatsBean(stats, objectName);
+            ManagementFactory.getPlatformMBeanServer().registerMBean(bean, objectName);
+            return bean;
+        } catch (InstanceAlreadyExistsException e) {
+            throw new IllegalStateException("Stats of " + storageDir + " are already registered", e);
+        } catch (JMException e) {
+            throw new IllegalStateException("Failed to register stats of " + storageDir, e);
+        }
+    }
+
+    @Override
+    public long getBytesWritten() {
+        return stats.get().bytesWritten();
+    }
+
+    @Override
+    public long getBytesRead() {
+        return stats.get().bytesRead();
+    }
+
+    @Override
+    public int getSegmentCount() {
+        return stats.get().segmentCount();
+    }
+
+    @Override
+    public long getSegmentBytes() {
+        return stats.get().segmentBytes();
+    }
+
+    @Override
+    public long getLiveKeys() {
+        return stats.get().liveKeys();
+    }
+
+    @Override
+    public long getLiveBytes() {
+        return stats.get().liveBytes();
+    }
+
+    @Override
+    public long getDeadBytes() {
+        return stats.get().deadBytes();
+    }
+
+    @Override
+    public long getSegmentRollovers() {
+        return stats.get().segmentRollovers();
+    }
+
+    @Override
+    public long getMerges() {
+        return stats.get().merges();
+    }
+
+    @Override
+    public double getCacheHitRate() {
+        return stats.get().cacheStats().hitRate();
+    }
+
+    @Override
+    public Map<String, Long> getLatencyNanos() {
+        Map<String, Long> latencyNanos = new TreeMap<>();
+        stats.get().latencies().forEach((metric, latency) -> {
+            String prefix = metric.name().toLowerCase(Locale.ROOT) + ".";
+            latencyNanos.put(prefix + "count", latency.count());
+            latencyNanos.put(prefix + "mean", latency.meanNanos());
+            latencyNanos.put(prefix + "p50", latency.p50Nanos());
+            latencyNanos.put(prefix + "p90", latency.p90Nanos());
+            latencyNanos.put(prefix + "p99", latency.p99Nanos());
+            latencyNanos.put(prefix + "p999", latency.p999Nanos());
+            latencyNanos.put(prefix + "max", latency.maxNanos());
+        });
+        return latencyNanos;
+    }
+
+    @Override
+    public void close() {
+        MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        try {
+            if (mBeanServer.isRegistered(objectName)) {
+                mBeanServer.unregisterMBean(objectName);
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("Failed to unregister " + objectName, e);
+        }
+    }
+}
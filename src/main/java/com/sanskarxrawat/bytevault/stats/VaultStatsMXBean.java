@@ -0,0 +1,31 @@
+package com.sanskarxrawat.bytevault.stats;
+
+import java.util.Map;
+
+/**
+ * JMX view of {@link VaultStats}. Latencies are keyed {@code <metric>.<statistic>}, e.g. {@code get.p999}.
+ */
+public interface VaultStatsMXBean {
+
+    long getBytesWritten();
+
+    long getBytesRead();
+
+    int getSegmentCount();
+
+    long getSegmentBytes();
+
+    long getLiveKeys();
+
+    long getLiveBytes();
+
+    long getDeadBytes();
+
+    long getSegmentRollovers();
+
+    long getMerges();
+
+    double getCacheHitRate();
+
+    Map<String, Long> getLatencyNanos();
+}
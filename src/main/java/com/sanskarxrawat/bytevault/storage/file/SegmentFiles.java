@@ -0,0 +1,80 @@
+package com.sanskarxrawat.bytevault.storage.file;
+
+import com.sanskarxrawat.bytevault.constant.VaultConstants;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.sanskarxrawat.bytevault.log.FileLogConstants.BLOOM_FILE_SUFFIX;
+import static com.sanskarxrawat.bytevault.log.FileLogConstants.COLD_FILE_SUFFIX;
+import static com.sanskarxrawat.bytevault.log.FileLogConstants.COMPACT_FILE_SUFFIX;
+import static com.sanskarxrawat.bytevault.log.FileLogConstants.HINT_FILE_SUFFIX;
+
+public final class SegmentFiles {
+
+    private static final FileManager<?> VAULT_FILE = new VaultFile();
+
+    private SegmentFiles() {
+    }
+
+    /**
+     * Lists the segment files of a storage directory, oldest first.
+     */
+    public static List<Path> list(String storageDirectory) throws IOException {
+        try (Stream<Path> files = Files.list(Path.of(storageDirectory))) {
+            return files
+                    .filter(Files::isRegularFile)
+                    .filter(SegmentFiles::isSegmentFile)
+                    .sorted((p1, p2) -> VAULT_FILE.compare(p1.toFile(), p2.toFile(), FileManager.SortType.ASC))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Sums the sizes of the given files; files deleted by a merge since they were listed count as empty.
+     */
+    public static long byteSize(List<Path> filePaths) throws IOException {
+        long byteSize = 0;
+        for (Path filePath : filePaths) {
+            try {
+                byteSize += Files.size(filePath);
+            } catch (NoSuchFileException e) {
+                // Merged away after being listed.
+            }
+        }
+        return byteSize;
+    }
+
+    public static boolean isSegmentFile(Path path) {
+        String fileName = path.getFileName().toString();
+        return fileName.startsWith(VaultConstants.FILE_LOG_PREFIX)
+                && !fileName.endsWith(COMPACT_FILE_SUFFIX)
+                && !fileName.endsWith(HINT_FILE_SUFFIX)
+                && !fileName.endsWith(BLOOM_FILE_SUFFIX)
+                && !fileName.endsWith(COLD_FILE_SUFFIX);
+    }
+
+    public static Path hintFilePath(Path segmentPath) {
+        return segmentPath.resolveSibling(segmentPath.getFileName() + HINT_FILE_SUFFIX);
+    }
+
+    public static Path bloomFilePath(Path segmentPath) {
+        return segmentPath.resolveSibling(segmentPath.getFileName() + BLOOM_FILE_SUFFIX);
+    }
+
+    /**
+     * Empty marker next to a segment that a tiered merge filled with cold keys only.
+     */
+    public static Path coldMarkerPath(Path segmentPath) {
+        return segmentPath.resolveSibling(segmentPath.getFileName() + COLD_FILE_SUFFIX);
+    }
+
+    public static boolean isCold(Path segmentPath) {
+        return Files.exists(coldMarkerPath(segmentPath));
+    }
+}
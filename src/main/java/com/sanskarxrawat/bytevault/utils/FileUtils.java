@@ -5,6 +5,9 @@ import com.sanskarxrawat.bytevault.exception.file.FileReadException;
 import java.io.File;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
@@ -45,11 +48,20 @@ public final class FileUtils {
     public static void createFileIfNotExists(String filePath, boolean isDirectory) throws IOException {
         final File file = new File(filePath);
         if (isDirectory) {
-            file.mkdir();
+            file.mkdirs();
         } else {
             if (!file.exists()) {
                 assert file.createNewFile();
             }
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Flushes the entries of {@code directory} itself, so files created, renamed or deleted in it survive a crash.
+     */
+    public static void syncDirectory(Path directory) throws IOException {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.sanskarxrawat.bytevault;
+
+import com.sanskarxrawat.bytevault.config.DurabilityPolicy;
+import com.sanskarxrawat.bytevault.config.VaultConfig;
+import com.sanskarxrawat.bytevault.exception.storage.BackpressureException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+import static com.sanskarxrawat.bytevault.VaultTestFixtures.config;
+import static com.sanskarxrawat.bytevault.VaultTestFixtures.key;
+import static com.sanskarxrawat.bytevault.VaultTestFixtures.value;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AsyncTests {
+
+    private static final int MAX_IN_FLIGHT = 4;
+    private static final int KEYS = 200;
+    private static final int VERSIONS = 3;
+    private static final int READS_PER_ROUND = 64;
+
+    @TempDir
+    Path storageDir;
+
+    @Test
+    void operationsPastTheInFlightLimitFailFast() throws Exception {
+        // Writes complete only once synced, and nothing syncs for a minute, so every write stays in flight.
+        VaultConfig config = config(storageDir).toBuilder().durabilityPolicy(DurabilityPolicy.EVERY_N_MILLIS).syncIntervalMils(60_000)
+                .asyncMaxInFlight(MAX_IN_FLIGHT).build();
+        List<CompletableFuture<Void>> inFlight = new ArrayList<>();
+        try (BinaryVault vault = BinaryVault.open(config)) {
+            for (int i = 0; i < MAX_IN_FLIGHT; i++) {
+                inFlight.add(vault.setAsync(key(i), value(i)));
+            }
+            inFlight.forEach(write -> assertFalse(write.isDone()));
+
+            assertBackpressure(vault.setAsync(key(MAX_IN_FLIGHT), value(MAX_IN_FLIGHT)));
+            assertBackpressure(vault.getAsync(key(0)));
+            assertBackpressure(vault.removeAsync(key(0)));
+        }
+        // Closing syncs the log, completing the writes that were let in and freeing their permits.
+        CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new)).join();
+        try (BinaryVault vault = BinaryVault.open(config)) {
+            for (int i = 0; i < MAX_IN_FLIGHT; i++) {
+                assertArrayEquals(value(i), vault.getAsync(key(i)).join());
+            }
+            assertThrows(CompletionException.class, () -> vault.getAsync(key(MAX_IN_FLIGHT)).join());
+        }
+    }
+
+    @Test
+    void asyncReadsRacingAMergeSeeTheLatestValues() throws Exception {
+        // Throttled so the merge drops its inputs while rounds of reads are still being issued.
+        VaultConfig config = config(storageDir).toBuilder().mergeBytesPerSecond(32 * 1024).build();
+        try (BinaryVault vault = BinaryVault.open(config)) {
+            for (int version = 0; version < VERSIONS; version++) {
+                for (int i = 0; i < KEYS; i++) {
+                    vault.set(key(i), value(i, version));
+                }
+            }
+            CompletableFuture<Void> merge = CompletableFuture.runAsync(() -> {
+                try {
+                    vault.merge();
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+            });
+            int next = 0;
+            do {
+                List<CompletableFuture<byte[]>> reads = new ArrayList<>();
+                List<Integer> keys = new ArrayList<>();
+                for (int read = 0; read < READS_PER_ROUND; read++) {
+                    keys.add(next);
+                    reads.add(vault.getAsync(key(next)));
+                    next = (next + 1) % KEYS;
+                }
+                for (int read = 0; read < READS_PER_ROUND; read++) {
+                    assertArrayEquals(value(keys.get(read), VERSIONS - 1), reads.get(read).join());
+                }
+            } while (!merge.isDone());
+            merge.join();
+            for (int i = 0; i < KEYS; i++) {
+                assertArrayEquals(value(i, VERSIONS - 1), vault.getAsync(key(i)).join());
+            }
+        }
+    }
+
+    private static void assertBackpressure(CompletableFuture<?> operation) {
+        ExecutionException e = assertThrows(ExecutionException.class, operation::get);
+        assertInstanceOf(BackpressureException.class, e.getCause());
+    }
+}
@@ -0,0 +1,89 @@
+package com.sanskarxrawat.bytevault;
+
+import com.sanskarxrawat.bytevault.config.VaultConfig;
+import com.sanskarxrawat.bytevault.exception.storage.InvalidKeyException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static com.sanskarxrawat.bytevault.VaultTestFixtures.key;
+import static com.sanskarxrawat.bytevault.VaultTestFixtures.value;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTests {
+
+    private static final int KEYS = 200;
+
+    @TempDir
+    Path storageDir;
+
+    @Test
+    void missesSkipSegmentReadsAcrossReopenAndMerge() throws Exception {
+        VaultConfig config = config(false);
+        try (BinaryVault vault = BinaryVault.open(config)) {
+            for (int i = 0; i < KEYS; i++) {
+                vault.set(key(i), value(i));
+            }
+            assertMissesReadNothing(vault);
+        }
+        try (BinaryVault vault = BinaryVault.open(config)) {
+            assertMissesReadNothing(vault);
+            vault.merge();
+            assertMissesReadNothing(vault);
+        }
+        try (BinaryVault vault = BinaryVault.open(config)) {
+            assertMissesReadNothing(vault);
+        }
+    }
+
+    @Test
+    void indexedLookupsFindEveryKeyAcrossReopenAndMerge() throws Exception {
+        VaultConfig config = config(true);
+        try (BinaryVault vault = BinaryVault.open(config)) {
+            for (int i = 0; i < KEYS; i++) {
+                vault.set(key(i), value(i));
+            }
+        }
+        try (BinaryVault vault = BinaryVault.open(config)) {
+            assertAllFound(vault);
+            vault.merge();
+            assertAllFound(vault);
+            vault.set(key(KEYS), value(KEYS));
+            assertArrayEquals(value(KEYS), vault.get(key(KEYS)));
+        }
+        try (BinaryVault vault = BinaryVault.open(config)) {
+            assertAllFound(vault);
+        }
+    }
+
+    private static void assertMissesReadNothing(BinaryVault vault) throws Exception {
+        for (int i = 0; i < KEYS; i++) {
+            long bytesRead = vault.stats().bytesRead();
+            byte[] missing = ("absent-" + i).getBytes(StandardCharsets.UTF_8);
+            assertThrows(InvalidKeyException.class, () -> vault.get(missing));
+            assertEquals(bytesRead, vault.stats().bytesRead());
+        }
+        for (int i = 0; i < KEYS; i++) {
+            long bytesRead = vault.stats().bytesRead();
+            assertArrayEquals(value(i), vault.get(key(i)));
+            assertTrue(vault.stats().bytesRead() > bytesRead);
+        }
+    }
+
+    private static void assertAllFound(BinaryVault vault) throws Exception {
+        for (int i = 0; i < KEYS; i++) {
+            assertArrayEquals(value(i), vault.get(key(i)));
+        }
+        assertThrows(InvalidKeyException.class, () -> vault.get(key(KEYS * 10)));
+    }
+
+    // Segments large enough for filters of a few hundred bits; the smallest ones probe too few distinct bits.
+    private VaultConfig config(boolean cacheEnabled) {
+        return VaultTestFixtures.config(storageDir).toBuilder().fileSizeLimit(4096).cacheEnabled(cacheEnabled).bloomFilterFpp(1e-6).build();
+    }
+}
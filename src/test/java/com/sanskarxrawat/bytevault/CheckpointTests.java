@@ -0,0 +1,84 @@
+package com.sanskarxrawat.bytevault;
+
+import com.sanskarxrawat.bytevault.checkpoint.Checkpoint;
+import com.sanskarxrawat.bytevault.exception.storage.InvalidKeyException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static com.sanskarxrawat.bytevault.VaultTestFixtures.config;
+import static com.sanskarxrawat.bytevault.VaultTestFixtures.key;
+import static com.sanskarxrawat.bytevault.VaultTestFixtures.value;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CheckpointTests {
+
+    private static final int KEYS = 60;
+
+    @TempDir
+    Path storageDir;
+
+    @TempDir
+    Path checkpointDir;
+
+    @TempDir
+    Path firstCheckpointDir;
+
+    @Test
+    void checkpointsOpenAsTheStoreWasWhenTaken() throws Exception {
+        try (BinaryVault vault = BinaryVault.open(config(storageDir))) {
+            for (int i = 0; i < KEYS; i++) {
+                vault.set(key(i), value(i, 0));
+            }
+            Checkpoint first = vault.checkpoint(firstCheckpointDir);
+            vault.checkpoint(checkpointDir);
+
+            for (int i = 0; i < KEYS; i++) {
+                if (i % 3 == 0) {
+                    vault.remove(key(i));
+                } else if (i % 3 == 1) {
+                    vault.set(key(i), value(i, 1));
+                }
+            }
+            // Merges remove the source segments the first checkpoint linked.
+            vault.merge();
+            Checkpoint second = vault.checkpoint(checkpointDir);
+            assertTrue(second.sequence() > first.sequence());
+
+            for (int i = KEYS; i < KEYS + 10; i++) {
+                vault.set(key(i), value(i, 1));
+            }
+            Checkpoint third = vault.checkpoint(checkpointDir);
+            assertTrue(third.linkedSegments() < third.segments(), "only the segments new since are linked: " + third);
+
+            vault.set(key(KEYS + 10), value(KEYS + 10, 1));
+        }
+
+        try (BinaryVault restored = BinaryVault.open(config(firstCheckpointDir))) {
+            for (int i = 0; i < KEYS; i++) {
+                assertArrayEquals(value(i, 0), restored.get(key(i)));
+            }
+        }
+        try (BinaryVault restored = BinaryVault.open(config(checkpointDir))) {
+            for (int i = 0; i < KEYS; i++) {
+                if (i % 3 == 0) {
+                    int deleted = i;
+                    assertThrows(InvalidKeyException.class, () -> restored.get(key(deleted)));
+                } else {
+                    assertArrayEquals(value(i, i % 3 == 1 ? 1 : 0), restored.get(key(i)));
+                }
+            }
+            for (int i = KEYS; i < KEYS + 10; i++) {
+                assertArrayEquals(value(i, 1), restored.get(key(i)));
+            }
+            assertThrows(InvalidKeyException.class, () -> restored.get(key(KEYS + 10)));
+
+            // A restored store takes writes like any other.
+            restored.set(key(KEYS + 10), value(KEYS + 10, 2));
+            assertArrayEquals(value(KEYS + 10, 2), restored.get(key(KEYS + 10)));
+        }
+    }
+}
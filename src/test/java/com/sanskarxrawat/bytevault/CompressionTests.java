@@ -0,0 +1,136 @@
+package com.sanskarxrawat.bytevault;
+
+import com.sanskarxrawat.bytevault.compress.Codecs;
+import com.sanskarxrawat.bytevault.compress.DeflateCodec;
+import com.sanskarxrawat.bytevault.config.VaultConfig;
+import com.sanskarxrawat.bytevault.datastructure.ByteArrayWrapper;
+import com.sanskarxrawat.bytevault.io.SegmentReader;
+import com.sanskarxrawat.bytevault.io.SegmentRecord;
+import com.sanskarxrawat.bytevault.log.LogKeys;
+import com.sanskarxrawat.bytevault.storage.file.SegmentFiles;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static com.sanskarxrawat.bytevault.VaultTestFixtures.config;
+import static com.sanskarxrawat.bytevault.VaultTestFixtures.key;
+import static com.sanskarxrawat.bytevault.VaultTestFixtures.value;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CompressionTests {
+
+    private static final int KEYS = 20;
+    private static final int THRESHOLD = 512;
+    private static final int DEFAULT_BUFFER_SIZE = 4096;
+
+    @TempDir
+    Path storageDir;
+
+    @Test
+    void onlyValuesPastTheThresholdThatShrinkAreCompressed() throws Exception {
+        VaultConfig compressed = config(storageDir).toBuilder().compressionCodec(Codecs.DEFLATE).compressionThreshold(THRESHOLD).build();
+        byte[] incompressible = new byte[THRESHOLD * 2];
+        new Random(42).nextBytes(incompressible);
+        try (BinaryVault vault = BinaryVault.open(compressed)) {
+            vault.set(key(0), value(0));
+            vault.set(key(1), large(1));
+            vault.set(key(2), incompressible);
+            WriteBatch writeBatch = new WriteBatch();
+            writeBatch.put(key(3), large(3));
+            vault.write(writeBatch);
+            assertRoundTrip(vault, key(1), large(1));
+            assertRoundTrip(vault, key(3), large(3));
+        }
+        Map<ByteArrayWrapper, Byte> codecs = storedCodecs();
+        assertEquals(Codecs.NONE.id(), codecs.get(wrap(key(0))));
+        assertEquals(DeflateCodec.ID, codecs.get(wrap(key(1))));
+        assertEquals(Codecs.NONE.id(), codecs.get(wrap(key(2))));
+        assertEquals(DeflateCodec.ID, codecs.get(wrap(key(3))));
+
+        try (BinaryVault vault = BinaryVault.open(config(storageDir).toBuilder().cacheEnabled(false).build())) {
+            assertRoundTrip(vault, key(0), value(0));
+            assertRoundTrip(vault, key(1), large(1));
+            assertRoundTrip(vault, key(2), incompressible);
+            assertRoundTrip(vault, key(3), large(3));
+        }
+    }
+
+    @Test
+    void mergesRewriteValuesIntoTheMergeCodec() throws Exception {
+        try (BinaryVault vault = BinaryVault.open(config(storageDir))) {
+            for (int i = 0; i < KEYS; i++) {
+                vault.set(key(i), large(i));
+            }
+        }
+        assertStoredWith(Codecs.NONE.id());
+
+        VaultConfig recompress = config(storageDir).toBuilder().mergeCompressionCodec(Codecs.DEFLATE).compressionThreshold(THRESHOLD).build();
+        try (BinaryVault vault = BinaryVault.open(recompress)) {
+            vault.merge();
+            assertAllRoundTrip(vault);
+        }
+        assertStoredWith(DeflateCodec.ID);
+
+        try (BinaryVault vault = BinaryVault.open(config(storageDir).toBuilder().mergeCompressionCodec(Codecs.NONE).build())) {
+            assertAllRoundTrip(vault);
+            vault.merge();
+            assertAllRoundTrip(vault);
+        }
+        assertStoredWith(Codecs.NONE.id());
+    }
+
+    private void assertStoredWith(byte codecId) throws Exception {
+        Map<ByteArrayWrapper, Byte> codecs = storedCodecs();
+        for (int i = 0; i < KEYS; i++) {
+            assertEquals(codecId, codecs.get(wrap(key(i))), "key-" + i);
+        }
+    }
+
+    private static void assertAllRoundTrip(BinaryVault vault) throws Exception {
+        for (int i = 0; i < KEYS; i++) {
+            assertRoundTrip(vault, key(i), large(i));
+        }
+    }
+
+    private static void assertRoundTrip(BinaryVault vault, byte[] key, byte[] value) throws Exception {
+        assertArrayEquals(value, vault.get(key));
+        ByteBuffer dst = ByteBuffer.allocate(value.length);
+        assertEquals(value.length, vault.get(key, dst));
+        assertArrayEquals(value, dst.array());
+        List<Map.Entry<byte[], byte[]>> found = vault.multiGet(List.of(key));
+        assertEquals(1, found.size());
+        assertArrayEquals(value, found.get(0).getValue());
+    }
+
+    /**
+     * The codec of the newest record of every key, read from the segments themselves.
+     */
+    private Map<ByteArrayWrapper, Byte> storedCodecs() throws Exception {
+        Map<ByteArrayWrapper, Byte> codecs = new HashMap<>();
+        for (Path segmentPath : SegmentFiles.list(storageDir.toString())) {
+            try (SegmentReader segmentReader = new SegmentReader(segmentPath, DEFAULT_BUFFER_SIZE)) {
+                SegmentRecord record;
+                while ((record = segmentReader.next()) != null) {
+                    codecs.put(wrap(LogKeys.keyOf(record.fileLog().getKey())), record.fileLog().getCodecId());
+                }
+            }
+        }
+        return codecs;
+    }
+
+    private static ByteArrayWrapper wrap(byte[] key) {
+        return new ByteArrayWrapper(key);
+    }
+
+    private static byte[] large(int i) {
+        return ("value-" + i + "-compressible-").repeat(THRESHOLD / 8).getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,110 @@
+package com.sanskarxrawat.bytevault;
+
+import com.sanskarxrawat.bytevault.config.DurabilityPolicy;
+import com.sanskarxrawat.bytevault.config.VaultConfig;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DurabilityTests {
+
+    private static final int WRITERS = 4;
+    private static final int KEYS_PER_WRITER = 200;
+
+    @TempDir
+    Path storageDir;
+
+    @ParameterizedTest
+    @EnumSource(DurabilityPolicy.class)
+    void acknowledgedWritesSurviveReopen(DurabilityPolicy durabilityPolicy) throws Exception {
+        VaultConfig config = config(durabilityPolicy);
+        try (BinaryVault vault = BinaryVault.open(config)) {
+            List<Thread> writers = new ArrayList<>();
+            ConcurrentLinkedQueue<Throwable> failures = new ConcurrentLinkedQueue<>();
+            for (int w = 0; w < WRITERS; w++) {
+                int writer = w;
+                writers.add(Thread.startVirtualThread(() -> {
+                    try {
+                        for (int i = 0; i < KEYS_PER_WRITER; i++) {
+                            vault.set(key(writer, i), value(writer, i));
+                        }
+                    } catch (Exception e) {
+                        failures.add(e);
+                    }
+                }));
+            }
+            for (Thread writer : writers) {
+                writer.join();
+            }
+            assertTrue(failures.isEmpty(), failures.toString());
+        }
+        try (BinaryVault vault = BinaryVault.open(config)) {
+            for (int w = 0; w < WRITERS; w++) {
+                for (int i = 0; i < KEYS_PER_WRITER; i++) {
+                    assertArrayEquals(value(w, i), vault.get(key(w, i)));
+                }
+            }
+        }
+    }
+
+    @RepeatedTest(10)
+    void writesRacingCloseAllComplete() throws Exception {
+        BinaryVault vault = BinaryVault.open(config(DurabilityPolicy.EVERY_N_MILLIS));
+        ConcurrentLinkedQueue<CompletableFuture<Void>> futures = new ConcurrentLinkedQueue<>();
+        CountDownLatch started = new CountDownLatch(WRITERS);
+        List<Thread> writers = new ArrayList<>();
+        for (int w = 0; w < WRITERS; w++) {
+            int writer = w;
+            writers.add(Thread.startVirtualThread(() -> {
+                started.countDown();
+                try {
+                    for (int i = 0; i < KEYS_PER_WRITER * 10; i++) {
+                        futures.add(vault.setAsync(key(writer, i), value(writer, i)));
+                    }
+                } catch (RuntimeException e) {
+                    // Rejected once the store is closed.
+                }
+            }));
+        }
+        started.await();
+        vault.close();
+        for (Thread writer : writers) {
+            assertTrue(writer.join(Duration.ofSeconds(10)), "writer stopped after close");
+        }
+        for (CompletableFuture<Void> future : futures) {
+            try {
+                future.get(10, TimeUnit.SECONDS);
+            } catch (ExecutionException e) {
+                // Failing is fine, hanging is not.
+            }
+        }
+    }
+
+    private VaultConfig config(DurabilityPolicy durabilityPolicy) {
+        return VaultTestFixtures.config(storageDir).toBuilder().durabilityPolicy(durabilityPolicy).syncIntervalMils(5)
+                .fileSizeLimit(16 * 1024).build();
+    }
+
+    private static byte[] key(int writer, int i) {
+        return ("key-" + writer + "-" + i).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] value(int writer, int i) {
+        return ("value-" + writer + "-" + i).getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,99 @@
+package com.sanskarxrawat.bytevault;
+
+import com.sanskarxrawat.bytevault.exception.storage.InvalidKeyException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static com.sanskarxrawat.bytevault.VaultTestFixtures.await;
+import static com.sanskarxrawat.bytevault.VaultTestFixtures.config;
+import static com.sanskarxrawat.bytevault.VaultTestFixtures.key;
+import static com.sanskarxrawat.bytevault.VaultTestFixtures.value;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ExpiryTests {
+
+    private static final int KEYS = 40;
+    private static final Duration SHORT_TTL = Duration.ofMillis(100);
+    private static final Duration LONG_TTL = Duration.ofSeconds(2);
+    private static final int LAST_SHORT_TTL_KEY = KEYS - 2;
+    private static final int LAST_LONG_TTL_KEY = KEYS - 3;
+    private static final long EXPIRY_TIMEOUT_MILS = 10_000;
+
+    @TempDir
+    Path storageDir;
+
+    @Test
+    void expiredKeysStayExpiredAcrossMergeAndReopen() throws Exception {
+        try (BinaryVault vault = BinaryVault.open(config(storageDir))) {
+            for (int i = 0; i < KEYS; i++) {
+                vault.set(key(i), value(i));
+            }
+            // Even keys expire soon, and the values they shadow must not come back once they do.
+            for (int i = 0; i < KEYS; i += 2) {
+                vault.set(key(i), value(i), SHORT_TTL);
+            }
+            for (int i = 1; i < KEYS; i += 4) {
+                vault.set(key(i), value(i), LONG_TTL);
+            }
+            // The last key given a TTL expires last, so once it reads as gone so do the others.
+            await("short TTLs expiring", EXPIRY_TIMEOUT_MILS, () -> isExpired(vault, LAST_SHORT_TTL_KEY));
+            assertExpired(vault, false);
+
+            vault.merge();
+            assertExpired(vault, false);
+        }
+        try (BinaryVault vault = BinaryVault.open(config(storageDir))) {
+            assertExpired(vault, false);
+            vault.merge();
+            assertExpired(vault, false);
+
+            // Records kept by the merges still carry their deadline.
+            await("long TTLs expiring", EXPIRY_TIMEOUT_MILS, () -> isExpired(vault, LAST_LONG_TTL_KEY));
+            assertExpired(vault, true);
+        }
+        try (BinaryVault vault = BinaryVault.open(config(storageDir))) {
+            assertExpired(vault, true);
+        }
+    }
+
+    @Test
+    void ttlPastWhatATimestampHoldsNeverExpires() throws Exception {
+        try (BinaryVault vault = BinaryVault.open(config(storageDir))) {
+            vault.set(key(0), value(0), Duration.ofSeconds(Long.MAX_VALUE));
+            WriteBatch writeBatch = new WriteBatch();
+            writeBatch.put(key(1), value(1), Duration.ofMillis(Long.MAX_VALUE));
+            vault.write(writeBatch);
+            vault.merge();
+            assertArrayEquals(value(0), vault.get(key(0)));
+            assertArrayEquals(value(1), vault.get(key(1)));
+        }
+        try (BinaryVault vault = BinaryVault.open(config(storageDir))) {
+            assertArrayEquals(value(0), vault.get(key(0)));
+            assertArrayEquals(value(1), vault.get(key(1)));
+        }
+    }
+
+    private static boolean isExpired(BinaryVault vault, int i) throws Exception {
+        try {
+            vault.get(key(i));
+            return false;
+        } catch (InvalidKeyException e) {
+            return true;
+        }
+    }
+
+    private static void assertExpired(BinaryVault vault, boolean longTtlPassed) throws Exception {
+        for (int i = 0; i < KEYS; i++) {
+            int key = i;
+            if (i % 2 == 0 || (longTtlPassed && i % 4 == 1)) {
+                assertThrows(InvalidKeyException.class, () -> vault.get(key(key)), "key-" + i);
+            } else {
+                assertArrayEquals(value(i), vault.get(key(i)), "key-" + i);
+            }
+        }
+    }
+}
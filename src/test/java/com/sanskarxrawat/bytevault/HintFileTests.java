@@ -0,0 +1,129 @@
+package com.sanskarxrawat.bytevault;
+
+import com.sanskarxrawat.bytevault.exception.storage.InvalidKeyException;
+import com.sanskarxrawat.bytevault.log.HintLog;
+import com.sanskarxrawat.bytevault.storage.file.SegmentFiles;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static com.sanskarxrawat.bytevault.VaultTestFixtures.config;
+import static com.sanskarxrawat.bytevault.VaultTestFixtures.key;
+import static com.sanskarxrawat.bytevault.VaultTestFixtures.value;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class HintFileTests {
+
+    private static final int KEYS = 60;
+
+    @TempDir
+    Path storageDir;
+
+    private Path hintFile;
+
+    @BeforeEach
+    void writeAndMerge() throws Exception {
+        try (BinaryVault vault = BinaryVault.open(config(storageDir))) {
+            for (int i = 0; i < KEYS; i++) {
+                vault.set(key(i), value(i));
+            }
+            for (int i = 0; i < KEYS; i += 2) {
+                vault.remove(key(i));
+            }
+            vault.merge();
+        }
+        hintFile = SegmentFiles.list(storageDir.toString()).stream()
+                .map(SegmentFiles::hintFilePath)
+                .filter(Files::exists)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    @Test
+    void hintEntryRoundTrips() throws IOException {
+        HintLog hintLog = new HintLog(1L, 2L, 3L, 3, 5, 60, (byte) 0, "key".getBytes(StandardCharsets.UTF_8));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        hintLog.writeTo(new DataOutputStream(bytes));
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+
+        HintLog read = HintLog.readFrom(input);
+        assertEquals(2L, read.getSequence());
+        assertEquals(60, read.getValueByteOffset());
+        assertArrayEquals(hintLog.getKey(), read.getKey());
+        assertNull(HintLog.readFrom(input));
+    }
+
+    @Test
+    void damagedHintEntryIsRejected() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new HintLog(1L, 2L, 3L, 3, 5, 60, (byte) 0, "key".getBytes(StandardCharsets.UTF_8)).writeTo(new DataOutputStream(bytes));
+        byte[] damaged = bytes.toByteArray();
+        damaged[damaged.length - 1] ^= 1;
+
+        assertThrows(IOException.class, () -> HintLog.readFrom(new DataInputStream(new ByteArrayInputStream(damaged))));
+        byte[] cut = Arrays.copyOf(bytes.toByteArray(), bytes.size() - 1);
+        assertThrows(IOException.class, () -> HintLog.readFrom(new DataInputStream(new ByteArrayInputStream(cut))));
+    }
+
+    @Test
+    void corruptHintFileFallsBackToSegment() throws Exception {
+        byte[] hint = Files.readAllBytes(hintFile);
+        hint[hint.length / 2] ^= 0x5a;
+        Files.write(hintFile, hint);
+
+        assertContents();
+        assertFalse(Files.exists(hintFile));
+        assertContents();
+    }
+
+    @Test
+    void truncatedHintFileFallsBackToSegment() throws Exception {
+        byte[] hint = Files.readAllBytes(hintFile);
+        Files.write(hintFile, Arrays.copyOf(hint, hint.length - 3));
+
+        assertContents();
+        assertFalse(Files.exists(hintFile));
+    }
+
+    @Test
+    void corruptHintFileIsScannedWhenMerging() throws Exception {
+        byte[] hint = Files.readAllBytes(hintFile);
+        hint[7] ^= 0x5a;
+        Files.write(hintFile, hint);
+        // Without a key directory the hint file is not read on open, the merge is the first to find the damage.
+        try (BinaryVault vault = BinaryVault.open(config(storageDir).toBuilder().cacheEnabled(false).build())) {
+            for (int i = 0; i < KEYS; i++) {
+                vault.set(key(KEYS + i), value(KEYS + i));
+            }
+            vault.merge();
+        }
+        assertContents();
+    }
+
+    private void assertContents() throws Exception {
+        try (BinaryVault vault = BinaryVault.open(config(storageDir))) {
+            for (int i = 0; i < KEYS; i++) {
+                if (i % 2 == 0) {
+                    int deleted = i;
+                    assertThrows(InvalidKeyException.class, () -> vault.get(key(deleted)));
+                } else {
+                    assertArrayEquals(value(i), vault.get(key(i)));
+                }
+            }
+        }
+    }
+}
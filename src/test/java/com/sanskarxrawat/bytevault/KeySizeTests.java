@@ -0,0 +1,81 @@
+package com.sanskarxrawat.bytevault;
+
+import com.sanskarxrawat.bytevault.config.KeyDirectoryType;
+import com.sanskarxrawat.bytevault.config.VaultConfig;
+import com.sanskarxrawat.bytevault.exception.storage.InvalidKeyException;
+import com.sanskarxrawat.bytevault.exception.storage.KeyTooLargeException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class KeySizeTests {
+
+    private static final byte[] VALUE = "value".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path storageDir;
+
+    @Test
+    void overlongKeysAreRejectedBeforeTheyReachTheLog() throws Exception {
+        byte[] overlong = key(2000);
+        try (BinaryVault vault = BinaryVault.open(config(KeyDirectoryType.BTREE))) {
+            vault.set(key(1), VALUE);
+            assertThrows(KeyTooLargeException.class, () -> vault.set(overlong, VALUE));
+            assertThrows(KeyTooLargeException.class, () -> vault.set(overlong, VALUE, Duration.ofMinutes(1)));
+            ExecutionException e = assertThrows(ExecutionException.class, () -> vault.setAsync(overlong, VALUE).get());
+            assertInstanceOf(KeyTooLargeException.class, e.getCause());
+
+            // One over-long key rejects the whole batch.
+            WriteBatch writeBatch = new WriteBatch();
+            writeBatch.put(key(2), VALUE);
+            writeBatch.put(overlong, VALUE);
+            assertThrows(KeyTooLargeException.class, () -> vault.write(writeBatch));
+            assertThrows(InvalidKeyException.class, () -> vault.get(key(2)));
+        }
+        try (BinaryVault vault = BinaryVault.open(config(KeyDirectoryType.BTREE))) {
+            assertArrayEquals(VALUE, vault.get(key(1)));
+            assertThrows(InvalidKeyException.class, () -> vault.get(key(2)));
+            vault.set(key(3), VALUE);
+            assertArrayEquals(VALUE, vault.get(key(3)));
+        }
+    }
+
+    @Test
+    void replaySkipsKeysTheKeyDirectoryCannotTake() throws Exception {
+        byte[] overlong = key(2000);
+        // The off-heap directory takes far longer keys than the B+ tree.
+        try (BinaryVault vault = BinaryVault.open(config(KeyDirectoryType.OFF_HEAP))) {
+            vault.set(key(1), VALUE);
+            vault.set(overlong, VALUE);
+            vault.set(key(3), VALUE);
+        }
+        try (BinaryVault vault = BinaryVault.open(config(KeyDirectoryType.BTREE))) {
+            assertArrayEquals(VALUE, vault.get(key(1)));
+            assertArrayEquals(VALUE, vault.get(key(3)));
+            assertThrows(InvalidKeyException.class, () -> vault.get(overlong));
+            vault.merge();
+        }
+        try (BinaryVault vault = BinaryVault.open(config(KeyDirectoryType.BTREE))) {
+            assertArrayEquals(VALUE, vault.get(key(3)));
+        }
+    }
+
+    private VaultConfig config(KeyDirectoryType keyDirectoryType) {
+        return VaultTestFixtures.config(storageDir).toBuilder().keyDirectoryType(keyDirectoryType).build();
+    }
+
+    private static byte[] key(int length) {
+        byte[] key = new byte[length];
+        Arrays.fill(key, (byte) ('a' + length % 26));
+        return key;
+    }
+}
@@ -0,0 +1,96 @@
+package com.sanskarxrawat.bytevault;
+
+import com.sanskarxrawat.bytevault.exception.storage.InvalidKeyException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static com.sanskarxrawat.bytevault.VaultTestFixtures.config;
+import static com.sanskarxrawat.bytevault.VaultTestFixtures.key;
+import static com.sanskarxrawat.bytevault.VaultTestFixtures.value;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class KeyspaceTests {
+
+    private static final int KEYS = 30;
+    private static final String USERS = "users";
+    private static final String ORDERS = "orders";
+
+    @TempDir
+    Path storageDir;
+
+    @Test
+    void keyspacesStayApartAcrossReopenAndMerge() throws Exception {
+        try (BinaryVault vault = BinaryVault.open(config(storageDir))) {
+            Keyspace users = vault.keyspace(USERS);
+            Keyspace orders = vault.keyspace(ORDERS);
+            for (int i = 0; i < KEYS; i++) {
+                vault.set(key(i), value("default", i));
+                users.set(key(i), value(USERS, i));
+                if (i % 2 == 0) {
+                    orders.set(key(i), value(ORDERS, i));
+                }
+            }
+            users.remove(key(0));
+        }
+        try (BinaryVault vault = BinaryVault.open(config(storageDir))) {
+            assertEquals(Set.of("default", USERS, ORDERS), vault.keyspaces());
+            assertIsolated(vault);
+            vault.merge();
+            assertIsolated(vault);
+        }
+    }
+
+    @Test
+    void droppedKeyspaceStaysDroppedAcrossReopen() throws Exception {
+        try (BinaryVault vault = BinaryVault.open(config(storageDir))) {
+            Keyspace orders = vault.keyspace(ORDERS);
+            for (int i = 0; i < KEYS; i++) {
+                vault.set(key(i), value("default", i));
+                orders.set(key(i), value(ORDERS, i));
+            }
+            vault.dropKeyspace(ORDERS);
+        }
+        try (BinaryVault vault = BinaryVault.open(config(storageDir))) {
+            assertEquals(Set.of("default"), vault.keyspaces());
+            vault.merge();
+            // A keyspace created again under the name starts out empty.
+            Keyspace orders = vault.keyspace(ORDERS);
+            assertThrows(InvalidKeyException.class, () -> orders.get(key(1)));
+            orders.set(key(1), value(ORDERS, 1));
+        }
+        try (BinaryVault vault = BinaryVault.open(config(storageDir))) {
+            Keyspace orders = vault.keyspace(ORDERS);
+            assertArrayEquals(value(ORDERS, 1), orders.get(key(1)));
+            assertThrows(InvalidKeyException.class, () -> orders.get(key(2)));
+            for (int i = 0; i < KEYS; i++) {
+                assertArrayEquals(value("default", i), vault.get(key(i)));
+            }
+        }
+    }
+
+    private static void assertIsolated(BinaryVault vault) throws Exception {
+        Keyspace users = vault.keyspace(USERS);
+        Keyspace orders = vault.keyspace(ORDERS);
+        for (int i = 0; i < KEYS; i++) {
+            int missing = i;
+            assertArrayEquals(value("default", i), vault.get(key(i)));
+            if (i == 0) {
+                assertThrows(InvalidKeyException.class, () -> users.get(key(missing)));
+            } else {
+                assertArrayEquals(value(USERS, i), users.get(key(i)));
+            }
+            if (i % 2 == 0) {
+                assertArrayEquals(value(ORDERS, i), orders.get(key(i)));
+            } else {
+                assertThrows(InvalidKeyException.class, () -> orders.get(key(missing)));
+            }
+        }
+        assertEquals(KEYS / 2, orders.multiGet(IntStream.range(0, KEYS).mapToObj(VaultTestFixtures::key).toList()).size());
+    }
+}
@@ -0,0 +1,95 @@
+package com.sanskarxrawat.bytevault;
+
+import com.sanskarxrawat.bytevault.config.VaultConfig;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Stream;
+
+import static com.sanskarxrawat.bytevault.VaultTestFixtures.await;
+import static com.sanskarxrawat.bytevault.VaultTestFixtures.config;
+import static com.sanskarxrawat.bytevault.VaultTestFixtures.key;
+import static com.sanskarxrawat.bytevault.VaultTestFixtures.value;
+import static com.sanskarxrawat.bytevault.log.FileLogConstants.COMPACT_FILE_SUFFIX;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class MergeCancellationTests {
+
+    private static final int KEYS = 200;
+    private static final long MERGE_START_TIMEOUT_MILS = 10_000;
+
+    @TempDir
+    Path storageDir;
+
+    @Test
+    void closeCancelsARunningMerge() throws Exception {
+        // Throttled to a few kilobytes a second, writing the merged segments takes seconds.
+        VaultConfig slowMerge = config(storageDir).toBuilder().mergeBytesPerSecond(4096).mergeBufferSize(256).build();
+        BinaryVault vault = BinaryVault.open(slowMerge);
+        for (int i = 0; i < KEYS; i++) {
+            vault.set(key(i), value(i));
+        }
+        CompletableFuture<Void> merge = CompletableFuture.runAsync(() -> {
+            try {
+                vault.merge();
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        });
+        await("merge writing its output", MERGE_START_TIMEOUT_MILS, this::hasCompactedOutput);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(10), vault::close);
+        CompletionException e = assertThrows(CompletionException.class, merge::join);
+        assertInstanceOf(InterruptedIOException.class, e.getCause());
+        assertFalse(hasCompactedOutput());
+
+        try (BinaryVault reopened = BinaryVault.open(config(storageDir).toBuilder().fileSizeLimit(16 * 1024).build())) {
+            for (int i = 0; i < KEYS; i++) {
+                assertArrayEquals(value(i), reopened.get(key(i)));
+            }
+        }
+    }
+
+    @Test
+    void readsFindEveryKeyWhileTheIndexIsRepointed() throws Exception {
+        int keys = 5000;
+        try (BinaryVault vault = BinaryVault.open(config(storageDir).toBuilder().fileSizeLimit(16 * 1024).build())) {
+            for (int i = 0; i < keys; i++) {
+                vault.set(key(i), value(i));
+            }
+            CompletableFuture<Void> merge = CompletableFuture.runAsync(() -> {
+                try {
+                    vault.merge();
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+            });
+            int i = 0;
+            while (!merge.isDone()) {
+                assertArrayEquals(value(i), vault.get(key(i)));
+                i = (i + 1) % keys;
+            }
+            merge.join();
+            for (i = 0; i < keys; i++) {
+                assertArrayEquals(value(i), vault.get(key(i)));
+            }
+        }
+    }
+
+    private boolean hasCompactedOutput() throws IOException {
+        try (Stream<Path> files = Files.list(storageDir)) {
+            return files.anyMatch(path -> path.getFileName().toString().contains(COMPACT_FILE_SUFFIX));
+        }
+    }
+}
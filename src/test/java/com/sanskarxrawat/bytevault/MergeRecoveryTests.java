@@ -0,0 +1,190 @@
+package com.sanskarxrawat.bytevault;
+
+import com.sanskarxrawat.bytevault.exception.storage.InvalidKeyException;
+import com.sanskarxrawat.bytevault.log.FileLogConstants;
+import com.sanskarxrawat.bytevault.storage.file.SegmentFiles;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.sanskarxrawat.bytevault.VaultTestFixtures.config;
+import static com.sanskarxrawat.bytevault.VaultTestFixtures.key;
+import static com.sanskarxrawat.bytevault.VaultTestFixtures.value;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Crashes during a merge are staged by rebuilding the files a merge leaves at each point from a copy
+ * of the store before it and a copy after it.
+ */
+class MergeRecoveryTests {
+
+    private static final int KEYS = 60;
+
+    @TempDir
+    Path tempDir;
+
+    private Path before;
+    private Path after;
+
+    @BeforeEach
+    void writeAndMerge() throws Exception {
+        before = tempDir.resolve("before");
+        try (BinaryVault vault = BinaryVault.open(config(before))) {
+            for (int i = 0; i < KEYS; i++) {
+                vault.set(key(i), value(i, 0));
+            }
+            for (int i = 0; i < KEYS; i += 3) {
+                vault.set(key(i), value(i, 1));
+            }
+            for (int i = 1; i < KEYS; i += 3) {
+                vault.remove(key(i));
+            }
+        }
+        after = tempDir.resolve("after");
+        copyDirectory(before, after);
+        try (BinaryVault vault = BinaryVault.open(config(after))) {
+            vault.merge();
+        }
+        assertFalse(mergedAway().isEmpty(), "the merge dropped segments");
+    }
+
+    @Test
+    void mergeInterruptedBeforeInstallKeepsMergedSegments() throws Exception {
+        Path crashed = tempDir.resolve("crashed");
+        copyDirectory(before, crashed);
+        // Outputs written and fsynced under their temporary names, but no journal yet.
+        for (Path output : mergeOutputs()) {
+            copyOutput(output, crashed.resolve(output.getFileName() + FileLogConstants.COMPACT_FILE_SUFFIX));
+        }
+
+        assertContents(crashed);
+        assertTrue(fileNames(crashed).stream().noneMatch(name -> name.contains(FileLogConstants.COMPACT_FILE_SUFFIX)));
+        assertTrue(SegmentFiles.list(crashed.toString()).containsAll(inDirectory(crashed, mergedAway())));
+    }
+
+    @Test
+    void mergeInterruptedMidInstallIsFinished() throws Exception {
+        Path crashed = tempDir.resolve("crashed");
+        copyDirectory(before, crashed);
+        Path output = mergeOutputs().get(0);
+        Path compacted = crashed.resolve(output.getFileName() + FileLogConstants.COMPACT_FILE_SUFFIX);
+        copyOutput(output, compacted);
+        // The hint file already moved over the target, the segment did not.
+        Files.move(SegmentFiles.hintFilePath(compacted), SegmentFiles.hintFilePath(crashed.resolve(output.getFileName())));
+        writeJournal(crashed, output);
+
+        assertContents(crashed);
+        assertMergeFinished(crashed);
+    }
+
+    @Test
+    void mergeInterruptedAfterInstallDeletesMergedSegments() throws Exception {
+        Path crashed = tempDir.resolve("crashed");
+        copyDirectory(after, crashed);
+        // Installed, but the merged segments, which still hold deleted keys, were not deleted yet.
+        for (Path mergedSegment : mergedAway()) {
+            Files.copy(mergedSegment, crashed.resolve(mergedSegment.getFileName()));
+        }
+        writeJournal(crashed, mergeOutputs().get(0));
+
+        assertContents(crashed);
+        assertMergeFinished(crashed);
+    }
+
+    @Test
+    void mergedStoreReopens() throws Exception {
+        assertContents(after);
+        assertMergeFinished(after);
+    }
+
+    private void assertMergeFinished(Path directory) throws IOException {
+        List<String> names = fileNames(directory);
+        assertFalse(names.contains(FileLogConstants.MERGE_JOURNAL_FILE));
+        assertTrue(names.stream().noneMatch(name -> name.contains(FileLogConstants.COMPACT_FILE_SUFFIX)), names.toString());
+        for (Path mergedSegment : mergedAway()) {
+            assertFalse(names.contains(mergedSegment.getFileName().toString()), names.toString());
+        }
+    }
+
+    private static void assertContents(Path directory) throws Exception {
+        try (BinaryVault vault = BinaryVault.open(config(directory))) {
+            for (int i = 0; i < KEYS; i++) {
+                if (i % 3 == 1) {
+                    int deleted = i;
+                    assertThrows(InvalidKeyException.class, () -> vault.get(key(deleted)));
+                } else {
+                    assertArrayEquals(value(i, i % 3 == 0 ? 1 : 0), vault.get(key(i)));
+                }
+            }
+        }
+    }
+
+    /**
+     * Segments of the store before the merge that it replaced by its outputs or deleted.
+     */
+    private List<Path> mergedAway() throws IOException {
+        Set<String> remaining = SegmentFiles.list(after.toString()).stream()
+                .map(path -> path.getFileName().toString()).collect(Collectors.toSet());
+        return SegmentFiles.list(before.toString()).stream()
+                .filter(path -> !remaining.contains(path.getFileName().toString()))
+                .toList();
+    }
+
+    /**
+     * Merge outputs carry a hint file, appended segments never do.
+     */
+    private List<Path> mergeOutputs() throws IOException {
+        List<Path> outputs = SegmentFiles.list(after.toString()).stream()
+                .filter(path -> Files.exists(SegmentFiles.hintFilePath(path)))
+                .toList();
+        assertFalse(outputs.isEmpty(), "the merge installed an output");
+        return outputs;
+    }
+
+    private void writeJournal(Path directory, Path output) throws IOException {
+        StringBuilder journal = new StringBuilder();
+        String target = output.getFileName().toString();
+        journal.append("install ").append(target).append(FileLogConstants.COMPACT_FILE_SUFFIX).append(' ').append(target).append(" hot\n");
+        for (Path mergedSegment : mergedAway()) {
+            journal.append("delete ").append(mergedSegment.getFileName()).append('\n');
+        }
+        Files.writeString(directory.resolve(FileLogConstants.MERGE_JOURNAL_FILE), journal);
+    }
+
+    private static void copyOutput(Path output, Path compacted) throws IOException {
+        Files.copy(output, compacted);
+        Files.copy(SegmentFiles.hintFilePath(output), SegmentFiles.hintFilePath(compacted));
+        Files.copy(SegmentFiles.bloomFilePath(output), SegmentFiles.bloomFilePath(compacted));
+    }
+
+    private static List<Path> inDirectory(Path directory, List<Path> paths) {
+        return paths.stream().map(path -> directory.resolve(path.getFileName())).toList();
+    }
+
+    private static List<String> fileNames(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString()).toList();
+        }
+    }
+
+    private static void copyDirectory(Path source, Path target) throws IOException {
+        Files.createDirectories(target);
+        try (Stream<Path> files = Files.list(source)) {
+            for (Path file : files.toList()) {
+                Files.copy(file, target.resolve(file.getFileName()), StandardCopyOption.COPY_ATTRIBUTES);
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.sanskarxrawat.bytevault;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.sanskarxrawat.bytevault.VaultTestFixtures.config;
+import static com.sanskarxrawat.bytevault.VaultTestFixtures.key;
+import static com.sanskarxrawat.bytevault.VaultTestFixtures.value;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MultiGetTests {
+
+    private static final int KEYS = 200;
+    private static final int READERS = 4;
+
+    @TempDir
+    Path storageDir;
+
+    @Test
+    void multiGetAcrossSegmentsDoesNotStallBehindWriters() throws Exception {
+        try (BinaryVault vault = BinaryVault.open(config(storageDir).toBuilder().cacheSize(1).build())) {
+            List<byte[]> keys = new ArrayList<>();
+            for (int i = 0; i < KEYS; i++) {
+                keys.add(key(i));
+                vault.set(key(i), value(i, 0));
+            }
+            AtomicBoolean done = new AtomicBoolean();
+            ConcurrentLinkedQueue<Throwable> failures = new ConcurrentLinkedQueue<>();
+            List<Thread> readers = new ArrayList<>();
+            for (int r = 0; r < READERS; r++) {
+                readers.add(Thread.startVirtualThread(() -> {
+                    try {
+                        while (!done.get()) {
+                            List<Map.Entry<byte[], byte[]>> entries = vault.multiGet(keys);
+                            assertEquals(KEYS, entries.size());
+                        }
+                    } catch (Throwable e) {
+                        failures.add(e);
+                    }
+                }));
+            }
+            // Batches and merges take the segment write lock, which queues behind the readers.
+            assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+                for (int round = 1; round <= 50; round++) {
+                    WriteBatch writeBatch = new WriteBatch();
+                    for (int i = round % 10; i < KEYS; i += 10) {
+                        writeBatch.put(key(i), value(i, round));
+                    }
+                    vault.write(writeBatch);
+                    if (round % 10 == 0) {
+                        vault.merge();
+                    }
+                }
+                done.set(true);
+                for (Thread reader : readers) {
+                    reader.join();
+                }
+            });
+            assertTrue(failures.isEmpty(), failures.toString());
+        }
+    }
+}
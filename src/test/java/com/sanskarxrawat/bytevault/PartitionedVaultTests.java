@@ -0,0 +1,142 @@
+package com.sanskarxrawat.bytevault;
+
+import com.sanskarxrawat.bytevault.datastructure.ByteArrayWrapper;
+import com.sanskarxrawat.bytevault.exception.storage.InvalidConfigStorageException;
+import com.sanskarxrawat.bytevault.exception.storage.InvalidKeyException;
+import com.sanskarxrawat.bytevault.kv.CloseableIterator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static com.sanskarxrawat.bytevault.VaultTestFixtures.config;
+import static com.sanskarxrawat.bytevault.VaultTestFixtures.value;
+import static com.sanskarxrawat.bytevault.constant.VaultConstants.PARTITION_DIR_PREFIX;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PartitionedVaultTests {
+
+    private static final int KEYS = 100;
+    private static final int PARTITIONS = 4;
+
+    @TempDir
+    Path storageDir;
+
+    @Test
+    void keysAndBatchesAreRoutedToOnePartitionEach() throws Exception {
+        try (PartitionedVault vault = PartitionedVault.open(config(storageDir), PARTITIONS)) {
+            for (int i = 0; i < KEYS; i++) {
+                vault.set(key(i), value(i, 0));
+            }
+            // The batch spans every partition, rewriting odd keys and deleting every tenth.
+            WriteBatch writeBatch = new WriteBatch();
+            for (int i = 0; i < KEYS; i++) {
+                if (i % 10 == 0) {
+                    writeBatch.delete(key(i));
+                } else if (i % 2 == 1) {
+                    writeBatch.put(key(i), value(i, 1));
+                }
+            }
+            vault.write(writeBatch);
+            assertRouted(vault);
+        }
+        try (PartitionedVault vault = PartitionedVault.open(config(storageDir), PARTITIONS)) {
+            assertRouted(vault);
+            vault.merge();
+            assertRouted(vault);
+            assertEquals(KEYS - KEYS / 10, vault.multiGet(IntStream.range(0, KEYS).mapToObj(PartitionedVaultTests::key).toList()).size());
+        }
+    }
+
+    @Test
+    void scansMergeThePartitionsInKeyOrder() throws Exception {
+        try (PartitionedVault vault = PartitionedVault.open(config(storageDir), PARTITIONS)) {
+            for (int i = 0; i < KEYS; i++) {
+                vault.set(key(i), value(i, 0));
+            }
+            vault.remove(key(20));
+
+            List<String> scanned = scanned(vault.scan(key(10), key(50)));
+            List<String> expected = IntStream.range(10, 50).filter(i -> i != 20).mapToObj(i -> new String(key(i), StandardCharsets.UTF_8)).toList();
+            assertEquals(expected, scanned);
+            assertEquals(KEYS - 1, scanned(vault.scan(null, null)).size());
+            assertEquals(List.of("key-050", "key-051", "key-052", "key-053", "key-054", "key-055", "key-056", "key-057", "key-058", "key-059"),
+                    scanned(vault.prefixScan("key-05".getBytes(StandardCharsets.UTF_8))));
+        }
+    }
+
+    @Test
+    void storeRefusesToOpenWithAnotherPartitionCount() throws Exception {
+        try (PartitionedVault vault = PartitionedVault.open(config(storageDir), PARTITIONS)) {
+            vault.set(key(1), value(1, 0));
+        }
+        assertThrows(InvalidConfigStorageException.class, () -> PartitionedVault.open(config(storageDir), PARTITIONS + 1));
+        assertThrows(InvalidConfigStorageException.class, () -> PartitionedVault.open(config(storageDir), PARTITIONS - 1));
+        try (PartitionedVault vault = PartitionedVault.open(config(storageDir), PARTITIONS)) {
+            assertArrayEquals(value(1, 0), vault.get(key(1)));
+        }
+    }
+
+    @Test
+    void storeWithoutARecordedCountIsCheckedAgainstItsPartitions() throws Exception {
+        Path legacyDir = storageDir.resolve("legacy");
+        List<String> partitionDirs = IntStream.range(0, 2).mapToObj(i -> legacyDir.resolve(PARTITION_DIR_PREFIX + i).toString()).toList();
+        try (PartitionedVault vault = PartitionedVault.open(config(legacyDir), partitionDirs)) {
+            vault.set(key(1), value(1, 0));
+        }
+        assertThrows(InvalidConfigStorageException.class, () -> PartitionedVault.open(config(legacyDir), 3));
+        try (PartitionedVault vault = PartitionedVault.open(config(legacyDir), 2)) {
+            assertArrayEquals(value(1, 0), vault.get(key(1)));
+        }
+        assertThrows(InvalidConfigStorageException.class, () -> PartitionedVault.open(config(legacyDir), 3));
+    }
+
+    private static void assertRouted(PartitionedVault vault) throws Exception {
+        int[] keysPerPartition = new int[vault.partitionCount()];
+        for (int i = 0; i < KEYS; i++) {
+            int partitionsHolding = 0;
+            for (int p = 0; p < vault.partitionCount(); p++) {
+                if (!vault.partition(p).multiGet(List.of(key(i))).isEmpty()) {
+                    partitionsHolding++;
+                    keysPerPartition[p]++;
+                }
+            }
+            int deleted = i;
+            if (i % 10 == 0) {
+                assertEquals(0, partitionsHolding);
+                assertThrows(InvalidKeyException.class, () -> vault.get(key(deleted)));
+            } else {
+                assertEquals(1, partitionsHolding);
+                assertArrayEquals(value(i, i % 2), vault.get(key(i)));
+            }
+        }
+        for (int keys : keysPerPartition) {
+            assertTrue(keys > 0);
+        }
+    }
+
+    private static List<String> scanned(CloseableIterator<Map.Entry<ByteArrayWrapper, byte[]>> iterator) throws Exception {
+        List<String> keys = new ArrayList<>();
+        try (iterator) {
+            while (iterator.hasNext()) {
+                Map.Entry<ByteArrayWrapper, byte[]> entry = iterator.next();
+                int i = Integer.parseInt(new String(entry.getKey().array(), StandardCharsets.UTF_8).substring("key-".length()));
+                assertArrayEquals(value(i, 0), entry.getValue());
+                keys.add(new String(entry.getKey().array(), StandardCharsets.UTF_8));
+            }
+        }
+        return keys;
+    }
+
+    private static byte[] key(int i) {
+        return String.format("key-%03d", i).getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,114 @@
+package com.sanskarxrawat.bytevault;
+
+import com.sanskarxrawat.bytevault.config.VaultConfig;
+import com.sanskarxrawat.bytevault.exception.storage.InvalidKeyException;
+import com.sanskarxrawat.bytevault.replication.ReplicationStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static com.sanskarxrawat.bytevault.VaultTestFixtures.await;
+import static com.sanskarxrawat.bytevault.VaultTestFixtures.config;
+import static com.sanskarxrawat.bytevault.VaultTestFixtures.key;
+import static com.sanskarxrawat.bytevault.VaultTestFixtures.value;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReplicationTests {
+
+    private static final int KEYS = 60;
+    private static final long CATCH_UP_TIMEOUT_MILS = 10_000;
+
+    @TempDir
+    Path primaryDir;
+
+    @TempDir
+    Path followerDir;
+
+    @Test
+    void followerCatchesUpFromTheBacklog() throws Exception {
+        try (BinaryVault primary = BinaryVault.open(primaryConfig(1024 * 1024))) {
+            write(primary, 0);
+            try (ReplicaVault follower = new ReplicaVault(followerConfig(), "localhost", primary.replicationPort())) {
+                awaitCaughtUp(primary, follower);
+                assertValues(follower, 0);
+
+                write(primary, 1);
+                awaitCaughtUp(primary, follower);
+                assertValues(follower, 1);
+            }
+
+            // A follower reopened on its own segments only needs what it missed.
+            write(primary, 2);
+            try (ReplicaVault follower = new ReplicaVault(followerConfig(), "localhost", primary.replicationPort())) {
+                awaitCaughtUp(primary, follower);
+                assertValues(follower, 2);
+            }
+        }
+    }
+
+    @Test
+    void followerTooFarBehindIsFullySynced() throws Exception {
+        try (BinaryVault primary = BinaryVault.open(primaryConfig(256))) {
+            write(primary, 0);
+            write(primary, 1);
+            primary.merge();
+            try (ReplicaVault follower = new ReplicaVault(followerConfig(), "localhost", primary.replicationPort())) {
+                awaitCaughtUp(primary, follower);
+                assertValues(follower, 1);
+
+                // Once synced it follows commits as they come.
+                write(primary, 2);
+                awaitCaughtUp(primary, follower);
+                assertValues(follower, 2);
+            }
+        }
+    }
+
+    private static void awaitCaughtUp(BinaryVault primary, ReplicaVault follower) throws Exception {
+        long sequence = primary.lastSequence();
+        await("follower catching up to " + sequence, CATCH_UP_TIMEOUT_MILS,
+                () -> follower.replicationStatus().appliedSequence() >= sequence);
+        ReplicationStatus status = follower.replicationStatus();
+        assertEquals(sequence, status.appliedSequence());
+        assertTrue(status.connected(), status.toString());
+    }
+
+    /**
+     * Every round rewrites the keys and deletes a third of them, a different third each time; the first
+     * round leaves that third unwritten.
+     */
+    private static void write(BinaryVault primary, int round) throws Exception {
+        for (int i = 0; i < KEYS; i++) {
+            if ((i + round) % 3 == 0) {
+                if (round > 0) {
+                    primary.remove(key(i));
+                }
+            } else {
+                primary.set(key(i), value(i, round));
+            }
+        }
+    }
+
+    private static void assertValues(ReplicaVault follower, int round) throws Exception {
+        for (int i = 0; i < KEYS; i++) {
+            if ((i + round) % 3 == 0) {
+                int deleted = i;
+                assertThrows(InvalidKeyException.class, () -> follower.get(key(deleted)), "key-" + i);
+            } else {
+                assertArrayEquals(value(i, round), follower.get(key(i)), "key-" + i);
+            }
+        }
+    }
+
+    private VaultConfig primaryConfig(int backlogBytes) {
+        return config(primaryDir).toBuilder().replicationEnabled(true).replicationPort(0).replicationBacklogBytes(backlogBytes).build();
+    }
+
+    private VaultConfig followerConfig() {
+        return config(followerDir);
+    }
+}
@@ -0,0 +1,147 @@
+package com.sanskarxrawat.bytevault;
+
+import com.sanskarxrawat.bytevault.constant.VaultConstants;
+import com.sanskarxrawat.bytevault.datastructure.ByteArrayWrapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static com.sanskarxrawat.bytevault.VaultTestFixtures.await;
+import static com.sanskarxrawat.bytevault.VaultTestFixtures.config;
+import static com.sanskarxrawat.bytevault.VaultTestFixtures.value;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ScanTests {
+
+    private static final int KEYS = VaultConstants.SCAN_BATCH_SIZE * 4 + 50;
+
+    @TempDir
+    Path storageDir;
+
+    @Test
+    void prefixEndCarriesPastTrailingMaxBytes() {
+        assertEquals(wrap(0x41, 0x43), ScanIterator.prefixEnd(bytes(0x41, 0x42)));
+        assertEquals(wrap(0x42), ScanIterator.prefixEnd(bytes(0x41, 0x7f)));
+        assertEquals(wrap(0x11), ScanIterator.prefixEnd(bytes(0x10, 0x7f, 0x7f)));
+        // Bytes compare signed, so 0xff sorts below 0x00.
+        assertEquals(wrap(0x00), ScanIterator.prefixEnd(bytes(0xff)));
+        assertNull(ScanIterator.prefixEnd(bytes(0x7f, 0x7f)));
+        assertNull(ScanIterator.prefixEnd(new byte[0]));
+    }
+
+    @Test
+    void scansStopAtTheirBounds() throws Exception {
+        try (BinaryVault vault = BinaryVault.open(config(storageDir))) {
+            for (int i = 0; i < KEYS; i++) {
+                vault.set(key(i), value(i));
+            }
+            assertEquals(range(10, 20), keys(vault.scan(key(10), key(20))));
+            assertEquals(range(0, 5), keys(vault.scan(null, key(5))));
+            assertEquals(range(KEYS - 3, KEYS), keys(vault.scan(key(KEYS - 3), null)));
+            assertEquals(List.of(), keys(vault.scan(key(7), key(7))));
+            assertEquals(range(0, KEYS), keys(vault.scan(null, null)));
+            assertEquals(range(100, 110), keys(vault.prefixScan("key-010".getBytes(StandardCharsets.UTF_8))));
+            try (ScanIterator iterator = vault.scan(key(KEYS - 1), null)) {
+                assertArrayEquals(value(KEYS - 1), iterator.next().getValue());
+                assertFalse(iterator.hasNext());
+            }
+        }
+    }
+
+    @Test
+    void prefixScansCoverKeysEndingInMaxBytes() throws Exception {
+        List<byte[]> keys = List.of(bytes(0x80), bytes(0x41, 0x7e), bytes(0x41, 0x7f), bytes(0x41, 0x7f, 0x7f), bytes(0x41, 0x7f, 0x7f, 0x01),
+                bytes(0x42), bytes(0x7f), bytes(0x7f, 0x00), bytes(0x7f, 0x7f));
+        try (BinaryVault vault = BinaryVault.open(config(storageDir))) {
+            for (int i = 0; i < keys.size(); i++) {
+                vault.set(keys.get(i), value(i));
+            }
+            assertEquals(List.of("A\u007f", "A\u007f\u007f", "A\u007f\u007f\u0001"), keys(vault.prefixScan(bytes(0x41, 0x7f))));
+            assertEquals(List.of("\u007f", "\u007f\u0000", "\u007f\u007f"), keys(vault.prefixScan(bytes(0x7f))));
+            assertEquals(List.of("\u007f\u007f"), keys(vault.prefixScan(bytes(0x7f, 0x7f))));
+        }
+    }
+
+    @Test
+    void scansResumeAcrossBatchesSkippingDeadKeys() throws Exception {
+        try (BinaryVault vault = BinaryVault.open(config(storageDir))) {
+            for (int i = 0; i < KEYS; i++) {
+                vault.set(key(i), value(i));
+            }
+            // A whole batch of dead keys, and dead keys scattered through the rest, which still leaves
+            // more live keys than one batch holds.
+            List<String> live = new ArrayList<>();
+            for (int i = 0; i < KEYS; i++) {
+                if (i % 4 == 0 || (i >= VaultConstants.SCAN_BATCH_SIZE && i < VaultConstants.SCAN_BATCH_SIZE * 2)) {
+                    vault.remove(key(i));
+                } else if (i % 4 == 1) {
+                    vault.set(key(i), value(i), Duration.ofMillis(1));
+                } else {
+                    live.add(name(key(i)));
+                }
+            }
+            await("short TTLs expiring", 10_000, () -> keys(vault.scan(null, null)).equals(live));
+
+            // Keys written behind an open scan are not seen, keys written ahead of it are.
+            List<String> seen = new ArrayList<>();
+            try (ScanIterator iterator = vault.scan(null, null)) {
+                while (iterator.hasNext()) {
+                    seen.add(name(iterator.next().getKey().array()));
+                    if (seen.size() == 1) {
+                        vault.set(key(0), value(0));
+                        vault.set(key(KEYS), value(KEYS));
+                    }
+                }
+            }
+            List<String> expected = new ArrayList<>(live);
+            expected.add(name(key(KEYS)));
+            assertEquals(expected, seen);
+        }
+    }
+
+    /**
+     * Keys as Latin-1 strings, one char per byte, so failures read and compare like the keys.
+     */
+    private static List<String> keys(ScanIterator iterator) {
+        List<String> keys = new ArrayList<>();
+        try (iterator) {
+            while (iterator.hasNext()) {
+                keys.add(name(iterator.next().getKey().array()));
+            }
+        }
+        return keys;
+    }
+
+    private static List<String> range(int from, int to) {
+        return IntStream.range(from, to).mapToObj(i -> name(key(i))).toList();
+    }
+
+    private static String name(byte[] key) {
+        return new String(key, StandardCharsets.ISO_8859_1);
+    }
+
+    private static byte[] key(int i) {
+        return String.format("key-%04d", i).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] bytes(int... values) {
+        byte[] bytes = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            bytes[i] = (byte) values[i];
+        }
+        return bytes;
+    }
+
+    private static ByteArrayWrapper wrap(int... values) {
+        return new ByteArrayWrapper(bytes(values));
+    }
+}
@@ -0,0 +1,111 @@
+package com.sanskarxrawat.bytevault;
+
+import com.sanskarxrawat.bytevault.exception.storage.UnsupportedFormatException;
+import com.sanskarxrawat.bytevault.log.FileLogConstants;
+import com.sanskarxrawat.bytevault.storage.file.SegmentFiles;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+import static com.sanskarxrawat.bytevault.VaultTestFixtures.config;
+import static com.sanskarxrawat.bytevault.VaultTestFixtures.key;
+import static com.sanskarxrawat.bytevault.VaultTestFixtures.value;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SegmentRecoveryTests {
+
+    private static final int KEYS = 60;
+
+    @TempDir
+    Path storageDir;
+
+    private List<Path> segments;
+
+    @BeforeEach
+    void write() throws Exception {
+        try (BinaryVault vault = BinaryVault.open(config(storageDir))) {
+            for (int i = 0; i < KEYS; i++) {
+                vault.set(key(i), value(i));
+            }
+        }
+        segments = SegmentFiles.list(storageDir.toString());
+        assertTrue(segments.size() > 2, "writes rolled over to several segments");
+    }
+
+    @Test
+    void tornTailOfActiveSegmentIsTruncated() throws Exception {
+        Path activeSegment = segments.get(segments.size() - 1);
+        long intactSize = Files.size(activeSegment);
+        // A crash leaves the active segment unsealed, with part of a record at its end.
+        Files.deleteIfExists(SegmentFiles.bloomFilePath(activeSegment));
+        Files.write(activeSegment, new byte[]{0, 0, 0, 90, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        assertContents();
+        assertEquals(intactSize, Files.size(activeSegment));
+        try (BinaryVault vault = BinaryVault.open(config(storageDir))) {
+            vault.set(key(KEYS), value(KEYS));
+        }
+        try (BinaryVault vault = BinaryVault.open(config(storageDir))) {
+            assertArrayEquals(value(KEYS), vault.get(key(KEYS)));
+        }
+    }
+
+    @Test
+    void damagedSealedSegmentIsLeftInPlace() throws Exception {
+        Path sealedSegment = segments.get(0);
+        long size = Files.size(sealedSegment);
+        byte[] bytes = Files.readAllBytes(sealedSegment);
+        bytes[bytes.length - 1] ^= 1;
+        Files.write(sealedSegment, bytes);
+        // Without its bloom filter the segment is replayed like the active one, but it is not the newest.
+        Files.deleteIfExists(SegmentFiles.bloomFilePath(sealedSegment));
+
+        try (BinaryVault vault = BinaryVault.open(config(storageDir))) {
+            assertArrayEquals(value(KEYS - 1), vault.get(key(KEYS - 1)));
+        }
+        assertEquals(size, Files.size(sealedSegment));
+    }
+
+    @Test
+    void olderFormatVersionFailsTheOpen() throws Exception {
+        Path activeSegment = segments.get(segments.size() - 1);
+        long size = Files.size(activeSegment);
+        Files.deleteIfExists(SegmentFiles.bloomFilePath(activeSegment));
+        rewriteFirstRecordVersion(activeSegment, (byte) (FileLogConstants.FORMAT_VERSION - 1));
+
+        UnsupportedFormatException e = assertThrows(UnsupportedFormatException.class, () -> BinaryVault.open(config(storageDir)).close());
+        assertTrue(e.getMessage().contains("format version " + (FileLogConstants.FORMAT_VERSION - 1)), e.getMessage());
+        assertEquals(size, Files.size(activeSegment));
+    }
+
+    private static void rewriteFirstRecordVersion(Path segmentPath, byte version) throws IOException {
+        ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(segmentPath));
+        int recordStart = FileLogConstants.LOG_SIZE_BYTE_LENGTH;
+        int recordEnd = recordStart + bytes.getInt(0);
+        bytes.put(recordStart + FileLogConstants.VERSION_BYTE_OFFSET, version);
+        CRC32C crc32c = new CRC32C();
+        crc32c.update(bytes.array(), recordStart + FileLogConstants.VERSION_BYTE_OFFSET,
+                recordEnd - recordStart - FileLogConstants.VERSION_BYTE_OFFSET);
+        bytes.putInt(recordStart + FileLogConstants.CHECKSUM_BYTE_OFFSET, (int) crc32c.getValue());
+        Files.write(segmentPath, bytes.array());
+    }
+
+    private void assertContents() throws Exception {
+        try (BinaryVault vault = BinaryVault.open(config(storageDir))) {
+            for (int i = 0; i < KEYS; i++) {
+                assertArrayEquals(value(i), vault.get(key(i)));
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.sanskarxrawat.bytevault;
+
+import com.sanskarxrawat.bytevault.datastructure.ByteArrayWrapper;
+import com.sanskarxrawat.bytevault.exception.storage.InvalidKeyException;
+import com.sanskarxrawat.bytevault.kv.CloseableIterator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static com.sanskarxrawat.bytevault.VaultTestFixtures.config;
+import static com.sanskarxrawat.bytevault.VaultTestFixtures.key;
+import static com.sanskarxrawat.bytevault.VaultTestFixtures.value;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SnapshotTests {
+
+    private static final int KEYS = 60;
+
+    @TempDir
+    Path storageDir;
+
+    @Test
+    void snapshotKeepsItsViewWhileMergesRun() throws Exception {
+        try (BinaryVault vault = BinaryVault.open(config(storageDir))) {
+            for (int i = 0; i < KEYS; i++) {
+                vault.set(key(i), value(i, 0));
+            }
+            try (Snapshot snapshot = vault.snapshot()) {
+                for (int i = 0; i < KEYS; i++) {
+                    if (i % 3 == 0) {
+                        vault.remove(key(i));
+                    } else {
+                        vault.set(key(i), value(i, 1));
+                    }
+                }
+                for (int i = KEYS; i < KEYS * 2; i++) {
+                    vault.set(key(i), value(i, 1));
+                }
+
+                CompletableFuture<Void> merge = CompletableFuture.runAsync(() -> {
+                    try {
+                        vault.merge();
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                });
+                while (!merge.isDone()) {
+                    assertSnapshotView(snapshot);
+                }
+                merge.join();
+                assertSnapshotView(snapshot);
+
+                int entries = 0;
+                try (CloseableIterator<Map.Entry<ByteArrayWrapper, byte[]>> iterator = snapshot.entries()) {
+                    while (iterator.hasNext()) {
+                        Map.Entry<ByteArrayWrapper, byte[]> entry = iterator.next();
+                        int i = Integer.parseInt(new String(entry.getKey().array(), StandardCharsets.UTF_8).substring("key-".length()));
+                        assertArrayEquals(value(i, 0), entry.getValue());
+                        entries++;
+                    }
+                }
+                assertEquals(KEYS, entries);
+            }
+
+            // Once the snapshot is released, merges reclaim what only it still read.
+            vault.merge();
+            for (int i = 0; i < KEYS * 2; i++) {
+                if (i < KEYS && i % 3 == 0) {
+                    int deleted = i;
+                    assertThrows(InvalidKeyException.class, () -> vault.get(key(deleted)));
+                } else {
+                    assertArrayEquals(value(i, 1), vault.get(key(i)));
+                }
+            }
+        }
+    }
+
+    @Test
+    void snapshotSeesEveryWriteThatReturnedBeforeIt() throws Exception {
+        try (BinaryVault vault = BinaryVault.open(config(storageDir))) {
+            for (int i = 0; i < KEYS * 4; i++) {
+                vault.set(key(i % KEYS), value(i % KEYS, i));
+                try (Snapshot snapshot = vault.snapshot()) {
+                    assertArrayEquals(value(i % KEYS, i), snapshot.get(key(i % KEYS)));
+                    assertEquals(i + 1, snapshot.sequence());
+                }
+            }
+        }
+    }
+
+    private static void assertSnapshotView(Snapshot snapshot) throws Exception {
+        for (int i = 0; i < KEYS; i++) {
+            assertArrayEquals(value(i, 0), snapshot.get(key(i)));
+        }
+        assertThrows(InvalidKeyException.class, () -> snapshot.get(key(KEYS)));
+    }
+}
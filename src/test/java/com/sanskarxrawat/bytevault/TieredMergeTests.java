@@ -0,0 +1,126 @@
+package com.sanskarxrawat.bytevault;
+
+import com.sanskarxrawat.bytevault.config.VaultConfig;
+import com.sanskarxrawat.bytevault.io.SegmentReader;
+import com.sanskarxrawat.bytevault.io.SegmentRecord;
+import com.sanskarxrawat.bytevault.log.LogKeys;
+import com.sanskarxrawat.bytevault.storage.file.SegmentFiles;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.sanskarxrawat.bytevault.VaultTestFixtures.config;
+import static com.sanskarxrawat.bytevault.VaultTestFixtures.key;
+import static com.sanskarxrawat.bytevault.VaultTestFixtures.value;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class TieredMergeTests {
+
+    private static final int KEYS = 40;
+    private static final int HOT_READS = 5;
+    private static final int DEFAULT_BUFFER_SIZE = 4096;
+
+    @TempDir
+    Path storageDir;
+
+    @Test
+    void mergesWriteHotAndColdKeysToSeparateSegments() throws Exception {
+        VaultConfig config = config(storageDir).toBuilder().tieredMergeEnabled(true).build();
+        try (BinaryVault vault = BinaryVault.open(config)) {
+            for (int i = 0; i < KEYS; i++) {
+                vault.set(key(i), value(i, 0));
+            }
+        }
+        // Temperatures start over on open: only the keys read from here on are hot.
+        try (BinaryVault vault = BinaryVault.open(config)) {
+            readHotKeys(vault, 0);
+            vault.merge();
+        }
+        List<Path> coldSegments = coldSegments();
+        assertEquals(1, coldSegments.size());
+        Path coldSegment = coldSegments.get(0);
+        assertEquals(coldKeys(), keysIn(coldSegment));
+        Set<String> hotKeys = new HashSet<>();
+        for (Path segmentPath : SegmentFiles.list(storageDir.toString())) {
+            if (!segmentPath.equals(coldSegment)) {
+                hotKeys.addAll(keysIn(segmentPath));
+            }
+        }
+        assertEquals(hotKeys(), hotKeys);
+        byte[] coldBytes = Files.readAllBytes(coldSegment);
+
+        // Later merges rewrite the hot keys and leave the cold segment as it is.
+        try (BinaryVault vault = BinaryVault.open(config)) {
+            for (int i = 0; i < KEYS; i += 2) {
+                vault.set(key(i), value(i, 1));
+            }
+        }
+        try (BinaryVault vault = BinaryVault.open(config)) {
+            readHotKeys(vault, 1);
+            vault.merge();
+            assertValues(vault);
+        }
+        assertEquals(List.of(coldSegment), coldSegments());
+        assertArrayEquals(coldBytes, Files.readAllBytes(coldSegment));
+        try (BinaryVault vault = BinaryVault.open(config)) {
+            assertValues(vault);
+        }
+    }
+
+    private static void readHotKeys(BinaryVault vault, int version) throws Exception {
+        for (int read = 0; read < HOT_READS; read++) {
+            for (int i = 0; i < KEYS; i += 2) {
+                assertArrayEquals(value(i, version), vault.get(key(i)));
+            }
+        }
+    }
+
+    private static void assertValues(BinaryVault vault) throws Exception {
+        for (int i = 0; i < KEYS; i++) {
+            assertArrayEquals(value(i, i % 2 == 0 ? 1 : 0), vault.get(key(i)));
+        }
+    }
+
+    private List<Path> coldSegments() throws Exception {
+        return SegmentFiles.list(storageDir.toString()).stream().filter(SegmentFiles::isCold).toList();
+    }
+
+    private static Set<String> keysIn(Path segmentPath) throws Exception {
+        Set<String> keys = new HashSet<>();
+        try (SegmentReader segmentReader = new SegmentReader(segmentPath, DEFAULT_BUFFER_SIZE)) {
+            SegmentRecord record;
+            while ((record = segmentReader.next()) != null) {
+                String key = new String(LogKeys.keyOf(record.fileLog().getKey()), StandardCharsets.UTF_8);
+                assertFalse(record.fileLog().isTombstone(), key);
+                if (key.startsWith("key-")) {
+                    keys.add(key);
+                }
+            }
+        }
+        return keys;
+    }
+
+    private static Set<String> hotKeys() {
+        return keyNames(0);
+    }
+
+    private static Set<String> coldKeys() {
+        return keyNames(1);
+    }
+
+    private static Set<String> keyNames(int first) {
+        Set<String> keys = new HashSet<>();
+        for (int i = first; i < KEYS; i += 2) {
+            keys.add(new String(key(i), StandardCharsets.UTF_8));
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,105 @@
+package com.sanskarxrawat.bytevault;
+
+import com.sanskarxrawat.bytevault.exception.storage.InvalidKeyException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.sanskarxrawat.bytevault.VaultTestFixtures.config;
+import static com.sanskarxrawat.bytevault.VaultTestFixtures.key;
+import static com.sanskarxrawat.bytevault.VaultTestFixtures.value;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TombstoneTests {
+
+    private static final int KEYS = 60;
+    // The value that used to mark a deletion.
+    private static final byte[] OLD_TOMBSTONE_VALUE = "tmbstn".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path storageDir;
+
+    @Test
+    void anyValueCanBeStored() throws Exception {
+        try (BinaryVault vault = BinaryVault.open(config(storageDir))) {
+            vault.set(key(0), OLD_TOMBSTONE_VALUE);
+            vault.set(key(1), new byte[0]);
+            assertArrayEquals(OLD_TOMBSTONE_VALUE, vault.get(key(0)));
+            assertArrayEquals(new byte[0], vault.get(key(1)));
+        }
+        try (BinaryVault vault = BinaryVault.open(config(storageDir))) {
+            assertArrayEquals(OLD_TOMBSTONE_VALUE, vault.get(key(0)));
+            assertArrayEquals(new byte[0], vault.get(key(1)));
+            vault.merge();
+            assertArrayEquals(OLD_TOMBSTONE_VALUE, vault.get(key(0)));
+            assertEquals(2, vault.multiGet(List.of(key(0), key(1))).size());
+        }
+    }
+
+    @Test
+    void deletionsSurviveReopenAndMerge() throws Exception {
+        try (BinaryVault vault = BinaryVault.open(config(storageDir))) {
+            for (int i = 0; i < KEYS; i++) {
+                vault.set(key(i), value(i));
+            }
+            for (int i = 0; i < KEYS; i += 2) {
+                vault.remove(key(i));
+            }
+        }
+        assertDeleted();
+        try (BinaryVault vault = BinaryVault.open(config(storageDir))) {
+            vault.merge();
+        }
+        assertDeleted();
+        try (BinaryVault vault = BinaryVault.open(config(storageDir).toBuilder().cacheEnabled(false).build())) {
+            assertThrows(InvalidKeyException.class, () -> vault.get(key(0)));
+            assertArrayEquals(value(1), vault.get(key(1)));
+        }
+    }
+
+    @Test
+    void multiGetReturnsFoundKeysInRequestOrder() throws Exception {
+        try (BinaryVault vault = BinaryVault.open(config(storageDir))) {
+            for (int i = 0; i < KEYS; i++) {
+                vault.set(key(i), value(i));
+            }
+            vault.remove(key(3));
+            List<byte[]> keys = new ArrayList<>();
+            for (int i = KEYS + 5; i >= 0; i--) {
+                keys.add(key(i));
+            }
+
+            List<Map.Entry<byte[], byte[]>> entries = vault.multiGet(keys);
+            assertEquals(KEYS - 1, entries.size());
+            int next = 0;
+            for (byte[] key : keys) {
+                int i = Integer.parseInt(new String(key, StandardCharsets.UTF_8).substring("key-".length()));
+                if (i < KEYS && i != 3) {
+                    assertSame(key, entries.get(next).getKey());
+                    assertArrayEquals(value(i), entries.get(next++).getValue());
+                }
+            }
+        }
+    }
+
+    private void assertDeleted() throws Exception {
+        try (BinaryVault vault = BinaryVault.open(config(storageDir))) {
+            for (int i = 0; i < KEYS; i++) {
+                if (i % 2 == 0) {
+                    int deleted = i;
+                    assertThrows(InvalidKeyException.class, () -> vault.get(key(deleted)));
+                } else {
+                    assertArrayEquals(value(i), vault.get(key(i)));
+                }
+            }
+        }
+    }
+}
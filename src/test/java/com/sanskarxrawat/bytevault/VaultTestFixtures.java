@@ -0,0 +1,54 @@
+package com.sanskarxrawat.bytevault;
+
+import com.sanskarxrawat.bytevault.config.VaultConfig;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.Callable;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Configs, keys and values shared by the store tests. Segments are small and values padded, so a few
+ * dozen keys span several segments; merges only run when a test asks for one.
+ */
+public final class VaultTestFixtures {
+
+    private static final long POLL_INTERVAL_MILS = 10;
+
+    private VaultTestFixtures() {
+    }
+
+    public static VaultConfig config(Path storageDir) {
+        return VaultConfig.builder().storageDir(storageDir.toString()).fileSizeLimit(1024).mergePeriodMils(Integer.MAX_VALUE).build();
+    }
+
+    public static byte[] key(int i) {
+        return ("key-" + i).getBytes(StandardCharsets.UTF_8);
+    }
+
+    public static byte[] value(int i) {
+        return ("value-" + i + "-padding-to-fill-segments").getBytes(StandardCharsets.UTF_8);
+    }
+
+    public static byte[] value(int i, int version) {
+        return ("value-" + i + "-v" + version + "-padding-to-fill-segments").getBytes(StandardCharsets.UTF_8);
+    }
+
+    public static byte[] value(String owner, int i) {
+        return (owner + "-value-" + i + "-padding-to-fill-segments").getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Polls until the condition holds, failing with the description once the timeout passes.
+     */
+    public static void await(String description, long timeoutMils, Callable<Boolean> condition) throws Exception {
+        long deadline = System.currentTimeMillis() + timeoutMils;
+        while (!condition.call()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail(description + " did not happen within " + timeoutMils + " ms");
+            }
+            Thread.sleep(POLL_INTERVAL_MILS);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.sanskarxrawat.bytevault;
+
+import com.sanskarxrawat.bytevault.exception.storage.InvalidKeyException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.sanskarxrawat.bytevault.VaultTestFixtures.config;
+import static com.sanskarxrawat.bytevault.VaultTestFixtures.key;
+import static com.sanskarxrawat.bytevault.VaultTestFixtures.value;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WriteBatchTests {
+
+    private static final int KEYS = 20;
+    private static final int ROUNDS = 100;
+
+    @TempDir
+    Path storageDir;
+
+    @Test
+    void readersSeeAllOfABatchOrNoneOfIt() throws Exception {
+        try (BinaryVault vault = BinaryVault.open(config(storageDir))) {
+            List<byte[]> keys = new ArrayList<>();
+            WriteBatch first = new WriteBatch();
+            for (int i = 0; i < KEYS; i++) {
+                keys.add(key(i));
+                first.put(key(i), value(0));
+            }
+            vault.write(first);
+
+            AtomicBoolean done = new AtomicBoolean();
+            ConcurrentLinkedQueue<Throwable> failures = new ConcurrentLinkedQueue<>();
+            List<Thread> readers = new ArrayList<>();
+            for (int r = 0; r < 4; r++) {
+                boolean snapshots = r % 2 == 1;
+                readers.add(Thread.startVirtualThread(() -> {
+                    try {
+                        while (!done.get()) {
+                            List<byte[]> values = snapshots ? readSnapshot(vault, keys) : readMany(vault, keys);
+                            assertEquals(KEYS, values.size());
+                            for (byte[] value : values) {
+                                assertArrayEquals(values.get(0), value, "values of one batch are read together");
+                            }
+                        }
+                    } catch (Throwable e) {
+                        failures.add(e);
+                    }
+                }));
+            }
+            for (int round = 1; round <= ROUNDS; round++) {
+                WriteBatch writeBatch = new WriteBatch();
+                for (int i = 0; i < KEYS; i++) {
+                    writeBatch.put(key(i), value(round));
+                }
+                vault.write(writeBatch);
+            }
+            done.set(true);
+            for (Thread reader : readers) {
+                reader.join();
+            }
+            assertTrue(failures.isEmpty(), failures.toString());
+        }
+    }
+
+    @Test
+    void putsAndDeletesOfABatchSurviveReopen() throws Exception {
+        try (BinaryVault vault = BinaryVault.open(config(storageDir))) {
+            for (int i = 0; i < KEYS; i++) {
+                vault.set(key(i), value(0));
+            }
+            WriteBatch writeBatch = new WriteBatch();
+            for (int i = 0; i < KEYS; i++) {
+                if (i % 2 == 0) {
+                    writeBatch.delete(key(i));
+                } else {
+                    writeBatch.put(key(i), value(1));
+                }
+            }
+            // Deleting a key that was never written is not an error.
+            writeBatch.delete(key(KEYS));
+            vault.write(writeBatch);
+        }
+        try (BinaryVault vault = BinaryVault.open(config(storageDir))) {
+            for (int i = 0; i < KEYS; i++) {
+                if (i % 2 == 0) {
+                    int deleted = i;
+                    assertThrows(InvalidKeyException.class, () -> vault.get(key(deleted)));
+                } else {
+                    assertArrayEquals(value(1), vault.get(key(i)));
+                }
+            }
+        }
+    }
+
+    private static List<byte[]> readMany(BinaryVault vault, List<byte[]> keys) throws Exception {
+        List<byte[]> values = new ArrayList<>();
+        for (Map.Entry<byte[], byte[]> entry : vault.multiGet(keys)) {
+            values.add(entry.getValue());
+        }
+        return values;
+    }
+
+    private static List<byte[]> readSnapshot(BinaryVault vault, List<byte[]> keys) throws Exception {
+        List<byte[]> values = new ArrayList<>();
+        try (Snapshot snapshot = vault.snapshot()) {
+            for (byte[] key : keys) {
+                values.add(snapshot.get(key));
+            }
+        }
+        return values;
+    }
+}
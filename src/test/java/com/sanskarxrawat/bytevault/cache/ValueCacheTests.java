@@ -0,0 +1,114 @@
+package com.sanskarxrawat.bytevault.cache;
+
+import com.sanskarxrawat.bytevault.datastructure.ByteArrayWrapper;
+import com.sanskarxrawat.bytevault.metadata.FileMetaData;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ValueCacheTests {
+
+    private static final int MAXIMUM_SIZE = 100;
+
+    @Test
+    void rejectedCandidatesAreNotEvictions() {
+        ValueCache valueCache = new ValueCache(MAXIMUM_SIZE);
+        for (int i = 0; i < MAXIMUM_SIZE * 3; i++) {
+            valueCache.put(key(i), location(i), value(i));
+        }
+        CacheStats stats = valueCache.stats();
+        // Keys never read have no frequency, so none displaces a resident entry.
+        assertEquals(0, stats.evictions());
+        assertTrue(stats.size() <= MAXIMUM_SIZE, "size " + stats.size());
+        assertNotNull(valueCache.get(key(0), location(0)));
+    }
+
+    @Test
+    void frequentlyReadKeysDisplaceResidentOnes() {
+        ValueCache valueCache = new ValueCache(MAXIMUM_SIZE);
+        for (int i = 0; i < MAXIMUM_SIZE; i++) {
+            valueCache.put(key(i), location(i), value(i));
+        }
+        int hot = MAXIMUM_SIZE * 2;
+        for (int round = 0; round < 5; round++) {
+            // Misses are recorded too, so the key is known to be popular before it is cached.
+            valueCache.get(key(hot), location(hot));
+            for (int i = 0; i < ReadBuffer.SIZE; i++) {
+                valueCache.get(key(i), location(i));
+            }
+        }
+        valueCache.put(key(hot), location(hot), value(hot));
+        for (int i = 0; i < MAXIMUM_SIZE; i++) {
+            valueCache.put(key(MAXIMUM_SIZE * 3 + i), location(MAXIMUM_SIZE * 3 + i), value(MAXIMUM_SIZE * 3 + i));
+        }
+
+        assertArrayEquals(value(hot), valueCache.get(key(hot), location(hot)));
+        assertTrue(valueCache.stats().evictions() > 0);
+        assertTrue(valueCache.stats().size() <= MAXIMUM_SIZE);
+    }
+
+    @Test
+    void valuesReadFromAnotherLocationAreNotServed() {
+        ValueCache valueCache = new ValueCache(MAXIMUM_SIZE);
+        valueCache.put(key(1), location(1), value(1));
+        assertNull(valueCache.get(key(1), location(2)));
+        assertNull(valueCache.get(key(1), location(1)));
+
+        valueCache.put(key(1), location(1), value(1));
+        valueCache.relocate(key(1), location(1), location(2));
+        assertArrayEquals(value(1), valueCache.get(key(1), location(2)));
+    }
+
+    @Test
+    void concurrentReadersAndWritersSeeOnlyTheirOwnValues() throws Exception {
+        ValueCache valueCache = new ValueCache(MAXIMUM_SIZE);
+        ConcurrentLinkedQueue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            int thread = t;
+            threads.add(Thread.ofPlatform().start(() -> {
+                try {
+                    for (int n = 0; n < 20_000; n++) {
+                        int i = (n * 31 + thread) % (MAXIMUM_SIZE * 2);
+                        if (n % 4 == 0) {
+                            valueCache.put(key(i), location(i), value(i));
+                        } else {
+                            byte[] value = valueCache.get(key(i), location(i));
+                            if (value != null) {
+                                assertArrayEquals(value(i), value);
+                            }
+                        }
+                    }
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(failures.isEmpty(), failures.toString());
+        assertTrue(valueCache.stats().size() <= MAXIMUM_SIZE);
+    }
+
+    private static ByteArrayWrapper key(int i) {
+        return new ByteArrayWrapper(("key-" + i).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static FileMetaData location(int i) {
+        return new FileMetaData("segment", i * 64, 16, 0L, (byte) 0, 0L);
+    }
+
+    private static byte[] value(int i) {
+        return ("value-" + i).getBytes(StandardCharsets.UTF_8);
+    }
+}
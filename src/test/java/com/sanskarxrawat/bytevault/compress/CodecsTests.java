@@ -0,0 +1,56 @@
+package com.sanskarxrawat.bytevault.compress;
+
+import com.sanskarxrawat.bytevault.exception.file.FileReadException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CodecsTests {
+
+    private static final byte[] COMPRESSIBLE = "compressible-".repeat(200).getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void encodedValuesDecodeToTheOriginal() {
+        byte[] stored = Codecs.encode(Codecs.DEFLATE, COMPRESSIBLE);
+        assertNotNull(stored);
+        assertTrue(stored.length < COMPRESSIBLE.length);
+        assertArrayEquals(COMPRESSIBLE, Codecs.decode(DeflateCodec.ID, stored));
+
+        // Decoding from the middle of a larger buffer into the middle of another.
+        int offset = 7;
+        ByteBuffer segment = ByteBuffer.allocate(offset + stored.length + 3).put(offset, stored);
+        assertEquals(COMPRESSIBLE.length, Codecs.decodedSize(DeflateCodec.ID, segment, offset, stored.length));
+        ByteBuffer dst = ByteBuffer.allocate(COMPRESSIBLE.length + 5).position(5);
+        Codecs.decode(DeflateCodec.ID, segment, offset, stored.length, dst);
+        assertEquals(dst.capacity(), dst.position());
+        assertArrayEquals(COMPRESSIBLE, Arrays.copyOfRange(dst.array(), 5, dst.capacity()));
+    }
+
+    @Test
+    void valuesThatDoNotShrinkAreLeftRaw() {
+        byte[] random = new byte[1024];
+        new Random(42).nextBytes(random);
+        assertNull(Codecs.encode(Codecs.DEFLATE, random));
+        assertSame(random, Codecs.decode(Codecs.NONE.id(), random));
+    }
+
+    @Test
+    void corruptOrUnknownValuesFailToDecode() {
+        byte[] stored = Codecs.encode(Codecs.DEFLATE, COMPRESSIBLE);
+        assertNotNull(stored);
+        byte[] truncated = Arrays.copyOf(stored, stored.length / 2);
+        assertThrows(FileReadException.class, () -> Codecs.decode(DeflateCodec.ID, truncated));
+        assertThrows(FileReadException.class, () -> Codecs.decode((byte) 0x7e, stored));
+    }
+}
@@ -0,0 +1,61 @@
+package com.sanskarxrawat.bytevault.datastructure;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BPlusTreeTests {
+
+    private static final int PAGE_SIZE = 512;
+    // (PAGE_SIZE - node header) / 4, less the sizes stored with each leaf entry.
+    private static final int MAX_KEY_AND_VALUE = (PAGE_SIZE - 13) / 4 - 8;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void entriesNearTheSizeLimitSplitIntoFittingPages() throws Exception {
+        Random random = new Random(42);
+        TreeMap<byte[], byte[]> expected = new TreeMap<>(Arrays::compare);
+        try (BPlusTree tree = new BPlusTree(tempDir.resolve("index").toFile(), PAGE_SIZE, 16)) {
+            for (int i = 0; i < 5000; i++) {
+                // Mostly tiny entries with runs of ones at the limit, which entry-count splits cannot place.
+                boolean large = (i / 7) % 3 == 0;
+                int keySize = large ? MAX_KEY_AND_VALUE - 8 : 4 + random.nextInt(4);
+                byte[] key = new byte[keySize];
+                random.nextBytes(key);
+                byte[] value = new byte[8];
+                random.nextBytes(value);
+                tree.put(key, value);
+                expected.put(key, value);
+            }
+            tree.flush();
+
+            for (var entry : expected.entrySet()) {
+                assertArrayEquals(entry.getValue(), tree.get(entry.getKey()));
+            }
+            List<BPlusTree.Entry> scanned = tree.scan(null, false, null, expected.size() + 1);
+            assertEquals(expected.size(), scanned.size());
+            int i = 0;
+            for (byte[] key : expected.keySet()) {
+                assertArrayEquals(key, scanned.get(i++).key());
+            }
+        }
+    }
+
+    @Test
+    void oversizedEntryIsRejected() throws Exception {
+        try (BPlusTree tree = new BPlusTree(tempDir.resolve("index").toFile(), PAGE_SIZE, 16)) {
+            assertThrows(IllegalArgumentException.class, () -> tree.put(new byte[MAX_KEY_AND_VALUE], new byte[1]));
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.sanskarxrawat.bytevault.datastructure;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OffHeapHashTableTests {
+
+    private static final int ARENA_CHUNK_SIZE = 1 << 22;
+
+    @Test
+    void keysSurviveGrowthAndRemoval() {
+        OffHeapHashTable table = new OffHeapHashTable(4);
+        for (int i = 0; i < 10_000; i++) {
+            table.put(key(i), i % 7, i, i + 1, i, 0L);
+        }
+        for (int i = 0; i < 10_000; i += 2) {
+            assertEquals(i + 1, table.remove(key(i)));
+        }
+        assertEquals(5_000, table.size());
+        for (int i = 0; i < 10_000; i++) {
+            long slot = table.find(key(i));
+            if (i % 2 == 0) {
+                assertEquals(-1, slot);
+            } else {
+                assertTrue(slot >= 0);
+                assertEquals(i, table.valueOffset(slot));
+                assertEquals(i % 7, table.segmentId(slot));
+            }
+        }
+    }
+
+    @Test
+    void keysAreComparedByContent() {
+        OffHeapHashTable table = new OffHeapHashTable(16);
+        table.put(key(1), 0, 10, 1, 0L, 0L);
+        assertEquals(-1, table.find(key(10)));
+        assertEquals(-1, table.find("key-".getBytes(StandardCharsets.UTF_8)));
+        assertEquals(10, table.valueOffset(table.find(key(1))));
+    }
+
+    @Test
+    void keysUpToOneArenaChunkAreAccepted() {
+        OffHeapHashTable table = new OffHeapHashTable(16);
+        byte[] largest = new byte[ARENA_CHUNK_SIZE];
+        largest[ARENA_CHUNK_SIZE - 1] = 1;
+        table.put(new byte[]{1}, 0, 0, 1, 0L, 0L);
+        table.put(largest, 0, 42, 1, 0L, 0L);
+        assertEquals(42, table.valueOffset(table.find(largest)));
+
+        assertThrows(IllegalArgumentException.class, () -> table.put(new byte[ARENA_CHUNK_SIZE + 1], 0, 0, 1, 0L, 0L));
+    }
+
+    @Test
+    void rehashAndCloseFreeDirectMemoryAtOnce() {
+        BufferPoolMXBean directPool = ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class).stream()
+                .filter(pool -> pool.getName().equals("direct")).findFirst().orElseThrow();
+        long before = directPool.getMemoryUsed();
+        OffHeapHashTable table = new OffHeapHashTable(4);
+        for (int i = 0; i < 200_000; i++) {
+            table.put(key(i), 0, i, 1, 0L, 0L);
+        }
+        // 2^19 slots of 40 bytes and one arena chunk; the fifteen tables the growth went through are gone.
+        // Tables other tests left to the garbage collector may be freed meanwhile, which only lowers the count.
+        long held = (1L << 19) * 40 + ARENA_CHUNK_SIZE;
+        long filled = directPool.getMemoryUsed();
+        assertTrue(filled - before <= held + (1 << 20));
+
+        table.close();
+        assertTrue(filled - directPool.getMemoryUsed() >= held);
+        assertThrows(IndexOutOfBoundsException.class, () -> table.find(key(1)));
+    }
+
+    private static byte[] key(int i) {
+        return ("key-" + i).getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,49 @@
+package com.sanskarxrawat.bytevault.index;
+
+import com.sanskarxrawat.bytevault.datastructure.ByteArrayWrapper;
+import com.sanskarxrawat.bytevault.log.FileLogConstants;
+import com.sanskarxrawat.bytevault.metadata.FileMetaData;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class KeyDirectoryTests {
+
+    private static final ByteArrayWrapper KEY = new ByteArrayWrapper("key".getBytes(StandardCharsets.UTF_8));
+    private static final FileMetaData TOMBSTONE = new FileMetaData("bcask_1", 64, 0, 1L, FileLogConstants.TOMBSTONE_FLAG, 0L);
+    private static final FileMetaData REWRITTEN = new FileMetaData("bcask_2", 16, 5, 2L, (byte) 0, 0L);
+
+    @TempDir
+    Path storageDir;
+
+    @Test
+    void conditionalDeleteKeepsEntriesWrittenSince() throws Exception {
+        try (KeyDirectory bPlusTree = new BPlusTreeKeyDirectory(storageDir.toString(), "index.db", 4096, 16)) {
+            assertConditionalDelete(bPlusTree);
+        }
+        try (KeyDirectory offHeap = new OffHeapKeyDirectory(16)) {
+            assertConditionalDelete(offHeap);
+        }
+    }
+
+    private static void assertConditionalDelete(KeyDirectory keyDirectory) throws Exception {
+        assertEquals(-1, keyDirectory.delete(KEY, TOMBSTONE));
+
+        keyDirectory.put(KEY, TOMBSTONE);
+        // The key was written again between the lookup that found the tombstone and the delete.
+        keyDirectory.put(KEY, REWRITTEN);
+        assertEquals(-1, keyDirectory.delete(KEY, TOMBSTONE));
+        FileMetaData kept = keyDirectory.get(KEY);
+        assertNotNull(kept);
+        assertEquals(REWRITTEN.getFilePath(), kept.getFilePath());
+
+        assertEquals(REWRITTEN.getValueSize(), keyDirectory.delete(KEY, REWRITTEN));
+        assertNull(keyDirectory.get(KEY));
+    }
+}
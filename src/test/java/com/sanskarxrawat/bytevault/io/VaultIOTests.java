@@ -0,0 +1,139 @@
+package com.sanskarxrawat.bytevault.io;
+
+import com.sanskarxrawat.bytevault.config.DurabilityPolicy;
+import com.sanskarxrawat.bytevault.index.SegmentBloomFilters;
+import com.sanskarxrawat.bytevault.log.FileLog;
+import com.sanskarxrawat.bytevault.stats.VaultMetrics;
+import com.sanskarxrawat.bytevault.storage.file.VaultFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static com.sanskarxrawat.bytevault.VaultTestFixtures.key;
+import static com.sanskarxrawat.bytevault.VaultTestFixtures.value;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VaultIOTests {
+
+    private static final CommitListener NO_LISTENER = (fileLogs, writeResults) -> {
+    };
+    private static final int RECORDS = 60;
+    private static final int READERS = 4;
+
+    @TempDir
+    Path storageDir;
+
+    @Test
+    void blockingWritesRethrowWhatFailedTheCommit() throws Exception {
+        try (VaultIO vaultIO = open((fileLogs, writeResults) -> {
+            throw new IllegalArgumentException("rejected");
+        })) {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> vaultIO.write(fileLog()));
+            assertEquals("rejected", e.getMessage());
+        }
+        try (VaultIO vaultIO = open((fileLogs, writeResults) -> {
+            throw new IOException("failed");
+        })) {
+            assertEquals("failed", assertThrows(IOException.class, () -> vaultIO.write(fileLog())).getMessage());
+        }
+    }
+
+    @Test
+    void sealedSegmentsReadBackWhatTheActiveFileServed() throws Exception {
+        try (VaultIO vaultIO = open(NO_LISTENER)) {
+            List<WriteResult> writeResults = new ArrayList<>();
+            Set<String> segments = new HashSet<>();
+            for (int i = 0; i < RECORDS; i++) {
+                WriteResult writeResult = vaultIO.write(fileLog(i));
+                assertEquals(vaultIO.getActiveFilePath(), writeResult.writeFilePath());
+                assertArrayEquals(value(i), read(vaultIO, writeResult, i));
+                writeResults.add(writeResult);
+                segments.add(writeResult.writeFilePath());
+            }
+            assertTrue(segments.size() > 2, "records should span several segments: " + segments);
+
+            // All but the last segment rolled over and are now read from their mappings.
+            for (int i = 0; i < RECORDS; i++) {
+                assertArrayEquals(value(i), read(vaultIO, writeResults.get(i), i));
+                byte[] async = new byte[value(i).length];
+                vaultIO.readAsync(writeResults.get(i).writeFilePath(), writeResults.get(i).valueByteOffset(), async.length,
+                        ByteBuffer.wrap(async)).join();
+                assertArrayEquals(value(i), async);
+            }
+        }
+    }
+
+    @Test
+    void readsSpanningARolloverSeeTheSameBytes() throws Exception {
+        try (VaultIO vaultIO = open(NO_LISTENER)) {
+            WriteResult writeResult = vaultIO.write(fileLog(0));
+            assertArrayEquals(value(0), read(vaultIO, writeResult, 0));
+            vaultIO.seal();
+            assertNotEquals(writeResult.writeFilePath(), vaultIO.getActiveFilePath());
+            assertArrayEquals(value(0), read(vaultIO, writeResult, 0));
+
+            WriteResult next = vaultIO.write(fileLog(1));
+            assertEquals(vaultIO.getActiveFilePath(), next.writeFilePath());
+            assertArrayEquals(value(1), read(vaultIO, next, 1));
+        }
+    }
+
+    @Test
+    void concurrentReadersOfASealedSegmentShareNoFilePointer() throws Exception {
+        try (VaultIO vaultIO = open(NO_LISTENER)) {
+            List<WriteResult> writeResults = new ArrayList<>();
+            for (int i = 0; i < RECORDS; i++) {
+                writeResults.add(vaultIO.write(fileLog(i)));
+            }
+            vaultIO.seal();
+            List<CompletableFuture<Void>> readers = new ArrayList<>();
+            for (int reader = 0; reader < READERS; reader++) {
+                int first = reader;
+                readers.add(CompletableFuture.runAsync(() -> {
+                    for (int round = 0; round < 50; round++) {
+                        for (int i = first; i < RECORDS; i += READERS) {
+                            try {
+                                assertArrayEquals(value(i), read(vaultIO, writeResults.get(i), i));
+                            } catch (IOException e) {
+                                throw new IllegalStateException(e);
+                            }
+                        }
+                    }
+                }));
+            }
+            CompletableFuture.allOf(readers.toArray(CompletableFuture[]::new)).join();
+        }
+    }
+
+    private static byte[] read(VaultIO vaultIO, WriteResult writeResult, int i) throws IOException {
+        ByteBuffer dst = ByteBuffer.allocate(value(i).length);
+        vaultIO.read(writeResult.writeFilePath(), writeResult.valueByteOffset(), dst.remaining(), dst);
+        return dst.array();
+    }
+
+    private VaultIO open(CommitListener commitListener) throws IOException {
+        return new VaultIO(storageDir.toString(), new VaultFile(), 1024, DurabilityPolicy.EVERY_WRITE, 100,
+                new SegmentBloomFilters(100, 0.01), commitListener, new VaultMetrics(), 0, null);
+    }
+
+    private static FileLog fileLog(int i) {
+        return new FileLog(System.currentTimeMillis(), key(i), value(i));
+    }
+
+    private static FileLog fileLog() {
+        return new FileLog(System.currentTimeMillis(), "key".getBytes(StandardCharsets.UTF_8), "value".getBytes(StandardCharsets.UTF_8));
+    }
+}
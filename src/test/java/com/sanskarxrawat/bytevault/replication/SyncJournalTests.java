@@ -0,0 +1,92 @@
+package com.sanskarxrawat.bytevault.replication;
+
+import com.sanskarxrawat.bytevault.BinaryVault;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static com.sanskarxrawat.bytevault.VaultTestFixtures.config;
+import static com.sanskarxrawat.bytevault.VaultTestFixtures.key;
+import static com.sanskarxrawat.bytevault.VaultTestFixtures.value;
+import static com.sanskarxrawat.bytevault.constant.VaultConstants.FILE_LOG_PREFIX;
+import static com.sanskarxrawat.bytevault.constant.VaultConstants.REPLICA_PREVIOUS_DIR;
+import static com.sanskarxrawat.bytevault.constant.VaultConstants.REPLICA_SYNC_DIR;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class SyncJournalTests {
+
+    private static final int KEYS = 40;
+
+    @TempDir
+    Path primaryDir;
+
+    @TempDir
+    Path followerDir;
+
+    private Path syncDir;
+
+    @BeforeEach
+    void stageFullSync() throws Exception {
+        write(primaryDir, "primary");
+        write(followerDir, "follower");
+        syncDir = followerDir.resolve(REPLICA_SYNC_DIR);
+        Files.createDirectories(syncDir);
+        try (Stream<Path> files = Files.list(primaryDir)) {
+            for (Path filePath : files.filter(path -> path.getFileName().toString().startsWith(FILE_LOG_PREFIX)).toList()) {
+                Files.copy(filePath, syncDir.resolve(filePath.getFileName()));
+            }
+        }
+    }
+
+    @Test
+    void crashAfterCommitRollsForward() throws Exception {
+        SyncJournal.prepare(followerDir, syncDir).commit(followerDir);
+
+        SyncJournal.recover(followerDir, syncDir);
+        assertValues("primary");
+        assertFalse(Files.exists(followerDir.resolve(REPLICA_PREVIOUS_DIR)));
+    }
+
+    @Test
+    void crashBeforeCommitRollsBack() throws Exception {
+        SyncJournal.prepare(followerDir, syncDir);
+
+        SyncJournal.recover(followerDir, syncDir);
+        assertValues("follower");
+        assertFalse(Files.exists(followerDir.resolve(REPLICA_PREVIOUS_DIR)));
+    }
+
+    @Test
+    void revertRestoresTheFollowersOwnSegments() throws Exception {
+        SyncJournal syncJournal = SyncJournal.prepare(followerDir, syncDir);
+        syncJournal.commit(followerDir);
+        syncJournal.apply(followerDir, syncDir);
+
+        syncJournal.revert(followerDir, syncDir);
+        // Recovering again after the revert leaves it as it is.
+        SyncJournal.recover(followerDir, syncDir);
+        assertValues("follower");
+    }
+
+    private void assertValues(String owner) throws Exception {
+        try (BinaryVault vault = BinaryVault.open(config(followerDir))) {
+            for (int i = 0; i < KEYS; i++) {
+                assertArrayEquals(value(owner, i), vault.get(key(i)));
+            }
+        }
+    }
+
+    private static void write(Path storageDir, String owner) throws IOException {
+        try (BinaryVault vault = BinaryVault.open(config(storageDir))) {
+            for (int i = 0; i < KEYS; i++) {
+                vault.set(key(i), value(owner, i));
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.sanskarxrawat.bytevault.stats;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTests {
+
+    private static final int VALUES = 1000;
+
+    @Test
+    void everyValueFallsInABucketAtMostASixteenthWide() {
+        List<Long> values = new ArrayList<>();
+        for (long value = 0; value < 10_000; value++) {
+            values.add(value);
+        }
+        for (int exponent = 4; exponent < Long.SIZE - 1; exponent++) {
+            values.add((1L << exponent) - 1);
+            values.add(1L << exponent);
+            values.add((1L << exponent) + 1);
+        }
+        values.add(Long.MAX_VALUE);
+        values.sort(null);
+
+        int previousBucket = 0;
+        for (long value : values) {
+            int bucket = LatencyHistogram.bucketOf(value);
+            long upperBound = LatencyHistogram.upperBoundOf(bucket);
+            long lowerBound = bucket == 0 ? 0 : LatencyHistogram.upperBoundOf(bucket - 1) + 1;
+            assertTrue(lowerBound <= value && value <= upperBound, value + " outside bucket " + bucket);
+            assertTrue(upperBound - lowerBound <= value / 16, value + " in a bucket wider than a sixteenth");
+            assertTrue(bucket >= previousBucket, "buckets must grow with the value");
+            previousBucket = bucket;
+        }
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.upperBoundOf(LatencyHistogram.bucketOf(Long.MAX_VALUE)));
+    }
+
+    @Test
+    void percentilesOverstateByAtMostASixteenth() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int value = VALUES; value > 0; value--) {
+            histogram.record(value);
+        }
+        LatencySnapshot snapshot = histogram.snapshot();
+        assertEquals(VALUES, snapshot.count());
+        assertEquals((VALUES + 1) / 2, snapshot.meanNanos());
+        assertEquals(VALUES, snapshot.maxNanos());
+        assertWithinBucket(500, snapshot.p50Nanos());
+        assertWithinBucket(900, snapshot.p90Nanos());
+        assertWithinBucket(990, snapshot.p99Nanos());
+        // Never past the largest value recorded, even where its bucket reaches further.
+        assertEquals(VALUES, snapshot.p999Nanos());
+    }
+
+    @Test
+    void emptyAndNegativeRecordings() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(new LatencySnapshot(0, 0, 0, 0, 0, 0, 0), histogram.snapshot());
+        histogram.record(-5);
+        assertEquals(new LatencySnapshot(1, 0, 0, 0, 0, 0, 0), histogram.snapshot());
+    }
+
+    private static void assertWithinBucket(long expected, long actual) {
+        assertTrue(actual >= expected && actual <= expected + expected / 16, "expected about " + expected + " but was " + actual);
+    }
+}